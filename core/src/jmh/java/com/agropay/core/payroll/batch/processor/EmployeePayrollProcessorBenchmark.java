@@ -0,0 +1,75 @@
+package com.agropay.core.payroll.batch.processor;
+
+import com.agropay.core.assignment.domain.TareoEmployeeEntity;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs.CalendarDay;
+import com.agropay.core.payroll.benchmark.PayrollBenchmarkFixtures;
+import com.agropay.core.payroll.benchmark.PayrollBenchmarkFixtures.Period;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de horas de EmployeePayrollProcessor (horas por día, horas nocturnas y categorización
+ * en normales/extras) para un empleado con 1 a 3 tareos por día.
+ * Los métodos retornan Object porque los records de horas son package-private y el código
+ * generado por JMH vive en otro paquete.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=EmployeePayrollProcessorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeePayrollProcessorBenchmark {
+
+    @Param({"ONE_WEEK", "TWO_WEEKS", "ONE_MONTH"})
+    private Period period;
+
+    private EmployeePayrollProcessor processor;
+    private List<TareoEmployeeEntity> tareos;
+    private Map<LocalDate, CalendarDay> calendar;
+    private Map<LocalDate, EmployeePayrollProcessor.DayHoursDetail> hoursPerDay;
+
+    @Setup
+    public void setUp() {
+        PayrollBenchmarkFixtures.silenceLogging();
+
+        // Los métodos de horas no usan los colaboradores; solo dailyNormalHours del JobExecutionContext
+        processor = new EmployeePayrollProcessor(null, null, null);
+        ReflectionTestUtils.setField(processor, "dailyNormalHours", new BigDecimal("8.00"));
+
+        tareos = PayrollBenchmarkFixtures.tareos(period);
+        calendar = PayrollBenchmarkFixtures.calendar(period);
+        hoursPerDay = processor.calculateHoursPerDay(tareos);
+    }
+
+    @Benchmark
+    public Object calculateHoursPerDay() {
+        return processor.calculateHoursPerDay(tareos);
+    }
+
+    @Benchmark
+    public Object categorizeHours() {
+        return processor.categorizeHours(hoursPerDay, calendar);
+    }
+
+    @Benchmark
+    public void calculateNightHours(Blackhole blackhole) {
+        for (TareoEmployeeEntity tareo : tareos) {
+            blackhole.consume(processor.calculateNightHours(tareo.getStartTime(), tareo.getEndTime(), tareo.getPaidHours()));
+        }
+    }
+
+    @Benchmark
+    public Object hoursPipeline() {
+        return processor.categorizeHours(processor.calculateHoursPerDay(tareos), calendar);
+    }
+}
@@ -0,0 +1,188 @@
+package com.agropay.core.payroll.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.agropay.core.assignment.domain.TareoEmployeeEntity;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs.CalendarDay;
+import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.PieceworkDayInfo;
+import com.agropay.core.payroll.domain.calculator.WorkCalendarDayInfo;
+import com.agropay.core.payroll.domain.enums.ConceptCode;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Datos sintéticos para los benchmarks de planilla.
+ *
+ * Un empleado con 1 a 3 tareos por día (turno de mañana, tarde y uno nocturno que cruza
+ * la medianoche), domingos y feriados trabajados ocasionalmente y labores de destajo.
+ * La semilla es fija para que las corridas sean comparables entre sí.
+ */
+public final class PayrollBenchmarkFixtures {
+
+    private static final long SEED = 42L;
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 3, 3); // lunes
+
+    private static final LocalTime[][] SHIFTS = {
+        {LocalTime.of(6, 0), LocalTime.of(14, 0)},
+        {LocalTime.of(14, 30), LocalTime.of(18, 30)},
+        {LocalTime.of(21, 0), LocalTime.of(2, 0)}
+    };
+
+    /**
+     * Duración del período de planilla
+     */
+    public enum Period {
+        ONE_WEEK(7), TWO_WEEKS(14), ONE_MONTH(30);
+
+        private final int days;
+
+        Period(int days) {
+            this.days = days;
+        }
+
+        public LocalDate start() {
+            return PERIOD_START;
+        }
+
+        public LocalDate end() {
+            return PERIOD_START.plusDays(days - 1L);
+        }
+    }
+
+    private PayrollBenchmarkFixtures() {
+    }
+
+    /**
+     * Evita que el logging (DEBUG por defecto sin configuración) distorsione las mediciones
+     */
+    public static void silenceLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    /**
+     * Tareos del período, de 1 a 3 por día trabajado
+     */
+    public static List<TareoEmployeeEntity> tareos(Period period) {
+        Random random = new Random(SEED);
+        List<TareoEmployeeEntity> tareos = new ArrayList<>();
+
+        for (LocalDate date = period.start(); !date.isAfter(period.end()); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SUNDAY && random.nextInt(3) > 0) {
+                continue;
+            }
+            int tareosPerDay = 1 + random.nextInt(3);
+            for (int shift = 0; shift < tareosPerDay; shift++) {
+                LocalTime start = SHIFTS[shift][0];
+                LocalTime end = SHIFTS[shift][1];
+                long minutes = Duration.between(start, end).toMinutes();
+                if (minutes <= 0) {
+                    minutes += 24 * 60;
+                }
+
+                TareoEmployeeEntity tareo = new TareoEmployeeEntity();
+                tareo.setStartTime(start);
+                tareo.setEndTime(end);
+                tareo.setActualHours(BigDecimal.valueOf(minutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP));
+                tareo.setPaidHours(tareo.getActualHours());
+                tareo.setProductivity(10 + random.nextInt(40));
+                tareo.setCreatedAt(date.atTime(start));
+                tareos.add(tareo);
+            }
+        }
+        return tareos;
+    }
+
+    /**
+     * Calendario laboral del período: domingos no laborables y un feriado cada 10 días
+     */
+    public static Map<LocalDate, CalendarDay> calendar(Period period) {
+        Map<LocalDate, CalendarDay> calendar = new HashMap<>();
+        int index = 0;
+        for (LocalDate date = period.start(); !date.isAfter(period.end()); date = date.plusDays(1), index++) {
+            boolean holiday = index % 10 == 9;
+            calendar.put(date, new CalendarDay(date.getDayOfWeek() != DayOfWeek.SUNDAY && !holiday, holiday));
+        }
+        return calendar;
+    }
+
+    /**
+     * Contexto de cálculo equivalente al que arma EmployeePayrollProcessor para los tareos del período
+     */
+    public static EmployeePayrollContext context(Period period) {
+        Random random = new Random(SEED);
+        Map<LocalDate, CalendarDay> calendar = calendar(period);
+
+        Set<LocalDate> workedDays = new HashSet<>();
+        for (TareoEmployeeEntity tareo : tareos(period)) {
+            workedDays.add(tareo.getCreatedAt().toLocalDate());
+        }
+
+        Map<LocalDate, WorkCalendarDayInfo> calendarInfo = new HashMap<>();
+        Map<LocalDate, BigDecimal> productivityPerDay = new HashMap<>();
+        Map<LocalDate, PieceworkDayInfo> pieceworkInfoPerDay = new HashMap<>();
+        for (LocalDate date : workedDays) {
+            CalendarDay day = calendar.get(date);
+            boolean sunday = date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            calendarInfo.put(date, WorkCalendarDayInfo.builder()
+                .isWorkingDay(day.workingDay())
+                .isHoliday(day.hasHolidayEvent())
+                .isSunday(sunday)
+                .dayOfWeek(date.getDayOfWeek())
+                .build());
+
+            int productivityCount = 15 + random.nextInt(25);
+            BigDecimal minTaskRequirement = new BigDecimal("25");
+            productivityPerDay.put(date, BigDecimal.valueOf(productivityCount)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(minTaskRequirement, 2, RoundingMode.HALF_UP));
+            pieceworkInfoPerDay.put(date, new PieceworkDayInfo(date, minTaskRequirement, new BigDecimal("1.50"), productivityCount));
+        }
+
+        Map<LocalDate, Boolean> periodWorkingDayCalendar = new HashMap<>();
+        calendar.forEach((date, day) -> periodWorkingDayCalendar.put(date, day.workingDay()));
+
+        Map<ConceptCode, BigDecimal> configuredConcepts = new EnumMap<>(ConceptCode.class);
+        configuredConcepts.put(ConceptCode.AFP_INTEGRA, new BigDecimal("11.37"));
+        configuredConcepts.put(ConceptCode.AFP_PRIMA, new BigDecimal("11.60"));
+        configuredConcepts.put(ConceptCode.AFP_PROFUTURO, new BigDecimal("11.69"));
+        configuredConcepts.put(ConceptCode.AFP_HABITAT, new BigDecimal("11.47"));
+        configuredConcepts.put(ConceptCode.ONP, new BigDecimal("13.00"));
+        configuredConcepts.put(ConceptCode.ESSALUD, new BigDecimal("9.00"));
+        configuredConcepts.put(ConceptCode.SEGURO_VIDA_LEY, new BigDecimal("0.51"));
+        configuredConcepts.put(ConceptCode.ATTENDANCE_BONUS, new BigDecimal("50.00"));
+        configuredConcepts.put(ConceptCode.PRODUCTIVITY_BONUS, new BigDecimal("3.00"));
+        configuredConcepts.put(ConceptCode.FAMILY_ALLOWANCE, new BigDecimal("113.00"));
+
+        int totalWorkingDays = (int) calendar.values().stream().filter(CalendarDay::workingDay).count();
+        return EmployeePayrollContext.builder()
+            .employeeDocumentNumber("70000001")
+            .basicSalary(new BigDecimal("1500.00"))
+            .periodStart(period.start())
+            .periodEnd(period.end())
+            .workingDays(period.start().datesUntil(period.end().plusDays(1)).toList())
+            .totalWorkingDays(totalWorkingDays)
+            .daysWorked(workedDays.size())
+            .workedDays(workedDays)
+            .calendarInfo(calendarInfo)
+            .periodWorkingDayCalendar(periodWorkingDayCalendar)
+            .dailyNormalHours(new BigDecimal("8.00"))
+            .monthCalculationDays(30)
+            .configuredConcepts(configuredConcepts)
+            .numberOfDependents(1)
+            .productivityPerDay(productivityPerDay)
+            .pieceworkInfoPerDay(pieceworkInfoPerDay)
+            .normalHours(new BigDecimal("8.00").multiply(BigDecimal.valueOf(workedDays.size())))
+            .overtimeHours25(BigDecimal.valueOf(workedDays.size()).setScale(2))
+            .overtimeHours100(new BigDecimal("8.00"))
+            .totalIncome(new BigDecimal("1850.75"))
+            .build();
+    }
+}
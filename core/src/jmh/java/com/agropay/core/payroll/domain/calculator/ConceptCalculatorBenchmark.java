@@ -0,0 +1,72 @@
+package com.agropay.core.payroll.domain.calculator;
+
+import com.agropay.core.payroll.benchmark.PayrollBenchmarkFixtures;
+import com.agropay.core.payroll.benchmark.PayrollBenchmarkFixtures.Period;
+import com.agropay.core.payroll.domain.calculator.impl.*;
+import com.agropay.core.payroll.domain.enums.ConceptCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo y asignaciones por empleado de cada ConceptCalculator, por el camino BigDecimal
+ * y por el fast path en céntimos.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=ConceptCalculatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConceptCalculatorBenchmark {
+
+    @Param({
+        "BASIC_SALARY", "OVERTIME", "DOMINICAL", "ATTENDANCE_BONUS", "PRODUCTIVITY_BONUS", "PIECEWORK_EXCESS",
+        "FAMILY_ALLOWANCE", "AFP_INTEGRA", "AFP_PRIMA", "AFP_PROFUTURO", "AFP_HABITAT", "ONP", "ESSALUD", "SEGURO_VIDA_LEY"
+    })
+    private String conceptCode;
+
+    @Param({"ONE_WEEK", "TWO_WEEKS", "ONE_MONTH"})
+    private Period period;
+
+    private ConceptCalculator calculator;
+    private EmployeePayrollContext context;
+
+    @Setup
+    public void setUp() {
+        PayrollBenchmarkFixtures.silenceLogging();
+
+        List<ConceptCalculator> calculators = List.of(
+            new BasicSalaryCalculator(),
+            new OvertimeCalculator(),
+            new DominicalCalculator(null), // usa el calendario del período precargado en el contexto
+            new AttendanceBonusCalculator(),
+            new ProductivityBonusCalculator(),
+            new PieceworkExcessCalculator(),
+            new FamilyAllowanceCalculator(),
+            new AFPIntegraCalculator(),
+            new AFPPrimaCalculator(),
+            new AFPProfuturoCalculator(),
+            new AFPHabitatCalculator(),
+            new ONPCalculator(),
+            new ESSALUDCalculator(),
+            new SeguroVidaLeyCalculator()
+        );
+        calculator = new ConceptCalculatorFactory(calculators).getCalculator(ConceptCode.valueOf(conceptCode));
+        context = PayrollBenchmarkFixtures.context(period);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return calculator.calculate(context);
+    }
+
+    @Benchmark
+    public long fixedPoint() {
+        return calculator.calculateCentimos(context);
+    }
+}
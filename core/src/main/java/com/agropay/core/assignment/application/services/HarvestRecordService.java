@@ -1,22 +1,38 @@
 package com.agropay.core.assignment.application.services;
 
 import com.agropay.core.assignment.application.usecase.IHarvestRecordUseCase;
-import com.agropay.core.assignment.domain.*;
 import com.agropay.core.assignment.model.harvest.*;
 import com.agropay.core.assignment.persistence.*;
+import com.agropay.core.assignment.persistence.HarvestRecordBatchRepository.NewHarvestRecord;
 import com.agropay.core.shared.batch.BatchItemResult;
 import com.agropay.core.shared.batch.BatchResponse;
-import com.agropay.core.shared.batch.ErrorDetail;
-import com.agropay.core.shared.exceptions.BusinessValidationException;
-import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.utils.InClauseUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.ArrayList;
-import java.util.List;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Batch sync de registros de cosecha (offline-first).
+ *
+ * El lote se procesa por conjuntos y no registro por registro, así una sincronización de miles de
+ * escaneos ejecuta unas pocas sentencias:
+ * 1. Una consulta IN por bloque de temporalIds para detectar los ya sincronizados (idempotencia)
+ * 2. Una consulta IN por bloque de publicIds para resolver los códigos QR y su estado de uso
+ * 3. Validación en memoria, en el orden del request, con el mismo resultado por item que el proceso unitario
+ * 4. Un UPDATE por bloque que marca los QR usados y un INSERT con JDBC batch para los registros nuevos
+ *
+ * Un registro que falla no hace fallar el lote: recibe UNEXPECTED_ERROR (o QR_CODE_ALREADY_USED si otra
+ * sincronización usó su QR) y los demás se guardan igual (ver saveNewRecords).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -24,57 +40,76 @@ public class HarvestRecordService implements IHarvestRecordUseCase {
 
     private final IHarvestRecordRepository harvestRecordRepository;
     private final IQrCodeRepository qrCodeRepository;
+    private final HarvestRecordBatchRepository harvestRecordBatchRepository;
+    private final AuditorAware<String> auditorAware;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate savepoint;
+
+    @PostConstruct
+    void init() {
+        savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
 
     @Override
     @Transactional
     public BatchResponse<BatchHarvestResultData> batchSync(BatchHarvestSyncRequest request) {
         log.info("Attempting batch sync with {} harvest records", request.records().size());
 
-        List<BatchItemResult<BatchHarvestResultData>> results = new ArrayList<>();
+        Map<String, UUID> existingRecords = findExistingRecords(request.records());
+        Map<UUID, QrCodeUsage> qrCodes = findQrCodes(request.records());
+
+        Map<String, BatchItemResult<BatchHarvestResultData>> resultsByTemporalId = new HashMap<>();
+        Set<Long> claimedQrCodeIds = new HashSet<>();
+        List<NewHarvestRecord> newRecords = new ArrayList<>();
 
         for (BatchHarvestRecordData recordData : request.records()) {
+            // Un temporalId repetido en el mismo lote recibe el resultado de su primera aparición
+            if (resultsByTemporalId.containsKey(recordData.temporalId())) {
+                continue;
+            }
+            BatchItemResult<BatchHarvestResultData> result;
             try {
-                BatchItemResult<BatchHarvestResultData> result = processSingleRecord(recordData);
-                results.add(result);
+                result = resolveRecord(recordData, existingRecords, qrCodes, claimedQrCodeIds, newRecords);
             } catch (Exception e) {
                 log.error("Unexpected error processing harvest record with temporalId: {}", recordData.temporalId(), e);
-                results.add(BatchItemResult.error(
-                        recordData.temporalId(),
-                        "UNEXPECTED_ERROR",
-                        "Unexpected error: " + e.getMessage()
-                ));
+                result = unexpectedError(recordData.temporalId(), e);
             }
+            resultsByTemporalId.put(recordData.temporalId(), result);
+        }
+
+        if (!newRecords.isEmpty()) {
+            resultsByTemporalId.putAll(saveNewRecords(newRecords, claimedQrCodeIds));
         }
 
-        log.info("Batch sync completed. Total: {}, Successful: {}, Failed: {}",
+        List<BatchItemResult<BatchHarvestResultData>> results = request.records().stream()
+                .map(recordData -> resultsByTemporalId.get(recordData.temporalId()))
+                .toList();
+
+        log.info("Batch sync completed. Total: {}, Successful: {} (new: {}), Failed: {}",
                 results.size(),
                 results.stream().filter(BatchItemResult::isSuccess).count(),
+                newRecords.size(),
                 results.stream().filter(BatchItemResult::isError).count());
 
         return BatchResponse.of(results);
     }
 
-    private BatchItemResult<BatchHarvestResultData> processSingleRecord(BatchHarvestRecordData recordData) {
-        log.info("Processing harvest record with temporalId: {}", recordData.temporalId());
-
-        // UPSERT: Buscar por temporalId
-        HarvestRecordEntity existingRecord = harvestRecordRepository
-                .findByTemporalIdAndDeletedAtIsNull(recordData.temporalId())
-                .orElse(null);
-
-        if (existingRecord != null) {
-            // Ya existe, idempotencia
-            log.info("Harvest record with temporalId {} already exists, skipping", recordData.temporalId());
-            return BatchItemResult.success(
-                    recordData.temporalId(),
-                    BatchHarvestResultData.of(existingRecord.getPublicId())
-            );
+    private BatchItemResult<BatchHarvestResultData> resolveRecord(BatchHarvestRecordData recordData,
+                                                                   Map<String, UUID> existingRecords,
+                                                                   Map<UUID, QrCodeUsage> qrCodes,
+                                                                   Set<Long> claimedQrCodeIds,
+                                                                   List<NewHarvestRecord> newRecords) {
+        // UPSERT: Ya existe, idempotencia
+        UUID existingPublicId = existingRecords.get(recordData.temporalId());
+        if (existingPublicId != null) {
+            log.debug("Harvest record with temporalId {} already exists, skipping", recordData.temporalId());
+            return BatchItemResult.success(recordData.temporalId(), BatchHarvestResultData.of(existingPublicId));
         }
 
         // Validar que el código QR exista
-        QrCodeEntity qrCode = qrCodeRepository.findByPublicId(recordData.qrCodePublicId())
-                .orElse(null);
-
+        QrCodeUsage qrCode = qrCodes.get(recordData.qrCodePublicId());
         if (qrCode == null) {
             return BatchItemResult.error(
                     recordData.temporalId(),
@@ -83,8 +118,8 @@ public class HarvestRecordService implements IHarvestRecordUseCase {
             );
         }
 
-        // Validar que el QR no haya sido usado
-        if (qrCode.getIsUsed()) {
+        // Validar que el QR no haya sido usado, ni en la BD ni por un registro anterior del mismo lote
+        if (qrCode.used() || !claimedQrCodeIds.add(qrCode.id())) {
             return BatchItemResult.error(
                     recordData.temporalId(),
                     "QR_CODE_ALREADY_USED",
@@ -92,24 +127,98 @@ public class HarvestRecordService implements IHarvestRecordUseCase {
             );
         }
 
-        // Crear el registro de cosecha
-        HarvestRecordEntity harvestRecord = new HarvestRecordEntity();
-        harvestRecord.setTemporalId(recordData.temporalId());
-        harvestRecord.setQrCode(qrCode);
-        harvestRecord.setScannedAt(recordData.scannedAt());
+        NewHarvestRecord harvestRecord = new NewHarvestRecord(
+                UUID.randomUUID(), recordData.temporalId(), qrCode.id(), recordData.scannedAt());
+        newRecords.add(harvestRecord);
+        return BatchItemResult.success(recordData.temporalId(), BatchHarvestResultData.of(harvestRecord.publicId()));
+    }
 
-        HarvestRecordEntity savedRecord = harvestRecordRepository.save(harvestRecord);
+    /**
+     * Guarda los registros nuevos con un UPDATE de sus QR y un INSERT en batch, dentro de un savepoint.
+     * Si falla (p. ej. otra sincronización en curso usó uno de los QR o insertó el mismo temporalId),
+     * se vuelve al savepoint y se guardan uno por uno, cada uno con su savepoint, para que el registro
+     * que falla no arrastre al resto del lote.
+     *
+     * @return resultados de los registros que no se pudieron guardar, por temporalId
+     */
+    private Map<String, BatchItemResult<BatchHarvestResultData>> saveNewRecords(List<NewHarvestRecord> newRecords,
+                                                                                 Set<Long> claimedQrCodeIds) {
+        String user = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            boolean saved = Boolean.TRUE.equals(savepoint.execute(status -> {
+                // El UPDATE va primero y bloquea las filas de los QR hasta el commit
+                if (harvestRecordBatchRepository.markQrCodesUsed(claimedQrCodeIds, user, now) != claimedQrCodeIds.size()) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                harvestRecordBatchRepository.insertAll(newRecords, user, now);
+                return true;
+            }));
+            if (saved) {
+                return Map.of();
+            }
+            log.warn("Some QR codes of the batch were used by a concurrent sync, saving {} harvest records one by one",
+                    newRecords.size());
+        } catch (Exception e) {
+            log.warn("Batch insert of {} harvest records failed, saving them one by one: {}", newRecords.size(), e.getMessage());
+        }
+
+        Map<String, BatchItemResult<BatchHarvestResultData>> failed = new HashMap<>();
+        for (NewHarvestRecord record : newRecords) {
+            try {
+                boolean saved = Boolean.TRUE.equals(savepoint.execute(status -> {
+                    if (harvestRecordBatchRepository.markQrCodesUsed(List.of(record.qrCodeId()), user, now) == 0) {
+                        return false;
+                    }
+                    harvestRecordBatchRepository.insertAll(List.of(record), user, now);
+                    return true;
+                }));
+                if (!saved) {
+                    failed.put(record.temporalId(), BatchItemResult.error(
+                            record.temporalId(),
+                            "QR_CODE_ALREADY_USED",
+                            "QR code has already been used by another sync"
+                    ));
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error saving harvest record with temporalId: {}", record.temporalId(), e);
+                failed.put(record.temporalId(), unexpectedError(record.temporalId(), e));
+            }
+        }
+        return failed;
+    }
+
+    private static BatchItemResult<BatchHarvestResultData> unexpectedError(String temporalId, Exception e) {
+        return BatchItemResult.error(temporalId, "UNEXPECTED_ERROR", "Unexpected error: " + e.getMessage());
+    }
+
+    private Map<String, UUID> findExistingRecords(List<BatchHarvestRecordData> records) {
+        Set<String> temporalIds = new LinkedHashSet<>();
+        records.forEach(record -> temporalIds.add(record.temporalId()));
 
-        // Marcar el QR code como usado
-        qrCode.setIsUsed(true);
-        qrCodeRepository.save(qrCode);
+        Map<String, UUID> existing = new HashMap<>();
+        for (List<String> block : InClauseUtils.partition(temporalIds)) {
+            for (Object[] row : harvestRecordRepository.findPublicIdsByTemporalIds(block)) {
+                existing.put((String) row[0], (UUID) row[1]);
+            }
+        }
+        return existing;
+    }
 
-        log.info("Successfully created harvest record with publicId: {}, temporalId: {} and marked QR code as used",
-                savedRecord.getPublicId(), savedRecord.getTemporalId());
+    private Map<UUID, QrCodeUsage> findQrCodes(List<BatchHarvestRecordData> records) {
+        Set<UUID> publicIds = new LinkedHashSet<>();
+        records.forEach(record -> publicIds.add(record.qrCodePublicId()));
 
-        return BatchItemResult.success(
-                recordData.temporalId(),
-                BatchHarvestResultData.of(savedRecord.getPublicId())
-        );
+        Map<UUID, QrCodeUsage> qrCodes = new HashMap<>();
+        for (List<UUID> block : InClauseUtils.partition(publicIds)) {
+            for (Object[] row : qrCodeRepository.findUsageByPublicIds(block)) {
+                qrCodes.put((UUID) row[1], new QrCodeUsage((Long) row[0], Boolean.TRUE.equals(row[2])));
+            }
+        }
+        return qrCodes;
     }
+
+    private record QrCodeUsage(Long id, boolean used) {}
 }
@@ -6,9 +6,12 @@ import com.agropay.core.assignment.domain.LaborEntity;
 import com.agropay.core.assignment.domain.LaborUnitEntity;
 import com.agropay.core.assignment.mapper.ILaborMapper;
 import com.agropay.core.assignment.model.labor.*;
+import com.agropay.core.assignment.persistence.CatalogSyncRepository;
 import com.agropay.core.assignment.persistence.ILaborRepository;
 import com.agropay.core.assignment.persistence.LaborSpecification;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.exceptions.ReferentialIntegrityException;
 import com.agropay.core.shared.exceptions.UniqueValidationException;
 import com.agropay.core.shared.utils.PagedResult;
@@ -31,6 +34,8 @@ public class LaborService implements ILaborUseCase {
     private final ILaborRepository laborRepository;
     private final ILaborMapper laborMapper;
     private final ILaborUnitUseCase laborUnitUseCase;
+    private final CatalogSyncRepository catalogSyncRepository;
+    private final ChangeVersionRepository changeVersionRepository;
 
     @Override
     @Transactional
@@ -133,4 +138,17 @@ public class LaborService implements ILaborUseCase {
                 ))
                 .toList();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getSyncVersion() {
+        return changeVersionRepository.currentVersion(CatalogSyncRepository.LABOR_TABLES);
+    }
+
+    @Override
+    public DeltaSyncResponse<LaborSyncResponse, UUID> findChangesForSync(Long since, long watermark) {
+        DeltaSyncResponse<LaborSyncResponse, UUID> changes = catalogSyncRepository.findLaborChanges(since, watermark);
+        log.info("Delta sync of labors since {}: {} changed, {} deleted (watermark {})",
+                since, changes.changed().size(), changes.deleted().size(), watermark);
+        return changes;
+    }
+}
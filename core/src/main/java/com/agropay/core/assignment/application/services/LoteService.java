@@ -4,11 +4,14 @@ import com.agropay.core.assignment.application.usecase.ILoteUseCase;
 import com.agropay.core.assignment.domain.LoteEntity;
 import com.agropay.core.assignment.mapper.ILoteMapper;
 import com.agropay.core.assignment.model.lote.*;
+import com.agropay.core.assignment.persistence.CatalogSyncRepository;
 import com.agropay.core.assignment.persistence.ILoteRepository;
 import com.agropay.core.assignment.persistence.LoteSpecification;
 import com.agropay.core.organization.application.usecase.ISubsidiaryUseCase;
 import com.agropay.core.organization.domain.SubsidiaryEntity;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.exceptions.UniqueValidationException;
 import com.agropay.core.shared.utils.PagedResult;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +33,8 @@ public class LoteService implements ILoteUseCase {
     private final ILoteRepository loteRepository;
     private final ILoteMapper loteMapper;
     private final ISubsidiaryUseCase subsidiaryUseCase;
+    private final CatalogSyncRepository catalogSyncRepository;
+    private final ChangeVersionRepository changeVersionRepository;
 
     @Override
     @Transactional
@@ -123,4 +128,17 @@ public class LoteService implements ILoteUseCase {
         log.info("Found {} active lotes for sync", lotes.size());
         return loteMapper.toSyncResponses(lotes);
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getSyncVersion() {
+        return changeVersionRepository.currentVersion(CatalogSyncRepository.LOTE_TABLES);
+    }
+
+    @Override
+    public DeltaSyncResponse<LoteSyncResponse, UUID> findChangesForSync(Long since, long watermark) {
+        DeltaSyncResponse<LoteSyncResponse, UUID> changes = catalogSyncRepository.findLoteChanges(since, watermark);
+        log.info("Delta sync of lotes since {}: {} changed, {} deleted (watermark {})",
+                since, changes.changed().size(), changes.deleted().size(), watermark);
+        return changes;
+    }
+}
@@ -16,6 +16,7 @@ import com.agropay.core.shared.batch.BatchItemResult;
 import com.agropay.core.shared.batch.BatchResponse;
 import com.agropay.core.shared.exceptions.BusinessValidationException;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.utils.PageEnrichment;
 import com.agropay.core.shared.utils.PagedResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +30,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -179,10 +181,14 @@ public class QrRollService implements IQrRollUseCase {
             rollPage = qrRollRepository.findAll(pageable);
         }
 
+        // Total y sin imprimir de toda la página en una consulta
+        Map<Integer, Object[]> codeCounts = PageEnrichment.rows(
+                rollPage.getContent().stream().map(QrRollEntity::getId).toList(),
+                qrCodeRepository::countCodesByRollIds);
+
         Page<QrRollListDTO> dtoPage = rollPage.map(roll -> {
-            Long totalCodes = qrCodeRepository.countByRollId(roll.getId());
-            Long unprintedCodes = qrCodeRepository.countUnprintedByRollId(roll.getId());
-            return qrRollMapper.toListDTO(roll, totalCodes, unprintedCodes);
+            Object[] counts = codeCounts.get(roll.getId());
+            return qrRollMapper.toListDTO(roll, PageEnrichment.longValue(counts, 1), PageEnrichment.longValue(counts, 2));
         });
 
         return new PagedResult<>(dtoPage);
@@ -201,10 +207,15 @@ public class QrRollService implements IQrRollUseCase {
         Page<QrRollEntity> rollPage = qrRollRepository.findRollsWithPrintsByDate(
                 startOfDay, endOfDay, request.getRollPublicId(), pageable);
 
+        Map<Integer, Object[]> printStats = PageEnrichment.rows(
+                rollPage.getContent().stream().map(QrRollEntity::getId).toList(),
+                rollIds -> qrCodeRepository.getPrintStatsByRollIdsAndDate(rollIds, startOfDay, endOfDay));
+
         Page<PrintStatsDTO> dtoPage = rollPage.map(roll -> {
-            QrCodeStatsDTO stats = qrCodeRepository.getPrintStatsByRollIdAndDate(roll.getId(), startOfDay, endOfDay);
-            long notUsedCount = stats.printedCount() - stats.usedCount();
-            return new PrintStatsDTO(roll.getPublicId(), stats.printedCount(), stats.usedCount(), notUsedCount);
+            Object[] stats = printStats.get(roll.getId());
+            long printedCount = PageEnrichment.longValue(stats, 1);
+            long usedCount = PageEnrichment.longValue(stats, 2);
+            return new PrintStatsDTO(roll.getPublicId(), printedCount, usedCount, printedCount - usedCount);
         });
 
         return new PagedResult<>(dtoPage);
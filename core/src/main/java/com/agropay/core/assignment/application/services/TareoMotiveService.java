@@ -4,8 +4,11 @@ import com.agropay.core.assignment.application.usecase.ITareoMotiveUseCase;
 import com.agropay.core.assignment.domain.TareoMotiveEntity;
 import com.agropay.core.assignment.mapper.ITareoMotiveMapper;
 import com.agropay.core.assignment.model.tareomotive.*;
+import com.agropay.core.assignment.persistence.CatalogSyncRepository;
 import com.agropay.core.assignment.persistence.ITareoMotiveRepository;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.exceptions.ReferentialIntegrityException;
 import com.agropay.core.shared.exceptions.UniqueValidationException;
 import com.agropay.core.shared.utils.PagedResult;
@@ -28,6 +31,8 @@ public class TareoMotiveService implements ITareoMotiveUseCase {
 
     private final ITareoMotiveRepository tareoMotiveRepository;
     private final ITareoMotiveMapper tareoMotiveMapper;
+    private final CatalogSyncRepository catalogSyncRepository;
+    private final ChangeVersionRepository changeVersionRepository;
 
     @Override
     @Transactional
@@ -126,4 +131,17 @@ public class TareoMotiveService implements ITareoMotiveUseCase {
                 ))
                 .toList();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getSyncVersion() {
+        return changeVersionRepository.currentVersion(CatalogSyncRepository.TAREO_MOTIVE_TABLES);
+    }
+
+    @Override
+    public DeltaSyncResponse<TareoMotiveSyncReponse, UUID> findChangesForSync(Long since, long watermark) {
+        DeltaSyncResponse<TareoMotiveSyncReponse, UUID> changes = catalogSyncRepository.findTareoMotiveChanges(since, watermark);
+        log.info("Delta sync of tareo motives since {}: {} changed, {} deleted (watermark {})",
+                since, changes.changed().size(), changes.deleted().size(), watermark);
+        return changes;
+    }
+}
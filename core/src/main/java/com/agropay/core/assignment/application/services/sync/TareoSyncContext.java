@@ -0,0 +1,126 @@
+package com.agropay.core.assignment.application.services.sync;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Datos precargados por {@link TareoSyncPrefetcher} para un batch sync de tareos.
+ *
+ * Los catálogos (labores, lotes, empleados, motivos, rollos QR) son de solo lectura. El estado de los tareos
+ * y las labores por día de cada empleado se actualizan a medida que {@link TareoSyncPlanner} planifica
+ * cada tareo, así un tareo del lote ve los cambios de los anteriores igual que cuando se guardaban uno a uno.
+ */
+final class TareoSyncContext {
+
+    record LaborInfo(Short id, String name, boolean piecework) {}
+
+    record LoteInfo(Integer id, Short subsidiaryId) {}
+
+    record EmployeeInfo(String documentNumber, Short subsidiaryId) {}
+
+    record MotiveInfo(Short id, String name, boolean paid) {}
+
+    /**
+     * Tareo ya existente (o creado por un item anterior del lote); id es null si aún no se guardó
+     */
+    record TareoState(Integer id, UUID publicId, LocalDate date, Set<String> employees) {}
+
+    /**
+     * Un empleado registrado en un tareo (identificado por temporalId) con una labor en una fecha
+     */
+    static final class LaborAssignment {
+        private final LocalDate date;
+        private final String temporalId;
+        private Short laborId;
+        private String laborName;
+
+        LaborAssignment(LocalDate date, String temporalId, Short laborId, String laborName) {
+            this.date = date;
+            this.temporalId = temporalId;
+            this.laborId = laborId;
+            this.laborName = laborName;
+        }
+
+        String laborName() {
+            return laborName;
+        }
+    }
+
+    private record EmployeeDay(String documentNumber, LocalDate date) {}
+
+    final Map<UUID, LaborInfo> labors = new HashMap<>();
+    final Map<UUID, LoteInfo> lotes = new HashMap<>();
+    final Map<String, EmployeeInfo> employees = new HashMap<>();
+    final Map<UUID, MotiveInfo> motives = new HashMap<>();
+    final Map<String, TareoState> tareos = new HashMap<>();
+    final Map<Integer, Long> harvestCountsByQrRoll = new HashMap<>();
+    private final Map<String, List<LaborAssignment>> laborAssignments = new HashMap<>();
+    private final Map<EmployeeDay, Integer> qrRolls = new HashMap<>();
+
+    void addLaborAssignment(String documentNumber, LaborAssignment assignment) {
+        laborAssignments.computeIfAbsent(documentNumber, doc -> new ArrayList<>()).add(assignment);
+    }
+
+    void addQrRoll(String documentNumber, LocalDate date, Integer qrRollId) {
+        qrRolls.put(new EmployeeDay(documentNumber, date), qrRollId);
+    }
+
+    /**
+     * Registro del empleado en otra labor el mismo día, en un tareo distinto al actual
+     */
+    LaborAssignment findOtherLabor(String documentNumber, LocalDate date, String temporalId, Short laborId) {
+        for (LaborAssignment assignment : laborAssignments.getOrDefault(documentNumber, List.of())) {
+            if (assignment.date.equals(date)
+                    && !assignment.temporalId.equals(temporalId)
+                    && !assignment.laborId.equals(laborId)) {
+                return assignment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Refleja el tareo planificado: su labor (puede haber cambiado), los empleados quitados y los agregados
+     */
+    void applyTareo(String temporalId, UUID publicId, LocalDate date, LaborInfo labor,
+                    Set<String> removed, Set<String> added) {
+        for (Map.Entry<String, List<LaborAssignment>> entry : laborAssignments.entrySet()) {
+            entry.getValue().removeIf(assignment ->
+                assignment.temporalId.equals(temporalId) && removed.contains(entry.getKey()));
+            for (LaborAssignment assignment : entry.getValue()) {
+                if (assignment.temporalId.equals(temporalId)) {
+                    assignment.laborId = labor.id();
+                    assignment.laborName = labor.name();
+                }
+            }
+        }
+        for (String documentNumber : added) {
+            addLaborAssignment(documentNumber, new LaborAssignment(date, temporalId, labor.id(), labor.name()));
+        }
+
+        TareoState state = tareos.get(temporalId);
+        Set<String> employees = new HashSet<>(state != null ? state.employees() : Set.of());
+        employees.removeAll(removed);
+        employees.addAll(added);
+        tareos.put(temporalId, state != null
+            ? new TareoState(state.id(), state.publicId(), state.date(), employees)
+            : new TareoState(null, publicId, date, employees));
+    }
+
+    /**
+     * Unidades cosechadas con el rollo QR asignado al empleado en la fecha; 0 si no tiene rollo
+     */
+    int productivity(String documentNumber, LocalDate date) {
+        Integer qrRollId = qrRolls.get(new EmployeeDay(documentNumber, date));
+        if (qrRollId == null) {
+            return 0;
+        }
+        return harvestCountsByQrRoll.getOrDefault(qrRollId, 0L).intValue();
+    }
+}
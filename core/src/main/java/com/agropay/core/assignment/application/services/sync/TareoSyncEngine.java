@@ -0,0 +1,187 @@
+package com.agropay.core.assignment.application.services.sync;
+
+import com.agropay.core.assignment.domain.LaborEntity;
+import com.agropay.core.assignment.domain.LoteEntity;
+import com.agropay.core.assignment.domain.TareoEntity;
+import com.agropay.core.assignment.events.TareoChangedEvent;
+import com.agropay.core.assignment.model.tareo.BatchTareoData;
+import com.agropay.core.assignment.model.tareo.BatchTareoResultData;
+import com.agropay.core.assignment.persistence.ITareoRepository;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository;
+import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.organization.domain.SubsidiaryEntity;
+import com.agropay.core.shared.batch.BatchItemResult;
+import com.agropay.core.shared.batch.BatchResponse;
+import com.agropay.core.shared.batch.ResultStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Motor del batch sync de tareos:
+ * 1. {@link TareoSyncPrefetcher} carga en lote todo lo que se valida (unas pocas consultas por request)
+ * 2. {@link TareoSyncPlanner} valida y calcula en memoria, en orden, los cambios de cada tareo
+ * 3. Los tareos se escriben en paralelo, cada uno en su propia transacción, con JDBC batch para
+ *    empleados y motivos. Los items con el mismo temporalId se escriben en secuencia, en el orden del request
+ *
+ * El paralelismo está acotado por assignment.sync.tareo.max-threads para no agotar el pool de conexiones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TareoSyncEngine {
+
+    private final TareoSyncPrefetcher prefetcher;
+    private final ITareoRepository tareoRepository;
+    private final TareoEmployeeBatchRepository tareoEmployeeBatchRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${assignment.sync.tareo.max-threads:4}")
+    private int maxThreads;
+
+    @Value("${assignment.sync.tareo.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    private TransactionTemplate transactionTemplate;
+    private Executor executor;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Acotado a max-threads: cada tareo que se escribe en paralelo ocupa una conexión del pool
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("tareo-sync-");
+        taskExecutor.setVirtualThreads(virtualThreads);
+        taskExecutor.setConcurrencyLimit(maxThreads);
+        // El usuario autenticado se propaga a los hilos para la auditoría (created_by / updated_by)
+        executor = new DelegatingSecurityContextExecutor(taskExecutor);
+    }
+
+    public BatchResponse<BatchTareoResultData> sync(List<BatchTareoData> tareos) {
+        long start = System.currentTimeMillis();
+        TareoSyncContext context = prefetcher.prefetch(tareos);
+
+        TareoSyncPlanner planner = new TareoSyncPlanner(context);
+        Map<String, List<TareoSyncPlan>> plansByTemporalId = new LinkedHashMap<>();
+        for (int i = 0; i < tareos.size(); i++) {
+            TareoSyncPlan plan = planner.plan(i, tareos.get(i));
+            plansByTemporalId.computeIfAbsent(plan.temporalId(), id -> new ArrayList<>()).add(plan);
+        }
+
+        String user = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        @SuppressWarnings("unchecked")
+        BatchItemResult<BatchTareoResultData>[] results = new BatchItemResult[tareos.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<TareoSyncPlan> plans : plansByTemporalId.values()) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (TareoSyncPlan plan : plans) {
+                    results[plan.index()] = write(plan, user);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        List<BatchItemResult<BatchTareoResultData>> resultList = Arrays.asList(results);
+        log.info("Batch sync de tareos completado en {} ms: {} tareos, {} exitosos, {} parciales, {} fallidos",
+            System.currentTimeMillis() - start, resultList.size(),
+            resultList.stream().filter(BatchItemResult::isSuccess).count(),
+            resultList.stream().filter(r -> r.status() == ResultStatus.PARTIAL_SUCCESS).count(),
+            resultList.stream().filter(BatchItemResult::isError).count());
+        return BatchResponse.of(resultList);
+    }
+
+    private BatchItemResult<BatchTareoResultData> write(TareoSyncPlan plan, String user) {
+        if (!plan.writable()) {
+            return plan.result();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> execute(plan, user));
+            if (!plan.result().errors().isEmpty()) {
+                plan.result().errors().forEach(error -> log.warn("Tareo {}: [{}] {} - {}",
+                    plan.temporalId(), error.errorCode(), error.identifier(), error.message()));
+            }
+            return plan.result();
+        } catch (Exception e) {
+            log.error("Error inesperado guardando tareo {}: {} - {}",
+                plan.temporalId(), e.getClass().getSimpleName(), e.getMessage(), e);
+            return BatchItemResult.error(plan.temporalId(), "UNEXPECTED_ERROR", "Unexpected error: " + e.getMessage());
+        }
+    }
+
+    private void execute(TareoSyncPlan plan, String user) {
+        LocalDateTime now = LocalDateTime.now();
+        TareoEntity tareo = tareoRepository.findByTemporalIdAndDeletedAtIsNull(plan.temporalId()).orElse(null);
+        if (tareo == null) {
+            if (!plan.newTareo()) {
+                throw new IllegalStateException("El tareo " + plan.temporalId() + " ya no existe");
+            }
+            tareo = new TareoEntity();
+            tareo.setTemporalId(plan.temporalId());
+            tareo.setPublicId(plan.publicId());
+        } else if (plan.newTareo()) {
+            throw new IllegalStateException("El tareo " + plan.temporalId() + " fue creado por otra sincronización");
+        }
+        Short previousSubsidiaryId = tareo.getSubsidiary() != null ? tareo.getSubsidiary().getId() : null;
+
+        tareo.setLabor(entityManager.getReference(LaborEntity.class, plan.laborId()));
+        tareo.setLote(plan.loteId() != null ? entityManager.getReference(LoteEntity.class, plan.loteId()) : null);
+        tareo.setSubsidiary(entityManager.getReference(SubsidiaryEntity.class, plan.subsidiaryId()));
+        tareo.setSupervisor(entityManager.getReference(EmployeeEntity.class, plan.supervisorDocumentNumber()));
+        tareo.setScanner(plan.scannerDocumentNumber() != null
+            ? entityManager.getReference(EmployeeEntity.class, plan.scannerDocumentNumber()) : null);
+        if (plan.closing()) {
+            tareo.setClosedAt(now);
+        }
+        tareo = tareoRepository.saveAndFlush(tareo);
+        Integer tareoId = tareo.getId();
+
+        if (!plan.employeesToDelete().isEmpty()) {
+            tareoEmployeeBatchRepository.softDeleteEmployees(tareoId, plan.employeesToDelete(), user, now);
+        }
+        if (!plan.employeesToInsert().isEmpty()) {
+            tareoEmployeeBatchRepository.insertEmployees(tareoId, plan.employeesToInsert(), user, now);
+        }
+        if (!plan.motivesToInsert().isEmpty()) {
+            tareoEmployeeBatchRepository.insertMotives(plan.motivesToInsert(), user, now);
+        }
+        if (!plan.productivityUpdates().isEmpty()) {
+            tareoEmployeeBatchRepository.updateProductivity(tareoId, plan.productivityUpdates(), user, now);
+        }
+        log.debug("Tareo {} guardado: {} insertados, {} eliminados, {} motivos",
+            plan.temporalId(), plan.employeesToInsert().size(), plan.employeesToDelete().size(),
+            plan.motivesToInsert().size());
+
+        LocalDate tareoDate = tareo.getCreatedAt().toLocalDate();
+        eventPublisher.publishEvent(new TareoChangedEvent(this, plan.subsidiaryId(), tareoDate));
+        if (previousSubsidiaryId != null && !previousSubsidiaryId.equals(plan.subsidiaryId())) {
+            eventPublisher.publishEvent(new TareoChangedEvent(this, previousSubsidiaryId, tareoDate));
+        }
+    }
+}
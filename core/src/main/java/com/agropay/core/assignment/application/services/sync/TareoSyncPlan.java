@@ -0,0 +1,43 @@
+package com.agropay.core.assignment.application.services.sync;
+
+import com.agropay.core.assignment.model.tareo.BatchTareoResultData;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.NewTareoEmployee;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.NewTareoEmployeeMotive;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.ProductivityUpdate;
+import com.agropay.core.shared.batch.BatchItemResult;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cambios calculados en memoria para un tareo del lote, listos para escribirse en su propia transacción.
+ *
+ * Un plan sin cambios (writable = false) es un tareo rechazado en la validación: solo se informa su resultado.
+ *
+ * @param index   Posición del tareo en el request, para devolver los resultados en el mismo orden
+ * @param newTareo true si el tareo se crea; false si se actualiza el existente con el mismo temporalId
+ * @param result  Resultado a informar si la escritura termina bien
+ */
+record TareoSyncPlan(
+        int index,
+        String temporalId,
+        boolean writable,
+        boolean newTareo,
+        UUID publicId,
+        Short laborId,
+        Integer loteId,
+        Short subsidiaryId,
+        String supervisorDocumentNumber,
+        String scannerDocumentNumber,
+        boolean closing,
+        List<String> employeesToDelete,
+        List<NewTareoEmployee> employeesToInsert,
+        List<NewTareoEmployeeMotive> motivesToInsert,
+        List<ProductivityUpdate> productivityUpdates,
+        BatchItemResult<BatchTareoResultData> result
+) {
+    static TareoSyncPlan rejected(int index, String temporalId, BatchItemResult<BatchTareoResultData> result) {
+        return new TareoSyncPlan(index, temporalId, false, false, null, null, null, null, null, null, false,
+            List.of(), List.of(), List.of(), List.of(), result);
+    }
+}
@@ -0,0 +1,277 @@
+package com.agropay.core.assignment.application.services.sync;
+
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.EmployeeInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LaborAssignment;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LaborInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LoteInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.MotiveInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.TareoState;
+import com.agropay.core.assignment.model.tareo.BatchEmployeeData;
+import com.agropay.core.assignment.model.tareo.BatchTareoData;
+import com.agropay.core.assignment.model.tareo.BatchTareoResultData;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.NewTareoEmployee;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.NewTareoEmployeeMotive;
+import com.agropay.core.assignment.persistence.TareoEmployeeBatchRepository.ProductivityUpdate;
+import com.agropay.core.shared.batch.BatchItemResult;
+import com.agropay.core.shared.batch.BatchSummary;
+import com.agropay.core.shared.batch.ErrorDetail;
+import com.agropay.core.shared.batch.ResultStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Valida un tareo contra los datos precargados y calcula en memoria qué escribir:
+ * empleados a insertar (con horas, productividad y motivos), a eliminar (soft delete) y productividad a actualizar.
+ *
+ * Aplica las mismas reglas y códigos de error que el procesamiento tareo por tareo. Los tareos se planifican
+ * en el orden del request y cada plan se refleja en el {@link TareoSyncContext}, así la regla
+ * "una labor por día" considera también los empleados agregados por tareos anteriores del mismo lote.
+ */
+@Slf4j
+final class TareoSyncPlanner {
+
+    private static final LocalTime DEFAULT_CLOSING_TIME = LocalTime.of(18, 0);
+    private static final BigDecimal FULL_DAY_HOURS = BigDecimal.valueOf(8.0);
+
+    private final TareoSyncContext context;
+
+    TareoSyncPlanner(TareoSyncContext context) {
+        this.context = context;
+    }
+
+    TareoSyncPlan plan(int index, BatchTareoData tareoData) {
+        String temporalId = tareoData.temporalId();
+
+        LaborInfo labor = context.labors.get(tareoData.laborPublicId());
+        if (labor == null) {
+            return rejected(index, temporalId, "LABOR_NOT_FOUND", "Labor does not exist");
+        }
+
+        LoteInfo lote = null;
+        if (tareoData.lotePublicId() != null) {
+            lote = context.lotes.get(tareoData.lotePublicId());
+            if (lote == null) {
+                return rejected(index, temporalId, "LOTE_NOT_FOUND", "Lote does not exist");
+            }
+        } else if (labor.piecework()) {
+            return rejected(index, temporalId, "LOTE_REQUIRED_FOR_PIECEWORK", "Lote is required for piecework labors");
+        }
+
+        EmployeeInfo supervisor = context.employees.get(tareoData.supervisorDocumentNumber());
+        if (supervisor == null) {
+            return rejected(index, temporalId, "SUPERVISOR_NOT_FOUND",
+                "Supervisor with document number " + tareoData.supervisorDocumentNumber() + " does not exist");
+        }
+
+        EmployeeInfo scanner = null;
+        if (tareoData.scannerDocumentNumber() != null && !tareoData.scannerDocumentNumber().isBlank()) {
+            scanner = context.employees.get(tareoData.scannerDocumentNumber());
+            if (scanner == null) {
+                log.warn("Scanner with document number {} not found for tareo {}",
+                    tareoData.scannerDocumentNumber(), temporalId);
+            }
+        }
+
+        if (labor.piecework()) {
+            if (scanner == null) {
+                return rejected(index, temporalId, "SCANNER_REQUIRED_FOR_PIECEWORK",
+                    "Scanner (pedeteador) is required for piecework labors");
+            }
+            if (lote != null && (scanner.subsidiaryId() == null || !scanner.subsidiaryId().equals(lote.subsidiaryId()))) {
+                return rejected(index, temporalId, "SCANNER_SUBSIDIARY_MISMATCH",
+                    "Scanner must belong to the same subsidiary as the lote");
+            }
+        }
+
+        Short subsidiaryId;
+        if (lote != null && lote.subsidiaryId() != null) {
+            subsidiaryId = lote.subsidiaryId();
+        } else if (supervisor.subsidiaryId() != null) {
+            subsidiaryId = supervisor.subsidiaryId();
+        } else {
+            return rejected(index, temporalId, "SUBSIDIARY_REQUIRED",
+                "Subsidiary is required but could not be determined from lote or supervisor");
+        }
+
+        boolean closing = Boolean.TRUE.equals(tareoData.isClosing());
+        MotiveInfo closingMotive = null;
+        if (closing) {
+            if (tareoData.closingMotivePublicId() == null) {
+                return rejected(index, temporalId, "CLOSING_MOTIVE_REQUIRED",
+                    "El motivo de cierre es requerido cuando se cierra un tareo");
+            }
+            closingMotive = context.motives.get(tareoData.closingMotivePublicId());
+            if (closingMotive == null) {
+                return rejected(index, temporalId, "CLOSING_MOTIVE_NOT_FOUND",
+                    "El motivo de cierre especificado no existe");
+            }
+        }
+
+        TareoState state = context.tareos.get(temporalId);
+        boolean newTareo = state == null;
+        UUID publicId = newTareo ? UUID.randomUUID() : state.publicId();
+        LocalDate tareoDate = newTareo ? LocalDate.now() : state.date();
+        Set<String> current = newTareo ? Set.of() : state.employees();
+
+        // Delta: el móvil envía el estado completo del tareo
+        List<String> received = tareoData.employees().stream().map(BatchEmployeeData::documentNumber).toList();
+        Set<String> receivedSet = new HashSet<>(received);
+        List<String> employeesToInsert = received.stream().filter(doc -> !current.contains(doc)).toList();
+        List<String> employeesToDelete = current.stream().filter(doc -> !receivedSet.contains(doc)).toList();
+        Set<String> toInsertSet = new HashSet<>(employeesToInsert);
+        boolean pieceworkClosing = closing && labor.piecework();
+
+        List<NewTareoEmployee> newEmployees = new ArrayList<>();
+        List<NewTareoEmployeeMotive> newMotives = new ArrayList<>();
+        List<ErrorDetail> employeeErrors = new ArrayList<>();
+        Set<String> inserted = new HashSet<>();
+        int successfulEmployees = 0;
+        int failedEmployees = 0;
+
+        for (BatchEmployeeData empData : tareoData.employees()) {
+            String documentNumber = empData.documentNumber();
+            if (!toInsertSet.contains(documentNumber)) {
+                continue;
+            }
+
+            if (!context.employees.containsKey(documentNumber)) {
+                employeeErrors.add(ErrorDetail.of(documentNumber, "EMPLOYEE_NOT_FOUND",
+                    "Employee with document number " + documentNumber + " does not exist"));
+                failedEmployees++;
+                continue;
+            }
+
+            LaborAssignment otherLabor = context.findOtherLabor(documentNumber, tareoDate, temporalId, labor.id());
+            if (otherLabor != null) {
+                employeeErrors.add(ErrorDetail.of(documentNumber, "ALREADY_IN_DIFFERENT_LABOR",
+                    String.format("El empleado %s ya está registrado en la labor '%s' el día %s. Un empleado solo puede estar en una labor por día.",
+                        documentNumber, otherLabor.laborName(), tareoDate)));
+                failedEmployees++;
+                continue;
+            }
+
+            if (!inserted.add(documentNumber)) {
+                employeeErrors.add(ErrorDetail.of(documentNumber, "ALREADY_IN_THIS_TAREO",
+                    "El empleado ya está registrado en este tareo"));
+                failedEmployees++;
+                continue;
+            }
+
+            UUID tareoEmployeePublicId = UUID.randomUUID();
+            LocalTime endTime = empData.exitTime();
+            BigDecimal actualHours = actualHours(empData.entryTime(), empData.exitTime());
+            Integer productivity = pieceworkClosing ? context.productivity(documentNumber, tareoDate) : null;
+
+            MotiveInfo entryMotive = null;
+            MotiveInfo exitMotive = null;
+            if (empData.entryMotivePublicId() != null) {
+                entryMotive = context.motives.get(empData.entryMotivePublicId());
+                if (entryMotive != null) {
+                    newMotives.add(new NewTareoEmployeeMotive(tareoEmployeePublicId, entryMotive.id(), empData.entryTime()));
+                } else {
+                    log.warn("Entry motive {} not found for employee {}", empData.entryMotivePublicId(), documentNumber);
+                }
+            }
+
+            if (empData.exitTime() != null && empData.exitMotivePublicId() != null) {
+                exitMotive = context.motives.get(empData.exitMotivePublicId());
+                if (exitMotive != null) {
+                    newMotives.add(new NewTareoEmployeeMotive(tareoEmployeePublicId, exitMotive.id(), empData.exitTime()));
+                } else {
+                    log.warn("Exit motive {} not found for employee {}", empData.exitMotivePublicId(), documentNumber);
+                }
+            } else if (closingMotive != null) {
+                // Empleado sin salida en un cierre: se aplica el motivo de cierre
+                if (endTime == null) {
+                    endTime = DEFAULT_CLOSING_TIME;
+                }
+                exitMotive = closingMotive;
+                newMotives.add(new NewTareoEmployeeMotive(tareoEmployeePublicId, closingMotive.id(), endTime));
+            }
+
+            // Ambos motivos remunerados: día completo; si no, las horas trabajadas
+            BigDecimal paidHours = null;
+            if (actualHours != null) {
+                boolean entryMotiveIsPaid = entryMotive != null && entryMotive.paid();
+                boolean exitMotiveIsPaid = exitMotive != null && exitMotive.paid();
+                paidHours = entryMotiveIsPaid && exitMotiveIsPaid ? FULL_DAY_HOURS : actualHours;
+            }
+
+            newEmployees.add(new NewTareoEmployee(tareoEmployeePublicId, documentNumber, empData.entryTime(), endTime,
+                actualHours, paidHours, productivity));
+            successfulEmployees++;
+        }
+
+        // En el cierre de destajo también se actualiza la productividad de los empleados que ya estaban
+        List<ProductivityUpdate> productivityUpdates = new ArrayList<>();
+        if (pieceworkClosing) {
+            for (String documentNumber : current) {
+                if (receivedSet.contains(documentNumber)) {
+                    productivityUpdates.add(new ProductivityUpdate(documentNumber, context.productivity(documentNumber, tareoDate)));
+                }
+            }
+        }
+
+        context.applyTareo(temporalId, publicId, tareoDate, labor, new HashSet<>(employeesToDelete), inserted);
+
+        log.debug("Tareo {} planificado: {} a insertar, {} a eliminar, {} fallidos",
+            temporalId, newEmployees.size(), employeesToDelete.size(), failedEmployees);
+
+        BatchItemResult<BatchTareoResultData> result = result(temporalId, publicId, employeesToInsert.size(),
+            successfulEmployees, failedEmployees, employeeErrors);
+        return new TareoSyncPlan(index, temporalId, true, newTareo, publicId, labor.id(),
+            lote != null ? lote.id() : null, subsidiaryId, supervisor.documentNumber(),
+            scanner != null ? scanner.documentNumber() : null, closing,
+            employeesToDelete, newEmployees, newMotives, productivityUpdates, result);
+    }
+
+    private static BatchItemResult<BatchTareoResultData> result(String temporalId, UUID publicId, int totalEmployees,
+                                                                 int successfulEmployees, int failedEmployees,
+                                                                 List<ErrorDetail> employeeErrors) {
+        BatchSummary employeeSummary = BatchSummary.of(
+            successfulEmployees + failedEmployees, successfulEmployees, failedEmployees, 0);
+        BatchTareoResultData resultData = BatchTareoResultData.of(publicId, employeeSummary);
+
+        if (totalEmployees == 0) {
+            return BatchItemResult.error(temporalId, "NO_EMPLOYEES_TO_PROCESS",
+                "El tareo no tiene empleados para procesar");
+        } else if (failedEmployees == 0) {
+            return BatchItemResult.success(temporalId, resultData);
+        } else if (successfulEmployees == 0) {
+            return BatchItemResult.error(temporalId, "ALL_EMPLOYEES_FAILED",
+                String.format("Todos los empleados fallaron al procesarse. Errores: %s",
+                    employeeErrors.stream().map(ErrorDetail::message).collect(Collectors.joining("; "))));
+        }
+        return new BatchItemResult<>(temporalId, ResultStatus.PARTIAL_SUCCESS, resultData, employeeErrors);
+    }
+
+    /**
+     * Horas entre entrada y salida; si la salida es antes de la entrada, el turno cruza medianoche
+     */
+    private static BigDecimal actualHours(LocalTime entryTime, LocalTime exitTime) {
+        if (entryTime == null || exitTime == null) {
+            return null;
+        }
+        Duration duration = Duration.between(entryTime, exitTime);
+        if (duration.isNegative()) {
+            duration = duration.plusDays(1);
+        }
+        return BigDecimal.valueOf(duration.toMinutes()).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+    }
+
+    private static TareoSyncPlan rejected(int index, String temporalId, String errorCode, String message) {
+        log.warn("Tareo {} rechazado: [{}] {}", temporalId, errorCode, message);
+        return TareoSyncPlan.rejected(index, temporalId, BatchItemResult.error(temporalId, errorCode, message));
+    }
+}
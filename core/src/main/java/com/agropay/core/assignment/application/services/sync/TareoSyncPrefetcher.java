@@ -0,0 +1,185 @@
+package com.agropay.core.assignment.application.services.sync;
+
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.EmployeeInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LaborAssignment;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LaborInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.LoteInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.MotiveInfo;
+import com.agropay.core.assignment.application.services.sync.TareoSyncContext.TareoState;
+import com.agropay.core.assignment.model.tareo.BatchEmployeeData;
+import com.agropay.core.assignment.model.tareo.BatchTareoData;
+import com.agropay.core.assignment.persistence.IHarvestRecordRepository;
+import com.agropay.core.assignment.persistence.ILaborRepository;
+import com.agropay.core.assignment.persistence.ILoteRepository;
+import com.agropay.core.assignment.persistence.IQrRollEmployeeRepository;
+import com.agropay.core.assignment.persistence.ITareoEmployeeRepository;
+import com.agropay.core.assignment.persistence.ITareoMotiveRepository;
+import com.agropay.core.assignment.persistence.ITareoRepository;
+import com.agropay.core.organization.persistence.IEmployeeRepository;
+import com.agropay.core.shared.utils.InClauseUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Precarga en lote todo lo que un batch sync de tareos necesita validar, en lugar de consultar
+ * por tareo y por empleado:
+ * 1. Labores, lotes, motivos y empleados (supervisores, pedeteadores y trabajadores) por IN
+ * 2. Tareos ya sincronizados (por temporalId) y sus empleados activos
+ * 3. La labor de cada día en que ya están registrados los empleados (regla "una labor por día")
+ * 4. Solo si hay cierres de labores de destajo: rollos QR asignados y cosechas por rollo (productividad)
+ *
+ * Son entre 6 y 9 consultas (más si algún IN supera InClauseUtils.MAX_PARAMETERS), sin importar
+ * cuántos tareos y empleados traiga el lote.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class TareoSyncPrefetcher {
+
+    private final ILaborRepository laborRepository;
+    private final ILoteRepository loteRepository;
+    private final ITareoMotiveRepository tareoMotiveRepository;
+    private final IEmployeeRepository employeeRepository;
+    private final ITareoRepository tareoRepository;
+    private final ITareoEmployeeRepository tareoEmployeeRepository;
+    private final IQrRollEmployeeRepository qrRollEmployeeRepository;
+    private final IHarvestRecordRepository harvestRecordRepository;
+
+    @Transactional(readOnly = true)
+    public TareoSyncContext prefetch(List<BatchTareoData> tareos) {
+        TareoSyncContext context = new TareoSyncContext();
+        int queries = 0;
+
+        Set<UUID> laborIds = new HashSet<>();
+        Set<UUID> loteIds = new HashSet<>();
+        Set<UUID> motiveIds = new HashSet<>();
+        Set<String> documentNumbers = new HashSet<>();
+        Set<String> workerDocumentNumbers = new HashSet<>();
+        Set<String> temporalIds = new LinkedHashSet<>();
+        for (BatchTareoData tareo : tareos) {
+            temporalIds.add(tareo.temporalId());
+            laborIds.add(tareo.laborPublicId());
+            addIfPresent(loteIds, tareo.lotePublicId());
+            addIfPresent(motiveIds, tareo.closingMotivePublicId());
+            documentNumbers.add(tareo.supervisorDocumentNumber());
+            if (tareo.scannerDocumentNumber() != null && !tareo.scannerDocumentNumber().isBlank()) {
+                documentNumbers.add(tareo.scannerDocumentNumber());
+            }
+            for (BatchEmployeeData employee : tareo.employees()) {
+                workerDocumentNumbers.add(employee.documentNumber());
+                addIfPresent(motiveIds, employee.entryMotivePublicId());
+                addIfPresent(motiveIds, employee.exitMotivePublicId());
+            }
+        }
+        documentNumbers.addAll(workerDocumentNumbers);
+
+        queries += load(laborIds, laborRepository::findSyncDataByPublicIds, row ->
+            context.labors.put((UUID) row[0], new LaborInfo((Short) row[1], (String) row[2], Boolean.TRUE.equals(row[3]))));
+        queries += load(loteIds, loteRepository::findSyncDataByPublicIds, row ->
+            context.lotes.put((UUID) row[0], new LoteInfo((Integer) row[1], (Short) row[2])));
+        queries += load(motiveIds, tareoMotiveRepository::findSyncDataByPublicIds, row ->
+            context.motives.put((UUID) row[0], new MotiveInfo((Short) row[1], (String) row[2], Boolean.TRUE.equals(row[3]))));
+        queries += load(documentNumbers, employeeRepository::findSubsidiaryIdsByDocumentNumbers, row ->
+            context.employees.put((String) row[0], new EmployeeInfo((String) row[0], (Short) row[1])));
+
+        Map<Integer, String> temporalIdsByTareoId = new HashMap<>();
+        Map<String, Set<String>> employeesByTemporalId = new HashMap<>();
+        Map<String, Object[]> existingTareos = new HashMap<>();
+        queries += load(temporalIds, tareoRepository::findSyncStateByTemporalIds, row -> {
+            existingTareos.put((String) row[0], row);
+            temporalIdsByTareoId.put((Integer) row[1], (String) row[0]);
+            employeesByTemporalId.put((String) row[0], new HashSet<>());
+        });
+        queries += load(temporalIdsByTareoId.keySet(), tareoEmployeeRepository::findEmployeeDocumentNumbersByTareoIds, row ->
+            employeesByTemporalId.get(temporalIdsByTareoId.get((Integer) row[0])).add((String) row[1]));
+
+        LocalDate periodStart = LocalDate.now();
+        LocalDate periodEnd = LocalDate.now();
+        for (Object[] row : existingTareos.values()) {
+            LocalDate date = ((LocalDateTime) row[3]).toLocalDate();
+            context.tareos.put((String) row[0], new TareoState(
+                (Integer) row[1], (UUID) row[2], date, employeesByTemporalId.get((String) row[0])));
+            periodStart = date.isBefore(periodStart) ? date : periodStart;
+            periodEnd = date.isAfter(periodEnd) ? date : periodEnd;
+        }
+
+        LocalDate start = periodStart;
+        LocalDate end = periodEnd;
+        queries += load(workerDocumentNumbers,
+            block -> tareoEmployeeRepository.findLaborAssignmentsByEmployeesAndPeriod(block, start, end),
+            row -> context.addLaborAssignment((String) row[0], new LaborAssignment(
+                ((LocalDateTime) row[1]).toLocalDate(), (String) row[2], (Short) row[3], (String) row[4])));
+
+        queries += prefetchProductivity(tareos, context, start, end);
+
+        log.info("Prefetch de batch sync: {} tareos ({} existentes), {} empleados, {} consultas",
+            tareos.size(), existingTareos.size(), documentNumbers.size(), queries);
+        return context;
+    }
+
+    /**
+     * Rollos QR y cosechas solo de los trabajadores de tareos que cierran una labor de destajo
+     */
+    private int prefetchProductivity(List<BatchTareoData> tareos, TareoSyncContext context,
+                                     LocalDate periodStart, LocalDate periodEnd) {
+        Set<String> pieceworkDocumentNumbers = new HashSet<>();
+        for (BatchTareoData tareo : tareos) {
+            LaborInfo labor = context.labors.get(tareo.laborPublicId());
+            if (Boolean.TRUE.equals(tareo.isClosing()) && labor != null && labor.piecework()) {
+                tareo.employees().forEach(employee -> pieceworkDocumentNumbers.add(employee.documentNumber()));
+            }
+        }
+        if (pieceworkDocumentNumbers.isEmpty()) {
+            return 0;
+        }
+
+        Set<Integer> qrRollIds = new HashSet<>();
+        int queries = load(pieceworkDocumentNumbers,
+            block -> qrRollEmployeeRepository.findRollIdsByEmployeesAndPeriod(block, periodStart, periodEnd),
+            row -> {
+                context.addQrRoll((String) row[0], (LocalDate) row[1], (Integer) row[2]);
+                qrRollIds.add((Integer) row[2]);
+            });
+        queries += load(qrRollIds, harvestRecordRepository::countGroupedByQrRollIds, row ->
+            context.harvestCountsByQrRoll.put((Integer) row[0], (Long) row[1]));
+        return queries;
+    }
+
+    /**
+     * Ejecuta la consulta por bloques de InClauseUtils.MAX_PARAMETERS valores
+     *
+     * @return cantidad de consultas ejecutadas
+     */
+    private static <T> int load(Collection<T> values, Function<List<T>, List<Object[]>> query,
+                                Consumer<Object[]> consumer) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<List<T>> blocks = InClauseUtils.partition(values);
+        for (List<T> block : blocks) {
+            query.apply(block).forEach(consumer);
+        }
+        return blocks.size();
+    }
+
+    private static <T> void addIfPresent(Set<T> values, T value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+}
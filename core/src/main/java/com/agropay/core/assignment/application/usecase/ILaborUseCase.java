@@ -2,6 +2,7 @@ package com.agropay.core.assignment.application.usecase;
 
 import com.agropay.core.assignment.domain.LaborEntity;
 import com.agropay.core.assignment.model.labor.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.PagedResult;
 import org.springframework.data.domain.Pageable;
 
@@ -23,4 +24,11 @@ public interface ILaborUseCase {
     LaborEntity findByPublicId(UUID publicId);
 
     List<LaborSyncResponse> findAllForSync();
+
+    /**
+     * Versión actual del catálogo para la sincronización incremental (también es su ETag)
+     */
+    long getSyncVersion();
+
+    DeltaSyncResponse<LaborSyncResponse, UUID> findChangesForSync(Long since, long watermark);
 }
\ No newline at end of file
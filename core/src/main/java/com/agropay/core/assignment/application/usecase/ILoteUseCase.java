@@ -2,6 +2,7 @@ package com.agropay.core.assignment.application.usecase;
 
 import com.agropay.core.assignment.domain.LoteEntity;
 import com.agropay.core.assignment.model.lote.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.PagedResult;
 import org.springframework.data.domain.Pageable;
 
@@ -23,4 +24,11 @@ public interface ILoteUseCase {
     LoteEntity findByPublicId(UUID publicId);
 
     List<LoteSyncResponse> getAllForSync();
+
+    /**
+     * Versión actual del catálogo para la sincronización incremental (también es su ETag)
+     */
+    long getSyncVersion();
+
+    DeltaSyncResponse<LoteSyncResponse, UUID> findChangesForSync(Long since, long watermark);
 }
\ No newline at end of file
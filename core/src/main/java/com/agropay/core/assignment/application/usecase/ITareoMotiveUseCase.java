@@ -2,6 +2,7 @@ package com.agropay.core.assignment.application.usecase;
 
 import com.agropay.core.assignment.domain.TareoMotiveEntity;
 import com.agropay.core.assignment.model.tareomotive.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.PagedResult;
 import org.springframework.data.domain.Pageable;
 
@@ -23,4 +24,11 @@ public interface ITareoMotiveUseCase {
     TareoMotiveEntity findByPublicId(UUID publicId);
 
     List<TareoMotiveSyncReponse> findAllForSync();
+
+    /**
+     * Versión actual del catálogo para la sincronización incremental (también es su ETag)
+     */
+    long getSyncVersion();
+
+    DeltaSyncResponse<TareoMotiveSyncReponse, UUID> findChangesForSync(Long since, long watermark);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.agropay.core.assignment.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Se publica cuando cambia un tareo o sus empleados (sync, eliminación).
+ * tareoDate es el día de creación del tareo, el que usan los reportes.
+ */
+@Getter
+public class TareoChangedEvent extends ApplicationEvent {
+
+    private final Short subsidiaryId;
+    private final LocalDate tareoDate;
+
+    public TareoChangedEvent(Object source, Short subsidiaryId, LocalDate tareoDate) {
+        super(source);
+        this.subsidiaryId = subsidiaryId;
+        this.tareoDate = tareoDate;
+    }
+}
@@ -0,0 +1,85 @@
+package com.agropay.core.assignment.persistence;
+
+import com.agropay.core.assignment.model.labor.LaborSyncResponse;
+import com.agropay.core.assignment.model.lote.LoteSyncResponse;
+import com.agropay.core.assignment.model.tareomotive.TareoMotiveSyncReponse;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+import static com.agropay.core.shared.persistence.ChangeVersionRepository.SINCE;
+import static com.agropay.core.shared.persistence.ChangeVersionRepository.WATERMARK;
+
+/**
+ * Cambios de labores, lotes y motivos de tareo para la sincronización incremental móvil.
+ *
+ * Se consulta por JDBC porque las entidades filtran deleted_at (@SQLRestriction) y aquí se necesitan
+ * también las filas eliminadas, para informarlas al móvil.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogSyncRepository {
+
+    public static final String[] LABOR_TABLES = {"app.tbl_labors", "app.tbl_labor_units"};
+    public static final String[] LOTE_TABLES = {"app.tbl_lotes"};
+    public static final String[] TAREO_MOTIVE_TABLES = {"app.tbl_tareo_motives"};
+
+    private static final RowMapper<UUID> PUBLIC_ID = (rs, rowNum) -> UUID.fromString(rs.getString("public_id"));
+
+    private final ChangeVersionRepository changeVersionRepository;
+
+    public DeltaSyncResponse<LaborSyncResponse, UUID> findLaborChanges(Long since, long watermark) {
+        return changeVersionRepository.findChanges(
+            "SELECT l.public_id, l.name, l.description, l.is_piecework, lu.name AS labor_unit_name, " +
+            "l.min_task_requirement, l.base_price, CASE WHEN l.deleted_at IS NULL THEN 0 ELSE 1 END AS removed " +
+            "FROM app.tbl_labors l LEFT JOIN app.tbl_labor_units lu ON lu.id = l.labor_unit_id " +
+            "WHERE (l.change_version > " + SINCE + " OR lu.change_version > " + SINCE + ") " +
+            "AND l.change_version <= " + WATERMARK + " " +
+            "AND (lu.change_version IS NULL OR lu.change_version <= " + WATERMARK + ")",
+            new MapSqlParameterSource(), since, watermark,
+            (rs, rowNum) -> new LaborSyncResponse(
+                UUID.fromString(rs.getString("public_id")),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBoolean("is_piecework"),
+                rs.getString("labor_unit_name"),
+                rs.getBigDecimal("min_task_requirement"),
+                rs.getBigDecimal("base_price")),
+            PUBLIC_ID);
+    }
+
+    public DeltaSyncResponse<LoteSyncResponse, UUID> findLoteChanges(Long since, long watermark) {
+        return changeVersionRepository.findChanges(
+            "SELECT l.public_id, l.name, l.hectareage, s.public_id AS subsidiary_public_id, " +
+            "CASE WHEN l.deleted_at IS NULL THEN 0 ELSE 1 END AS removed " +
+            "FROM app.tbl_lotes l JOIN app.tbl_subsidiaries s ON s.id = l.subsidiary_id " +
+            "WHERE l.change_version > " + SINCE + " AND l.change_version <= " + WATERMARK,
+            new MapSqlParameterSource(), since, watermark,
+            (rs, rowNum) -> new LoteSyncResponse(
+                UUID.fromString(rs.getString("public_id")),
+                rs.getString("name"),
+                rs.getBigDecimal("hectareage"),
+                UUID.fromString(rs.getString("subsidiary_public_id"))),
+            PUBLIC_ID);
+    }
+
+    public DeltaSyncResponse<TareoMotiveSyncReponse, UUID> findTareoMotiveChanges(Long since, long watermark) {
+        return changeVersionRepository.findChanges(
+            "SELECT m.public_id, m.name, m.description, m.is_paid, " +
+            "CASE WHEN m.deleted_at IS NULL THEN 0 ELSE 1 END AS removed " +
+            "FROM app.tbl_tareo_motives m " +
+            "WHERE m.change_version > " + SINCE + " AND m.change_version <= " + WATERMARK,
+            new MapSqlParameterSource(), since, watermark,
+            (rs, rowNum) -> new TareoMotiveSyncReponse(
+                UUID.fromString(rs.getString("public_id")),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBoolean("is_paid")),
+            PUBLIC_ID);
+    }
+}
@@ -0,0 +1,76 @@
+package com.agropay.core.assignment.persistence;
+
+import com.agropay.core.shared.utils.InClauseUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escrituras en bloque del batch sync de cosechas (app.tbl_harvest_records y app.tbl_qr_codes).
+ *
+ * Se usa JDBC directo porque Hibernate no agrupa INSERT de entidades con id IDENTITY:
+ * cada save() sería un viaje a la BD. El public_id se genera aquí para no tener que leer
+ * de vuelta las filas insertadas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HarvestRecordBatchRepository {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewHarvestRecord(UUID publicId, String temporalId, Long qrCodeId, LocalDateTime scannedAt) {}
+
+    /**
+     * Inserta los registros con JDBC batch, en lotes de INSERT_BATCH_SIZE filas
+     */
+    public void insertAll(List<NewHarvestRecord> records, String createdBy, LocalDateTime createdAt) {
+        Timestamp now = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO app.tbl_harvest_records " +
+            "(public_id, temporal_id, qr_code_id, scanned_at, created_at, created_by, updated_at, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            records,
+            INSERT_BATCH_SIZE,
+            (ps, record) -> {
+                ps.setString(1, record.publicId().toString());
+                ps.setString(2, record.temporalId());
+                ps.setLong(3, record.qrCodeId());
+                ps.setTimestamp(4, Timestamp.valueOf(record.scannedAt()));
+                ps.setTimestamp(5, now);
+                ps.setString(6, createdBy);
+                ps.setTimestamp(7, now);
+                ps.setString(8, createdBy);
+            });
+    }
+
+    /**
+     * Marca los códigos QR como usados con un UPDATE por cada bloque de InClauseUtils.MAX_PARAMETERS ids.
+     * Solo actualiza los que aún no estaban usados.
+     *
+     * @return cantidad de códigos marcados; menor a qrCodeIds.size() si otra sincronización usó alguno antes
+     */
+    public int markQrCodesUsed(Collection<Long> qrCodeIds, String updatedBy, LocalDateTime updatedAt) {
+        int updated = 0;
+        for (List<Long> ids : InClauseUtils.partition(qrCodeIds)) {
+            updated += namedParameterJdbcTemplate.update(
+                "UPDATE app.tbl_qr_codes SET is_used = 1, updated_at = :updatedAt, updated_by = :updatedBy " +
+                "WHERE id IN (:ids) AND is_used = 0 AND deleted_at IS NULL",
+                new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("updatedAt", Timestamp.valueOf(updatedAt))
+                    .addValue("updatedBy", updatedBy));
+        }
+        return updated;
+    }
+}
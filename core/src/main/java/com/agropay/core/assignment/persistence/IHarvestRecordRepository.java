@@ -20,6 +20,15 @@ public interface IHarvestRecordRepository extends ISoftRepository<HarvestRecordE
 
     Optional<HarvestRecordEntity> findByTemporalIdAndDeletedAtIsNull(String temporalId);
 
+    /**
+     * Registros ya sincronizados de un lote de temporalIds (batch sync)
+     * Retorna Object[] donde [0] = temporalId (String), [1] = publicId (UUID)
+     */
+    @Query("SELECT hr.temporalId, hr.publicId FROM HarvestRecordEntity hr " +
+           "WHERE hr.temporalId IN :temporalIds " +
+           "AND hr.deletedAt IS NULL")
+    java.util.List<Object[]> findPublicIdsByTemporalIds(@Param("temporalIds") java.util.Collection<String> temporalIds);
+
     /**
      * Cuenta los registros de cosecha asociados a un QR Roll
      */
@@ -37,4 +46,14 @@ public interface IHarvestRecordRepository extends ISoftRepository<HarvestRecordE
            "WHERE hr.qrCode.qrRoll.id = :qrRollId " +
            "AND hr.deletedAt IS NULL")
     Long countByQrRollIdForProductivity(@Param("qrRollId") Integer qrRollId);
-}
\ No newline at end of file
+
+    /**
+     * Cuenta los registros de cosecha agrupados por QR Roll
+     * Retorna Object[] donde [0] = qrRollId (Integer), [1] = count (Long)
+     */
+    @Query("SELECT hr.qrCode.qrRoll.id, COUNT(hr) FROM HarvestRecordEntity hr " +
+           "WHERE hr.qrCode.qrRoll.id IN :qrRollIds " +
+           "AND hr.deletedAt IS NULL " +
+           "GROUP BY hr.qrCode.qrRoll.id")
+    java.util.List<Object[]> countGroupedByQrRollIds(@Param("qrRollIds") java.util.Collection<Integer> qrRollIds);
+}
@@ -28,4 +28,11 @@ public interface ILaborRepository extends ISoftRepository<LaborEntity, Short>,
 
     @Query("SELECT COUNT(t) FROM TareoEntity t WHERE t.labor.id = :laborId AND t.deletedAt IS NULL")
     long countTareosByLaborId(@Param("laborId") Short laborId);
-}
\ No newline at end of file
+
+    /**
+     * Labores de un lote de publicIds (batch sync de tareos)
+     * Retorna Object[] donde [0] = publicId (UUID), [1] = id (Short), [2] = name (String), [3] = isPiecework (Boolean)
+     */
+    @Query("SELECT l.publicId, l.id, l.name, l.isPiecework FROM LaborEntity l WHERE l.publicId IN :publicIds")
+    java.util.List<Object[]> findSyncDataByPublicIds(@Param("publicIds") java.util.Collection<UUID> publicIds);
+}
@@ -29,4 +29,11 @@ public interface ILoteRepository extends ISoftRepository<LoteEntity, Integer>,
     boolean existsByNameAndSubsidiaryPublicIdAndPublicIdNot(@Param("name") String name,
                                                               @Param("subsidiaryPublicId") UUID subsidiaryPublicId,
                                                               @Param("publicId") UUID publicId);
-}
\ No newline at end of file
+
+    /**
+     * Lotes de un lote de publicIds con su subsidiaria (batch sync de tareos)
+     * Retorna Object[] donde [0] = publicId (UUID), [1] = id (Integer), [2] = subsidiaryId (Short, puede ser null)
+     */
+    @Query("SELECT l.publicId, l.id, s.id FROM LoteEntity l LEFT JOIN l.subsidiary s WHERE l.publicId IN :publicIds")
+    java.util.List<Object[]> findSyncDataByPublicIds(@Param("publicIds") java.util.Collection<UUID> publicIds);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,14 +34,39 @@ public interface IQrCodeRepository extends ISoftRepository<QrCodeEntity, Long>,
            "AND qc.deletedAt IS NULL")
     long countUnprintedByRollId(@Param("rollId") Integer rollId);
 
+    /**
+     * Códigos por rollo para una página de rollos: [0] = rollId (Integer), [1] = total (Long), [2] = sin imprimir (Long)
+     */
+    @Query("SELECT qc.qrRoll.id, COUNT(qc), SUM(CASE WHEN qc.isPrinted = false THEN 1 ELSE 0 END) " +
+           "FROM QrCodeEntity qc " +
+           "WHERE qc.qrRoll.id IN :rollIds " +
+           "AND qc.deletedAt IS NULL " +
+           "GROUP BY qc.qrRoll.id")
+    List<Object[]> countCodesByRollIds(@Param("rollIds") Collection<Integer> rollIds);
+
     @Query("SELECT qc FROM QrCodeEntity qc " +
            "WHERE qc.qrRoll.id = :rollId " +
            "AND qc.deletedAt IS NULL " +
            "ORDER BY qc.createdAt DESC")
     List<QrCodeEntity> findByRollId(@Param("rollId") Integer rollId);
 
+    @Query("SELECT qc FROM QrCodeEntity qc " +
+           "WHERE qc.qrRoll.id IN :rollIds " +
+           "AND qc.deletedAt IS NULL " +
+           "ORDER BY qc.createdAt DESC")
+    List<QrCodeEntity> findByRollIds(@Param("rollIds") Collection<Integer> rollIds);
+
     Optional<QrCodeEntity> findByPublicId(UUID publicId);
 
+    /**
+     * Estado de uso de un lote de códigos QR (batch sync de cosechas)
+     * Retorna Object[] donde [0] = id (Long), [1] = publicId (UUID), [2] = isUsed (Boolean)
+     */
+    @Query("SELECT qc.id, qc.publicId, qc.isUsed FROM QrCodeEntity qc " +
+           "WHERE qc.publicId IN :publicIds " +
+           "AND qc.deletedAt IS NULL")
+    List<Object[]> findUsageByPublicIds(@Param("publicIds") Collection<UUID> publicIds);
+
     @Query("SELECT qc FROM QrCodeEntity qc " +
            "WHERE qc.qrRoll.id = :rollId " +
            "AND qc.isPrinted = false " +
@@ -64,4 +90,22 @@ public interface IQrCodeRepository extends ISoftRepository<QrCodeEntity, Long>,
             @Param("startOfDay") LocalDateTime startOfDay,
             @Param("endOfDay") LocalDateTime endOfDay
     );
+
+    /**
+     * Códigos impresos y usados del día por rollo para una página de rollos:
+     * [0] = rollId (Integer), [1] = impresos (Long), [2] = usados (Long)
+     */
+    @Query("SELECT qc.qrRoll.id, " +
+           "   SUM(CASE WHEN qc.isPrinted = true THEN 1 ELSE 0 END), " +
+           "   SUM(CASE WHEN qc.isUsed = true THEN 1 ELSE 0 END) " +
+           "FROM QrCodeEntity qc " +
+           "WHERE qc.qrRoll.id IN :rollIds " +
+           "AND qc.createdAt >= :startOfDay AND qc.createdAt < :endOfDay " +
+           "AND qc.deletedAt IS NULL " +
+           "GROUP BY qc.qrRoll.id")
+    List<Object[]> getPrintStatsByRollIdsAndDate(
+            @Param("rollIds") Collection<Integer> rollIds,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay
+    );
 }
@@ -37,6 +37,15 @@ public interface IQrRollEmployeeRepository extends ISoftRepository<QrRollEmploye
     Optional<QrRollEmployeeEntity> findByEmployeeCodeAndDate(@Param("employeeCode") UUID employeeCode,
                                                                @Param("date") LocalDate date);
 
+    @Query("SELECT qre FROM QrRollEmployeeEntity qre " +
+           "JOIN FETCH qre.qrRoll " +
+           "WHERE qre.employee.personDocumentNumber IN :employeeDocumentNumbers " +
+           "AND qre.assignedDate = :date " +
+           "AND qre.deletedAt IS NULL")
+    java.util.List<QrRollEmployeeEntity> findByEmployeeDocumentNumbersAndDate(
+            @Param("employeeDocumentNumbers") java.util.Collection<String> employeeDocumentNumbers,
+            @Param("date") LocalDate date);
+
     @Query("SELECT qre FROM QrRollEmployeeEntity qre " +
            "WHERE qre.qrRoll.id = :rollId " +
            "AND qre.assignedDate = :date " +
@@ -57,4 +66,33 @@ public interface IQrRollEmployeeRepository extends ISoftRepository<QrRollEmploye
         @Param("periodStart") LocalDate periodStart,
         @Param("periodEnd") LocalDate periodEnd
     );
+
+    /**
+     * Busca los QR Roll assignments de varios empleados en un período de fechas.
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = qrRollId (Integer), [2] = assignedDate (LocalDate)
+     */
+    @Query("SELECT qre.employee.personDocumentNumber, qre.qrRoll.id, qre.assignedDate FROM QrRollEmployeeEntity qre " +
+           "WHERE qre.employee.personDocumentNumber IN :employeeDocumentNumbers " +
+           "AND qre.assignedDate BETWEEN :periodStart AND :periodEnd " +
+           "AND qre.deletedAt IS NULL " +
+           "ORDER BY qre.assignedDate ASC")
+    java.util.List<Object[]> findByEmployeesAndPeriod(
+        @Param("employeeDocumentNumbers") java.util.Collection<String> employeeDocumentNumbers,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("periodEnd") LocalDate periodEnd
+    );
+
+    /**
+     * Rollo QR asignado a varios empleados en un período (productividad al cerrar tareos en batch sync)
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = assignedDate (LocalDate), [2] = qrRollId (Integer)
+     */
+    @Query("SELECT qre.employee.personDocumentNumber, qre.assignedDate, qre.qrRoll.id FROM QrRollEmployeeEntity qre " +
+           "WHERE qre.employee.personDocumentNumber IN :employeeDocumentNumbers " +
+           "AND qre.assignedDate BETWEEN :periodStart AND :periodEnd " +
+           "AND qre.deletedAt IS NULL")
+    java.util.List<Object[]> findRollIdsByEmployeesAndPeriod(
+        @Param("employeeDocumentNumbers") java.util.Collection<String> employeeDocumentNumbers,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("periodEnd") LocalDate periodEnd
+    );
 }
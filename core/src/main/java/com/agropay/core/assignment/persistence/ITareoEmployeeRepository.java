@@ -18,6 +18,16 @@ public interface ITareoEmployeeRepository extends ISoftRepository<TareoEmployeeE
     @Query("SELECT te FROM TareoEmployeeEntity te WHERE te.tareo.id = :tareoId AND te.deletedAt IS NULL")
     java.util.List<TareoEmployeeEntity> findAllByTareoId(@Param("tareoId") Integer tareoId);
 
+    /**
+     * Empleados del tareo con su persona y cargo, para la sincronización móvil sin consultas por empleado
+     */
+    @Query("SELECT te FROM TareoEmployeeEntity te " +
+           "JOIN FETCH te.employee e " +
+           "LEFT JOIN FETCH e.person " +
+           "LEFT JOIN FETCH e.position " +
+           "WHERE te.tareo.id = :tareoId AND te.deletedAt IS NULL")
+    java.util.List<TareoEmployeeEntity> findAllByTareoIdForSync(@Param("tareoId") Integer tareoId);
+
     @Query("SELECT CASE WHEN COUNT(te) > 0 THEN true ELSE false END FROM TareoEmployeeEntity te " +
            "JOIN te.tareo t " +
            "WHERE te.employee.code = :employeeCode " +
@@ -78,4 +88,49 @@ public interface ITareoEmployeeRepository extends ISoftRepository<TareoEmployeeE
         @Param("periodStart") LocalDate periodStart,
         @Param("periodEnd") LocalDate periodEnd
     );
-}
\ No newline at end of file
+
+    /**
+     * Busca los tareos de varios empleados en un período, con el tareo y su labor ya cargados.
+     * Usado por el prefetch por chunk de la planilla para evitar una consulta por empleado.
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = TareoEmployeeEntity
+     */
+    @Query("SELECT te.employee.personDocumentNumber, te FROM TareoEmployeeEntity te " +
+           "JOIN FETCH te.tareo t " +
+           "LEFT JOIN FETCH t.labor " +
+           "WHERE te.employee.personDocumentNumber IN :employeeDocumentNumbers " +
+           "AND CAST(t.createdAt AS date) BETWEEN :periodStart AND :periodEnd " +
+           "AND te.deletedAt IS NULL " +
+           "AND t.deletedAt IS NULL " +
+           "ORDER BY t.createdAt ASC")
+    java.util.List<Object[]> findByEmployeesAndPeriod(
+        @Param("employeeDocumentNumbers") java.util.Collection<String> employeeDocumentNumbers,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("periodEnd") LocalDate periodEnd
+    );
+
+    /**
+     * DNIs de los empleados activos de varios tareos (batch sync)
+     * Retorna Object[] donde [0] = tareoId (Integer), [1] = personDocumentNumber (String)
+     */
+    @Query("SELECT te.tareo.id, te.employee.personDocumentNumber FROM TareoEmployeeEntity te " +
+           "WHERE te.tareo.id IN :tareoIds AND te.deletedAt IS NULL")
+    java.util.List<Object[]> findEmployeeDocumentNumbersByTareoIds(@Param("tareoIds") java.util.Collection<Integer> tareoIds);
+
+    /**
+     * Labor de cada día en que están registrados varios empleados, para validar "una labor por día" en memoria (batch sync)
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = tareo createdAt (LocalDateTime),
+     * [2] = tareo temporalId (String), [3] = laborId (Short), [4] = laborName (String)
+     */
+    @Query("SELECT te.employee.personDocumentNumber, t.createdAt, t.temporalId, l.id, l.name FROM TareoEmployeeEntity te " +
+           "JOIN te.tareo t " +
+           "JOIN t.labor l " +
+           "WHERE te.employee.personDocumentNumber IN :employeeDocumentNumbers " +
+           "AND CAST(t.createdAt AS date) BETWEEN :periodStart AND :periodEnd " +
+           "AND te.deletedAt IS NULL " +
+           "AND t.deletedAt IS NULL")
+    java.util.List<Object[]> findLaborAssignmentsByEmployeesAndPeriod(
+        @Param("employeeDocumentNumbers") java.util.Collection<String> employeeDocumentNumbers,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("periodEnd") LocalDate periodEnd
+    );
+}
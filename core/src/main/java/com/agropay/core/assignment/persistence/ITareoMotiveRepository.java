@@ -26,4 +26,11 @@ public interface ITareoMotiveRepository extends ISoftRepository<TareoMotiveEntit
     @Query("SELECT COUNT(tem) FROM TareoEmployeeMotiveEntity tem " +
            "WHERE tem.motive.id = :motiveId")
     long countTareoEmployeesByMotiveId(@Param("motiveId") Short motiveId);
-}
\ No newline at end of file
+
+    /**
+     * Motivos de un lote de publicIds (batch sync de tareos)
+     * Retorna Object[] donde [0] = publicId (UUID), [1] = id (Short), [2] = name (String), [3] = isPaid (Boolean)
+     */
+    @Query("SELECT m.publicId, m.id, m.name, m.isPaid FROM TareoMotiveEntity m WHERE m.publicId IN :publicIds")
+    java.util.List<Object[]> findSyncDataByPublicIds(@Param("publicIds") java.util.Collection<UUID> publicIds);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,55 +21,19 @@ public interface ITareoRepository extends ISoftRepository<TareoEntity, Integer>,
     @Query("SELECT COUNT(te) FROM TareoEmployeeEntity te WHERE te.tareo.id = :tareoId AND te.deletedAt IS NULL")
     long countTareoEmployeesByTareoId(@Param("tareoId") Integer tareoId);
 
-    Optional<TareoEntity> findByTemporalIdAndDeletedAtIsNull(String temporalId);
-
-    // Dashboard queries
-    @Query("""
-        SELECT l.name, COUNT(DISTINCT t), COUNT(DISTINCT te)
-        FROM TareoEntity t
-        JOIN t.labor l
-        LEFT JOIN TareoEmployeeEntity te ON te.tareo.id = t.id AND te.deletedAt IS NULL
-        WHERE t.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR t.subsidiary.id = :subsidiaryId)
-        AND (:dateFrom IS NULL OR CAST(t.createdAt AS date) >= :dateFrom)
-        AND (:dateTo IS NULL OR CAST(t.createdAt AS date) <= :dateTo)
-        GROUP BY l.id, l.name
-        ORDER BY COUNT(DISTINCT t) DESC
-    """)
-    List<Object[]> getTareosByLaborGrouped(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("dateFrom") java.time.LocalDate dateFrom,
-            @Param("dateTo") java.time.LocalDate dateTo
-    );
-
+    /**
+     * Empleados activos por tareo para una página de tareos: [0] = tareoId (Integer), [1] = cantidad (Long)
+     */
     @Query("""
-        SELECT COUNT(t)
-        FROM TareoEntity t
-        WHERE t.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR t.subsidiary.id = :subsidiaryId)
-        AND (:dateFrom IS NULL OR CAST(t.createdAt AS date) >= :dateFrom)
-        AND (:dateTo IS NULL OR CAST(t.createdAt AS date) <= :dateTo)
+        SELECT te.tareo.id, COUNT(te)
+        FROM TareoEmployeeEntity te
+        WHERE te.tareo.id IN :tareoIds
+        AND te.deletedAt IS NULL
+        GROUP BY te.tareo.id
     """)
-    Long countByFilters(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("dateFrom") java.time.LocalDate dateFrom,
-            @Param("dateTo") java.time.LocalDate dateTo
-    );
+    List<Object[]> countTareoEmployeesByTareoIds(@Param("tareoIds") Collection<Integer> tareoIds);
 
-    @Query("""
-        SELECT COUNT(DISTINCT t)
-        FROM TareoEntity t
-        INNER JOIN TareoEmployeeEntity te ON te.tareo.id = t.id AND te.deletedAt IS NULL
-        WHERE t.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR t.subsidiary.id = :subsidiaryId)
-        AND (:dateFrom IS NULL OR CAST(t.createdAt AS date) >= :dateFrom)
-        AND (:dateTo IS NULL OR CAST(t.createdAt AS date) <= :dateTo)
-    """)
-    Long countProcessedByFilters(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("dateFrom") java.time.LocalDate dateFrom,
-            @Param("dateTo") java.time.LocalDate dateTo
-    );
+    Optional<TareoEntity> findByTemporalIdAndDeletedAtIsNull(String temporalId);
 
     /**
      * Cuenta los empleados únicos que tienen tareos en el período y subsidiaria especificados.
@@ -94,6 +59,31 @@ public interface ITareoRepository extends ISoftRepository<TareoEntity, Integer>,
             @Param("subsidiaryId") Short subsidiaryId
     );
 
+    /**
+     * Lista los números de documento de los empleados con tareos en el período y subsidiaria,
+     * en el mismo orden que EmployeeReader. Usado para particionar el cálculo de planilla por rangos.
+     */
+    @Query("""
+        SELECT e.personDocumentNumber
+        FROM com.agropay.core.organization.domain.EmployeeEntity e
+        WHERE EXISTS (
+            SELECT 1 FROM com.agropay.core.assignment.domain.TareoEmployeeEntity te
+            JOIN te.tareo t
+            WHERE te.employee.personDocumentNumber = e.personDocumentNumber
+            AND CAST(t.createdAt AS date) BETWEEN :periodStart AND :periodEnd
+            AND t.subsidiary.id = :subsidiaryId
+            AND te.deletedAt IS NULL
+            AND t.deletedAt IS NULL
+        )
+        AND e.deletedAt IS NULL
+        ORDER BY e.personDocumentNumber ASC
+    """)
+    List<String> findEmployeeDocumentNumbersWithTareosInPeriod(
+            @Param("periodStart") java.time.LocalDate periodStart,
+            @Param("periodEnd") java.time.LocalDate periodEnd,
+            @Param("subsidiaryId") Short subsidiaryId
+    );
+
     /**
      * Cuenta los tareos únicos en el período y subsidiaria especificados.
      */
@@ -109,4 +99,12 @@ public interface ITareoRepository extends ISoftRepository<TareoEntity, Integer>,
             @Param("periodEnd") java.time.LocalDate periodEnd,
             @Param("subsidiaryId") Short subsidiaryId
     );
+
+    /**
+     * Tareos ya sincronizados de un lote de temporalIds (batch sync)
+     * Retorna Object[] donde [0] = temporalId (String), [1] = id (Integer), [2] = publicId (UUID), [3] = createdAt (LocalDateTime)
+     */
+    @Query("SELECT t.temporalId, t.id, t.publicId, t.createdAt FROM TareoEntity t " +
+           "WHERE t.temporalId IN :temporalIds AND t.deletedAt IS NULL")
+    List<Object[]> findSyncStateByTemporalIds(@Param("temporalIds") java.util.Collection<String> temporalIds);
 }
@@ -0,0 +1,127 @@
+package com.agropay.core.assignment.persistence;
+
+import com.agropay.core.shared.utils.InClauseUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escrituras en bloque del batch sync de tareos (app.tbl_tareo_employees y app.tbl_tareo_employee_motives).
+ *
+ * Igual que HarvestRecordBatchRepository, usa JDBC batch porque Hibernate no agrupa INSERT con id IDENTITY.
+ * El public_id de cada empleado del tareo se genera aquí y los motivos se insertan resolviendo
+ * tareo_employee_id por ese public_id, sin leer de vuelta las filas insertadas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TareoEmployeeBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewTareoEmployee(UUID publicId, String documentNumber, LocalTime startTime, LocalTime endTime,
+                                   BigDecimal actualHours, BigDecimal paidHours, Integer productivity) {}
+
+    public record NewTareoEmployeeMotive(UUID tareoEmployeePublicId, Short motiveId, LocalTime appliedAt) {}
+
+    public record ProductivityUpdate(String documentNumber, int productivity) {}
+
+    public void insertEmployees(Integer tareoId, List<NewTareoEmployee> employees, String user, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO app.tbl_tareo_employees " +
+            "(public_id, tareo_id, employee_document_number, start_time, end_time, actual_hours, paid_hours, productivity, " +
+            "created_at, created_by, updated_at, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            employees,
+            BATCH_SIZE,
+            (ps, employee) -> {
+                ps.setString(1, employee.publicId().toString());
+                ps.setInt(2, tareoId);
+                ps.setString(3, employee.documentNumber());
+                ps.setTime(4, employee.startTime() != null ? Time.valueOf(employee.startTime()) : null);
+                ps.setTime(5, employee.endTime() != null ? Time.valueOf(employee.endTime()) : null);
+                ps.setBigDecimal(6, employee.actualHours());
+                ps.setBigDecimal(7, employee.paidHours());
+                if (employee.productivity() != null) {
+                    ps.setInt(8, employee.productivity());
+                } else {
+                    ps.setNull(8, Types.INTEGER);
+                }
+                ps.setTimestamp(9, timestamp);
+                ps.setString(10, user);
+                ps.setTimestamp(11, timestamp);
+                ps.setString(12, user);
+            });
+    }
+
+    public void insertMotives(List<NewTareoEmployeeMotive> motives, String user, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO app.tbl_tareo_employee_motives " +
+            "(tareo_employee_id, motive_id, applied_at, created_at, created_by, updated_at, updated_by) " +
+            "SELECT te.id, ?, ?, ?, ?, ?, ? FROM app.tbl_tareo_employees te WHERE te.public_id = ?",
+            motives,
+            BATCH_SIZE,
+            (ps, motive) -> {
+                ps.setShort(1, motive.motiveId());
+                ps.setTime(2, motive.appliedAt() != null ? Time.valueOf(motive.appliedAt()) : null);
+                ps.setTimestamp(3, timestamp);
+                ps.setString(4, user);
+                ps.setTimestamp(5, timestamp);
+                ps.setString(6, user);
+                ps.setString(7, motive.tareoEmployeePublicId().toString());
+            });
+    }
+
+    /**
+     * Productividad de empleados que ya estaban en el tareo (cierre de labores de destajo)
+     */
+    public void updateProductivity(Integer tareoId, List<ProductivityUpdate> updates, String user, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+            "UPDATE app.tbl_tareo_employees SET productivity = ?, updated_at = ?, updated_by = ? " +
+            "WHERE tareo_id = ? AND employee_document_number = ? AND deleted_at IS NULL",
+            updates,
+            BATCH_SIZE,
+            (ps, update) -> {
+                ps.setInt(1, update.productivity());
+                ps.setTimestamp(2, timestamp);
+                ps.setString(3, user);
+                ps.setInt(4, tareoId);
+                ps.setString(5, update.documentNumber());
+            });
+    }
+
+    /**
+     * Soft delete de los empleados que el móvil ya no envía en el tareo
+     */
+    public int softDeleteEmployees(Integer tareoId, Collection<String> documentNumbers, String user, LocalDateTime now) {
+        int deleted = 0;
+        for (List<String> block : InClauseUtils.partition(documentNumbers)) {
+            deleted += namedParameterJdbcTemplate.update(
+                "UPDATE app.tbl_tareo_employees SET deleted_at = :now, deleted_by = :user " +
+                "WHERE tareo_id = :tareoId AND employee_document_number IN (:documentNumbers) AND deleted_at IS NULL",
+                new MapSqlParameterSource()
+                    .addValue("now", Timestamp.valueOf(now))
+                    .addValue("user", user)
+                    .addValue("tareoId", tareoId)
+                    .addValue("documentNumbers", block));
+        }
+        return deleted;
+    }
+}
@@ -3,14 +3,22 @@ package com.agropay.core.assignment.web;
 import com.agropay.core.assignment.application.usecase.IHarvestRecordUseCase;
 import com.agropay.core.assignment.model.harvest.*;
 import com.agropay.core.shared.batch.BatchResponse;
+import com.agropay.core.shared.batch.StreamingBatchSyncProcessor;
+import com.agropay.core.shared.batch.SyncIdempotencyStore;
 import com.agropay.core.shared.utils.ApiResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping(HarvestRecordController.BASE_URL)
 @RequiredArgsConstructor
@@ -18,14 +26,36 @@ import org.springframework.web.bind.annotation.*;
 public class HarvestRecordController {
 
     public static final String BASE_URL = "/v1/harvest-records";
+    private static final String IDEMPOTENCY_SCOPE = "HARVEST";
 
     private final IHarvestRecordUseCase harvestRecordUseCase;
+    private final StreamingBatchSyncProcessor streamingBatchSyncProcessor;
+    private final SyncIdempotencyStore syncIdempotencyStore;
+
+    @Value("${assignment.sync.stream.harvest-sub-batch-size:500}")
+    private int streamSubBatchSize;
 
     @PostMapping("/batch-sync")
     @Operation(summary = "Sincronización batch de registros de cosecha (offline-first)")
     public ResponseEntity<ApiResult<BatchResponse<BatchHarvestResultData>>> batchSync(
+            @RequestHeader(value = SyncIdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BatchHarvestSyncRequest request) {
-        BatchResponse<BatchHarvestResultData> response = harvestRecordUseCase.batchSync(request);
+        BatchResponse<BatchHarvestResultData> response = syncIdempotencyStore.execute(IDEMPOTENCY_SCOPE, idempotencyKey, request,
+                BatchHarvestResultData.class, () -> harvestRecordUseCase.batchSync(request));
         return ResponseEntity.ok(ApiResult.success(response));
     }
+
+    @PostMapping(value = "/batch-sync/stream",
+            consumes = {StreamingBatchSyncProcessor.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Sincronización batch en streaming de registros de cosecha (offline-first)",
+            description = "Recibe NDJSON (un registro por línea) o un arreglo JSON y responde NDJSON: un resultado por línea " +
+                    "a medida que se confirma cada sub-lote, y al final una línea con el resumen. " +
+                    "Si la conexión se corta, los sub-lotes ya confirmados se conservan.")
+    public void batchSyncStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(StreamingBatchSyncProcessor.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        streamingBatchSyncProcessor.process(request.getInputStream(), response.getOutputStream(),
+                BatchHarvestRecordData.class, BatchHarvestRecordData::temporalId, streamSubBatchSize,
+                items -> harvestRecordUseCase.batchSync(new BatchHarvestSyncRequest(items)));
+    }
 }
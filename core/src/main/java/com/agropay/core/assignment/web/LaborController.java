@@ -2,6 +2,7 @@ package com.agropay.core.assignment.web;
 
 import com.agropay.core.assignment.application.usecase.ILaborUseCase;
 import com.agropay.core.assignment.model.labor.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.ApiResult;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -96,11 +98,28 @@ public class LaborController {
         return ResponseEntity.ok(ApiResult.success(result));
     }
 
-    @Operation(summary = "Obtener todas las labores para sincronización móvil")
+    @Operation(summary = "Obtener todas las labores para sincronización móvil",
+            description = "Responde 304 si el ETag enviado en If-None-Match coincide con la versión actual del catálogo")
     @GetMapping("/sync")
-    public ResponseEntity<ApiResult<List<LaborSyncResponse>>> findAllForSynced(){
+    public ResponseEntity<ApiResult<List<LaborSyncResponse>>> findAllForSynced(ServletWebRequest webRequest){
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(laborUseCase.getSyncVersion()))) {
+            return null;
+        }
         List<LaborSyncResponse> labors = laborUseCase.findAllForSync();
         return ResponseEntity.ok(ApiResult.success(labors));
     }
 
+    @Operation(summary = "Obtener las labores modificadas y eliminadas desde un watermark (sincronización incremental)",
+            description = "Sin since devuelve todas las labores. El watermark de la respuesta se envía como since en la siguiente " +
+                    "sincronización; si no hubo cambios desde el ETag enviado en If-None-Match responde 304.")
+    @GetMapping("/sync/changes")
+    public ResponseEntity<ApiResult<DeltaSyncResponse<LaborSyncResponse, UUID>>> findChangesForSync(
+            @RequestParam(required = false) Long since, ServletWebRequest webRequest) {
+        long version = laborUseCase.getSyncVersion();
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(version))) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResult.success(laborUseCase.findChangesForSync(since, version)));
+    }
+
 }
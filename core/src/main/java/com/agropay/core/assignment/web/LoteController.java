@@ -2,6 +2,7 @@ package com.agropay.core.assignment.web;
 
 import com.agropay.core.assignment.application.usecase.ILoteUseCase;
 import com.agropay.core.assignment.model.lote.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.ApiResult;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -65,12 +67,29 @@ public class LoteController {
     }
 
     @GetMapping("/sync")
-    @Operation(summary = "Obtener todos los lotes activos para sincronización móvil (offline-first)")
-    public ResponseEntity<ApiResult<List<LoteSyncResponse>>> sync() {
+    @Operation(summary = "Obtener todos los lotes activos para sincronización móvil (offline-first)",
+            description = "Responde 304 si el ETag enviado en If-None-Match coincide con la versión actual del catálogo")
+    public ResponseEntity<ApiResult<List<LoteSyncResponse>>> sync(ServletWebRequest webRequest) {
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(loteUseCase.getSyncVersion()))) {
+            return null;
+        }
         List<LoteSyncResponse> lotes = loteUseCase.getAllForSync();
         return ResponseEntity.ok(ApiResult.success(lotes));
     }
 
+    @GetMapping("/sync/changes")
+    @Operation(summary = "Obtener los lotes modificados y eliminados desde un watermark (sincronización incremental)",
+            description = "Sin since devuelve todos los lotes. El watermark de la respuesta se envía como since en la siguiente " +
+                    "sincronización; si no hubo cambios desde el ETag enviado en If-None-Match responde 304.")
+    public ResponseEntity<ApiResult<DeltaSyncResponse<LoteSyncResponse, UUID>>> syncChanges(
+            @RequestParam(required = false) Long since, ServletWebRequest webRequest) {
+        long version = loteUseCase.getSyncVersion();
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(version))) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResult.success(loteUseCase.findChangesForSync(since, version)));
+    }
+
     @GetMapping("/{publicId}")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Obtener un lote por ID", description = "Obtiene los detalles de un lote específico por su ID público")
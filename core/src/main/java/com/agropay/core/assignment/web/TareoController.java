@@ -7,18 +7,25 @@ import com.agropay.core.assignment.persistence.ITareoEmployeeRepository;
 import com.agropay.core.assignment.persistence.IQrRollEmployeeRepository;
 import com.agropay.core.assignment.persistence.IHarvestRecordRepository;
 import com.agropay.core.shared.batch.BatchResponse;
+import com.agropay.core.shared.batch.StreamingBatchSyncProcessor;
+import com.agropay.core.shared.batch.SyncIdempotencyStore;
 import com.agropay.core.shared.utils.ApiResult;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -35,11 +42,17 @@ import java.util.stream.Collectors;
 public class TareoController {
 
     public static final String BASE_URL = "/v1/tareos";
+    private static final String IDEMPOTENCY_SCOPE = "TAREO";
 
     private final ITareoUseCase tareoUseCase;
     private final ITareoEmployeeRepository tareoEmployeeRepository;
     private final IQrRollEmployeeRepository qrRollEmployeeRepository;
     private final IHarvestRecordRepository harvestRecordRepository;
+    private final StreamingBatchSyncProcessor streamingBatchSyncProcessor;
+    private final SyncIdempotencyStore syncIdempotencyStore;
+
+    @Value("${assignment.sync.stream.tareo-sub-batch-size:10}")
+    private int streamSubBatchSize;
 
     @DeleteMapping("/{publicId}")
     @Operation(summary = "Eliminar un tareo (solo si no tiene empleados registrados)")
@@ -68,11 +81,27 @@ public class TareoController {
     @PostMapping("/batch-sync")
     @Operation(summary = "Sincronización batch de tareos con empleados (offline-first)")
     public ResponseEntity<ApiResult<BatchResponse<BatchTareoResultData>>> batchSync(
+            @RequestHeader(value = SyncIdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BatchTareoSyncRequest request) {
-        BatchResponse<BatchTareoResultData> response = tareoUseCase.batchSync(request);
+        BatchResponse<BatchTareoResultData> response = syncIdempotencyStore.execute(IDEMPOTENCY_SCOPE, idempotencyKey, request,
+                BatchTareoResultData.class, () -> tareoUseCase.batchSync(request));
         return ResponseEntity.ok(ApiResult.success(response));
     }
 
+    @PostMapping(value = "/batch-sync/stream",
+            consumes = {StreamingBatchSyncProcessor.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Sincronización batch en streaming de tareos (offline-first)",
+            description = "Recibe NDJSON (un tareo por línea) o un arreglo JSON y responde NDJSON: un resultado por línea " +
+                    "a medida que se confirma cada sub-lote, y al final una línea con el resumen. " +
+                    "Si la conexión se corta, los sub-lotes ya confirmados se conservan.")
+    public void batchSyncStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(StreamingBatchSyncProcessor.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        streamingBatchSyncProcessor.process(request.getInputStream(), response.getOutputStream(),
+                BatchTareoData.class, BatchTareoData::temporalId, streamSubBatchSize,
+                items -> tareoUseCase.batchSync(new BatchTareoSyncRequest(items)));
+    }
+
     @GetMapping("/daily")
     @Operation(summary = "Obtener lista paginada de tareos día a día con indicador de calculado")
     public ResponseEntity<ApiResult<PagedResult<TareoDailyDTO>>> findAllDailyPaged(
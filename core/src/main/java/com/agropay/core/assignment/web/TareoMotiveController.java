@@ -2,6 +2,7 @@ package com.agropay.core.assignment.web;
 
 import com.agropay.core.assignment.application.usecase.ITareoMotiveUseCase;
 import com.agropay.core.assignment.model.tareomotive.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.ApiResult;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -71,9 +73,26 @@ public class TareoMotiveController {
 
 
     @GetMapping("/sync")
-    @Operation(summary = "Obtener todos los motivos de tareo para sincronización móvil")
-    public ResponseEntity<ApiResult<List<TareoMotiveSyncReponse>>> findAllForSynced(){
+    @Operation(summary = "Obtener todos los motivos de tareo para sincronización móvil",
+            description = "Responde 304 si el ETag enviado en If-None-Match coincide con la versión actual del catálogo")
+    public ResponseEntity<ApiResult<List<TareoMotiveSyncReponse>>> findAllForSynced(ServletWebRequest webRequest){
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(tareoMotiveUseCase.getSyncVersion()))) {
+            return null;
+        }
         List<TareoMotiveSyncReponse> motives = tareoMotiveUseCase.findAllForSync();
         return ResponseEntity.ok(ApiResult.success(motives));
     }
+
+    @GetMapping("/sync/changes")
+    @Operation(summary = "Obtener los motivos de tareo modificados y eliminados desde un watermark (sincronización incremental)",
+            description = "Sin since devuelve todos los motivos. El watermark de la respuesta se envía como since en la siguiente " +
+                    "sincronización; si no hubo cambios desde el ETag enviado en If-None-Match responde 304.")
+    public ResponseEntity<ApiResult<DeltaSyncResponse<TareoMotiveSyncReponse, UUID>>> findChangesForSync(
+            @RequestParam(required = false) Long since, ServletWebRequest webRequest) {
+        long version = tareoMotiveUseCase.getSyncVersion();
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(version))) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResult.success(tareoMotiveUseCase.findChangesForSync(since, version)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.agropay.core.attendance.application.service;
+
+import com.agropay.core.attendance.model.websocket.AttendanceCountWebSocketDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica los conteos de asistencia en los topics de cada subsidiaria agrupando las actualizaciones:
+ * durante attendance.websocket.coalesce-window solo se guarda el último estado de la subsidiaria y al
+ * cerrar la ventana se envía una vez a /count, /employees/count y /externals/count.
+ *
+ * Los contadores solo crecen durante el día, así que entre dos estados el más reciente es el de mayor suma;
+ * un estado que llega tarde de otro hilo no reemplaza a uno más nuevo.
+ *
+ * Métricas: attendance.websocket.updates (actualizaciones recibidas) y attendance.websocket.messages (mensajes enviados).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceCountBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.websocket.coalesce-window:250ms}")
+    private Duration coalesceWindow;
+
+    private final Map<UUID, AttendanceCounterRegistry.Summary> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, AttendanceCounterRegistry.Summary> lastSent = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private Counter updatesReceived;
+    private Counter messagesSent;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attendance-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        updatesReceived = Counter.builder("attendance.websocket.updates")
+            .description("Actualizaciones de conteo de asistencia recibidas (una por marcación)")
+            .register(meterRegistry);
+        messagesSent = Counter.builder("attendance.websocket.messages")
+            .description("Mensajes de conteo de asistencia enviados al broker de WebSocket")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void publish(AttendanceCounterRegistry.Summary summary) {
+        updatesReceived.increment();
+        if (coalesceWindow.isZero()) {
+            send(summary);
+            return;
+        }
+
+        boolean[] opened = {false};
+        pending.compute(summary.subsidiaryPublicId(), (id, current) -> {
+            if (current == null) {
+                opened[0] = true;
+                return summary;
+            }
+            return latest(current, summary);
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> flush(summary.subsidiaryPublicId()),
+                coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(UUID subsidiaryPublicId) {
+        AttendanceCounterRegistry.Summary summary = pending.remove(subsidiaryPublicId);
+        if (summary == null) {
+            return;
+        }
+        try {
+            send(summary);
+        } catch (Exception e) {
+            log.error("Error publishing attendance counts to WebSocket for subsidiary: {}", subsidiaryPublicId, e);
+        }
+    }
+
+    private void send(AttendanceCounterRegistry.Summary summary) {
+        boolean[] newer = {false};
+        lastSent.compute(summary.subsidiaryPublicId(), (id, previous) -> {
+            if (previous == null || latest(previous, summary) != previous) {
+                newer[0] = true;
+                return summary;
+            }
+            return previous;
+        });
+        if (!newer[0]) {
+            return;
+        }
+
+        String subsidiaryId = summary.subsidiaryPublicId().toString();
+        // Topic general: /topic/subsidiary/{subsidiaryId}/count
+        send("/topic/subsidiary/" + subsidiaryId + "/count", summary, summary.all());
+        send("/topic/subsidiary/" + subsidiaryId + "/employees/count", summary, summary.employees());
+        send("/topic/subsidiary/" + subsidiaryId + "/externals/count", summary, summary.externals());
+
+        log.debug("Successfully published attendance counts to WebSocket for subsidiary: {}", subsidiaryId);
+    }
+
+    private void send(String destination, AttendanceCounterRegistry.Summary summary, AttendanceCounterRegistry.Counts counts) {
+        messagingTemplate.convertAndSend(
+                destination,
+                AttendanceCountWebSocketDTO.create(
+                        summary.subsidiaryPublicId(),
+                        summary.date(),
+                        counts.entries(),
+                        counts.exits()
+                )
+        );
+        messagesSent.increment();
+    }
+
+    /**
+     * Estado más reciente: el de fecha mayor y, en el mismo día, el de mayor suma de contadores.
+     * Ante un empate se conserva current (mismo estado)
+     */
+    private static AttendanceCounterRegistry.Summary latest(AttendanceCounterRegistry.Summary current,
+                                                            AttendanceCounterRegistry.Summary candidate) {
+        int byDate = candidate.date().compareTo(current.date());
+        if (byDate != 0) {
+            return byDate > 0 ? candidate : current;
+        }
+        return total(candidate) > total(current) ? candidate : current;
+    }
+
+    private static long total(AttendanceCounterRegistry.Summary summary) {
+        return summary.employees().entries() + summary.employees().exits()
+            + summary.externals().entries() + summary.externals().exits();
+    }
+}
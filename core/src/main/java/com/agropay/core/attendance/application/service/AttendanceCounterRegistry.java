@@ -0,0 +1,128 @@
+package com.agropay.core.attendance.application.service;
+
+import com.agropay.core.attendance.persistence.IMarkingDetailRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de asistencia del día por subsidiaria, en memoria, para publicar los conteos por WebSocket
+ * sin consultar tbl_marking_details en cada marcación.
+ *
+ * Reproducen los COUNT(DISTINCT personDocumentNumber) de getFlexibleAttendanceSummary:
+ * - Por persona se guardan 4 bits (entrada / salida, como empleado / como externo); solo el primer bit
+ *   que se enciende incrementa un contador, así una marcación repetida no cuenta dos veces
+ * - Los bits se actualizan sin bloqueo (AtomicInteger) y los contadores son LongAdder
+ *
+ * El día de una subsidiaria se carga desde la BD con una consulta la primera vez que se usa (arranque)
+ * y cuando cambia la fecha. Como aplicar una marcación es idempotente, da igual si la carga ya incluía
+ * una marcación que luego llega por evento.
+ *
+ * Solo ve las marcaciones hechas en este nodo, igual que el broker simple de WebSocket.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceCounterRegistry {
+
+    private static final int EMPLOYEE_ENTRY = 1;
+    private static final int EMPLOYEE_EXIT = 2;
+    private static final int EXTERNAL_ENTRY = 4;
+    private static final int EXTERNAL_EXIT = 8;
+    private static final int ANY_ENTRY = EMPLOYEE_ENTRY | EXTERNAL_ENTRY;
+    private static final int ANY_EXIT = EMPLOYEE_EXIT | EXTERNAL_EXIT;
+
+    private final IMarkingDetailRepository markingDetailRepository;
+
+    private final Map<UUID, DayCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Personas distintas con entrada y con salida en el día
+     */
+    public record Counts(long entries, long exits) {}
+
+    public record Summary(UUID subsidiaryPublicId, LocalDate date, Counts all, Counts employees, Counts externals) {}
+
+    /**
+     * Aplica una marcación confirmada y devuelve los conteos actualizados.
+     * Vacío si la marcación es de un día anterior al que ya lleva la subsidiaria.
+     */
+    public Optional<Summary> record(UUID subsidiaryPublicId, LocalDate date, String personDocumentNumber,
+                                    boolean isEmployee, boolean isEntry) {
+        DayCounters day = counters.get(subsidiaryPublicId);
+        if (day == null || day.date.isBefore(date)) {
+            // La consulta se hace fuera del mapa para no bloquear su segmento durante la carga. Si otra marcación
+            // cargó el mismo día a la vez, se conserva la que se instaló primero y la marcación se aplica sobre ella
+            DayCounters loaded = load(subsidiaryPublicId, date);
+            day = counters.merge(subsidiaryPublicId, loaded,
+                (current, candidate) -> current.date.isBefore(candidate.date) ? candidate : current);
+        }
+        if (!day.date.equals(date)) {
+            return Optional.empty();
+        }
+        day.apply(personDocumentNumber, isEmployee, isEntry);
+        return Optional.of(day.summary(subsidiaryPublicId));
+    }
+
+    private DayCounters load(UUID subsidiaryPublicId, LocalDate date) {
+        long start = System.currentTimeMillis();
+        DayCounters day = new DayCounters(date);
+        List<Object[]> rows = markingDetailRepository.findDistinctMarkingsBySubsidiaryAndDate(subsidiaryPublicId, date);
+        for (Object[] row : rows) {
+            day.apply((String) row[0], Boolean.TRUE.equals(row[1]), Boolean.TRUE.equals(row[2]));
+        }
+        log.info("Contadores de asistencia de la subsidiaria {} cargados para {} en {} ms: {} personas",
+            subsidiaryPublicId, date, System.currentTimeMillis() - start, day.people.size());
+        return day;
+    }
+
+    private static final class DayCounters {
+        private final LocalDate date;
+        private final ConcurrentHashMap<String, AtomicInteger> people = new ConcurrentHashMap<>();
+        private final LongAdder allEntries = new LongAdder();
+        private final LongAdder allExits = new LongAdder();
+        private final LongAdder employeeEntries = new LongAdder();
+        private final LongAdder employeeExits = new LongAdder();
+        private final LongAdder externalEntries = new LongAdder();
+        private final LongAdder externalExits = new LongAdder();
+
+        private DayCounters(LocalDate date) {
+            this.date = date;
+        }
+
+        private void apply(String personDocumentNumber, boolean isEmployee, boolean isEntry) {
+            int bit = isEmployee
+                ? (isEntry ? EMPLOYEE_ENTRY : EMPLOYEE_EXIT)
+                : (isEntry ? EXTERNAL_ENTRY : EXTERNAL_EXIT);
+            int previous = people.computeIfAbsent(personDocumentNumber, doc -> new AtomicInteger())
+                .getAndUpdate(flags -> flags | bit);
+            if ((previous & bit) != 0) {
+                return;
+            }
+            if (isEmployee) {
+                (isEntry ? employeeEntries : employeeExits).increment();
+            } else {
+                (isEntry ? externalEntries : externalExits).increment();
+            }
+            if ((previous & (isEntry ? ANY_ENTRY : ANY_EXIT)) == 0) {
+                (isEntry ? allEntries : allExits).increment();
+            }
+        }
+
+        private Summary summary(UUID subsidiaryPublicId) {
+            return new Summary(subsidiaryPublicId, date,
+                new Counts(allEntries.sum(), allExits.sum()),
+                new Counts(employeeEntries.sum(), employeeExits.sum()),
+                new Counts(externalEntries.sum(), externalExits.sum()));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.agropay.core.attendance.application.service;
+
+import com.agropay.core.attendance.constant.EntryTypeEnum;
+import com.agropay.core.attendance.persistence.IMarkingDetailRepository;
+import com.agropay.core.shared.exceptions.BusinessValidationException;
+import com.agropay.core.shared.exceptions.UniqueValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado de marcación del día en memoria, para validar ENTRADA / SALIDA sin consultar tbl_marking_details:
+ * - Por persona, si ya tiene entrada y salida hoy. Se carga de la BD la primera vez que la persona marca en el día
+ * - Por subsidiaria, la cabecera (tbl_markings) del día, que las marcaciones siguientes reutilizan
+ *
+ * La validación reserva la marcación de forma atómica (dos lecturas simultáneas ya no pasan las dos)
+ * y la libera si la transacción no se confirma. Al cambiar el día se descarta todo el estado.
+ *
+ * Solo conoce las marcaciones hechas en este nodo.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarkingDayRegistry {
+
+    private static final int ENTRY = 1;
+    private static final int EXIT = 2;
+
+    private final IMarkingDetailRepository markingDetailRepository;
+
+    private volatile LocalDate currentDate = LocalDate.MIN;
+    private final Map<String, AtomicInteger> people = new ConcurrentHashMap<>();
+    private final Map<Short, Long> markingIds = new ConcurrentHashMap<>();
+
+    /**
+     * Valida las reglas de ENTRADA / SALIDA del día y reserva la marcación hasta que la transacción termine.
+     * Mismas excepciones que la validación contra la BD.
+     */
+    public void reserve(String documentNumber, LocalDate date, EntryTypeEnum entryType) {
+        AtomicInteger state;
+        if (rollover(date)) {
+            state = people.get(documentNumber);
+            if (state == null) {
+                AtomicInteger loaded = load(documentNumber, date);
+                state = people.putIfAbsent(documentNumber, loaded);
+                if (state == null) {
+                    state = loaded;
+                }
+            }
+        } else {
+            // Marcación de un día anterior que llega después del cambio de día: solo se valida contra la BD
+            state = load(documentNumber, date);
+        }
+
+        int bit = entryType == EntryTypeEnum.ENTRY ? ENTRY : EXIT;
+        int current;
+        do {
+            current = state.get();
+            validate(documentNumber, entryType, current);
+        } while (!state.compareAndSet(current, current | bit));
+
+        AtomicInteger reserved = state;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.updateAndGet(flags -> flags & ~bit);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Cabecera del día de la subsidiaria, o null si aún no hay una confirmada en este nodo
+     */
+    public Long markingId(Short subsidiaryId, LocalDate date) {
+        return date.equals(currentDate) ? markingIds.get(subsidiaryId) : null;
+    }
+
+    /**
+     * Registra la cabecera creada para reutilizarla cuando se confirme la transacción
+     */
+    public void registerMarking(Short subsidiaryId, LocalDate date, Long markingId) {
+        Runnable register = () -> {
+            if (date.equals(currentDate)) {
+                markingIds.putIfAbsent(subsidiaryId, markingId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register.run();
+                }
+            });
+        } else {
+            register.run();
+        }
+    }
+
+    /**
+     * Pasa al día indicado si es posterior al actual
+     *
+     * @return false si date es de un día anterior al actual
+     */
+    private boolean rollover(LocalDate date) {
+        if (date.equals(currentDate)) {
+            return true;
+        }
+        synchronized (this) {
+            if (date.isAfter(currentDate)) {
+                people.clear();
+                markingIds.clear();
+                currentDate = date;
+            }
+            return date.equals(currentDate);
+        }
+    }
+
+    private AtomicInteger load(String documentNumber, LocalDate date) {
+        List<Boolean> entryTypes = markingDetailRepository.findEntryTypesByPersonAndDate(documentNumber, date);
+        int flags = 0;
+        for (Boolean isEntry : entryTypes) {
+            flags |= Boolean.TRUE.equals(isEntry) ? ENTRY : EXIT;
+        }
+        return new AtomicInteger(flags);
+    }
+
+    private static void validate(String documentNumber, EntryTypeEnum entryType, int flags) {
+        if (entryType == EntryTypeEnum.ENTRY) {
+            if ((flags & ENTRY) != 0) {
+                throw new UniqueValidationException("exception.attendance.duplicate-entry-marking", documentNumber);
+            }
+            return;
+        }
+        if ((flags & ENTRY) == 0) {
+            throw new BusinessValidationException("exception.attendance.exit-without-entry", documentNumber);
+        }
+        if ((flags & EXIT) != 0) {
+            throw new UniqueValidationException("exception.attendance.duplicate-exit-marking", documentNumber);
+        }
+    }
+}
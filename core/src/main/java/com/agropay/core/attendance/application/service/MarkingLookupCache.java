@@ -0,0 +1,99 @@
+package com.agropay.core.attendance.application.service;
+
+import com.agropay.core.attendance.application.usecase.IMarkingReasonUseCase;
+import com.agropay.core.attendance.domain.MarkingReasonEntity;
+import com.agropay.core.organization.api.ISubsidiaryAPI;
+import com.agropay.core.organization.domain.SubsidiaryEntity;
+import com.agropay.core.shared.utils.BoundedCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Búsquedas del marcado que casi no cambian, en cachés acotadas (attendance.marking.cache.*):
+ * subsidiarias, motivos de marcación y la habilitación de cada empleado para marcar (empleado de la
+ * subsidiaria con contrato firmado).
+ *
+ * MarkingCacheInvalidationListener invalida las entradas cuando se confirma una escritura de subsidiaria,
+ * motivo, empleado, persona o contrato. El TTL cubre lo que no pasa por Hibernate (soft delete por JPQL,
+ * otros nodos).
+ */
+@Component
+@RequiredArgsConstructor
+public class MarkingLookupCache {
+
+    private final ISubsidiaryAPI subsidiaryAPI;
+    private final IMarkingReasonUseCase markingReasonUseCase;
+
+    @Value("${attendance.marking.cache.max-employees:20000}")
+    private int maxEmployees;
+
+    @Value("${attendance.marking.cache.employee-ttl:10m}")
+    private Duration employeeTtl;
+
+    @Value("${attendance.marking.cache.catalog-ttl:1h}")
+    private Duration catalogTtl;
+
+    private BoundedCache<UUID, SubsidiaryRef> subsidiaries;
+    private BoundedCache<UUID, MarkingReasonRef> markingReasons;
+    private BoundedCache<String, EmployeeEligibility> employees;
+
+    public record SubsidiaryRef(Short id, UUID publicId, String name) {}
+
+    public record MarkingReasonRef(Short id, UUID publicId, String code, String name, Boolean isInternal) {}
+
+    /**
+     * Empleado habilitado para marcar en subsidiaryPublicId con el contrato firmado vigente.
+     * Las fechas del contrato se vuelven a validar en cada marcación, porque dependen del día.
+     */
+    public record EmployeeEligibility(UUID subsidiaryPublicId, String personFullName,
+                                      LocalDate contractStartDate, LocalDate contractEndDate) {}
+
+    @PostConstruct
+    void init() {
+        subsidiaries = new BoundedCache<>(1000, catalogTtl);
+        markingReasons = new BoundedCache<>(1000, catalogTtl);
+        employees = new BoundedCache<>(maxEmployees, employeeTtl);
+    }
+
+    public SubsidiaryRef subsidiary(UUID publicId) {
+        return subsidiaries.get(publicId, id -> {
+            SubsidiaryEntity subsidiary = subsidiaryAPI.findByPublicId(id);
+            return new SubsidiaryRef(subsidiary.getId(), subsidiary.getPublicId(), subsidiary.getName());
+        });
+    }
+
+    public MarkingReasonRef markingReason(UUID publicId) {
+        return markingReasons.get(publicId, id -> {
+            MarkingReasonEntity reason = markingReasonUseCase.findByPublicId(id);
+            return new MarkingReasonRef(reason.getId(), reason.getPublicId(), reason.getCode(), reason.getName(),
+                reason.getIsInternal());
+        });
+    }
+
+    /**
+     * Habilitación cacheada o la que calcula validator, que valida con la BD y lanza la excepción
+     * correspondiente si el empleado no puede marcar (los rechazos no se cachean)
+     */
+    public EmployeeEligibility employee(String documentNumber, Function<String, EmployeeEligibility> validator) {
+        return employees.get(documentNumber, validator);
+    }
+
+    public void invalidateSubsidiary(UUID publicId) {
+        subsidiaries.invalidate(publicId);
+    }
+
+    public void invalidateMarkingReasons() {
+        markingReasons.invalidateAll();
+    }
+
+    public void invalidateEmployee(String documentNumber) {
+        employees.invalidate(documentNumber);
+    }
+}
@@ -10,7 +10,6 @@ import com.agropay.core.attendance.domain.MarkingReasonEntity;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
 import com.agropay.core.shared.exceptions.UniqueValidationException;
 import com.agropay.core.shared.exceptions.BusinessValidationException;
-import com.agropay.core.attendance.mapper.IMarkingMapper;
 import com.agropay.core.attendance.model.marking.EmployeeMarkRequest;
 import com.agropay.core.attendance.model.marking.ExternalMarkRequest;
 import com.agropay.core.attendance.model.marking.MarkingResponse;
@@ -27,6 +26,8 @@ import com.agropay.core.hiring.domain.ContractEntity;
 import com.agropay.core.states.constant.ContractStateEnum;
 import com.agropay.core.shared.events.AttendanceMarkedEvent;
 import com.agropay.core.attendance.events.AttendanceMarkingEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -49,64 +50,103 @@ public class MarkingServiceImpl implements IMarkingUseCase {
     private final IPersonAPI personAPI;
     private final ISubsidiaryAPI subsidiaryUseCase;
     private final IContractRepository contractRepository;
-    private final IMarkingMapper mapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final MarkingLookupCache lookupCache;
+    private final MarkingDayRegistry markingDayRegistry;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Camino rápido del marcado: subsidiaria, motivo y habilitación del empleado salen de MarkingLookupCache
+     * y las reglas de ENTRADA / SALIDA de MarkingDayRegistry. Con todo en memoria, una marcación es un solo
+     * INSERT (el detalle; la cabecera del día se reutiliza).
+     */
     @Override
     @Transactional
     public MarkingResponse markEmployee(EmployeeMarkRequest request) {
-        EmployeeEntity employee = validateEmployeeExists(request.personDocumentNumber());
-        SubsidiaryEntity subsidiary = subsidiaryUseCase.findByPublicId(request.subsidiaryPublicId());
-
-        validateEmployeeBelongsToSubsidiary(employee, subsidiary);
-        
-        validateEmployeeHasActiveContract(request.personDocumentNumber(), subsidiary.getPublicId());
+        String documentNumber = request.personDocumentNumber();
+        MarkingLookupCache.SubsidiaryRef subsidiary = lookupCache.subsidiary(request.subsidiaryPublicId());
+
+        MarkingLookupCache.EmployeeEligibility eligibility = lookupCache.employee(documentNumber,
+            doc -> validateEmployeeEligibility(doc, request.subsidiaryPublicId()));
+        if (!eligibility.subsidiaryPublicId().equals(subsidiary.publicId())) {
+            // Habilitado en otra subsidiaria: se valida contra la BD para lanzar el error que corresponda
+            validateEmployeeEligibility(documentNumber, subsidiary.publicId());
+        }
+        validateContractDates(documentNumber, eligibility.contractStartDate(), eligibility.contractEndDate());
 
-        MarkingReasonEntity markingReason = markingReasonUseCase.findByPublicId(request.markingReasonPublicId());
+        MarkingLookupCache.MarkingReasonRef markingReason = lookupCache.markingReason(request.markingReasonPublicId());
         validateInternalMarkingReason(markingReason);
 
         EntryTypeEnum entryType = request.isEntry() ? EntryTypeEnum.ENTRY : EntryTypeEnum.EXIT;
+        LocalDate today = LocalDate.now();
 
-        validateExplicitMarkingRules(request.personDocumentNumber(), entryType);
+        markingDayRegistry.reserve(documentNumber, today, entryType);
 
         MarkingDetailEntity markingDetail = createMarking(
-            request.personDocumentNumber(),
+            documentNumber,
             subsidiary,
             markingReason,
             entryType,
-            true
+            true,
+            today
         );
 
-        publishAttendanceEvent(markingDetail, employee.getPerson());
+        publishAttendanceEvent(markingDetail, eligibility.personFullName(), subsidiary, markingReason, today);
 
-        return mapper.toMarkingResponse(markingDetail);
+        return toMarkingResponse(markingDetail, subsidiary, markingReason);
     }
 
     @Override
     @Transactional
     public MarkingResponse markExternal(ExternalMarkRequest request) {
-        SubsidiaryEntity subsidiary = subsidiaryUseCase.findByPublicId(request.subsidiaryPublicId());
+        MarkingLookupCache.SubsidiaryRef subsidiary = lookupCache.subsidiary(request.subsidiaryPublicId());
 
-        MarkingReasonEntity markingReason = markingReasonUseCase.findByPublicId(request.markingReasonPublicId());
+        MarkingLookupCache.MarkingReasonRef markingReason = lookupCache.markingReason(request.markingReasonPublicId());
         validateExternalMarkingReason(markingReason);
 
         PersonEntity person = personAPI.findOrCreatePersonByDni(request.personDocumentNumber());
 
         EntryTypeEnum entryType = request.isEntry() ? EntryTypeEnum.ENTRY : EntryTypeEnum.EXIT;
+        LocalDate today = LocalDate.now();
 
-        validateExplicitMarkingRules(request.personDocumentNumber(), entryType);
+        markingDayRegistry.reserve(request.personDocumentNumber(), today, entryType);
 
         MarkingDetailEntity markingDetail = createMarking(
             request.personDocumentNumber(),
             subsidiary,
             markingReason,
             entryType,
-            false
+            false,
+            today
         );
 
-        publishAttendanceEvent(markingDetail, person);
+        publishAttendanceEvent(markingDetail, fullName(person), subsidiary, markingReason, today);
 
-        return mapper.toMarkingResponse(markingDetail);
+        return toMarkingResponse(markingDetail, subsidiary, markingReason);
+    }
+
+    /**
+     * Validaciones contra la BD de que el empleado puede marcar en la subsidiaria (existe, pertenece a ella
+     * y tiene contrato firmado). Solo se ejecuta cuando la habilitación no está en caché.
+     */
+    private MarkingLookupCache.EmployeeEligibility validateEmployeeEligibility(String documentNumber, UUID subsidiaryPublicId) {
+        EmployeeEntity employee = validateEmployeeExists(documentNumber);
+        SubsidiaryEntity subsidiary = subsidiaryUseCase.findByPublicId(subsidiaryPublicId);
+
+        validateEmployeeBelongsToSubsidiary(employee, subsidiary);
+
+        ContractEntity contract = validateEmployeeHasActiveContract(documentNumber, subsidiary.getPublicId());
+        LocalDate contractEndDate = contract.getExtendedEndDate() != null ?
+            contract.getExtendedEndDate() : contract.getEndDate();
+
+        return new MarkingLookupCache.EmployeeEligibility(
+            subsidiary.getPublicId(),
+            fullName(employee.getPerson()),
+            contract.getStartDate(),
+            contractEndDate
+        );
     }
 
     /**
@@ -143,7 +183,7 @@ public class MarkingServiceImpl implements IMarkingUseCase {
      * @param documentNumber Número de documento del empleado
      * @param subsidiaryPublicId ID público de la subsidiaria donde se está marcando
      */
-    private void validateEmployeeHasActiveContract(String documentNumber, UUID subsidiaryPublicId) {
+    private ContractEntity validateEmployeeHasActiveContract(String documentNumber, UUID subsidiaryPublicId) {
         // Buscar el contrato ACTIVO (SIGNED) para esta persona y subsidiaria
         // Solo puede haber un contrato activo, los demás deben estar anulados
         String signedStateCode = ContractStateEnum.SIGNED.getCode();
@@ -193,10 +233,15 @@ public class MarkingServiceImpl implements IMarkingUseCase {
                 documentNumber);
         }
         
+        return contract;
+    }
+
+    /**
+     * Vigencia del contrato en el día de hoy; se valida en cada marcación, también con la habilitación en caché
+     */
+    private void validateContractDates(String documentNumber, LocalDate contractStartDate, LocalDate contractEndDate) {
         LocalDate today = LocalDate.now();
-        LocalDate contractEndDate = contract.getExtendedEndDate() != null ? 
-            contract.getExtendedEndDate() : contract.getEndDate();
-        
+
         if (contractEndDate != null && today.isAfter(contractEndDate)) {
             throw new BusinessValidationException(
                 "exception.attendance.employee.contract-expired",
@@ -204,11 +249,11 @@ public class MarkingServiceImpl implements IMarkingUseCase {
                 contractEndDate.toString());
         }
         
-        if (today.isBefore(contract.getStartDate())) {
+        if (today.isBefore(contractStartDate)) {
             throw new BusinessValidationException(
                 "exception.attendance.employee.contract-not-started",
                 documentNumber,
-                contract.getStartDate().toString());
+                contractStartDate.toString());
         }
     }
 
@@ -216,20 +261,20 @@ public class MarkingServiceImpl implements IMarkingUseCase {
         return markingReasonUseCase.findByCode(MarkingReasonEnum.WORK.getCode());
     }
 
-    private void validateInternalMarkingReason(MarkingReasonEntity markingReason) {
-        if (markingReason.getIsInternal() == null || !markingReason.getIsInternal()) {
+    private void validateInternalMarkingReason(MarkingLookupCache.MarkingReasonRef markingReason) {
+        if (markingReason.isInternal() == null || !markingReason.isInternal()) {
             throw new BusinessValidationException(
                 "exception.attendance.marking-reason.invalid-for-internal",
-                markingReason.getName()
+                markingReason.name()
             );
         }
     }
 
-    private void validateExternalMarkingReason(MarkingReasonEntity markingReason) {
-        if (markingReason.getIsInternal() == null || markingReason.getIsInternal()) {
+    private void validateExternalMarkingReason(MarkingLookupCache.MarkingReasonRef markingReason) {
+        if (markingReason.isInternal() == null || markingReason.isInternal()) {
             throw new BusinessValidationException(
                 "exception.attendance.marking-reason.invalid-for-external",
-                markingReason.getName()
+                markingReason.name()
             );
         }
     }
@@ -257,43 +302,6 @@ public class MarkingServiceImpl implements IMarkingUseCase {
         return stateCode; 
     }
     
-    private void validateExplicitMarkingRules(String documentNumber, EntryTypeEnum entryType) {
-        LocalDate today = LocalDate.now();
-        List<MarkingDetailEntity> todayMarkings = markingDetailRepository.findByPersonAndDate(documentNumber, today);
-
-        if (entryType == EntryTypeEnum.ENTRY) {
-            boolean hasEntryToday = todayMarkings.stream()
-                    .anyMatch(MarkingDetailEntity::getIsEntry);
-
-            if (hasEntryToday) {
-                throw new UniqueValidationException(
-                    "exception.attendance.duplicate-entry-marking",
-                    documentNumber
-                );
-            }
-        } else {
-            boolean hasEntryToday = todayMarkings.stream()
-                    .anyMatch(MarkingDetailEntity::getIsEntry);
-
-            if (!hasEntryToday) {
-                throw new BusinessValidationException(
-                    "exception.attendance.exit-without-entry",
-                    documentNumber
-                );
-            }
-
-            boolean hasExitToday = todayMarkings.stream()
-                    .anyMatch(marking -> !marking.getIsEntry());
-
-            if (hasExitToday) {
-                throw new UniqueValidationException(
-                    "exception.attendance.duplicate-exit-marking",
-                    documentNumber
-                );
-            }
-        }
-    }
-
     private EntryTypeEnum determineEntryType(String documentNumber) {
         LocalDate today = LocalDate.now();
         List<MarkingDetailEntity> todayMarkings = markingDetailRepository.findByPersonAndDate(documentNumber, today);
@@ -344,21 +352,30 @@ public class MarkingServiceImpl implements IMarkingUseCase {
         }
     }
 
-    private MarkingDetailEntity createMarking(String documentNumber, SubsidiaryEntity subsidiary,
-                                            MarkingReasonEntity markingReason, EntryTypeEnum entryType, boolean isEmployee) {
-
-        MarkingEntity marking = MarkingEntity.builder()
-            .publicId(UUID.randomUUID())
-            .subsidiary(subsidiary)
-            .markingDate(LocalDate.now())
-            .build();
+    /**
+     * Inserta el detalle de la marcación. La cabecera (tbl_markings) de la subsidiaria y el día se crea
+     * con la primera marcación del día y luego se reutiliza.
+     */
+    private MarkingDetailEntity createMarking(String documentNumber, MarkingLookupCache.SubsidiaryRef subsidiary,
+                                            MarkingLookupCache.MarkingReasonRef markingReason, EntryTypeEnum entryType,
+                                            boolean isEmployee, LocalDate today) {
+
+        Long markingId = markingDayRegistry.markingId(subsidiary.id(), today);
+        if (markingId == null) {
+            MarkingEntity marking = MarkingEntity.builder()
+                .publicId(UUID.randomUUID())
+                .subsidiary(entityManager.getReference(SubsidiaryEntity.class, subsidiary.id()))
+                .markingDate(today)
+                .build();
 
-        MarkingEntity savedMarking = markingRepository.save(marking);
+            markingId = markingRepository.save(marking).getId();
+            markingDayRegistry.registerMarking(subsidiary.id(), today, markingId);
+        }
 
         MarkingDetailEntity markingDetail = MarkingDetailEntity.builder()
             .publicId(UUID.randomUUID())
-            .marking(savedMarking)
-            .markingReason(markingReason)
+            .marking(entityManager.getReference(MarkingEntity.class, markingId))
+            .markingReason(entityManager.getReference(MarkingReasonEntity.class, markingReason.id()))
             .personDocumentNumber(documentNumber)
             .isEntry(entryType.isEntry())
             .isEmployee(isEmployee)
@@ -368,33 +385,52 @@ public class MarkingServiceImpl implements IMarkingUseCase {
         return markingDetailRepository.save(markingDetail);
     }
 
+    private static MarkingResponse toMarkingResponse(MarkingDetailEntity markingDetail,
+                                                     MarkingLookupCache.SubsidiaryRef subsidiary,
+                                                     MarkingLookupCache.MarkingReasonRef markingReason) {
+        return new MarkingResponse(
+            markingDetail.getPublicId(),
+            markingDetail.getPersonDocumentNumber(),
+            markingDetail.getIsEntry() ? "ENTRADA" : "SALIDA",
+            markingReason.name(),
+            subsidiary.name(),
+            markingDetail.getMarkedAt()
+        );
+    }
+
+    private static String fullName(PersonEntity person) {
+        return person.getNames() + " " + person.getPaternalLastname() + " " + person.getMaternalLastname();
+    }
+
     /**
      * Publish attendance event for asynchronous processing
      * @param markingDetail The saved marking detail entity
-     * @param person The person who marked attendance
+     * @param personFullName Full name of the person who marked attendance
      */
-    private void publishAttendanceEvent(MarkingDetailEntity markingDetail, PersonEntity person) {
+    private void publishAttendanceEvent(MarkingDetailEntity markingDetail, String personFullName,
+                                        MarkingLookupCache.SubsidiaryRef subsidiary,
+                                        MarkingLookupCache.MarkingReasonRef markingReason, LocalDate markingDate) {
         try {
             // Existing event for legacy listeners
             AttendanceMarkedEvent event = AttendanceMarkedEvent.builder()
                 .markingDetailPublicId(markingDetail.getPublicId())
                 .personDocumentNumber(markingDetail.getPersonDocumentNumber())
-                .personFullName(person.getNames() + " " + person.getPaternalLastname()+ " "+person.getMaternalLastname())
+                .personFullName(personFullName)
                 .isEmployee(markingDetail.getIsEmployee())
                 .isEntry(markingDetail.getIsEntry())
                 .markedAt(markingDetail.getMarkedAt())
-                .markingReasonCode(markingDetail.getMarkingReason().getCode())
-                .markingReasonName(markingDetail.getMarkingReason().getName())
-                .subsidiaryPublicId(markingDetail.getMarking().getSubsidiary().getPublicId())
-                .subsidiaryName(markingDetail.getMarking().getSubsidiary().getName())
+                .markingReasonCode(markingReason.code())
+                .markingReasonName(markingReason.name())
+                .subsidiaryPublicId(subsidiary.publicId())
+                .subsidiaryName(subsidiary.name())
                 .build();
 
             eventPublisher.publishEvent(event);
 
             AttendanceMarkingEvent webSocketEvent = new AttendanceMarkingEvent(
                 this,
-                markingDetail.getMarking().getSubsidiary().getPublicId(),
-                markingDetail.getMarking().getMarkingDate(),
+                subsidiary.publicId(),
+                markingDate,
                 markingDetail.getPersonDocumentNumber(),
                 markingDetail.getIsEmployee(),
                 markingDetail.getIsEntry()
@@ -1,5 +1,6 @@
 package com.agropay.core.attendance.listener;
 
+import com.agropay.core.engine.config.EventExecutorConfig;
 import com.agropay.core.shared.events.AttendanceMarkedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -23,7 +24,7 @@ public class AttendanceEventListener {
      * @param event The attendance marked event
      */
     @EventListener
-    @Async
+    @Async(EventExecutorConfig.ATTENDANCE_EXECUTOR)
     public void handleAttendanceMarked(AttendanceMarkedEvent event) {
         try {
             log.info("Processing attendance marking: {}", event.getSummaryMessage());
@@ -0,0 +1,93 @@
+package com.agropay.core.attendance.listener;
+
+import com.agropay.core.attendance.application.service.MarkingLookupCache;
+import com.agropay.core.attendance.domain.MarkingReasonEntity;
+import com.agropay.core.hiring.domain.ContractEntity;
+import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.organization.domain.PersonEntity;
+import com.agropay.core.organization.domain.SubsidiaryEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalida MarkingLookupCache cuando se confirma una escritura de subsidiaria, motivo de marcación,
+ * empleado, persona o contrato hecha a través de Hibernate
+ */
+@Component
+@RequiredArgsConstructor
+public class MarkingCacheInvalidationListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MarkingLookupCache lookupCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == SubsidiaryEntity.class || type == MarkingReasonEntity.class || type == EmployeeEntity.class
+            || type == PersonEntity.class || type == ContractEntity.class;
+    }
+
+    private void invalidate(Object entity) {
+        if (entity instanceof SubsidiaryEntity subsidiary) {
+            lookupCache.invalidateSubsidiary(subsidiary.getPublicId());
+        } else if (entity instanceof MarkingReasonEntity) {
+            lookupCache.invalidateMarkingReasons();
+        } else if (entity instanceof EmployeeEntity employee) {
+            lookupCache.invalidateEmployee(employee.getPersonDocumentNumber());
+        } else if (entity instanceof PersonEntity person) {
+            lookupCache.invalidateEmployee(person.getDocumentNumber());
+        } else if (entity instanceof ContractEntity contract) {
+            lookupCache.invalidateEmployee(contract.getPersonDocumentNumber());
+        }
+    }
+}
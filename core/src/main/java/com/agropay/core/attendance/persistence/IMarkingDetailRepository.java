@@ -27,6 +27,18 @@ public interface IMarkingDetailRepository extends ISoftRepository<MarkingDetailE
         @Param("markingDate") LocalDate markingDate
     );
 
+    /**
+     * Tipos de marcación (true = entrada) que la persona ya tiene en el día
+     */
+    @Query("SELECT DISTINCT md.isEntry FROM MarkingDetailEntity md " +
+           "WHERE md.personDocumentNumber = :documentNumber " +
+           "AND CAST(md.markedAt AS DATE) = :markingDate " +
+           "AND md.deletedAt IS NULL")
+    List<Boolean> findEntryTypesByPersonAndDate(
+        @Param("documentNumber") String documentNumber,
+        @Param("markingDate") LocalDate markingDate
+    );
+
     @Query("SELECT md FROM MarkingDetailEntity md " +
            "WHERE md.personDocumentNumber = :documentNumber " +
            "AND CAST(md.markedAt AS DATE) = :markingDate " +
@@ -65,6 +77,19 @@ public interface IMarkingDetailRepository extends ISoftRepository<MarkingDetailE
         @Param("isEntry") Boolean isEntry
     );
 
+    /**
+     * Combinaciones distintas (documento, isEmployee, isEntry) del día, para reconstruir los contadores en memoria
+     */
+    @Query("SELECT DISTINCT md.personDocumentNumber, md.isEmployee, md.isEntry FROM MarkingDetailEntity md " +
+           "JOIN md.marking m " +
+           "WHERE m.subsidiary.publicId = :subsidiaryPublicId " +
+           "AND m.markingDate = :date " +
+           "AND md.deletedAt IS NULL")
+    List<Object[]> findDistinctMarkingsBySubsidiaryAndDate(
+        @Param("subsidiaryPublicId") UUID subsidiaryPublicId,
+        @Param("date") LocalDate date
+    );
+
     // Query flexible para conteo con filtro opcional de tipo de persona
     @Query("SELECT COUNT(DISTINCT md.personDocumentNumber) FROM MarkingDetailEntity md " +
            "JOIN md.marking m " +
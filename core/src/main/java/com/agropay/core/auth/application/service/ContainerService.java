@@ -29,6 +29,7 @@ public class ContainerService implements IContainerUseCase {
 
     private final IContainerRepository containerRepository;
     private final IContainerMapper containerMapper;
+    private final MenuCatalog menuCatalog;
 
     @Override
     @Transactional
@@ -42,6 +43,7 @@ public class ContainerService implements IContainerUseCase {
 
         ContainerEntity newContainer = containerMapper.toEntity(request);
         ContainerEntity savedContainer = containerRepository.save(newContainer);
+        menuCatalog.invalidate();
         log.info("Successfully created container with public ID: {}", savedContainer.getPublicId());
         return containerMapper.toResponse(savedContainer);
     }
@@ -61,6 +63,7 @@ public class ContainerService implements IContainerUseCase {
 
         containerMapper.updateEntityFromRequest(request, existingContainer);
         ContainerEntity updatedContainer = containerRepository.save(existingContainer);
+        menuCatalog.invalidate();
         log.info("Successfully updated container with public ID: {}", updatedContainer.getPublicId());
         return containerMapper.toResponse(updatedContainer);
     }
@@ -71,6 +74,7 @@ public class ContainerService implements IContainerUseCase {
         log.info("Attempting to delete container with public ID: {}", publicId);
         ContainerEntity containerToDelete = findByPublicId(publicId);
         containerRepository.delete(containerToDelete);
+        menuCatalog.invalidate();
         log.info("Successfully deleted container with public ID: {}", publicId);
     }
 
@@ -32,6 +32,7 @@ public class ElementService implements IElementUseCase {
     private final IElementRepository elementRepository;
     private final IContainerRepository containerRepository;
     private final IElementMapper elementMapper;
+    private final MenuCatalog menuCatalog;
 
     @Override
     @Transactional
@@ -52,6 +53,7 @@ public class ElementService implements IElementUseCase {
         }
 
         ElementEntity savedElement = elementRepository.save(newElement);
+        menuCatalog.invalidate();
         log.info("Successfully created element with public ID: {}", savedElement.getPublicId());
         return elementMapper.toResponse(savedElement);
     }
@@ -80,6 +82,7 @@ public class ElementService implements IElementUseCase {
         }
 
         ElementEntity updatedElement = elementRepository.save(existingElement);
+        menuCatalog.invalidate();
         log.info("Successfully updated element with public ID: {}", updatedElement.getPublicId());
         return elementMapper.toResponse(updatedElement);
     }
@@ -90,6 +93,7 @@ public class ElementService implements IElementUseCase {
         log.info("Attempting to delete element with public ID: {}", publicId);
         ElementEntity elementToDelete = findByPublicId(publicId);
         elementRepository.delete(elementToDelete);
+        menuCatalog.invalidate();
         log.info("Successfully deleted element with public ID: {}", publicId);
     }
 
@@ -1,5 +1,6 @@
 package com.agropay.core.auth.application.service;
 
+import com.agropay.core.auth.model.AccessTokenClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -17,13 +17,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica cada request por su token sin consultar la BD: el token se verifica y se lee una sola vez,
+ * se descarta si está revocado (logout, usuario desactivado) y el usuario sale de UserStatusCache.
+ * Los claims quedan como credentials de la autenticación (los usa el logout para revocar el token).
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,15 +37,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateTokenStructure(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (StringUtils.hasText(jwt)) {
+                tokenProvider.parseToken(jwt)
+                        .filter(this::isUsable)
+                        .ifPresent(token -> authenticate(request, token));
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -48,6 +49,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isUsable(AccessTokenClaims token) {
+        if (Boolean.FALSE.equals(token.active())) {
+            return false;
+        }
+        if (revocationList.isRevoked(token)) {
+            log.debug("Revoked token used by user {}", token.username());
+            return false;
+        }
+        return true;
+    }
+
+    private void authenticate(HttpServletRequest request, AccessTokenClaims token) {
+        UserDetails userDetails = userStatusCache.get(token.username()).principal();
+        if (userDetails == null) {
+            log.warn("Token of missing or inactive user {} rejected", token.username());
+            return;
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, token, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         // Primero intentar obtener el token del header Authorization (método estándar)
         String bearerToken = request.getHeader("Authorization");
@@ -65,4 +91,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 }
-
@@ -1,8 +1,12 @@
 package com.agropay.core.auth.application.service;
 
+import com.agropay.core.auth.model.AccessTokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,9 +14,13 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -28,7 +36,25 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.refresh-expiration}")
     private Long refreshTokenExpiration;
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_PROFILE_IDS = "profiles";
+    public static final String CLAIM_ACTIVE = "active";
+
+    // La clave y el parser se crean una vez: verificar un token ya no deriva la clave en cada llamada
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = createSigningKey();
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    private SecretKey createSigningKey() {
         // Validar que el secret tenga al menos 32 bytes (256 bits) para HMAC-SHA256
         if (jwtSecret == null || jwtSecret.length() < 32) {
             log.error("JWT secret must be at least 32 characters long for HMAC-SHA256 algorithm");
@@ -50,6 +76,19 @@ public class JwtTokenProvider {
         return generateToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Genera un token JWT con los claims que usa el filtro de autenticación sin consultar la BD:
+     * id del usuario, ids de sus perfiles y si está activo. El jti permite revocarlo en el logout.
+     */
+    public String generateToken(UserDetails userDetails, Short userId, Collection<Short> profileIds) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", userDetails.getUsername());
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_PROFILE_IDS, List.copyOf(profileIds));
+        claims.put(CLAIM_ACTIVE, userDetails.isEnabled());
+        return generateToken(claims, userDetails.getUsername());
+    }
+
     /**
      * Genera un token JWT con claims personalizados
      */
@@ -59,6 +98,7 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
@@ -85,11 +125,34 @@ public class JwtTokenProvider {
      * Extrae todos los claims del token
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Verifica firma y expiración y devuelve los claims en una sola lectura del token.
+     * Vacío si el token no es válido o expiró.
+     */
+    public Optional<AccessTokenClaims> parseToken(String token) {
+        try {
+            Claims claims = getAllClaimsFromToken(token);
+            List<?> profileIds = claims.get(CLAIM_PROFILE_IDS, List.class);
+            Number userId = claims.get(CLAIM_USER_ID, Number.class);
+            return Optional.of(new AccessTokenClaims(
+                    claims.getId(),
+                    claims.getSubject(),
+                    userId != null ? userId.shortValue() : null,
+                    profileIds != null
+                            ? profileIds.stream().map(id -> ((Number) id).shortValue()).toList()
+                            : null,
+                    claims.get(CLAIM_ACTIVE, Boolean.class),
+                    "refresh".equals(claims.get("type", String.class)),
+                    claims.getIssuedAt().toInstant(),
+                    claims.getExpiration().toInstant()
+            ));
+        } catch (JwtException | IllegalArgumentException | ClassCastException e) {
+            log.error("Invalid token structure: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
@@ -150,6 +213,7 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
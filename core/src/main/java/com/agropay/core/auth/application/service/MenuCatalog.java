@@ -0,0 +1,269 @@
+package com.agropay.core.auth.application.service;
+
+import com.agropay.core.auth.domain.ContainerEntity;
+import com.agropay.core.auth.model.NavigationItemDTO;
+import com.agropay.core.auth.model.NavigationMenu;
+import com.agropay.core.auth.persistence.IContainerRepository;
+import com.agropay.core.auth.persistence.IProfileElementRepository;
+import com.agropay.core.shared.utils.BoundedCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Menús materializados por (perfil, plataforma).
+ *
+ * Los árboles de todos los perfiles se arman juntos con dos consultas (elementos asignados a perfiles y
+ * contenedores activos) y se guardan hasta que un cambio de perfiles, contenedores o elementos llame a
+ * invalidate(). El menú de un usuario es la unión de los árboles de sus perfiles, que también se guarda
+ * (auth.menu.cache.*) por combinación de perfiles y plataforma, junto con su ETag.
+ *
+ * Las reglas son las de la consulta por perfil: un contenedor aparece si está activo, disponible en la
+ * plataforma y tiene algún elemento activo del perfil; sus hijos y los elementos sin contenedor deben
+ * estar disponibles en la plataforma.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuCatalog {
+
+    public static final List<String> PLATFORMS = List.of("WEB", "MOBILE", "DESKTOP");
+
+    private final IProfileElementRepository profileElementRepository;
+    private final IContainerRepository containerRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${auth.menu.cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${auth.menu.cache.ttl:12h}")
+    private Duration ttl;
+
+    private volatile Map<MenuKey, ProfileMenu> trees;
+    // Aumenta con cada invalidación: árboles armados antes de una invalidación no se guardan
+    private long generation;
+    private BoundedCache<MenuRequest, NavigationMenu> menus;
+
+    private record MenuKey(Short profileId, String platform) {}
+
+    private record MenuRequest(List<Short> profileIds, String platform) {}
+
+    private record MenuEntry(Short id, int orderIndex, NavigationItemDTO item) {}
+
+    private record ContainerNode(MenuEntry container, List<MenuEntry> children) {}
+
+    private record ProfileMenu(List<MenuEntry> elements, List<ContainerNode> containers) {
+
+        static final ProfileMenu EMPTY = new ProfileMenu(List.of(), List.of());
+    }
+
+    @PostConstruct
+    void init() {
+        menus = new BoundedCache<>(maxEntries, ttl);
+    }
+
+    /**
+     * Menú que resulta de unir los perfiles indicados, para una plataforma ya normalizada (WEB, MOBILE, DESKTOP)
+     */
+    public NavigationMenu getMenu(List<Short> profileIds, String platform) {
+        List<Short> sortedProfileIds = profileIds.stream().distinct().sorted().toList();
+        return menus.get(new MenuRequest(sortedProfileIds, platform), this::buildMenu);
+    }
+
+    /**
+     * Descarta los menús materializados cuando se confirme la transacción actual (o de inmediato si no hay una)
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        synchronized (this) {
+            generation++;
+            trees = null;
+        }
+        menus.invalidateAll();
+        log.debug("Materialized menus invalidated");
+    }
+
+    private NavigationMenu buildMenu(MenuRequest request) {
+        Map<MenuKey, ProfileMenu> current = trees();
+        List<ProfileMenu> profileMenus = request.profileIds().stream()
+                .map(profileId -> current.getOrDefault(new MenuKey(profileId, request.platform()), ProfileMenu.EMPTY))
+                .toList();
+
+        List<NavigationItemDTO> items = merge(profileMenus);
+        return new NavigationMenu(items, etag(items));
+    }
+
+    private Map<MenuKey, ProfileMenu> trees() {
+        long loadGeneration;
+        synchronized (this) {
+            if (trees != null) {
+                return trees;
+            }
+            loadGeneration = generation;
+        }
+        Map<MenuKey, ProfileMenu> loaded = loadTrees();
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                trees = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Map<MenuKey, ProfileMenu> loadTrees() {
+        Map<Short, ContainerEntity> containers = new HashMap<>();
+        containerRepository.findByIsActiveTrueAndDeletedAtIsNullOrderByOrderIndex()
+                .forEach(container -> containers.put(container.getId(), container));
+
+        Map<Short, List<Object[]>> rowsByProfile = new HashMap<>();
+        for (Object[] row : profileElementRepository.findMenuElements()) {
+            rowsByProfile.computeIfAbsent((Short) row[0], id -> new ArrayList<>()).add(row);
+        }
+
+        Map<MenuKey, ProfileMenu> result = new HashMap<>();
+        rowsByProfile.forEach((profileId, rows) -> {
+            for (String platform : PLATFORMS) {
+                result.put(new MenuKey(profileId, platform), buildProfileMenu(rows, containers, platform));
+            }
+        });
+        log.info("Materialized menus for {} profile(s) from {} container(s)", rowsByProfile.size(), containers.size());
+        return Map.copyOf(result);
+    }
+
+    private ProfileMenu buildProfileMenu(List<Object[]> rows, Map<Short, ContainerEntity> containers, String platform) {
+        List<MenuEntry> elements = new ArrayList<>();
+        Map<Short, List<MenuEntry>> childrenByContainer = new LinkedHashMap<>();
+
+        for (Object[] row : rows) {
+            Short containerId = (Short) row[8];
+            boolean available = isAvailable(platform, (Boolean) row[9], (Boolean) row[10], (Boolean) row[11]);
+            if (containerId == null) {
+                if (available) {
+                    elements.add(elementEntry(row));
+                }
+                continue;
+            }
+            ContainerEntity container = containers.get(containerId);
+            if (container == null
+                    || !isAvailable(platform, container.getIsWeb(), container.getIsMobile(), container.getIsDesktop())) {
+                continue;
+            }
+            List<MenuEntry> children = childrenByContainer.computeIfAbsent(containerId, id -> new ArrayList<>());
+            if (available) {
+                children.add(elementEntry(row));
+            }
+        }
+
+        List<ContainerNode> containerNodes = new ArrayList<>();
+        childrenByContainer.forEach((containerId, children) ->
+                containerNodes.add(new ContainerNode(containerEntry(containers.get(containerId)), List.copyOf(children))));
+
+        return new ProfileMenu(List.copyOf(elements), List.copyOf(containerNodes));
+    }
+
+    /**
+     * Une los árboles de varios perfiles sin duplicar elementos ni contenedores, ordenados por orderIndex
+     */
+    private static List<NavigationItemDTO> merge(List<ProfileMenu> profileMenus) {
+        Map<Short, MenuEntry> elements = new LinkedHashMap<>();
+        Map<Short, MenuEntry> containers = new LinkedHashMap<>();
+        Map<Short, Map<Short, MenuEntry>> children = new HashMap<>();
+
+        for (ProfileMenu profileMenu : profileMenus) {
+            profileMenu.elements().forEach(element -> elements.putIfAbsent(element.id(), element));
+            for (ContainerNode node : profileMenu.containers()) {
+                containers.putIfAbsent(node.container().id(), node.container());
+                Map<Short, MenuEntry> containerChildren =
+                        children.computeIfAbsent(node.container().id(), id -> new LinkedHashMap<>());
+                node.children().forEach(child -> containerChildren.putIfAbsent(child.id(), child));
+            }
+        }
+
+        List<NavigationItemDTO> menuItems = new ArrayList<>(sorted(elements.values()).stream().map(MenuEntry::item).toList());
+        for (MenuEntry container : sorted(containers.values())) {
+            NavigationItemDTO item = container.item();
+            menuItems.add(new NavigationItemDTO(
+                    item.id(),
+                    item.displayName(),
+                    item.icon(),
+                    item.iconUrl(),
+                    null, // Los contenedores no tienen ruta directa
+                    sorted(children.get(container.id()).values()).stream().map(MenuEntry::item).toList()
+            ));
+        }
+        return List.copyOf(menuItems);
+    }
+
+    private static List<MenuEntry> sorted(Collection<MenuEntry> entries) {
+        return entries.stream()
+                .sorted(Comparator.comparingInt(MenuEntry::orderIndex))
+                .toList();
+    }
+
+    private static MenuEntry elementEntry(Object[] row) {
+        String icon = (String) row[4];
+        return new MenuEntry((Short) row[1], (Integer) row[7], new NavigationItemDTO(
+                ((UUID) row[2]).toString(),
+                (String) row[3],
+                icon != null ? icon : "",
+                (String) row[5],
+                (String) row[6]
+        ));
+    }
+
+    private static MenuEntry containerEntry(ContainerEntity container) {
+        return new MenuEntry(container.getId(), container.getOrderIndex(), new NavigationItemDTO(
+                container.getPublicId().toString(),
+                container.getDisplayName(),
+                container.getIcon() != null ? container.getIcon() : "",
+                container.getIconUrl(),
+                null
+        ));
+    }
+
+    private static boolean isAvailable(String platform, Boolean isWeb, Boolean isMobile, Boolean isDesktop) {
+        return switch (platform) {
+            case "WEB" -> Boolean.TRUE.equals(isWeb);
+            case "MOBILE" -> Boolean.TRUE.equals(isMobile);
+            case "DESKTOP" -> Boolean.TRUE.equals(isDesktop);
+            default -> false;
+        };
+    }
+
+    private String etag(List<NavigationItemDTO> items) {
+        try {
+            return "\"menu-" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(items)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize navigation menu", e);
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class ProfileService implements IProfileUseCase {
     private final IElementRepository elementRepository;
     private final IContainerRepository containerRepository;
     private final IProfileMapper profileMapper;
+    private final MenuCatalog menuCatalog;
 
     @Override
     @Transactional
@@ -78,6 +79,7 @@ public class ProfileService implements IProfileUseCase {
         log.info("Attempting to delete profile with public ID: {}", publicId);
         ProfileEntity profileToDelete = findByPublicId(publicId);
         profileRepository.delete(profileToDelete);
+        menuCatalog.invalidate();
         log.info("Successfully deleted profile with public ID: {}", publicId);
     }
 
@@ -155,6 +157,8 @@ public class ProfileService implements IProfileUseCase {
             }
         }
 
+        menuCatalog.invalidate();
+
         log.info("Successfully assigned {} elements to profile {}", request.elementPublicIds().size(), profilePublicId);
     }
 
@@ -0,0 +1,115 @@
+package com.agropay.core.auth.application.service;
+
+import com.agropay.core.auth.model.AccessTokenClaims;
+import com.agropay.core.auth.persistence.RevokedRefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens revocados antes de su expiración:
+ * - Por jti, en el logout (access token y refresh token)
+ * - Por usuario, al desactivarlo: se rechazan todos sus tokens emitidos hasta ese momento
+ *
+ * Las revocaciones en memoria son de este nodo. Cada entrada se descarta cuando ya no puede existir un token
+ * vigente al que aplique (expiración del token, o la del refresh token para las revocaciones por usuario),
+ * así que la lista no crece sin límite. En otros nodos:
+ * - Un access token revocado en el logout sigue siendo aceptado hasta su expiración (spring.security.jwt.expiration)
+ * - Los refresh tokens revocados se guardan además en app.tbl_revoked_refresh_tokens, que /v1/auth/refresh
+ *   consulta, así que ningún nodo los canjea
+ * - Un usuario desactivado se rechaza cuando su estado en UserStatusCache vence (spring.security.jwt.user-cache-ttl)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final RevokedRefreshTokenRepository revokedRefreshTokenRepository;
+
+    @Value("${spring.security.jwt.refresh-expiration}")
+    private Long refreshTokenExpiration;
+
+    // jti -> expiración del token
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // username -> tokens emitidos hasta este instante quedan revocados
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private record UserRevocation(Instant issuedUntil, Instant expiresAt) {}
+
+    private volatile Instant nextPurge = Instant.now();
+
+    public void revokeToken(AccessTokenClaims token) {
+        purgeExpired();
+        if (token.tokenId() == null) {
+            log.debug("Token of user {} has no id and cannot be revoked", token.username());
+            return;
+        }
+        revokedTokens.put(token.tokenId(), token.expiresAt());
+    }
+
+    /**
+     * Revoca el refresh token en este nodo y en la BD, para que no se pueda canjear en ningún nodo
+     */
+    public void revokeRefreshToken(AccessTokenClaims token) {
+        revokeToken(token);
+        if (token.tokenId() != null) {
+            revokedRefreshTokenRepository.insert(token.tokenId(), token.username(), Instant.now(), token.expiresAt());
+            purgeExpiredRefreshTokens();
+        }
+    }
+
+    public void revokeUser(String username) {
+        purgeExpired();
+        // iat tiene precisión de segundos: se revoca también el segundo en curso
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revokedUsers.put(username, new UserRevocation(now, now.plusMillis(refreshTokenExpiration)));
+    }
+
+    public boolean isRevoked(AccessTokenClaims token) {
+        if (token.tokenId() != null && revokedTokens.containsKey(token.tokenId())) {
+            return true;
+        }
+        UserRevocation revocation = revokedUsers.get(token.username());
+        return revocation != null && !token.issuedAt().isAfter(revocation.issuedUntil());
+    }
+
+    /**
+     * Como isRevoked, incluyendo los refresh tokens revocados en otros nodos. Consulta la BD: solo para /refresh
+     */
+    public boolean isRefreshTokenRevoked(AccessTokenClaims token) {
+        return isRevoked(token)
+            || (token.tokenId() != null && revokedRefreshTokenRepository.isRevoked(token.tokenId()));
+    }
+
+    private void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+    }
+
+    private void purgeExpiredRefreshTokens() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(PURGE_INTERVAL);
+        try {
+            int deleted = revokedRefreshTokenRepository.deleteExpired(now);
+            if (deleted > 0) {
+                log.info("Revocaciones de refresh tokens vencidos eliminadas: {}", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron eliminar las revocaciones de refresh tokens vencidos: {}", e.getMessage());
+        }
+    }
+}
@@ -57,6 +57,9 @@ public class UserManagementService implements IUserManagementUseCase {
     private final IEmployeeRepository employeeRepository;
     private final IContractRepository contractRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList revocationList;
+    private final MenuCatalog menuCatalog;
 
     @Override
     @Transactional
@@ -98,6 +101,7 @@ public class UserManagementService implements IUserManagementUseCase {
         newUser.setIsActive(true);
 
         UserEntity savedUser = userRepository.save(newUser);
+        userStatusCache.invalidate(savedUser.getUsername());
         log.info("User created with publicId: {}, username: {}, employeeId: {}", 
                 savedUser.getPublicId(), savedUser.getUsername(), savedUser.getEmployeeId());
 
@@ -367,6 +371,8 @@ public class UserManagementService implements IUserManagementUseCase {
             }
         }
 
+        menuCatalog.invalidate();
+
         log.info("Successfully assigned {} elements to user {} through custom profile", 
                 request.elementPublicIds().size(), user.getUsername());
         
@@ -485,6 +491,8 @@ public class UserManagementService implements IUserManagementUseCase {
             }
         }
 
+        userStatusCache.invalidate(user.getUsername());
+
         log.info("Successfully synchronized {} profiles for user {}", 
                 request.profileIds().size(), user.getUsername());
     }
@@ -499,6 +507,10 @@ public class UserManagementService implements IUserManagementUseCase {
 
         user.setIsActive(request.isActive());
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
+        if (!request.isActive()) {
+            revocationList.revokeUser(user.getUsername());
+        }
 
         log.info("User {} status updated to {}", user.getUsername(), request.isActive() ? "ACTIVE" : "INACTIVE");
     }
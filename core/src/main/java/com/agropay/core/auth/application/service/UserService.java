@@ -4,10 +4,12 @@ import com.agropay.core.auth.application.usecase.IUserUseCase;
 import com.agropay.core.auth.domain.UserEntity;
 import com.agropay.core.auth.domain.ProfileEntity;
 import com.agropay.core.auth.domain.UserProfileEntity;
+import com.agropay.core.auth.model.AccessTokenClaims;
 import com.agropay.core.auth.model.ChangePasswordRequest;
 import com.agropay.core.auth.model.LoginRequest;
 import com.agropay.core.auth.model.LoginResponse;
 import com.agropay.core.auth.model.NavigationItemDTO;
+import com.agropay.core.auth.model.NavigationMenu;
 import com.agropay.core.auth.persistence.IUserRepository;
 import com.agropay.core.auth.persistence.IProfileRepository;
 import com.agropay.core.auth.persistence.IUserProfileRepository;
@@ -26,7 +28,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -41,6 +45,8 @@ public class UserService implements IUserUseCase {
     private final CustomUserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final MenuService menuService;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList revocationList;
 
     @Value("${spring.security.jwt.expiration}")
     private Long jwtExpiration;
@@ -64,9 +70,6 @@ public class UserService implements IUserUseCase {
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(request.username());
 
-            String token = tokenProvider.generateToken(userDetails);
-            String refreshToken = tokenProvider.generateRefreshToken(userDetails);
-
             UserEntity user = userRepository.findByUsername(request.username())
                     .orElseThrow(() -> new BusinessValidationException("auth.user-not-found", request.username()));
 
@@ -75,6 +78,9 @@ public class UserService implements IUserUseCase {
                 throw new BusinessValidationException("auth.user-inactive", "El usuario está inactivo y no puede iniciar sesión.");
             }
 
+            String token = tokenProvider.generateToken(userDetails, user.getId(), getProfileIds(user));
+            String refreshToken = tokenProvider.generateRefreshToken(userDetails);
+
             String platform = request.platform() != null && !request.platform().isBlank() 
                     ? request.platform().toUpperCase() 
                     : "WEB";
@@ -186,16 +192,21 @@ public class UserService implements IUserUseCase {
                 throw new BusinessValidationException("auth.refresh-token-expired");
             }
 
+            if (tokenProvider.parseToken(request.refreshToken()).map(revocationList::isRefreshTokenRevoked).orElse(true)) {
+                log.warn("Revoked refresh token provided");
+                throw new BusinessValidationException("auth.invalid-refresh-token");
+            }
+
             String username = tokenProvider.getUsernameFromToken(request.refreshToken());
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-            String newToken = tokenProvider.generateToken(userDetails);
-            String newRefreshToken = tokenProvider.generateRefreshToken(userDetails);
-
             UserEntity user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new BusinessValidationException("auth.user-not-found", username));
 
+            String newToken = tokenProvider.generateToken(userDetails, user.getId(), getProfileIds(user));
+            String newRefreshToken = tokenProvider.generateRefreshToken(userDetails);
+
             List<NavigationItemDTO> menu = menuService.getMenuByUserId(user.getId());
 
             log.info("Token refreshed successfully for user: {}", username);
@@ -220,10 +231,33 @@ public class UserService implements IUserUseCase {
 
     @Override
     @Transactional
-    public void logout(String username) {
+    public void logout(String username, AccessTokenClaims token, String refreshToken) {
+        if (token != null) {
+            revocationList.revokeToken(token);
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            // Solo se revoca un refresh token válido del mismo usuario; uno ajeno o inválido se ignora
+            tokenProvider.parseToken(refreshToken)
+                    .filter(claims -> claims.refresh() && username.equals(claims.username()))
+                    .ifPresentOrElse(revocationList::revokeRefreshToken,
+                            () -> log.warn("Logout of user {} with an invalid refresh token, ignored", username));
+        }
         log.info("User {} logged out", username);
     }
 
+    /**
+     * Perfil principal y perfiles adicionales activos, que viajan en el token
+     */
+    private Set<Short> getProfileIds(UserEntity user) {
+        Set<Short> profileIds = new LinkedHashSet<>();
+        if (user.getProfileId() != null) {
+            profileIds.add(user.getProfileId());
+        }
+        userProfileRepository.findActiveProfilesByUserId(user.getId())
+                .forEach(userProfile -> profileIds.add(userProfile.getProfile().getId()));
+        return profileIds;
+    }
+
     @Override
     @Transactional
     public void changePassword(String username, ChangePasswordRequest request) {
@@ -250,8 +284,16 @@ public class UserService implements IUserUseCase {
         String newPasswordHash = passwordEncoder.encode(request.newPassword());
         user.setPasswordHash(newPasswordHash);
         userRepository.save(user);
+        userStatusCache.invalidate(username);
         
         log.info("Password changed successfully for user: {}", username);
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public NavigationMenu getMenu(String username, String platform) {
+        UserEntity user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BusinessValidationException("auth.user-not-found", username));
+        return menuService.getUserMenu(user.getId(), platform);
+    }
+}
@@ -0,0 +1,84 @@
+package com.agropay.core.auth.application.service;
+
+import com.agropay.core.shared.utils.BoundedCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Estado de los usuarios autenticados por token (spring.security.jwt.user-cache-*), para que el filtro
+ * de autenticación no consulte tbl_users en cada request. También guarda los usuarios inexistentes o
+ * inactivos, para que un token de un usuario dado de baja no llegue a la BD en cada llamada.
+ *
+ * UserService, UserManagementService y ContractServiceImpl (alta o reactivación del usuario de un empleado)
+ * invalidan el usuario al confirmar sus cambios; el TTL corto cubre los cambios hechos en otro nodo
+ * o directamente en la BD.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    @Value("${spring.security.jwt.user-cache-size:10000}")
+    private int maxUsers;
+
+    @Value("${spring.security.jwt.user-cache-ttl:60s}")
+    private Duration ttl;
+
+    private BoundedCache<String, UserStatus> users;
+
+    /**
+     * principal es null si el usuario no existe o está inactivo
+     */
+    public record UserStatus(UserDetails principal) {
+
+        public boolean active() {
+            return principal != null;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        users = new BoundedCache<>(maxUsers, ttl);
+    }
+
+    public UserStatus get(String username) {
+        return users.get(username, this::load);
+    }
+
+    /**
+     * Invalida el usuario cuando se confirme la transacción actual (o de inmediato si no hay una)
+     */
+    public void invalidate(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(username);
+                }
+            });
+        } else {
+            users.invalidate(username);
+        }
+    }
+
+    private UserStatus load(String username) {
+        try {
+            UserDetails details = userDetailsService.loadUserByUsername(username);
+            // El hash de la contraseña no se guarda en memoria
+            UserDetails principal = User.withUserDetails(details).password("").build();
+            return new UserStatus(principal);
+        } catch (UsernameNotFoundException e) {
+            return new UserStatus(null);
+        }
+    }
+}
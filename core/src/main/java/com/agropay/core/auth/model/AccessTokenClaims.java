@@ -0,0 +1,21 @@
+package com.agropay.core.auth.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de un token ya verificado (firma y expiración), leídos una sola vez por request.
+ * userId, profileIds y active son null en los tokens emitidos antes de incluirlos, y tokenId
+ * también, por lo que esos tokens no se pueden revocar individualmente.
+ */
+public record AccessTokenClaims(
+        String tokenId,
+        String username,
+        Short userId,
+        List<Short> profileIds,
+        Boolean active,
+        boolean refresh,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+}
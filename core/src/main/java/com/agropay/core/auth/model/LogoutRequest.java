@@ -0,0 +1,9 @@
+package com.agropay.core.auth.model;
+
+/**
+ * refreshToken es opcional: si se envía, se revoca junto con el access token de la sesión
+ */
+public record LogoutRequest(
+        String refreshToken
+) {
+}
@@ -0,0 +1,12 @@
+package com.agropay.core.auth.model;
+
+import java.util.List;
+
+/**
+ * Menú de un usuario para una plataforma y su ETag, que cambia solo si cambia el contenido del menú
+ */
+public record NavigationMenu(
+        List<NavigationItemDTO> items,
+        String etag
+) {
+}
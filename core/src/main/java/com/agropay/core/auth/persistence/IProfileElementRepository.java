@@ -36,5 +36,19 @@ public interface IProfileElementRepository extends JpaRepository<ProfileElementE
     Optional<ProfileElementEntity> findByProfileIdAndElementId(
             @Param("profileId") Short profileId,
             @Param("elementId") Short elementId);
-}
 
+    /**
+     * Elementos activos asignados a cada perfil, con los datos del menú, para materializar los menús de todos
+     * los perfiles en una sola consulta.
+     * Orden: profileId, elementId, publicId, displayName, icon, iconUrl, route, orderIndex, containerId,
+     * isWeb, isMobile, isDesktop
+     */
+    @Query("SELECT pe.profile.id, e.id, e.publicId, e.displayName, e.icon, e.iconUrl, e.route, e.orderIndex, " +
+           "e.container.id, e.isWeb, e.isMobile, e.isDesktop " +
+           "FROM ProfileElementEntity pe " +
+           "JOIN pe.element e " +
+           "WHERE e.isActive = true " +
+           "AND e.deletedAt IS NULL " +
+           "AND pe.deletedAt IS NULL")
+    List<Object[]> findMenuElements();
+}
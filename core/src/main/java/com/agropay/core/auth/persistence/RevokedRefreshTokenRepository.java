@@ -0,0 +1,60 @@
+package com.agropay.core.auth.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Acceso JDBC a app.tbl_revoked_refresh_tokens (refresh tokens revocados en el logout, por jti).
+ *
+ * Solo se escribe en el logout y se lee en /v1/auth/refresh, por lo que no se mapea como entidad.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevokedRefreshTokenRepository {
+
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registra la revocación; revocar dos veces el mismo token no es un error
+     */
+    public void insert(String tokenId, String username, Instant revokedAt, Instant expiresAt) {
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO app.tbl_revoked_refresh_tokens (token_id, username, revoked_at, expires_at) VALUES (?, ?, ?, ?)",
+                tokenId, username, Timestamp.from(revokedAt), Timestamp.from(expiresAt));
+        } catch (DuplicateKeyException e) {
+            // Ya estaba revocado
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM app.tbl_revoked_refresh_tokens WHERE token_id = ?",
+            Integer.class, tokenId);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Elimina revocaciones de tokens ya vencidos por bloques, para no bloquear la tabla
+     *
+     * @return cantidad de filas eliminadas
+     */
+    public int deleteExpired(Instant now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                "DELETE TOP (" + DELETE_BATCH_SIZE + ") FROM app.tbl_revoked_refresh_tokens WHERE expires_at <= ?",
+                Timestamp.from(now));
+            total += deleted;
+        } while (deleted == DELETE_BATCH_SIZE);
+        return total;
+    }
+}
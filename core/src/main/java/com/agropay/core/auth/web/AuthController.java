@@ -1,9 +1,13 @@
 package com.agropay.core.auth.web;
 
 import com.agropay.core.auth.application.usecase.IUserUseCase;
+import com.agropay.core.auth.model.AccessTokenClaims;
 import com.agropay.core.auth.model.ChangePasswordRequest;
 import com.agropay.core.auth.model.LoginRequest;
 import com.agropay.core.auth.model.LoginResponse;
+import com.agropay.core.auth.model.LogoutRequest;
+import com.agropay.core.auth.model.NavigationItemDTO;
+import com.agropay.core.auth.model.NavigationMenu;
 import com.agropay.core.auth.model.RefreshTokenRequest;
 import com.agropay.core.organization.application.usecase.IEmployeeUseCase;
 import com.agropay.core.organization.model.employee.EmployeeMeResponse;
@@ -18,6 +22,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1/auth")
@@ -47,11 +54,12 @@ public class AuthController {
 
     @PostMapping("/logout")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Cerrar sesión", description = "Cierra la sesión del usuario actual")
-    public ResponseEntity<ApiResult<Void>> logout() {
+    @Operation(summary = "Cerrar sesión", description = "Cierra la sesión del usuario actual y revoca el refresh token enviado")
+    public ResponseEntity<ApiResult<Void>> logout(@RequestBody(required = false) LogoutRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
-        userUseCase.logout(username);
+        AccessTokenClaims token = authentication.getCredentials() instanceof AccessTokenClaims claims ? claims : null;
+        userUseCase.logout(username, token, request != null ? request.refreshToken() : null);
         return ResponseEntity.ok(ApiResult.success(null));
     }
 
@@ -84,6 +92,22 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/menu")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Obtener el menú del usuario logueado",
+            description = "Menú de navegación del usuario para la plataforma indicada (WEB, MOBILE, DESKTOP; por defecto WEB). " +
+                    "Responde 304 si el menú no cambió desde el ETag enviado en If-None-Match.")
+    public ResponseEntity<ApiResult<List<NavigationItemDTO>>> getMyMenu(
+            @RequestParam(required = false) String platform,
+            ServletWebRequest webRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        NavigationMenu menu = userUseCase.getMenu(authentication.getName(), platform);
+        if (webRequest.checkNotModified(menu.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResult.success(menu.items()));
+    }
+
     @PostMapping("/change-password")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Cambiar contraseña", description = "Permite al usuario autenticado cambiar su contraseña")
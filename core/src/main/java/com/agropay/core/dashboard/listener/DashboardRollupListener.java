@@ -0,0 +1,36 @@
+package com.agropay.core.dashboard.listener;
+
+import com.agropay.core.assignment.events.TareoChangedEvent;
+import com.agropay.core.attendance.events.AttendanceMarkingEvent;
+import com.agropay.core.dashboard.service.DashboardRollupService;
+import com.agropay.core.payroll.events.PayrollChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Marca como pendientes las porciones de los agregados del dashboard que cambiaron con la transacción confirmada.
+ * Solo registra la porción: el recálculo lo hace DashboardRollupService en su propio hilo.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardRollupListener {
+
+    private final DashboardRollupService rollupService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMarking(AttendanceMarkingEvent event) {
+        rollupService.markingChanged(event.getSubsidiaryPublicId(), event.getMarkingDate());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTareo(TareoChangedEvent event) {
+        rollupService.tareoChanged(event.getSubsidiaryId(), event.getTareoDate());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPayroll(PayrollChangedEvent event) {
+        rollupService.payrollChanged(event.getSubsidiaryId());
+    }
+}
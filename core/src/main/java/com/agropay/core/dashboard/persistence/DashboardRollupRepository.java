@@ -0,0 +1,251 @@
+package com.agropay.core.dashboard.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acceso JDBC a los agregados del dashboard (V165): recálculo por porción y lecturas.
+ *
+ * Cada refresh borra la porción (subsidiaria y/o rango de días) y la vuelve a insertar agrupando las tablas
+ * de origen en una sola transacción, así que repetirlo es inofensivo. Los filtros por día usan rangos
+ * (>= día, < día siguiente) sobre marked_at / created_at para aprovechar los índices.
+ * Los parámetros subsidiaryId en null significan todas las subsidiarias.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DashboardRollupRepository {
+
+    private static final String PAYROLL_TOTALS_LOCK = "app.tbl_dashboard_payroll_totals";
+    private static final int PAYROLL_TOTALS_LOCK_TIMEOUT_MS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LaborTareos(String laborName, long tareoCount, long employeeCount) {}
+
+    public record TareoTotals(long tareoCount, long processedCount) {}
+
+    public record StatusTotals(String stateCode, long payrollCount, BigDecimal totalNet) {}
+
+    public record MonthTotals(int year, int month, long payrollCount, BigDecimal totalNet) {}
+
+    public record DayMarkings(LocalDate date, long entries, long exits) {}
+
+    public record SubsidiaryHeadcount(String subsidiaryName, long employeeCount) {}
+
+    // ========== Recálculo ==========
+
+    @Transactional
+    public void refreshMarkings(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        String subsidiaryFilter = subsidiaryFilter("subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "DELETE FROM app.tbl_dashboard_daily_markings WHERE marking_date >= ? AND marking_date <= ?" + subsidiaryFilter,
+            args.toArray());
+
+        args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to.plusDays(1))));
+        subsidiaryFilter = subsidiaryFilter("m.subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_dashboard_daily_markings (subsidiary_id, marking_date, entries, exits, refreshed_at) " +
+            "SELECT m.subsidiary_id, CAST(md.marked_at AS DATE), " +
+            "       SUM(CASE WHEN md.is_entry = 1 THEN 1 ELSE 0 END), " +
+            "       SUM(CASE WHEN md.is_entry = 0 THEN 1 ELSE 0 END), GETUTCDATE() " +
+            "FROM app.tbl_marking_details md " +
+            "INNER JOIN app.tbl_markings m ON m.id = md.marking_id " +
+            "WHERE md.marked_at >= ? AND md.marked_at < ? " +
+            "AND md.deleted_at IS NULL AND m.deleted_at IS NULL" + subsidiaryFilter + " " +
+            "GROUP BY m.subsidiary_id, CAST(md.marked_at AS DATE)",
+            args.toArray());
+    }
+
+    @Transactional
+    public void refreshTareos(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        String subsidiaryFilter = subsidiaryFilter("subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "DELETE FROM app.tbl_dashboard_daily_tareos WHERE tareo_date >= ? AND tareo_date <= ?" + subsidiaryFilter,
+            args.toArray());
+
+        args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to.plusDays(1))));
+        subsidiaryFilter = subsidiaryFilter("t.subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_dashboard_daily_tareos " +
+            "(subsidiary_id, tareo_date, labor_id, tareo_count, processed_count, employee_count, refreshed_at) " +
+            "SELECT t.subsidiary_id, CAST(t.created_at AS DATE), t.labor_id, COUNT(*), " +
+            "       SUM(CASE WHEN te.employee_count > 0 THEN 1 ELSE 0 END), SUM(te.employee_count), GETUTCDATE() " +
+            "FROM app.tbl_tareos t " +
+            "OUTER APPLY (SELECT COUNT(*) AS employee_count FROM app.tbl_tareo_employees e " +
+            "             WHERE e.tareo_id = t.id AND e.deleted_at IS NULL) te " +
+            "WHERE t.created_at >= ? AND t.created_at < ? AND t.deleted_at IS NULL" + subsidiaryFilter + " " +
+            "GROUP BY t.subsidiary_id, CAST(t.created_at AS DATE), t.labor_id",
+            args.toArray());
+    }
+
+    /**
+     * Las planillas son pocas (una por subsidiaria y periodo), se recalculan completas por subsidiaria
+     */
+    @Transactional
+    public void refreshPayrolls(Short subsidiaryId) {
+        // La conciliación corre en todos los nodos a la vez: sin serializar, dos DELETE + INSERT concurrentes
+        // chocan con UQ_dashboard_payroll_totals (V168)
+        Integer lock = jdbcTemplate.queryForObject(
+            "SET NOCOUNT ON; DECLARE @result INT; " +
+            "EXEC @result = sp_getapplock @Resource = ?, @LockMode = 'Exclusive', @LockOwner = 'Transaction', @LockTimeout = ?; " +
+            "SELECT @result",
+            Integer.class, PAYROLL_TOTALS_LOCK, PAYROLL_TOTALS_LOCK_TIMEOUT_MS);
+        if (lock == null || lock < 0) {
+            throw new CannotAcquireLockException("Could not lock " + PAYROLL_TOTALS_LOCK + " (sp_getapplock " + lock + ")");
+        }
+
+        List<Object> args = new ArrayList<>();
+        String subsidiaryFilter = subsidiaryFilter("subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "DELETE FROM app.tbl_dashboard_payroll_totals WHERE 1 = 1" + subsidiaryFilter,
+            args.toArray());
+
+        args = new ArrayList<>();
+        subsidiaryFilter = subsidiaryFilter("p.subsidiary_id", subsidiaryId, args);
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_dashboard_payroll_totals " +
+            "(subsidiary_id, period_id, state_id, year, month, period_start, payroll_count, total_net, refreshed_at) " +
+            "SELECT p.subsidiary_id, p.period_id, p.state_id, p.year, p.month, p.period_start, " +
+            "       COUNT(*), COALESCE(SUM(p.total_net), 0), GETUTCDATE() " +
+            "FROM app.tbl_payrolls p " +
+            "WHERE p.deleted_at IS NULL" + subsidiaryFilter + " " +
+            "GROUP BY p.subsidiary_id, p.period_id, p.state_id, p.year, p.month, p.period_start",
+            args.toArray());
+    }
+
+    @Transactional
+    public void refreshHeadcount(LocalDate snapshotDate) {
+        jdbcTemplate.update(
+            "DELETE FROM app.tbl_dashboard_employee_headcount WHERE snapshot_date = ?",
+            Date.valueOf(snapshotDate));
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_dashboard_employee_headcount (snapshot_date, subsidiary_id, employee_count, refreshed_at) " +
+            "SELECT ?, e.subsidiary_id, COUNT(*), GETUTCDATE() " +
+            "FROM app.tbl_employees e " +
+            "WHERE e.deleted_at IS NULL " +
+            "GROUP BY e.subsidiary_id",
+            Date.valueOf(snapshotDate));
+    }
+
+    // ========== Lecturas ==========
+
+    public List<DayMarkings> findMarkingsByDay(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("subsidiary_id", subsidiaryId, args) + dateFilters("marking_date", from, to, args);
+        return jdbcTemplate.query(
+            "SELECT marking_date, SUM(entries), SUM(exits) FROM app.tbl_dashboard_daily_markings " +
+            "WHERE 1 = 1" + filters + " GROUP BY marking_date ORDER BY marking_date ASC",
+            (rs, rowNum) -> new DayMarkings(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3)),
+            args.toArray());
+    }
+
+    public List<LaborTareos> findTareosByLabor(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("r.subsidiary_id", subsidiaryId, args) + dateFilters("r.tareo_date", from, to, args);
+        return jdbcTemplate.query(
+            "SELECT l.name, SUM(r.tareo_count), SUM(r.employee_count) " +
+            "FROM app.tbl_dashboard_daily_tareos r " +
+            "INNER JOIN app.tbl_labors l ON l.id = r.labor_id " +
+            "WHERE 1 = 1" + filters + " " +
+            "GROUP BY r.labor_id, l.name ORDER BY SUM(r.tareo_count) DESC",
+            (rs, rowNum) -> new LaborTareos(rs.getString(1), rs.getLong(2), rs.getLong(3)),
+            args.toArray());
+    }
+
+    public TareoTotals findTareoTotals(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("subsidiary_id", subsidiaryId, args) + dateFilters("tareo_date", from, to, args);
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(tareo_count), 0), COALESCE(SUM(processed_count), 0) " +
+            "FROM app.tbl_dashboard_daily_tareos WHERE 1 = 1" + filters,
+            (rs, rowNum) -> new TareoTotals(rs.getLong(1), rs.getLong(2)),
+            args.toArray());
+    }
+
+    public List<StatusTotals> findPayrollsByStatus(Short subsidiaryId, Integer periodId) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("r.subsidiary_id", subsidiaryId, args);
+        if (periodId != null) {
+            filters += " AND r.period_id = ?";
+            args.add(periodId);
+        }
+        return jdbcTemplate.query(
+            "SELECT s.code, SUM(r.payroll_count), SUM(r.total_net) " +
+            "FROM app.tbl_dashboard_payroll_totals r " +
+            "INNER JOIN app.tbl_states s ON s.id = r.state_id " +
+            "WHERE 1 = 1" + filters + " GROUP BY s.code",
+            (rs, rowNum) -> new StatusTotals(rs.getString(1), rs.getLong(2), rs.getBigDecimal(3)),
+            args.toArray());
+    }
+
+    public List<MonthTotals> findPayrollsByMonth(Short subsidiaryId, LocalDate from, LocalDate to) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("subsidiary_id", subsidiaryId, args) + dateFilters("period_start", from, to, args);
+        return jdbcTemplate.query(
+            "SELECT year, month, SUM(payroll_count), SUM(total_net) FROM app.tbl_dashboard_payroll_totals " +
+            "WHERE 1 = 1" + filters + " GROUP BY year, month ORDER BY year DESC, month DESC",
+            (rs, rowNum) -> new MonthTotals(rs.getInt(1), rs.getInt(2), rs.getLong(3), rs.getBigDecimal(4)),
+            args.toArray());
+    }
+
+    /**
+     * Empleados activos por subsidiaria según la última foto, de mayor a menor
+     */
+    public List<SubsidiaryHeadcount> findHeadcountBySubsidiary(Short subsidiaryId) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("h.subsidiary_id", subsidiaryId, args);
+        return jdbcTemplate.query(
+            "SELECT s.name, h.employee_count " +
+            "FROM app.tbl_dashboard_employee_headcount h " +
+            "INNER JOIN app.tbl_subsidiaries s ON s.id = h.subsidiary_id AND s.deleted_at IS NULL " +
+            "WHERE h.snapshot_date = (SELECT MAX(snapshot_date) FROM app.tbl_dashboard_employee_headcount)" + filters + " " +
+            "ORDER BY h.employee_count DESC",
+            (rs, rowNum) -> new SubsidiaryHeadcount(rs.getString(1), rs.getLong(2)),
+            args.toArray());
+    }
+
+    /**
+     * Total de empleados activos según la última foto
+     */
+    public long findTotalHeadcount(Short subsidiaryId) {
+        List<Object> args = new ArrayList<>();
+        String filters = subsidiaryFilter("subsidiary_id", subsidiaryId, args);
+        Long total = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(employee_count), 0) FROM app.tbl_dashboard_employee_headcount " +
+            "WHERE snapshot_date = (SELECT MAX(snapshot_date) FROM app.tbl_dashboard_employee_headcount)" + filters,
+            Long.class, args.toArray());
+        return total != null ? total : 0L;
+    }
+
+    private static String subsidiaryFilter(String column, Short subsidiaryId, List<Object> args) {
+        if (subsidiaryId == null) {
+            return "";
+        }
+        args.add(subsidiaryId);
+        return " AND " + column + " = ?";
+    }
+
+    private static String dateFilters(String column, LocalDate from, LocalDate to, List<Object> args) {
+        StringBuilder filters = new StringBuilder();
+        if (from != null) {
+            filters.append(" AND ").append(column).append(" >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            filters.append(" AND ").append(column).append(" <= ?");
+            args.add(Date.valueOf(to));
+        }
+        return filters.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package com.agropay.core.dashboard.service;
+
+import com.agropay.core.dashboard.persistence.DashboardRollupRepository;
+import com.agropay.core.organization.persistence.ISubsidiaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene los agregados del dashboard (DashboardRollupRepository):
+ * - Los eventos de marcación, tareo y planilla marcan como pendiente la porción que cambió (subsidiaria y día,
+ *   o subsidiaria para planillas); cada dashboard.rollup.flush-interval se recalculan las pendientes.
+ *   Muchas marcaciones del mismo día se resuelven con un solo recálculo
+ * - La foto de empleados por subsidiaria se recalcula cada dashboard.rollup.headcount-interval
+ * - La conciliación (dashboard.rollup.reconcile-cron) recalcula los últimos dashboard.rollup.reconcile-days días
+ *   y todas las planillas, para cubrir lo que no pasa por eventos (otros nodos, cambios por SQL, fallos)
+ *
+ * Una porción que falla al recalcularse vuelve a quedar pendiente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardRollupService {
+
+    private final DashboardRollupRepository rollupRepository;
+    private final ISubsidiaryRepository subsidiaryRepository;
+
+    @Value("${dashboard.rollup.flush-interval:15s}")
+    private Duration flushInterval;
+
+    @Value("${dashboard.rollup.headcount-interval:5m}")
+    private Duration headcountInterval;
+
+    @Value("${dashboard.rollup.reconcile-cron:0 30 2 * * *}")
+    private String reconcileCron;
+
+    @Value("${dashboard.rollup.reconcile-days:7}")
+    private int reconcileDays;
+
+    private record MarkingDay(UUID subsidiaryPublicId, LocalDate date) {}
+
+    private record TareoDay(Short subsidiaryId, LocalDate date) {}
+
+    private final Set<MarkingDay> pendingMarkings = ConcurrentHashMap.newKeySet();
+    private final Set<TareoDay> pendingTareos = ConcurrentHashMap.newKeySet();
+    private final Set<Short> pendingPayrolls = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+    private CronExpression reconcileSchedule;
+
+    @PostConstruct
+    void init() {
+        reconcileSchedule = CronExpression.parse(reconcileCron);
+        // Un solo hilo: el flush, la foto de empleados y la conciliación nunca se ejecutan a la vez
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush,
+            flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::refreshHeadcount,
+            0, headcountInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduleReconcile();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void markingChanged(UUID subsidiaryPublicId, LocalDate date) {
+        pendingMarkings.add(new MarkingDay(subsidiaryPublicId, date));
+    }
+
+    public void tareoChanged(Short subsidiaryId, LocalDate date) {
+        pendingTareos.add(new TareoDay(subsidiaryId, date));
+    }
+
+    public void payrollChanged(Short subsidiaryId) {
+        pendingPayrolls.add(subsidiaryId);
+    }
+
+    /**
+     * Recalcula las porciones pendientes
+     */
+    void flush() {
+        drain(pendingMarkings, day -> subsidiaryRepository.findByPublicId(day.subsidiaryPublicId())
+            .ifPresent(subsidiary -> rollupRepository.refreshMarkings(subsidiary.getId(), day.date(), day.date())));
+        drain(pendingTareos,
+            day -> rollupRepository.refreshTareos(day.subsidiaryId(), day.date(), day.date()));
+        drain(pendingPayrolls, rollupRepository::refreshPayrolls);
+    }
+
+    /**
+     * Recalcula los últimos reconcile-days días de marcaciones y tareos, todas las planillas y la foto de empleados
+     */
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(reconcileDays);
+        long start = System.currentTimeMillis();
+        try {
+            rollupRepository.refreshMarkings(null, from, today);
+            rollupRepository.refreshTareos(null, from, today);
+            rollupRepository.refreshPayrolls(null);
+            rollupRepository.refreshHeadcount(today);
+            log.info("Agregados del dashboard conciliados del {} al {} en {} ms", from, today,
+                System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error conciliando los agregados del dashboard", e);
+        }
+    }
+
+    private void refreshHeadcount() {
+        try {
+            rollupRepository.refreshHeadcount(LocalDate.now());
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar la foto de empleados del dashboard: {}", e.getMessage());
+        }
+    }
+
+    private void scheduleReconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = reconcileSchedule.next(now);
+        if (next == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            reconcile();
+            scheduleReconcile();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> void drain(Set<T> pending, Consumer<T> refresh) {
+        List<T> failed = new ArrayList<>();
+        Iterator<T> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            T key = iterator.next();
+            iterator.remove();
+            try {
+                refresh.accept(key);
+            } catch (Exception e) {
+                log.warn("No se pudo recalcular el agregado del dashboard {}: {}", key, e.getMessage());
+                failed.add(key);
+            }
+        }
+        // Se reintentan en el próximo flush
+        pending.addAll(failed);
+    }
+}
@@ -1,71 +1,94 @@
 package com.agropay.core.dashboard.service;
 
-import com.agropay.core.assignment.persistence.ITareoRepository;
 import com.agropay.core.dashboard.model.*;
-import com.agropay.core.organization.persistence.IEmployeeRepository;
+import com.agropay.core.dashboard.persistence.DashboardRollupRepository;
+import com.agropay.core.dashboard.persistence.DashboardRollupRepository.StatusTotals;
+import com.agropay.core.dashboard.persistence.DashboardRollupRepository.TareoTotals;
 import com.agropay.core.organization.persistence.ISubsidiaryRepository;
+import com.agropay.core.payroll.enums.PayrollState;
 import com.agropay.core.payroll.persistence.IPayrollPeriodRepository;
-import com.agropay.core.payroll.persistence.IPayrollRepository;
-import com.agropay.core.attendance.persistence.IMarkingRepository;
+import com.agropay.core.shared.persistence.ParallelQueryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Indicadores del dashboard leídos de los agregados diarios (DashboardRollupRepository), que mantiene
+ * DashboardRollupService. El costo de cada consulta depende de los días / subsidiarias pedidos y no del
+ * volumen de marcaciones y tareos acumulados.
+ *
+ * getStats ejecuta sus consultas en paralelo (ParallelQueryExecutor), cada una con su transacción; por eso el
+ * servicio no abre una transacción propia, que retendría una conexión mientras espera.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class DashboardService {
 
-    private final IEmployeeRepository employeeRepository;
+    private static final Set<String> PENDING_PAYROLL_STATES =
+            Set.of(PayrollState.DRAFT.getCode(), PayrollState.IN_PROGRESS.getCode());
+
     private final ISubsidiaryRepository subsidiaryRepository;
-    private final IPayrollRepository payrollRepository;
     private final IPayrollPeriodRepository payrollPeriodRepository;
-    private final ITareoRepository tareoRepository;
-    private final IMarkingRepository markingRepository;
+    private final DashboardRollupRepository rollupRepository;
+    private final ParallelQueryExecutor parallelQueryExecutor;
 
     public DashboardStatsDTO getStats(UUID subsidiaryPublicId, UUID periodPublicId, LocalDate dateFrom, LocalDate dateTo) {
         log.debug("Getting dashboard stats with filters - subsidiary: {}, period: {}, dateFrom: {}, dateTo: {}",
                 subsidiaryPublicId, periodPublicId, dateFrom, dateTo);
 
-        Long totalEmployees = getTotalEmployees(subsidiaryPublicId);
-        Long totalPayrolls = getTotalPayrolls(subsidiaryPublicId, periodPublicId);
-        Double totalPayrollsAmount = getTotalPayrollsAmount(subsidiaryPublicId, periodPublicId);
-        Long activeSubsidiaries = getActiveSubsidiaries();
-        Long totalTareos = getTotalTareos(subsidiaryPublicId, dateFrom, dateTo);
-        Long processedTareos = getProcessedTareos(subsidiaryPublicId, dateFrom, dateTo);
-        Long pendingPayrolls = getPendingPayrolls(subsidiaryPublicId, periodPublicId);
+        Short subsidiaryId = subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null;
+        Integer periodId = periodPublicId != null ? getPeriodId(periodPublicId) : null;
+
+        ParallelQueryExecutor.Batch batch = parallelQueryExecutor.batch("dashboard.stats");
+        ParallelQueryExecutor.Pending<Long> employees =
+                batch.submit("employees", () -> rollupRepository.findTotalHeadcount(subsidiaryId));
+        ParallelQueryExecutor.Pending<List<StatusTotals>> payrollTotals =
+                batch.submit("payrolls", () -> rollupRepository.findPayrollsByStatus(subsidiaryId, periodId));
+        ParallelQueryExecutor.Pending<TareoTotals> tareoTotals =
+                batch.submit("tareos", () -> rollupRepository.findTareoTotals(subsidiaryId, dateFrom, dateTo));
+        ParallelQueryExecutor.Pending<Long> subsidiaries =
+                batch.submit("subsidiaries", subsidiaryRepository::count);
+
+        List<StatusTotals> payrolls = payrollTotals.join();
+        TareoTotals tareos = tareoTotals.join();
 
         return new DashboardStatsDTO(
-                totalEmployees,
-                totalPayrolls,
-                totalPayrollsAmount,
-                activeSubsidiaries,
-                totalTareos,
-                processedTareos,
-                pendingPayrolls
+                employees.join(),
+                payrolls.stream().mapToLong(StatusTotals::payrollCount).sum(),
+                payrolls.stream()
+                        .map(StatusTotals::totalNet)
+                        .filter(amount -> amount != null)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .doubleValue(),
+                subsidiaries.join(),
+                tareos.tareoCount(),
+                tareos.processedCount(),
+                payrolls.stream()
+                        .filter(totals -> PENDING_PAYROLL_STATES.contains(totals.stateCode()))
+                        .mapToLong(StatusTotals::payrollCount)
+                        .sum()
         );
     }
 
     public List<PayrollsByStatusDTO> getPayrollsByStatus(UUID subsidiaryPublicId, UUID periodPublicId) {
         log.debug("Getting payrolls by status - subsidiary: {}, period: {}", subsidiaryPublicId, periodPublicId);
 
-        List<Object[]> results = payrollRepository.getPayrollsByStatusGrouped(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                periodPublicId != null ? getPeriodId(periodPublicId) : null
-        );
-
-        return results.stream()
-                .map(row -> new PayrollsByStatusDTO(
-                        (String) row[0],
-                        ((Number) row[1]).longValue(),
-                        row[2] != null ? ((Number) row[2]).doubleValue() : 0.0
+        return rollupRepository.findPayrollsByStatus(
+                        subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
+                        periodPublicId != null ? getPeriodId(periodPublicId) : null
+                ).stream()
+                .map(totals -> new PayrollsByStatusDTO(
+                        totals.stateCode(),
+                        totals.payrollCount(),
+                        totals.totalNet() != null ? totals.totalNet().doubleValue() : 0.0
                 ))
                 .collect(Collectors.toList());
     }
@@ -73,15 +96,10 @@ public class DashboardService {
     public List<EmployeesBySubsidiaryDTO> getEmployeesBySubsidiary(UUID subsidiaryPublicId) {
         log.debug("Getting employees by subsidiary - subsidiary: {}", subsidiaryPublicId);
 
-        List<Object[]> results = employeeRepository.getEmployeesBySubsidiaryGrouped(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null
-        );
-
-        return results.stream()
-                .map(row -> new EmployeesBySubsidiaryDTO(
-                        (String) row[0],
-                        ((Number) row[1]).longValue()
-                ))
+        return rollupRepository.findHeadcountBySubsidiary(
+                        subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null
+                ).stream()
+                .map(headcount -> new EmployeesBySubsidiaryDTO(headcount.subsidiaryName(), headcount.employeeCount()))
                 .collect(Collectors.toList());
     }
 
@@ -89,17 +107,15 @@ public class DashboardService {
         log.debug("Getting payrolls by period - subsidiary: {}, dateFrom: {}, dateTo: {}",
                 subsidiaryPublicId, dateFrom, dateTo);
 
-        List<Object[]> results = payrollRepository.getPayrollsByPeriodGrouped(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                dateFrom,
-                dateTo
-        );
-
-        return results.stream()
-                .map(row -> new PayrollsByPeriodDTO(
-                        String.format("%d-%02d", ((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
-                        ((Number) row[2]).longValue(),
-                        row[3] != null ? ((Number) row[3]).doubleValue() : 0.0
+        return rollupRepository.findPayrollsByMonth(
+                        subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
+                        dateFrom,
+                        dateTo
+                ).stream()
+                .map(totals -> new PayrollsByPeriodDTO(
+                        String.format("%d-%02d", totals.year(), totals.month()),
+                        totals.payrollCount(),
+                        totals.totalNet() != null ? totals.totalNet().doubleValue() : 0.0
                 ))
                 .collect(Collectors.toList());
     }
@@ -108,18 +124,12 @@ public class DashboardService {
         log.debug("Getting tareos by labor - subsidiary: {}, dateFrom: {}, dateTo: {}",
                 subsidiaryPublicId, dateFrom, dateTo);
 
-        List<Object[]> results = tareoRepository.getTareosByLaborGrouped(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                dateFrom,
-                dateTo
-        );
-
-        return results.stream()
-                .map(row -> new TareosByLaborDTO(
-                        (String) row[0],
-                        ((Number) row[1]).longValue(),
-                        ((Number) row[2]).longValue()
-                ))
+        return rollupRepository.findTareosByLabor(
+                        subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
+                        dateFrom,
+                        dateTo
+                ).stream()
+                .map(labor -> new TareosByLaborDTO(labor.laborName(), labor.tareoCount(), labor.employeeCount()))
                 .collect(Collectors.toList());
     }
 
@@ -127,85 +137,15 @@ public class DashboardService {
         log.debug("Getting attendance trend - subsidiary: {}, dateFrom: {}, dateTo: {}",
                 subsidiaryPublicId, dateFrom, dateTo);
 
-        List<Object[]> results = markingRepository.getAttendanceTrend(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                dateFrom,
-                dateTo
-        );
-
-        return results.stream()
-                .map(row -> {
-                    LocalDate date;
-                    if (row[0] instanceof java.sql.Date) {
-                        date = ((java.sql.Date) row[0]).toLocalDate();
-                    } else if (row[0] instanceof LocalDate) {
-                        date = (LocalDate) row[0];
-                    } else {
-                        date = ((java.time.temporal.TemporalAccessor) row[0]).query(java.time.temporal.TemporalQueries.localDate());
-                    }
-                    return new AttendanceTrendDTO(
-                            date,
-                            ((Number) row[1]).longValue(),
-                            ((Number) row[2]).longValue()
-                    );
-                })
+        return rollupRepository.findMarkingsByDay(
+                        subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
+                        dateFrom,
+                        dateTo
+                ).stream()
+                .map(day -> new AttendanceTrendDTO(day.date(), day.entries(), day.exits()))
                 .collect(Collectors.toList());
     }
 
-    // Helper methods
-    private Long getTotalEmployees(UUID subsidiaryPublicId) {
-        if (subsidiaryPublicId != null) {
-            Short subsidiaryId = getSubsidiaryId(subsidiaryPublicId);
-            return employeeRepository.countBySubsidiaryId(subsidiaryId);
-        }
-        return employeeRepository.count();
-    }
-
-    private Long getTotalPayrolls(UUID subsidiaryPublicId, UUID periodPublicId) {
-        if (subsidiaryPublicId != null || periodPublicId != null) {
-            return payrollRepository.countByFilters(
-                    subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                    periodPublicId != null ? getPeriodId(periodPublicId) : null
-            );
-        }
-        return payrollRepository.count();
-    }
-
-    private Double getTotalPayrollsAmount(UUID subsidiaryPublicId, UUID periodPublicId) {
-        Double amount = payrollRepository.getTotalAmountByFilters(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                periodPublicId != null ? getPeriodId(periodPublicId) : null
-        );
-        return amount != null ? amount : 0.0;
-    }
-
-    private Long getActiveSubsidiaries() {
-        return subsidiaryRepository.count();
-    }
-
-    private Long getTotalTareos(UUID subsidiaryPublicId, LocalDate dateFrom, LocalDate dateTo) {
-        return tareoRepository.countByFilters(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                dateFrom,
-                dateTo
-        );
-    }
-
-    private Long getProcessedTareos(UUID subsidiaryPublicId, LocalDate dateFrom, LocalDate dateTo) {
-        return tareoRepository.countProcessedByFilters(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                dateFrom,
-                dateTo
-        );
-    }
-
-    private Long getPendingPayrolls(UUID subsidiaryPublicId, UUID periodPublicId) {
-        return payrollRepository.countPendingByFilters(
-                subsidiaryPublicId != null ? getSubsidiaryId(subsidiaryPublicId) : null,
-                periodPublicId != null ? getPeriodId(periodPublicId) : null
-        );
-    }
-
     private Short getSubsidiaryId(UUID publicId) {
         return subsidiaryRepository.findByPublicId(publicId)
                 .map(s -> s.getId())
@@ -218,4 +158,3 @@ public class DashboardService {
                 .orElse(null);
     }
 }
-
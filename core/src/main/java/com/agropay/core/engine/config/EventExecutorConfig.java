@@ -0,0 +1,118 @@
+package com.agropay.core.engine.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors acotados para los listeners @Async de eventos de aplicación, uno por familia de eventos.
+ * Se usan con @Async(EventExecutorConfig.ATTENDANCE_EXECUTOR), etc.
+ *
+ * Sin executor propio, @Async usa un SimpleAsyncTaskExecutor (un hilo por evento, sin límite):
+ * - Hilos y cola acotados (events.executors.{familia}.*), con hilos virtuales opcionales
+ * - Política configurable cuando la cola se llena; por defecto CALLER_RUNS, que frena a quien publica
+ * - Métricas Micrometer con tag name={familia}: events.executor.queue.size, events.executor.queue.remaining,
+ *   events.executor.active, events.executor.pool.size, events.executor.rejected,
+ *   events.executor.wait (tiempo en cola) y events.executor.execution (duración del handler)
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(EventExecutorProperties.class)
+public class EventExecutorConfig {
+
+    public static final String ATTENDANCE_EXECUTOR = "attendanceEventExecutor";
+    public static final String PAYROLL_EXECUTOR = "payrollEventExecutor";
+    public static final String FILES_EXECUTOR = "filesEventExecutor";
+
+    @Bean(name = ATTENDANCE_EXECUTOR)
+    public ThreadPoolTaskExecutor attendanceEventExecutor(EventExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("attendance", properties.getAttendance(), meterRegistry);
+    }
+
+    @Bean(name = PAYROLL_EXECUTOR)
+    public ThreadPoolTaskExecutor payrollEventExecutor(EventExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("payroll", properties.getPayroll(), meterRegistry);
+    }
+
+    @Bean(name = FILES_EXECUTOR)
+    public ThreadPoolTaskExecutor filesEventExecutor(EventExecutorProperties properties, MeterRegistry meterRegistry) {
+        return create("files", properties.getFiles(), meterRegistry);
+    }
+
+    private ThreadPoolTaskExecutor create(String name, EventExecutorProperties.ExecutorSettings settings,
+                                          MeterRegistry meterRegistry) {
+        Tags tags = Tags.of("name", name);
+        Timer waitTimer = Timer.builder("events.executor.wait")
+            .description("Tiempo que un evento espera en la cola del executor")
+            .tags(tags)
+            .register(meterRegistry);
+        Timer executionTimer = Timer.builder("events.executor.execution")
+            .description("Duración del handler del evento")
+            .tags(tags)
+            .register(meterRegistry);
+        Counter rejected = Counter.builder("events.executor.rejected")
+            .description("Eventos que no entraron en la cola (se aplica la política de rechazo)")
+            .tags(tags)
+            .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-events-");
+        executor.setVirtualThreads(settings.isVirtualThreads());
+        executor.setCorePoolSize(settings.getCoreSize());
+        executor.setMaxPoolSize(settings.getMaxSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) settings.getKeepAlive().toSeconds());
+        executor.setRejectedExecutionHandler(rejectionHandler(name, settings.getRejectionPolicy(), rejected));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        // El decorador se aplica al encolar: mide la espera en cola y la duración del handler
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                executionTimer.record(task);
+            };
+        });
+
+        Gauge.builder("events.executor.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+            .description("Eventos en cola").tags(tags).register(meterRegistry);
+        Gauge.builder("events.executor.queue.remaining", executor,
+                e -> e.getQueueCapacity() - e.getQueueSize())
+            .description("Espacio libre en la cola").tags(tags).register(meterRegistry);
+        Gauge.builder("events.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Hilos procesando eventos").tags(tags).register(meterRegistry);
+        Gauge.builder("events.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+            .description("Hilos del executor").tags(tags).register(meterRegistry);
+
+        log.info("Executor de eventos '{}': {}-{} hilos{}, cola {}, política {}", name, settings.getCoreSize(),
+            settings.getMaxSize(), settings.isVirtualThreads() ? " virtuales" : "", settings.getQueueCapacity(),
+            settings.getRejectionPolicy());
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(String name, EventExecutorProperties.RejectionPolicy policy,
+                                                             Counter rejected) {
+        RejectedExecutionHandler delegate = switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+        return (task, pool) -> {
+            rejected.increment();
+            log.debug("Cola del executor de eventos '{}' llena, se aplica {}", name, policy);
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+}
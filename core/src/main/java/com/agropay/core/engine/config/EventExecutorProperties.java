@@ -0,0 +1,42 @@
+package com.agropay.core.engine.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de los executors de eventos de aplicación (events.executors.*), uno por familia de eventos
+ */
+@ConfigurationProperties(prefix = "events.executors")
+@Data
+public class EventExecutorProperties {
+
+    private ExecutorSettings attendance = new ExecutorSettings();
+    private ExecutorSettings payroll = new ExecutorSettings();
+    private ExecutorSettings files = new ExecutorSettings();
+
+    @Data
+    public static class ExecutorSettings {
+        private int coreSize = 2;
+        private int maxSize = 4;
+        private int queueCapacity = 500;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private boolean virtualThreads = false;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+    }
+
+    /**
+     * Qué hacer con un evento cuando la cola está llena y no quedan hilos libres
+     */
+    public enum RejectionPolicy {
+        /** Lanza TaskRejectedException a quien publicó el evento */
+        ABORT,
+        /** Lo procesa el hilo que publicó el evento (contrapresión sobre quien publica) */
+        CALLER_RUNS,
+        /** Descarta el evento */
+        DISCARD,
+        /** Descarta el evento más antiguo de la cola y encola el nuevo */
+        DISCARD_OLDEST
+    }
+}
@@ -0,0 +1,200 @@
+package com.agropay.core.files.application.service;
+
+import com.agropay.core.files.constant.FileStorageBackend;
+import com.agropay.core.files.persistence.FileBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Almacén de contenidos de archivos internos direccionado por SHA-256 (app.tbl_file_blobs).
+ *
+ * - Un contenido se guarda una sola vez: subir los mismos bytes solo suma una referencia (ref_count)
+ * - No carga archivos completos en memoria: el hash se calcula recorriendo el stream y luego el contenido
+ *   se vuelve a abrir para enviarlo a la BD o al disco (MultipartFile y ByteArrayResource admiten varias lecturas)
+ * - internal-files.storage.backend elige dónde se guardan los contenidos nuevos: DATABASE o FILESYSTEM.
+ *   Los contenidos ya guardados se leen de donde estén, sin importar el backend actual
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileBlobStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileBlobRepository fileBlobRepository;
+
+    @Value("${internal-files.storage.backend:DATABASE}")
+    private FileStorageBackend backend;
+
+    @Value("${internal-files.storage.filesystem.root:./data/internal-files}")
+    private String filesystemRoot;
+
+    /**
+     * Guarda un contenido, o suma una referencia si los mismos bytes ya existen
+     *
+     * @return SHA-256 (hex) del contenido, para InternalFileEntity.contentHash
+     */
+    public String store(InputStreamSource content) throws IOException {
+        ContentDigest digest = digest(content);
+        if (fileBlobRepository.incrementRefCount(digest.hash())) {
+            log.debug("Contenido {} ya existe ({} bytes), se reutiliza", digest.hash(), digest.size());
+            return digest.hash();
+        }
+
+        try {
+            if (backend == FileStorageBackend.FILESYSTEM) {
+                writeToFilesystem(digest.hash(), content);
+                fileBlobRepository.insert(digest.hash(), digest.size(), FileStorageBackend.FILESYSTEM, null);
+            } else {
+                try (InputStream in = content.getInputStream()) {
+                    fileBlobRepository.insert(digest.hash(), digest.size(), FileStorageBackend.DATABASE, in);
+                }
+            }
+            log.debug("Contenido {} guardado en {} ({} bytes)", digest.hash(), backend, digest.size());
+        } catch (DuplicateKeyException e) {
+            // Otra transacción guardó los mismos bytes entre el UPDATE y el INSERT
+            fileBlobRepository.incrementRefCount(digest.hash());
+        }
+        return digest.hash();
+    }
+
+    /**
+     * Copia un contenido al OutputStream sin cargarlo en memoria.
+     * Desde BD se lee como stream; desde disco con FileChannel.transferTo.
+     */
+    public void copyTo(String contentHash, OutputStream out) throws IOException {
+        try {
+            if (fileBlobRepository.copyContent(contentHash, out)) {
+                return;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        transferFromFilesystem(contentHash, 0, Long.MAX_VALUE, out);
+    }
+
+    /**
+     * Copia length bytes desde offset (base 0), para peticiones con Range.
+     * Solo se leen esos bytes, tanto en BD como en disco.
+     */
+    public void copyTo(String contentHash, long offset, long length, OutputStream out) throws IOException {
+        try {
+            if (fileBlobRepository.copyContent(contentHash, offset, length, out)) {
+                return;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        transferFromFilesystem(contentHash, offset, length, out);
+    }
+
+    /**
+     * Contenido completo en memoria, solo para archivos pequeños (imágenes que se incrustan en un PDF)
+     */
+    public byte[] read(String contentHash) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        copyTo(contentHash, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Contenido de varios archivos pequeños, con una sola consulta para los que están en BD
+     */
+    public Map<String, byte[]> readAll(Collection<String> contentHashes) throws IOException {
+        Map<String, byte[]> contents = new HashMap<>(fileBlobRepository.findContents(contentHashes));
+        for (String contentHash : contentHashes) {
+            if (!contents.containsKey(contentHash)) {
+                Path path = pathOf(contentHash);
+                if (!Files.exists(path)) {
+                    throw new IOException("No se encontró el contenido " + contentHash);
+                }
+                contents.put(contentHash, Files.readAllBytes(path));
+            }
+        }
+        return contents;
+    }
+
+    private void transferFromFilesystem(String contentHash, long offset, long length, OutputStream out) throws IOException {
+        Path path = pathOf(contentHash);
+        if (!Files.exists(path)) {
+            throw new IOException("No se encontró el contenido " + contentHash);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long end = Math.min(channel.size(), offset + Math.min(length, channel.size()));
+            long position = offset;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+        }
+    }
+
+    private void writeToFilesystem(String contentHash, InputStreamSource content) throws IOException {
+        Path target = pathOf(contentHash);
+        if (Files.exists(target)) {
+            // Quedó de un guardado cuya transacción se revirtió: los bytes son los mismos
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), contentHash, ".tmp");
+        try (InputStream in = content.getInputStream()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {root}/ab/cd/abcd...: dos niveles de carpetas para no acumular todos los archivos en un directorio
+     */
+    private Path pathOf(String contentHash) {
+        return Path.of(filesystemRoot, contentHash.substring(0, 2), contentHash.substring(2, 4), contentHash);
+    }
+
+    private static ContentDigest digest(InputStreamSource content) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new DigestInputStream(content.getInputStream(), messageDigest)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+            }
+        }
+        return new ContentDigest(HexFormat.of().formatHex(messageDigest.digest()), size);
+    }
+
+    private record ContentDigest(String hash, long size) {}
+}
@@ -3,16 +3,25 @@ package com.agropay.core.files.application.service;
 import com.agropay.core.files.application.usecase.IFileable;
 import com.agropay.core.files.application.usecase.IInternalFileStorageUseCase;
 import com.agropay.core.files.domain.InternalFileEntity;
+import com.agropay.core.files.model.InternalFileMetadata;
+import com.agropay.core.files.model.InternalFileUpload;
 import com.agropay.core.files.persistence.IInternalFileRepository;
 import com.agropay.core.shared.utils.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +29,7 @@ import java.util.UUID;
 public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCase {
 
     private final IInternalFileRepository fileRepository;
+    private final FileBlobStorage fileBlobStorage;
 
     @Override
     @Transactional
@@ -53,7 +63,7 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
             newFile.setFileName(file.getOriginalFilename());
             newFile.setFileType(file.getContentType());
             newFile.setFileSize(file.getSize());
-            newFile.setFileContent(file.getBytes());
+            newFile.setContentHash(fileBlobStorage.store(file));
             newFile.setCategory(category);
             newFile.setDescription(description);
             // createdBy se establece automáticamente por @CreatedBy en AbstractEntity
@@ -103,7 +113,7 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
             newFile.setFileName(fileName);
             newFile.setFileType(fileType);
             newFile.setFileSize((long) fileContent.length);
-            newFile.setFileContent(fileContent);
+            newFile.setContentHash(fileBlobStorage.store(new ByteArrayResource(fileContent)));
             newFile.setCategory(category);
             newFile.setDescription(description);
             // createdBy se establece automáticamente por @CreatedBy en AbstractEntity
@@ -120,6 +130,45 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
         }
     }
 
+    @Override
+    @Transactional
+    public List<InternalFileEntity> replaceFiles(List<InternalFileUpload> uploads, String category) {
+        if (uploads.isEmpty()) {
+            return List.of();
+        }
+
+        String currentUser = SecurityContextUtils.getCurrentUsername();
+
+        // Un soft-delete por tipo de entidad en lugar de un find + soft-delete por archivo
+        Map<String, List<String>> fileableIdsByType = uploads.stream()
+                .collect(Collectors.groupingBy(upload -> upload.fileable().getSimpleName(),
+                        Collectors.mapping(upload -> upload.fileable().getId(), Collectors.toList())));
+        fileableIdsByType.forEach((fileableType, fileableIds) -> {
+            int deleted = fileRepository.softDeleteByFileablesAndCategory(fileableIds, fileableType, category, currentUser);
+            log.debug("Eliminados {} archivos existentes de la categoría {} para {} entidades {}",
+                    deleted, category, fileableIds.size(), fileableType);
+        });
+
+        List<InternalFileEntity> newFiles = new java.util.ArrayList<>(uploads.size());
+        for (InternalFileUpload upload : uploads) {
+            InternalFileEntity newFile = new InternalFileEntity();
+            newFile.setPublicId(UUID.randomUUID());
+            newFile.setFileableId(upload.fileable().getId());
+            newFile.setFileableType(upload.fileable().getSimpleName());
+            newFile.setFileName(upload.fileName());
+            newFile.setFileType(upload.fileType());
+            newFile.setFileSize((long) upload.fileContent().length);
+            newFile.setContentHash(storeContent(upload.fileContent()));
+            newFile.setCategory(category);
+            newFile.setDescription(upload.description());
+            newFiles.add(newFile);
+        }
+
+        List<InternalFileEntity> saved = fileRepository.saveAll(newFiles);
+        log.info("Guardados {} archivos de la categoría {}", saved.size(), category);
+        return saved;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public InternalFileEntity getFile(UUID publicId) {
@@ -128,6 +177,68 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
                 .orElseThrow(() -> new RuntimeException("Archivo no encontrado con publicId: " + publicId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public InternalFileMetadata getFileMetadata(UUID publicId) {
+        return fileRepository.findMetadataByPublicId(publicId)
+                .orElseThrow(() -> new RuntimeException("Archivo no encontrado con publicId: " + publicId));
+    }
+
+    @Override
+    public void writeContent(InternalFileMetadata file, long offset, long length, OutputStream out) throws IOException {
+        if (file.contentHash() == null) {
+            byte[] content = fileRepository.findById(file.id())
+                    .map(InternalFileEntity::getFileContent)
+                    .orElseThrow(() -> new IOException("Archivo sin contenido: " + file.publicId()));
+            out.write(content, (int) offset, (int) Math.min(length, content.length - offset));
+            return;
+        }
+        fileBlobStorage.copyTo(file.contentHash(), offset, length, out);
+    }
+
+    @Override
+    public void writeContent(InternalFileEntity file, OutputStream out) throws IOException {
+        if (file.getContentHash() == null) {
+            out.write(file.getFileContent());
+            return;
+        }
+        fileBlobStorage.copyTo(file.getContentHash(), out);
+    }
+
+    @Override
+    public byte[] getContent(InternalFileEntity file) {
+        if (file.getContentHash() == null) {
+            return file.getFileContent();
+        }
+        try {
+            return fileBlobStorage.read(file.getContentHash());
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo contenido del archivo " + file.getPublicId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, byte[]> getContents(Collection<Long> fileIds) {
+        Map<Long, String> hashes = new HashMap<>();
+        Map<Long, byte[]> contents = new HashMap<>();
+        for (Object[] row : fileRepository.findContentRefsByIds(fileIds)) {
+            if (row[1] != null) {
+                hashes.put((Long) row[0], (String) row[1]);
+            } else {
+                contents.put((Long) row[0], (byte[]) row[2]);
+            }
+        }
+
+        try {
+            Map<String, byte[]> blobs = fileBlobStorage.readAll(new java.util.HashSet<>(hashes.values()));
+            hashes.forEach((fileId, hash) -> contents.put(fileId, blobs.get(hash)));
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo contenido de archivos: " + e.getMessage(), e);
+        }
+        return contents;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InternalFileEntity> getFilesByFileable(IFileable fileable) {
@@ -186,7 +297,7 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
                 newFile.setFileName(file.getOriginalFilename());
                 newFile.setFileType(file.getContentType());
                 newFile.setFileSize(file.getSize());
-                newFile.setFileContent(file.getBytes());
+                newFile.setContentHash(fileBlobStorage.store(file));
                 newFile.setCategory(category);
                 newFile.setDescription(description);
                 
@@ -290,5 +401,12 @@ public class InternalFileStorageServiceImpl implements IInternalFileStorageUseCa
                     missingPublicIds.size(), missingPublicIds);
         }
     }
-}
 
+    private String storeContent(byte[] content) {
+        try {
+            return fileBlobStorage.store(new ByteArrayResource(content));
+        } catch (IOException e) {
+            throw new RuntimeException("Error guardando contenido de archivo: " + e.getMessage(), e);
+        }
+    }
+}
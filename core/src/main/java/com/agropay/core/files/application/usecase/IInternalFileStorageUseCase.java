@@ -1,9 +1,15 @@
 package com.agropay.core.files.application.usecase;
 
 import com.agropay.core.files.domain.InternalFileEntity;
+import com.agropay.core.files.model.InternalFileMetadata;
+import com.agropay.core.files.model.InternalFileUpload;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -21,11 +27,47 @@ public interface IInternalFileStorageUseCase {
      */
     InternalFileEntity saveFile(IFileable fileable, byte[] fileContent, String fileName, String fileType, String category, String description);
 
+    /**
+     * Guarda en bloque un archivo por entidad, reemplazando los de la misma categoría.
+     * Equivale a llamar saveFile por cada entidad, pero con un solo soft-delete por tipo de entidad.
+     *
+     * @return Archivos guardados, en el mismo orden que uploads
+     */
+    List<InternalFileEntity> replaceFiles(List<InternalFileUpload> uploads, String category);
+
     /**
      * Obtiene un archivo por su publicId
      */
     InternalFileEntity getFile(UUID publicId);
 
+    /**
+     * Obtiene los metadatos de un archivo por su publicId sin leer su contenido
+     */
+    InternalFileMetadata getFileMetadata(UUID publicId);
+
+    /**
+     * Escribe length bytes del contenido desde offset (base 0), para descargas con Range
+     */
+    void writeContent(InternalFileMetadata file, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Escribe el contenido de un archivo en el OutputStream sin cargarlo completo en memoria
+     */
+    void writeContent(InternalFileEntity file, OutputStream out) throws IOException;
+
+    /**
+     * Contenido completo de un archivo en memoria. Solo para archivos pequeños (p. ej. imágenes para un PDF);
+     * para descargas usar writeContent
+     */
+    byte[] getContent(InternalFileEntity file);
+
+    /**
+     * Contenido de varios archivos pequeños por su ID interno, leído en bloque
+     *
+     * @return Contenido por ID de archivo
+     */
+    Map<Long, byte[]> getContents(Collection<Long> fileIds);
+
     /**
      * Obtiene todos los archivos de una entidad
      */
@@ -0,0 +1,15 @@
+package com.agropay.core.files.constant;
+
+/**
+ * Dónde se guardan los bytes de un contenido de app.tbl_file_blobs
+ */
+public enum FileStorageBackend {
+    /**
+     * Columna content de app.tbl_file_blobs
+     */
+    DATABASE,
+    /**
+     * Archivo en internal-files.storage.filesystem.root, nombrado por su hash
+     */
+    FILESYSTEM
+}
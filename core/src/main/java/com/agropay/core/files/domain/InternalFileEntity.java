@@ -45,8 +45,13 @@ public class InternalFileEntity extends AbstractEntity<Long> {
     @Column(name = "file_size", nullable = false)
     private Long fileSize; // Tamaño en bytes
 
+    // SHA-256 del contenido, guardado una sola vez en app.tbl_file_blobs (ver FileBlobStorage)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Solo archivos anteriores a V162; los nuevos guardan el contenido por contentHash
     @Lob
-    @Column(name = "file_content", nullable = false)
+    @Column(name = "file_content")
     private byte[] fileContent;
 
     // Metadatos adicionales
@@ -0,0 +1,37 @@
+package com.agropay.core.files.model;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Metadatos de un archivo interno, consultados sin la columna file_content.
+ * Alcanzan para responder peticiones condicionales (ETag / Last-Modified) sin leer el contenido.
+ */
+public record InternalFileMetadata(
+    Long id,
+    UUID publicId,
+    String fileName,
+    String fileType,
+    Long fileSize,
+    String contentHash,
+    String category,
+    String description,
+    LocalDateTime createdAt
+) {
+
+    /**
+     * ETag fuerte: el SHA-256 del contenido, calculado al guardarlo.
+     * Archivos anteriores a V162 sin hash usan su publicId, cuyo contenido tampoco cambia.
+     */
+    public String etag() {
+        return "\"" + (contentHash != null ? contentHash : publicId.toString()) + "\"";
+    }
+
+    /**
+     * Last-Modified en milisegundos: el contenido de un publicId no cambia después de crearse
+     */
+    public long lastModified() {
+        return createdAt != null ? Timestamp.valueOf(createdAt).getTime() : -1;
+    }
+}
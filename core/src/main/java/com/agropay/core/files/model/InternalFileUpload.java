@@ -0,0 +1,15 @@
+package com.agropay.core.files.model;
+
+import com.agropay.core.files.application.usecase.IFileable;
+
+/**
+ * Archivo a guardar para una entidad en una operación en bloque (ver IInternalFileStorageUseCase.replaceFiles)
+ */
+public record InternalFileUpload(
+    IFileable fileable,
+    byte[] fileContent,
+    String fileName,
+    String fileType,
+    String description
+) {
+}
@@ -0,0 +1,116 @@
+package com.agropay.core.files.persistence;
+
+import com.agropay.core.files.constant.FileStorageBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Acceso JDBC a app.tbl_file_blobs.
+ *
+ * No se mapea como entidad JPA porque el contenido se escribe y lee como stream
+ * (setBinaryStream / getBinaryStream) y nunca debe quedar entero en memoria.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FileBlobRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Suma una referencia a un contenido existente
+     *
+     * @return false si el contenido no existe
+     */
+    public boolean incrementRefCount(String contentHash) {
+        return jdbcTemplate.update(
+            "UPDATE app.tbl_file_blobs SET ref_count = ref_count + 1 WHERE content_hash = ?", contentHash) > 0;
+    }
+
+    /**
+     * Inserta un contenido nuevo con una referencia.
+     * content se envía al servidor como stream; es null cuando los bytes están en el sistema de archivos.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException si otro proceso insertó el mismo contenido
+     */
+    public void insert(String contentHash, long fileSize, FileStorageBackend storage, InputStream content) {
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_file_blobs (content_hash, file_size, storage, content, ref_count) VALUES (?, ?, ?, ?, 1)",
+            ps -> {
+                ps.setString(1, contentHash);
+                ps.setLong(2, fileSize);
+                ps.setString(3, storage.name());
+                if (content != null) {
+                    ps.setBinaryStream(4, content, fileSize);
+                } else {
+                    ps.setNull(4, Types.VARBINARY);
+                }
+            });
+    }
+
+    /**
+     * Copia al OutputStream el contenido guardado en BD, leyéndolo como stream
+     *
+     * @return false si no hay contenido en BD para ese hash
+     */
+    public boolean copyContent(String contentHash, OutputStream out) {
+        return copy("SELECT content FROM app.tbl_file_blobs WHERE content_hash = ? AND content IS NOT NULL",
+            out, contentHash);
+    }
+
+    /**
+     * Copia length bytes desde offset (base 0). SQL Server solo envía ese tramo (SUBSTRING sobre VARBINARY(MAX)).
+     *
+     * @return false si no hay contenido en BD para ese hash
+     */
+    public boolean copyContent(String contentHash, long offset, long length, OutputStream out) {
+        return copy("SELECT SUBSTRING(content, ?, ?) FROM app.tbl_file_blobs WHERE content_hash = ? AND content IS NOT NULL",
+            out, offset + 1, length, contentHash);
+    }
+
+    private boolean copy(String sql, OutputStream out, Object... args) {
+        Boolean copied = jdbcTemplate.query(
+            sql,
+            rs -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    in.transferTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            },
+            args);
+        return Boolean.TRUE.equals(copied);
+    }
+
+    /**
+     * Contenido de varios hashes en una consulta, solo los guardados en BD (para lotes de archivos pequeños)
+     */
+    public Map<String, byte[]> findContents(Collection<String> contentHashes) {
+        Map<String, byte[]> contents = new HashMap<>();
+        if (contentHashes.isEmpty()) {
+            return contents;
+        }
+        namedParameterJdbcTemplate.query(
+            "SELECT content_hash, content FROM app.tbl_file_blobs WHERE content_hash IN (:hashes) AND content IS NOT NULL",
+            Map.of("hashes", contentHashes),
+            rs -> {
+                contents.put(rs.getString(1), rs.getBytes(2));
+            });
+        return contents;
+    }
+}
@@ -1,12 +1,14 @@
 package com.agropay.core.files.persistence;
 
 import com.agropay.core.files.domain.InternalFileEntity;
+import com.agropay.core.files.model.InternalFileMetadata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +18,14 @@ public interface IInternalFileRepository extends JpaRepository<InternalFileEntit
 
     Optional<InternalFileEntity> findByPublicIdAndDeletedAtIsNull(UUID publicId);
 
+    /**
+     * Metadatos de un archivo vigente sin leer file_content
+     */
+    @Query("SELECT new com.agropay.core.files.model.InternalFileMetadata(" +
+           "f.id, f.publicId, f.fileName, f.fileType, f.fileSize, f.contentHash, f.category, f.description, f.createdAt) " +
+           "FROM InternalFileEntity f WHERE f.publicId = :publicId AND f.deletedAt IS NULL")
+    Optional<InternalFileMetadata> findMetadataByPublicId(@Param("publicId") UUID publicId);
+
     List<InternalFileEntity> findByFileableIdAndFileableTypeAndDeletedAtIsNull(
             String fileableId,
             String fileableType
@@ -29,6 +39,14 @@ public interface IInternalFileRepository extends JpaRepository<InternalFileEntit
             @Param("category") String category
     );
 
+    /**
+     * Referencia al contenido de varios archivos sin cargarlos como entidades. Retorna [id, contentHash, fileContent];
+     * fileContent solo viene en archivos anteriores a V162 (sin contentHash).
+     * No filtra eliminados: quien ya resolvió los IDs (p. ej. una descarga en curso) sigue leyendo los mismos bytes.
+     */
+    @Query("SELECT f.id, f.contentHash, f.fileContent FROM InternalFileEntity f WHERE f.id IN :ids")
+    List<Object[]> findContentRefsByIds(@Param("ids") Collection<Long> ids);
+
     @Modifying
     @Query("UPDATE InternalFileEntity f SET f.deletedAt = CURRENT_TIMESTAMP, f.deletedBy = :deletedBy " +
            "WHERE f.fileableId = :fileableId AND f.fileableType = :fileableType AND f.deletedAt IS NULL")
@@ -48,6 +66,16 @@ public interface IInternalFileRepository extends JpaRepository<InternalFileEntit
             @Param("deletedBy") String deletedBy
     );
 
+    @Modifying
+    @Query("UPDATE InternalFileEntity f SET f.deletedAt = CURRENT_TIMESTAMP, f.deletedBy = :deletedBy " +
+           "WHERE f.fileableId IN :fileableIds AND f.fileableType = :fileableType AND f.category = :category AND f.deletedAt IS NULL")
+    int softDeleteByFileablesAndCategory(
+            @Param("fileableIds") Collection<String> fileableIds,
+            @Param("fileableType") String fileableType,
+            @Param("category") String category,
+            @Param("deletedBy") String deletedBy
+    );
+
     @Modifying
     @Query("UPDATE InternalFileEntity f SET f.deletedAt = CURRENT_TIMESTAMP, f.deletedBy = :deletedBy " +
            "WHERE f.publicId IN :publicIds AND f.deletedAt IS NULL")
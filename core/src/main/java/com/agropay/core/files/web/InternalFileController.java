@@ -3,20 +3,26 @@ package com.agropay.core.files.web;
 import com.agropay.core.files.application.usecase.IInternalFileStorageUseCase;
 import com.agropay.core.files.domain.InternalFileEntity;
 import com.agropay.core.files.model.InternalFileDTO;
+import com.agropay.core.files.model.InternalFileMetadata;
 import com.agropay.core.shared.utils.ApiResult;
+import com.agropay.core.shared.utils.HttpRangeUtils;
 import com.agropay.core.shared.utils.SecurityContextUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -77,63 +83,72 @@ public class InternalFileController {
     }
 
     @Operation(summary = "Descargar archivo",
-               description = "Descarga un archivo por su publicId con caché HTTP y validación ETag (como Laravel Storage::response())")
+               description = "Descarga un archivo por su publicId. ETag (hash del contenido) y Last-Modified permiten " +
+                           "revalidar con If-None-Match / If-Modified-Since (304 sin leer el contenido), y Range / If-Range " +
+                           "permiten descargas parciales (206).")
     @GetMapping("/{publicId}/download")
-    public ResponseEntity<byte[]> downloadFile(
+    public ResponseEntity<StreamingResponseBody> downloadFile(
             @PathVariable UUID publicId,
-            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
-        
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            ServletWebRequest webRequest) {
+
+        InternalFileMetadata file;
         try {
-            InternalFileEntity file = fileStorageService.getFile(publicId);
-            
-            // Generar ETag (similar a cómo Laravel genera ETags)
-            String etag = "\"" + file.getPublicId() + "-" + 
-                         (file.getUpdatedAt() != null ? file.getUpdatedAt().hashCode() : file.getCreatedAt().hashCode()) + "\"";
-            
-            // Validar ETag: si el cliente ya tiene la versión cacheada, responder 304 Not Modified
-            // Esto es clave para evitar múltiples descargas (como hace Laravel)
-            if (ifNoneMatch != null && ifNoneMatch.equals(etag)) {
-                log.debug("Cliente tiene versión cacheada del archivo con publicId: {}", publicId);
-                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
-                        .header("ETag", etag)
-                        .build();
-            }
-            
-            log.info("Sirviendo archivo con publicId: {}", publicId);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(file.getFileType()));
-            
-            // Para imágenes, usar "inline" en lugar de "attachment" para que se muestren directamente
-            String contentDisposition = file.getFileType().startsWith("image/") 
-                ? "inline" 
-                : "attachment";
-            headers.setContentDispositionFormData(contentDisposition, file.getFileName());
-            headers.setContentLength(file.getFileSize());
-            
-            // Headers de caché HTTP (similar a Laravel Storage::response())
-            // Cache-Control: public permite que proxies y CDNs cacheen
-            // max-age=31536000 = 1 año (las imágenes no cambian frecuentemente)
-            headers.setCacheControl("public, max-age=31536000, immutable");
-            headers.setETag(etag);
-            
-            // Last-Modified para validación de caché
-            if (file.getUpdatedAt() != null) {
-                headers.setLastModified(java.time.Instant.ofEpochMilli(
-                    java.sql.Timestamp.valueOf(file.getUpdatedAt()).getTime()));
-            } else if (file.getCreatedAt() != null) {
-                headers.setLastModified(java.time.Instant.ofEpochMilli(
-                    java.sql.Timestamp.valueOf(file.getCreatedAt()).getTime()));
-            }
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(file.getFileContent());
-                    
+            file = fileStorageService.getFileMetadata(publicId);
         } catch (Exception e) {
             log.error("Error descargando archivo con publicId: {}", publicId, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+
+        // If-None-Match / If-Modified-Since se validan solo con metadatos; checkNotModified agrega ETag y Last-Modified
+        if (webRequest.checkNotModified(file.etag(), file.lastModified())) {
+            log.debug("Cliente tiene versión cacheada del archivo con publicId: {}", publicId);
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(file.fileType()));
+
+        // Para imágenes, usar "inline" en lugar de "attachment" para que se muestren directamente
+        String contentDisposition = file.fileType().startsWith("image/")
+            ? "inline"
+            : "attachment";
+        headers.setContentDispositionFormData(contentDisposition, file.fileName());
+
+        // El contenido de un publicId no cambia (reemplazar un archivo crea otro publicId), por eso es immutable.
+        // private: son archivos de usuarios autenticados y no deben quedar en caches compartidos
+        headers.setCacheControl("private, max-age=31536000, immutable");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long length = file.fileSize();
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        Optional<HttpRange> requested = HttpRangeUtils.singleRange(range, ifRange, file.etag());
+        if (requested.isPresent()) {
+            try {
+                start = requested.get().getRangeStart(length);
+                end = requested.get().getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long offset = start;
+        long count = end - start + 1;
+        headers.setContentLength(count);
+        log.info("Sirviendo archivo con publicId: {} ({} de {} bytes)", publicId, count, length);
+
+        // El contenido se copia al stream de la respuesta sin cargarlo completo en memoria
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(out -> fileStorageService.writeContent(file, offset, count, out));
     }
 
     @Operation(summary = "Obtener archivo (metadatos)",
@@ -143,7 +158,7 @@ public class InternalFileController {
         log.info("Solicitud REST para obtener archivo con publicId: {}", publicId);
 
         try {
-            InternalFileEntity file = fileStorageService.getFile(publicId);
+            InternalFileMetadata file = fileStorageService.getFileMetadata(publicId);
             InternalFileDTO dto = mapToDTO(file);
             
             return ResponseEntity.ok(ApiResult.success(dto, "Archivo obtenido exitosamente"));
@@ -319,6 +334,19 @@ public class InternalFileController {
                 .build();
     }
 
+    private InternalFileDTO mapToDTO(InternalFileMetadata file) {
+        return InternalFileDTO.builder()
+                .publicId(file.publicId())
+                .fileName(file.fileName())
+                .fileType(file.fileType())
+                .fileSize(file.fileSize())
+                .category(file.category())
+                .description(file.description())
+                .createdAt(file.createdAt())
+                .downloadUrl("/v1/internal-files/" + file.publicId() + "/download")
+                .build();
+    }
+
     // Wrapper temporal para IFileable
     private static class IFileableWrapper implements com.agropay.core.files.application.usecase.IFileable {
         private final String id;
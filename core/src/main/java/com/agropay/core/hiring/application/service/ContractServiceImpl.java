@@ -54,6 +54,7 @@ import com.agropay.core.hiring.validation.VariableValidator;
 import com.agropay.core.auth.domain.UserEntity;
 import com.agropay.core.auth.domain.UserProfileEntity;
 import com.agropay.core.auth.domain.ProfileEntity;
+import com.agropay.core.auth.application.service.UserStatusCache;
 import com.agropay.core.auth.persistence.IUserRepository;
 import com.agropay.core.auth.persistence.IProfileRepository;
 import com.agropay.core.auth.persistence.IUserProfileRepository;
@@ -105,6 +106,7 @@ public class ContractServiceImpl implements IContractUseCase {
     private final IUserRepository userRepository;
     private final IProfileRepository profileRepository;
     private final IUserProfileRepository userProfileRepository;
+    private final UserStatusCache userStatusCache;
     private final PasswordEncoder passwordEncoder;
     private final IConceptRepository conceptRepository;
     private final IEmployeeRepository employeeRepository;
@@ -1038,6 +1040,7 @@ public class ContractServiceImpl implements IContractUseCase {
                 log.info("User for employee {} exists but is disabled. Reactivating user.", documentNumber);
                 existingUser.setIsActive(true);
                 userRepository.save(existingUser);
+                userStatusCache.invalidate(existingUser.getUsername());
                 log.info("User reactivated for employee {}", documentNumber);
             } else {
                 log.info("User already exists and is active for employee {}. No action needed.", documentNumber);
@@ -1054,6 +1057,7 @@ public class ContractServiceImpl implements IContractUseCase {
                     existingUser.setIsActive(true);
                 }
                 userRepository.save(existingUser);
+                userStatusCache.invalidate(existingUser.getUsername());
                 log.info("Updated existing user {} to link with employee {}", existingUser.getUsername(), documentNumber);
             }
             return;
@@ -1071,6 +1075,7 @@ public class ContractServiceImpl implements IContractUseCase {
                     existingUser.setIsActive(true);
                 }
                 userRepository.save(existingUser);
+                userStatusCache.invalidate(existingUser.getUsername());
                 log.info("Reloaded and updated existing user {} for employee {}", existingUser.getUsername(), documentNumber);
                 return;
             }
@@ -1095,6 +1100,7 @@ public class ContractServiceImpl implements IContractUseCase {
             newUser.setIsActive(true);
 
             UserEntity savedUser = userRepository.save(newUser);
+            userStatusCache.invalidate(savedUser.getUsername());
             log.info("User created for employee {} with username: {} and profile: {}", 
                     documentNumber, savedUser.getUsername(), colaboradorProfile.getName());
 
@@ -1126,6 +1132,7 @@ public class ContractServiceImpl implements IContractUseCase {
                     existingUser.setIsActive(true);
                 }
                 userRepository.save(existingUser);
+                userStatusCache.invalidate(existingUser.getUsername());
                 log.info("Reloaded and updated concurrently created user {} for employee {}", existingUser.getUsername(), documentNumber);
             } else {
                 log.error("Failed to create user for employee {} and could not reload it. Original error: {}", documentNumber, e.getMessage());
@@ -24,5 +24,14 @@ public interface IContractPositionSalaryRepository extends ISoftRepository<Contr
             @Param("contractId") Long contractId,
             @Param("positionId") Short positionId
     );
-}
 
+    /**
+     * Busca los salarios especiales activos de varios contratos, del más reciente al más antiguo.
+     * Retorna Object[] donde [0] = contractId (Long), [1] = positionId (Short), [2] = salary (BigDecimal)
+     */
+    @Query("SELECT cps.contract.id, cps.position.id, cps.salary FROM ContractPositionSalaryEntity cps " +
+           "WHERE cps.contract.id IN :contractIds " +
+           "AND cps.deletedAt IS NULL " +
+           "ORDER BY cps.createdAt DESC")
+    java.util.List<Object[]> findActiveByContractIds(@Param("contractIds") java.util.Collection<Long> contractIds);
+}
@@ -84,4 +84,17 @@ public interface IContractRepository extends ISoftRepository<ContractEntity, Lon
         ORDER BY c.createdAt DESC
         """)
     Optional<ContractEntity> findByPersonDocumentNumber(@Param("personDocumentNumber") String personDocumentNumber);
+
+    /**
+     * Busca los IDs de contrato de varias personas, del más reciente al más antiguo.
+     * Equivalente en lote a findByPersonDocumentNumber: el primer contrato de cada persona es el vigente.
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = contractId (Long)
+     */
+    @Query("""
+        SELECT c.personDocumentNumber, c.id FROM ContractEntity c
+        WHERE c.personDocumentNumber IN :personDocumentNumbers
+        AND c.deletedAt IS NULL
+        ORDER BY c.createdAt DESC
+        """)
+    List<Object[]> findContractIdsByPersonDocumentNumbers(@Param("personDocumentNumbers") java.util.Collection<String> personDocumentNumbers);
 }
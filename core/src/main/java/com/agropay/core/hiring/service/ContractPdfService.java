@@ -475,7 +475,7 @@ public class ContractPdfService implements com.agropay.core.hiring.application.u
                         log.warn("No se encontró el archivo interno. PublicId: {}", publicId);
                         return null;
                     }
-                    byte[] fileContent = file.getFileContent();
+                    byte[] fileContent = internalFileStorageService.getContent(file);
                     if (fileContent == null || fileContent.length == 0) {
                         log.warn("El archivo interno está vacío. PublicId: {}", publicId);
                         return null;
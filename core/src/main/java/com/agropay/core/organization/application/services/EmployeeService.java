@@ -19,6 +19,7 @@ import com.agropay.core.shared.exceptions.BusinessValidationException;
 import com.agropay.core.organization.mapper.IEmployeeMapper;
 import com.agropay.core.organization.model.employee.*;
 import com.agropay.core.organization.persistence.EmployeeSpecification;
+import com.agropay.core.organization.persistence.EmployeeSyncRepository;
 import com.agropay.core.organization.persistence.IEmployeeRepository;
 import com.agropay.core.states.application.IStateUseCase;
 import com.agropay.core.organization.api.EmployeeStateEnum;
@@ -27,6 +28,8 @@ import com.agropay.core.shared.exceptions.NoChangesDetectedException;
 import com.agropay.core.shared.exceptions.ReferentialIntegrityException;
 import com.agropay.core.shared.exceptions.UniqueValidationException;
 import com.agropay.core.states.models.StateSelectOptionDTO;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.PagedResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +55,8 @@ public class EmployeeService implements IEmployeeUseCase {
     private final IDocumentTypeUseCase documentTypeUseCase;
     private final IImageUseCase imageUseCase;
     private final IConceptRepository conceptRepository;
+    private final EmployeeSyncRepository employeeSyncRepository;
+    private final ChangeVersionRepository changeVersionRepository;
 
     @Override
     @Transactional
@@ -711,6 +716,19 @@ public class EmployeeService implements IEmployeeUseCase {
         );
     }
 
+    @Override
+    public long getSyncVersion() {
+        return changeVersionRepository.currentVersion(EmployeeSyncRepository.EMPLOYEE_TABLES);
+    }
+
+    @Override
+    public DeltaSyncResponse<EmployeeCacheResponse, String> findChangesForSync(UUID subsidiaryPublicId, Long since, long watermark) {
+        DeltaSyncResponse<EmployeeCacheResponse, String> changes = employeeSyncRepository.findChanges(subsidiaryPublicId, since, watermark);
+        log.info("Delta sync of employees (subsidiary {}) since {}: {} changed, {} deleted (watermark {})",
+                subsidiaryPublicId, since, changes.changed().size(), changes.deleted().size(), watermark);
+        return changes;
+    }
+
     private boolean isUpdateRedundant(UpdateEmployeeRequest request, EmployeeEntity entity) {
         return Objects.equals(request.subsidiaryPublicId(), entity.getSubsidiary().getPublicId()) &&
                Objects.equals(request.positionPublicId(), entity.getPosition().getPublicId()) &&
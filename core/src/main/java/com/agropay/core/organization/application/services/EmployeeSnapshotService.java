@@ -0,0 +1,112 @@
+package com.agropay.core.organization.application.services;
+
+import com.agropay.core.organization.model.employee.EmployeeCacheResponse;
+import com.agropay.core.organization.model.employee.EmployeeSnapshot;
+import com.agropay.core.organization.persistence.EmployeeSyncRepository;
+import com.agropay.core.organization.persistence.ISubsidiaryRepository;
+import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot de empleados por subsidiaria para la carga inicial del móvil (un archivo en lugar de un /cache por empleado).
+ *
+ * Cada subsidiaria guarda en memoria sus empleados y el archivo generado en la versión (change_version) leída:
+ * - Si la versión de tbl_employees / tbl_persons no cambió, se sirve el archivo ya generado
+ * - Si cambió, solo se leen los empleados modificados desde esa versión (EmployeeSyncRepository) y se regenera el archivo
+ * - La primera petición de una subsidiaria lee todos sus empleados activos o creados
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeSnapshotService {
+
+    private final ISubsidiaryRepository subsidiaryRepository;
+    private final EmployeeSyncRepository employeeSyncRepository;
+    private final ChangeVersionRepository changeVersionRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<UUID, SnapshotState> states = new ConcurrentHashMap<>();
+
+    private static final class SnapshotState {
+        private final Map<String, EmployeeCacheResponse> employees = new TreeMap<>();
+        private volatile EmployeeSnapshot snapshot;
+        // Última versión revisada; puede ser mayor a snapshot.version si los cambios no tocaron esta subsidiaria
+        private volatile long checkedVersion = -1;
+    }
+
+    public EmployeeSnapshot getSnapshot(UUID subsidiaryPublicId) {
+        if (!states.containsKey(subsidiaryPublicId) && subsidiaryRepository.findByPublicId(subsidiaryPublicId).isEmpty()) {
+            throw new IdentifierNotFoundException("exception.organization.subsidiary.not-found", subsidiaryPublicId);
+        }
+
+        long version = changeVersionRepository.currentVersion(EmployeeSyncRepository.EMPLOYEE_TABLES);
+        SnapshotState state = states.computeIfAbsent(subsidiaryPublicId, id -> new SnapshotState());
+        if (state.snapshot != null && state.checkedVersion >= version) {
+            return state.snapshot;
+        }
+
+        // Una sola regeneración por subsidiaria a la vez; las peticiones concurrentes reciben el mismo resultado
+        synchronized (state) {
+            EmployeeSnapshot snapshot = state.snapshot;
+            if (snapshot != null && state.checkedVersion >= version) {
+                return snapshot;
+            }
+
+            long start = System.currentTimeMillis();
+            Long since = snapshot != null ? state.checkedVersion : null;
+            DeltaSyncResponse<EmployeeCacheResponse, String> changes =
+                employeeSyncRepository.findChanges(subsidiaryPublicId, since, version);
+            boolean modified = snapshot == null;
+            for (String documentNumber : changes.deleted()) {
+                modified |= state.employees.remove(documentNumber) != null;
+            }
+            for (EmployeeCacheResponse employee : changes.changed()) {
+                modified |= !employee.equals(state.employees.put(employee.documentNumber(), employee));
+            }
+            state.checkedVersion = version;
+
+            // Sin cambios en esta subsidiaria se conserva el archivo (y su ETag): los móviles que ya lo tienen reciben 304
+            if (!modified) {
+                return snapshot;
+            }
+            snapshot = new EmployeeSnapshot(subsidiaryPublicId, version, state.employees.size(), write(state.employees));
+            state.snapshot = snapshot;
+            log.info("Snapshot de empleados de la subsidiaria {} regenerado en {} ms: versión {}, {} empleados " +
+                    "({} modificados, {} quitados), {} bytes",
+                subsidiaryPublicId, System.currentTimeMillis() - start, version, snapshot.employeeCount(),
+                changes.changed().size(), changes.deleted().size(), snapshot.content().length);
+            return snapshot;
+        }
+    }
+
+    /**
+     * NDJSON con gzip. GZIPOutputStream no escribe fecha en la cabecera, así que el mismo contenido
+     * genera los mismos bytes en cualquier nodo y el ETag por versión es válido entre nodos
+     */
+    private byte[] write(Map<String, EmployeeCacheResponse> employees) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            for (EmployeeCacheResponse employee : employees.values()) {
+                gzip.write(objectMapper.writeValueAsBytes(employee));
+                gzip.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
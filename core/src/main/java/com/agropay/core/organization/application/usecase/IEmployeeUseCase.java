@@ -3,6 +3,7 @@ package com.agropay.core.organization.application.usecase;
 import com.agropay.core.organization.api.IEmployeeAPI;
 import com.agropay.core.organization.domain.EmployeeEntity;
 import com.agropay.core.organization.model.employee.*;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.PagedResult;
 import com.agropay.core.states.models.StateSelectOptionDTO;
 import org.springframework.data.domain.Pageable;
@@ -44,4 +45,14 @@ public interface IEmployeeUseCase extends IEmployeeAPI {
 
     EmployeeCacheResponse getEmployeeCacheByDocumentNumber(String documentNumber);
 
+    /**
+     * Versión actual de los empleados para la sincronización incremental (también es su ETag)
+     */
+    long getSyncVersion();
+
+    /**
+     * Empleados para la caché móvil modificados desde since; eliminados por número de documento
+     */
+    DeltaSyncResponse<EmployeeCacheResponse, String> findChangesForSync(UUID subsidiaryPublicId, Long since, long watermark);
+
 }
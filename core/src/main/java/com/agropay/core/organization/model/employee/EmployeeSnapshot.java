@@ -0,0 +1,27 @@
+package com.agropay.core.organization.model.employee;
+
+import java.util.UUID;
+
+/**
+ * Snapshot de empleados de una subsidiaria para la carga inicial del móvil:
+ * NDJSON comprimido con gzip, una línea {@link EmployeeCacheResponse} por empleado, ordenado por documento.
+ *
+ * @param version Watermark con el que se generó; el móvil lo usa como since en /v1/employees/sync/changes
+ */
+public record EmployeeSnapshot(
+        UUID subsidiaryPublicId,
+        long version,
+        int employeeCount,
+        byte[] content
+) {
+    /**
+     * ETag fuerte: el contenido depende solo de la subsidiaria y la versión (orden fijo, gzip sin fecha)
+     */
+    public String etag() {
+        return "\"" + subsidiaryPublicId + "-v" + version + "\"";
+    }
+
+    public String fileName() {
+        return "employees-" + subsidiaryPublicId + ".ndjson.gz";
+    }
+}
@@ -0,0 +1,66 @@
+package com.agropay.core.organization.persistence;
+
+import com.agropay.core.organization.api.EmployeeStateEnum;
+import com.agropay.core.organization.model.employee.EmployeeCacheResponse;
+import com.agropay.core.shared.persistence.ChangeVersionRepository;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.agropay.core.shared.persistence.ChangeVersionRepository.SINCE;
+import static com.agropay.core.shared.persistence.ChangeVersionRepository.WATERMARK;
+
+/**
+ * Cambios de empleados para la caché móvil (mismos datos que /v1/employees/cache).
+ *
+ * Un empleado se informa como eliminado si tiene soft delete, si dejó de estar ACTIVO o CREADO,
+ * o si se pidió una subsidiaria y el empleado ya no pertenece a ella.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeSyncRepository {
+
+    public static final String[] EMPLOYEE_TABLES = {"app.tbl_employees", "app.tbl_persons"};
+
+    private static final List<String> SYNCED_STATES =
+        List.of(EmployeeStateEnum.ACTIVO.getCode(), EmployeeStateEnum.CREADO.getCode());
+
+    private final ChangeVersionRepository changeVersionRepository;
+
+    public DeltaSyncResponse<EmployeeCacheResponse, String> findChanges(UUID subsidiaryPublicId, Long since, long watermark) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource().addValue("states", SYNCED_STATES);
+        String inScope = "e.deleted_at IS NULL AND st.code IN (:states)";
+        String fullSyncFilter = "";
+        if (subsidiaryPublicId != null) {
+            parameters.addValue("subsidiaryPublicId", subsidiaryPublicId.toString());
+            inScope += " AND s.public_id = :subsidiaryPublicId";
+            // En la carga inicial no hace falta leer empleados de otras subsidiarias
+            fullSyncFilter = since == null ? "AND s.public_id = :subsidiaryPublicId " : "";
+        }
+
+        return changeVersionRepository.findChanges(
+            "SELECT e.person_document_number, p.names, p.paternal_lastname, p.maternal_lastname, " +
+            "s.public_id AS subsidiary_public_id, pos.public_id AS position_public_id, " +
+            "CASE WHEN " + inScope + " THEN 0 ELSE 1 END AS removed " +
+            "FROM app.tbl_employees e " +
+            "JOIN app.tbl_persons p ON p.document_number = e.person_document_number " +
+            "JOIN app.tbl_subsidiaries s ON s.id = e.subsidiary_id " +
+            "JOIN app.tbl_positions pos ON pos.id = e.position_id " +
+            "LEFT JOIN app.tbl_states st ON st.id = e.state_id " +
+            "WHERE (e.change_version > " + SINCE + " OR p.change_version > " + SINCE + ") " + fullSyncFilter +
+            "AND e.change_version <= " + WATERMARK + " AND p.change_version <= " + WATERMARK,
+            parameters, since, watermark,
+            (rs, rowNum) -> new EmployeeCacheResponse(
+                rs.getString("person_document_number"),
+                rs.getString("names"),
+                rs.getString("paternal_lastname"),
+                rs.getString("maternal_lastname"),
+                UUID.fromString(rs.getString("subsidiary_public_id")),
+                UUID.fromString(rs.getString("position_public_id"))),
+            (rs, rowNum) -> rs.getString("person_document_number"));
+    }
+}
@@ -41,16 +41,11 @@ public interface IEmployeeRepository extends ISoftRepository<EmployeeEntity, Str
     @Query("SELECT COUNT(e) > 0 FROM EmployeeEntity e WHERE e.manager IS NULL AND e.deletedAt IS NULL")
     boolean existsCeoEmployee();
 
-    // Dashboard query
-    @Query("""
-        SELECT s.name, COUNT(e)
-        FROM EmployeeEntity e
-        JOIN e.subsidiary s
-        WHERE e.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR s.id = :subsidiaryId)
-        GROUP BY s.id, s.name
-        ORDER BY COUNT(e) DESC
-    """)
-    List<Object[]> getEmployeesBySubsidiaryGrouped(@Param("subsidiaryId") Short subsidiaryId);
-
+    /**
+     * Empleados de un lote de DNIs con su subsidiaria (batch sync de tareos)
+     * Retorna Object[] donde [0] = personDocumentNumber (String), [1] = subsidiaryId (Short, puede ser null)
+     */
+    @Query("SELECT e.personDocumentNumber, s.id FROM EmployeeEntity e LEFT JOIN e.subsidiary s " +
+           "WHERE e.personDocumentNumber IN :documentNumbers")
+    List<Object[]> findSubsidiaryIdsByDocumentNumbers(@Param("documentNumbers") java.util.Collection<String> documentNumbers);
 }
@@ -3,8 +3,13 @@ package com.agropay.core.organization.persistence;
 import com.agropay.core.organization.domain.PersonEntity;
 import com.agropay.core.shared.generic.persistence.ISoftRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IPersonRepository extends ISoftRepository<PersonEntity, String>, JpaSpecificationExecutor<PersonEntity> {
 
@@ -12,4 +17,13 @@ public interface IPersonRepository extends ISoftRepository<PersonEntity, String>
      * Cuenta los dependientes (hijos) de una persona/empleado
      */
     Long countByPersonParentDocumentNumber(String parentDocumentNumber);
+
+    /**
+     * Cuenta los dependientes (hijos) de varias personas/empleados
+     * Retorna Object[] donde [0] = parentDocumentNumber (String), [1] = count (Long)
+     */
+    @Query("SELECT p.personParentDocumentNumber, COUNT(p) FROM PersonEntity p " +
+           "WHERE p.personParentDocumentNumber IN :parentDocumentNumbers " +
+           "GROUP BY p.personParentDocumentNumber")
+    List<Object[]> countGroupedByPersonParentDocumentNumbers(@Param("parentDocumentNumbers") Collection<String> parentDocumentNumbers);
 }
@@ -5,6 +5,7 @@ import com.agropay.core.images.application.usecase.IImageUseCase;
 import com.agropay.core.images.constant.Bucket;
 import com.agropay.core.images.domain.ImageEntity;
 import com.agropay.core.organization.api.EmployeeStateEnum;
+import com.agropay.core.organization.application.services.EmployeeSnapshotService;
 import com.agropay.core.organization.application.usecase.IEmployeeUseCase;
 import com.agropay.core.organization.application.usecase.IPersonUseCase;
 import com.agropay.core.organization.domain.EmployeeEntity;
@@ -12,7 +13,9 @@ import com.agropay.core.organization.domain.PersonEntity;
 import com.agropay.core.organization.model.employee.*;
 import com.agropay.core.states.models.StateSelectOptionDTO;
 import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.sync.DeltaSyncResponse;
 import com.agropay.core.shared.utils.ApiResult;
+import com.agropay.core.shared.utils.HttpRangeUtils;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,10 +23,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -37,10 +45,13 @@ import java.util.UUID;
 @Tag(name = "Gestión de Empleados", description = "Endpoints para el ciclo de vida completo de un empleado, desde su creación hasta su eliminación.")
 public class EmployeeController {
 
+    private static final String SYNC_VERSION_HEADER = "X-Sync-Version";
+
     private final IEmployeeUseCase employeeService;
     private final IPersonUseCase personService;
     private final IFileStorageUseCase fileStorageService;
     private final IImageUseCase imageUseCase;
+    private final EmployeeSnapshotService employeeSnapshotService;
 
     @GetMapping("/by-document/{documentNumber}/validate")
     @Operation(summary = "Validar empleado por documento", description = "Devuelve true si el empleado existe, está ACTIVO y, si se envía subsidiaryPublicId, pertenece a esa sucursal.")
@@ -142,6 +153,73 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResult.success(response));
     }
 
+    @GetMapping("/sync/changes")
+    @Operation(summary = "Obtener empleados para caché offline-first modificados desde un watermark (sincronización incremental)",
+            description = "Mismos datos que /cache. Sin since devuelve todos los empleados activos (o creados) de la subsidiaria. " +
+                    "deleted lista los números de documento que el móvil debe quitar: eliminados, inactivos o trasladados a otra subsidiaria. " +
+                    "Si no hubo cambios desde el ETag enviado en If-None-Match responde 304.")
+    public ResponseEntity<ApiResult<DeltaSyncResponse<EmployeeCacheResponse, String>>> findChangesForSync(
+            @RequestParam(required = false) UUID subsidiaryPublicId,
+            @RequestParam(required = false) Long since,
+            ServletWebRequest webRequest) {
+        long version = employeeService.getSyncVersion();
+        if (webRequest.checkNotModified(DeltaSyncResponse.etag(version))) {
+            return null;
+        }
+        return ResponseEntity.ok(ApiResult.success(employeeService.findChangesForSync(subsidiaryPublicId, since, version)));
+    }
+
+    @GetMapping("/sync/snapshot")
+    @Operation(summary = "Descargar snapshot de empleados de una subsidiaria para la carga inicial del móvil",
+            description = "Archivo NDJSON comprimido con gzip, una línea por empleado activo (o creado) con los mismos datos que /cache. " +
+                    "La cabecera " + SYNC_VERSION_HEADER + " indica la versión del archivo, que se envía como since en /sync/changes. " +
+                    "Admite If-None-Match (304) y Range / If-Range (206) para reanudar descargas.")
+    public ResponseEntity<StreamingResponseBody> downloadSnapshot(
+            @RequestParam UUID subsidiaryPublicId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            ServletWebRequest webRequest) {
+        EmployeeSnapshot snapshot = employeeSnapshotService.getSnapshot(subsidiaryPublicId);
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/gzip"));
+        headers.setContentDispositionFormData("attachment", snapshot.fileName());
+        // private + no-cache: el móvil guarda el archivo y lo revalida con If-None-Match
+        headers.setCacheControl("private, no-cache");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set(SYNC_VERSION_HEADER, String.valueOf(snapshot.version()));
+
+        byte[] content = snapshot.content();
+        long length = content.length;
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        Optional<HttpRange> requested = HttpRangeUtils.singleRange(range, ifRange, snapshot.etag());
+        if (requested.isPresent()) {
+            try {
+                start = requested.get().getRangeStart(length);
+                end = requested.get().getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        int offset = (int) start;
+        int count = (int) (end - start + 1);
+        headers.setContentLength(count);
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(out -> out.write(content, offset, count));
+    }
+
     @GetMapping("/organizational-chart")
     @Operation(summary = "Obtener el organigrama completo o de una sucursal", description = "Devuelve la estructura jerárquica de los empleados. Si no se especifica subsidiaryId, devuelve toda la estructura desde el CEO. Si se especifica, devuelve solo la rama de esa sucursal.")
     public ResponseEntity<ApiResult<List<OrganizationalChartNodeDTO>>> getOrganizationalChart(
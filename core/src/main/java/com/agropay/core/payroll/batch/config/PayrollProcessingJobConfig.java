@@ -1,12 +1,20 @@
 package com.agropay.core.payroll.batch.config;
 
 import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.payroll.batch.partition.EmployeeRangePartitioner;
+import com.agropay.core.payroll.batch.partition.PayslipDetailRangePartitioner;
+import com.agropay.core.payroll.batch.plan.ConceptPlanRegistry;
+import com.agropay.core.payroll.batch.plan.PayslipAssetsRegistry;
+import com.agropay.core.payroll.batch.prefetch.PayrollInputPrefetcher;
 import com.agropay.core.payroll.batch.processor.EmployeePayrollProcessor;
+import com.agropay.core.payroll.batch.processor.PayslipPdfProcessor;
 import com.agropay.core.payroll.batch.tasklet.CalculateWorkingDaysTasklet;
-import com.agropay.core.payroll.batch.tasklet.GeneratePayslipPdfsTasklet;
+import com.agropay.core.payroll.batch.tasklet.PreparePayslipAssetsTasklet;
 import com.agropay.core.payroll.batch.tasklet.UpdatePayrollTotalsTasklet;
 import com.agropay.core.payroll.batch.writer.PayrollDetailWriter;
+import com.agropay.core.payroll.batch.writer.PayslipPdfWriter;
 import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.model.payslip.GeneratedPayslip;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -14,20 +22,27 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
     /**
      * Configuración del Job de procesamiento de planillas
      *
      * Flow del Job:
      * 1. Step 0: CalculateWorkingDaysTasklet - Prepara los datos del período y calcula días laborables
-     * 2. Step 1: ProcessEmployeesStep - Lee empleados, calcula conceptos, guarda detalles (chunk-based)
+     * 2. Step 1: ProcessEmployeesPartitionedStep - Divide a los empleados en rangos de DNI y ejecuta
+     *    ProcessEmployeesStep (lee, calcula, guarda detalles en chunks) por partición en hilos paralelos
      * 3. Step 2: UpdatePayrollTotalsTasklet - Actualiza totales de la planilla
      * 
      * NOTA: La generación de boletas (PDFs) NO está incluida en este job.
@@ -45,11 +60,40 @@ public class PayrollProcessingJobConfig {
     // Tasklets
     private final CalculateWorkingDaysTasklet calculateWorkingDaysTasklet;
     private final UpdatePayrollTotalsTasklet updatePayrollTotalsTasklet;
-    private final GeneratePayslipPdfsTasklet generatePayslipPdfsTasklet;
+    private final PreparePayslipAssetsTasklet preparePayslipAssetsTasklet;
 
     // Chunk components - NO inyectar el reader aquí porque es @StepScope
     private final EmployeePayrollProcessor employeePayrollProcessor;
     private final PayrollDetailWriter payrollDetailWriter;
+    private final PayrollInputPrefetcher payrollInputPrefetcher;
+    private final PayslipPdfProcessor payslipPdfProcessor;
+    private final PayslipPdfWriter payslipPdfWriter;
+
+    // Partitioner - @StepScope, lee partitionCount de los JobParameters
+    private final EmployeeRangePartitioner employeeRangePartitioner;
+    private final PayslipDetailRangePartitioner payslipDetailRangePartitioner;
+
+    // Planes de conceptos y recursos de boletas por ejecución (se liberan al terminar el job)
+    private final ConceptPlanRegistry conceptPlanRegistry;
+    private final PayslipAssetsRegistry payslipAssetsRegistry;
+
+    @Value("${payroll.batch.partition.default-count:4}")
+    private int defaultPartitionCount;
+
+    @Value("${payroll.batch.partition.max-threads:4}")
+    private int maxPartitionThreads;
+
+    @Value("${payroll.batch.partition.virtual-threads:true}")
+    private boolean partitionVirtualThreads;
+
+    @Value("${payroll.batch.payslips.partition-count:4}")
+    private int payslipPartitionCount;
+
+    @Value("${payroll.batch.payslips.max-threads:4}")
+    private int maxPayslipThreads;
+
+    @Value("${payroll.batch.payslips.chunk-size:20}")
+    private int payslipChunkSize;
 
     /**
      * Step 0: Calcula días laborables y prepara contexto del job
@@ -67,6 +111,9 @@ public class PayrollProcessingJobConfig {
      * IMPORTANTE: El reader es @StepScope, por lo que Spring Batch lo creará dinámicamente
      * cuando el step se ejecute. Usamos el nombre del bean como string para que Spring Batch
      * lo resuelva correctamente y llame a open() antes de leer.
+     *
+     * El PayrollInputPrefetcher se registra como StepExecutionListener; Spring Batch lo registra
+     * también como ItemReadListener y ChunkListener porque implementa ambas interfaces.
      */
     @Bean
     public Step processEmployeesStep() {
@@ -77,7 +124,8 @@ public class PayrollProcessingJobConfig {
             .processor(employeePayrollProcessor)
             .writer(payrollDetailWriter)
             .listener(new ItemReadListener<EmployeeEntity>() {
-                private int readCount = 0;
+                // Compartido entre particiones que se ejecutan en paralelo
+                private final AtomicInteger readCount = new AtomicInteger();
                 
                 @Override
                 public void beforeRead() {
@@ -86,9 +134,8 @@ public class PayrollProcessingJobConfig {
                 
                 @Override
                 public void afterRead(EmployeeEntity employee) {
-                    readCount++;
                     log.info("📖 EmployeeReader: Leyendo empleado #{} - DNI: {}, Nombre: {}", 
-                        readCount,
+                        readCount.incrementAndGet(),
                         employee.getPersonDocumentNumber(),
                         employee.getPerson() != null ? employee.getPerson().getNames() : "N/A");
                 }
@@ -117,6 +164,10 @@ public class PayrollProcessingJobConfig {
                     log.info("Write Skip Count: {}", stepExecution.getWriteSkipCount());
                     log.info("Commit Count: {}", stepExecution.getCommitCount());
                     log.info("Rollback Count: {}", stepExecution.getRollbackCount());
+                    log.info("Prefetch Query Count: {} (chunks: {}, máximo por chunk: {})",
+                        stepExecution.getExecutionContext().getLong("prefetchQueryCount", 0L),
+                        stepExecution.getExecutionContext().getLong("prefetchChunkCount", 0L),
+                        stepExecution.getExecutionContext().getLong("prefetchMaxQueriesPerChunk", 0L));
                     log.info("Exit Status: {}", stepExecution.getExitStatus());
                     
                     if (stepExecution.getReadCount() == 0) {
@@ -132,9 +183,52 @@ public class PayrollProcessingJobConfig {
                     return stepExecution.getExitStatus();
                 }
             })
+            // Registrado al final: afterStep se invoca en orden inverso y debe publicar sus contadores primero
+            .listener((StepExecutionListener) payrollInputPrefetcher)
+            .build();
+    }
+
+    /**
+     * Step 1 (particionado): ejecuta processEmployeesStep como worker por cada rango de empleados.
+     *
+     * - EmployeeRangePartitioner divide por rango de DNI; cada partición tiene su propio StepExecution,
+     *   por lo que el estado del reader, el processor, el writer y el prefetch son independientes y reiniciables.
+     * - Las particiones corren en un executor acotado (max-threads), con hilos virtuales si está habilitado.
+     * - UpdatePayrollTotalsTasklet agrega desde tbl_payroll_details, así que los totales no dependen
+     *   de cuántas particiones se usaron.
+     */
+    @Bean
+    public Step processEmployeesPartitionedStep() {
+        return new StepBuilder("processEmployeesPartitionedStep", jobRepository)
+            .partitioner("processEmployeesStep", employeeRangePartitioner)
+            .step(processEmployeesStep())
+            .gridSize(defaultPartitionCount)
+            .taskExecutor(payrollPartitionTaskExecutor())
+            .listener(new StepExecutionListener() {
+                @Override
+                public org.springframework.batch.core.ExitStatus afterStep(StepExecution stepExecution) {
+                    long prefetchQueries = stepExecution.getJobExecution().getStepExecutions().stream()
+                        .filter(execution -> execution.getStepName().startsWith("processEmployeesStep:"))
+                        .mapToLong(execution -> execution.getExecutionContext().getLong("prefetchQueryCount", 0L))
+                        .sum();
+                    log.info("=== FINALIZANDO Step 1 particionado: Read={}, Write={}, Prefetch Queries={} ===",
+                        stepExecution.getReadCount(), stepExecution.getWriteCount(), prefetchQueries);
+                    return stepExecution.getExitStatus();
+                }
+            })
             .build();
     }
 
+    /**
+     * Executor acotado para las particiones del cálculo de planilla.
+     */
+    private TaskExecutor payrollPartitionTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payroll-partition-");
+        executor.setVirtualThreads(partitionVirtualThreads);
+        executor.setConcurrencyLimit(maxPartitionThreads);
+        return executor;
+    }
+
     /**
      * Step 2: Actualiza totales de la planilla
      */
@@ -146,16 +240,88 @@ public class PayrollProcessingJobConfig {
     }
 
     /**
-     * Step 3: Genera PDFs de boletas y los sube a Cloudinary
-     * Este step se usa en el job separado generatePayslipsJob
+     * Step 3: Resuelve la planilla y carga una sola vez los recursos comunes a todas las boletas
+     * Este step y los siguientes se usan en el job separado generatePayslipsJob
+     */
+    @Bean
+    public Step preparePayslipAssetsStep() {
+        return new StepBuilder("preparePayslipAssetsStep", jobRepository)
+            .tasklet(preparePayslipAssetsTasklet, transactionManager)
+            .build();
+    }
+
+    /**
+     * Step 4: Genera y guarda las boletas de un rango de detalles en chunks
+     *
+     * - El processor genera el PDF con los recursos compartidos del job (sin consultas a la BD)
+     * - El writer guarda los PDFs del chunk y actualiza las URLs de los detalles en bloque
+     * - Un error en una boleta no detiene el resto: el detalle se omite (skip) y se registra en el log,
+     *   igual que antes; processorNonTransactional evita regenerar los PDFs ya generados del chunk
+     *   cuando Spring Batch reintenta el chunk sin el item fallido
      */
     @Bean
     public Step generatePayslipPdfsStep() {
         return new StepBuilder("generatePayslipPdfsStep", jobRepository)
-            .tasklet(generatePayslipPdfsTasklet, transactionManager)
+            .<PayrollDetailEntity, GeneratedPayslip>chunk(payslipChunkSize, transactionManager)
+            .reader((org.springframework.batch.item.ItemReader<PayrollDetailEntity>) applicationContext.getBean("payslipDetailItemReader"))
+            .processor(payslipPdfProcessor)
+            .writer(payslipPdfWriter)
+            .faultTolerant()
+            .processorNonTransactional()
+            .skip(Exception.class)
+            .skipLimit(Integer.MAX_VALUE)
+            .listener(new SkipListener<PayrollDetailEntity, GeneratedPayslip>() {
+                @Override
+                public void onSkipInProcess(PayrollDetailEntity detail, Throwable t) {
+                    log.error("Error generating PDF for employee: {}. Error: {}",
+                        detail.getEmployee() != null ? detail.getEmployee().getPersonDocumentNumber() : detail.getPublicId(),
+                        t.getMessage(), t);
+                }
+
+                @Override
+                public void onSkipInWrite(GeneratedPayslip payslip, Throwable t) {
+                    log.error("Error saving PDF for employee: {}. Error: {}",
+                        payslip.detail().getEmployee().getPersonDocumentNumber(), t.getMessage(), t);
+                }
+            })
             .build();
     }
 
+    /**
+     * Step 4 (particionado): ejecuta generatePayslipPdfsStep por cada rango de detalles en hilos paralelos
+     */
+    @Bean
+    public Step generatePayslipPdfsPartitionedStep() {
+        return new StepBuilder("generatePayslipPdfsPartitionedStep", jobRepository)
+            .partitioner("generatePayslipPdfsStep", payslipDetailRangePartitioner)
+            .step(generatePayslipPdfsStep())
+            .gridSize(payslipPartitionCount)
+            .taskExecutor(payslipPartitionTaskExecutor())
+            .listener(new StepExecutionListener() {
+                @Override
+                public org.springframework.batch.core.ExitStatus afterStep(StepExecution stepExecution) {
+                    log.info("=== Boletas generadas. Success: {}, Errors: {} ===",
+                        stepExecution.getWriteCount(), stepExecution.getSkipCount());
+                    if (stepExecution.getSkipCount() > 0) {
+                        log.warn("Some PDFs failed to generate. Check logs for details.");
+                    }
+                    return stepExecution.getExitStatus();
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Executor acotado para las particiones de boletas (la generación de PDFs usa CPU y cada
+     * partición mantiene una conexión durante el commit de su chunk).
+     */
+    private TaskExecutor payslipPartitionTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payslip-partition-");
+        executor.setVirtualThreads(partitionVirtualThreads);
+        executor.setConcurrencyLimit(maxPayslipThreads);
+        return executor;
+    }
+
     /**
      * Job separado para generar boletas de pago (PDFs)
      * 
@@ -163,7 +329,9 @@ public class PayrollProcessingJobConfig {
      * en una planilla ya calculada.
      * 
      * Flow:
-     * 1. Step: GeneratePayslipPdfsStep - Genera PDFs y los sube a Cloudinary
+     * 1. Step: PreparePayslipAssetsStep - Resuelve la planilla y carga logo, firmas, fuentes y cabecera
+     * 2. Step: GeneratePayslipPdfsPartitionedStep - Genera los PDFs en paralelo por rango de detalles
+     *    y los guarda en SQL Server (archivos internos) por chunk
      *
      * JobParameter requerido: payrollPublicId (UUID)
      */
@@ -182,6 +350,8 @@ public class PayrollProcessingJobConfig {
 
                 @Override
                 public void afterJob(org.springframework.batch.core.JobExecution jobExecution) {
+                    payslipAssetsRegistry.release(jobExecution.getId());
+
                     log.info("═══════════════════════════════════════════════════════════");
                     log.info("🏁 FINALIZANDO JOB: generatePayslipsJob");
                     log.info("   Job Execution ID: {}", jobExecution.getId());
@@ -209,7 +379,8 @@ public class PayrollProcessingJobConfig {
                     log.info("═══════════════════════════════════════════════════════════");
                 }
             })
-            .start(generatePayslipPdfsStep())
+            .start(preparePayslipAssetsStep())
+            .next(generatePayslipPdfsPartitionedStep())
             .build();
     }
 
@@ -218,13 +389,16 @@ public class PayrollProcessingJobConfig {
      *
      * Flow:
      * 1. Step 0: CalculateWorkingDaysStep - Prepara contexto y calcula días laborables
-     * 2. Step 1: ProcessEmployeesStep - Procesa empleados en chunks (lee, calcula, escribe)
+     * 2. Step 1: ProcessEmployeesPartitionedStep - Procesa empleados en chunks, particionado por rango de DNI
      * 3. Step 2: UpdatePayrollTotalsStep - Actualiza totales de la planilla
      *
      * NOTA: La generación de boletas (PDFs) NO está incluida en este job.
      * Las boletas se generan por separado mediante el método generatePayslips() en PayrollService.
      *
      * JobParameter requerido: payrollPublicId (UUID)
+     * JobParameter opcional: partitionCount (Long) - cantidad de particiones del Step 1
+     * JobParameter opcional: mode (FULL | DELTA) - DELTA solo recalcula empleados cuya huella de entradas cambió
+     *   y da de baja los detalles de empleados que ya no tienen tareos en el período
      */
     @Bean
     public Job payrollProcessingJob() {
@@ -241,6 +415,8 @@ public class PayrollProcessingJobConfig {
 
                 @Override
                 public void afterJob(org.springframework.batch.core.JobExecution jobExecution) {
+                    conceptPlanRegistry.release(jobExecution.getId());
+
                     log.info("═══════════════════════════════════════════════════════════");
                     log.info("🏁 FINALIZANDO JOB: payrollProcessingJob");
                     log.info("   Job Execution ID: {}", jobExecution.getId());
@@ -269,7 +445,7 @@ public class PayrollProcessingJobConfig {
                 }
             })
             .start(calculateWorkingDaysStep())
-            .next(processEmployeesStep())
+            .next(processEmployeesPartitionedStep())
             .next(updatePayrollTotalsStep())
             .build();
     }
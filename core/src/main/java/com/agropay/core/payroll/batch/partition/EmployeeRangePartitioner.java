@@ -0,0 +1,87 @@
+package com.agropay.core.payroll.batch.partition;
+
+import com.agropay.core.assignment.persistence.ITareoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Divide a los empleados de la planilla en rangos contiguos de número de documento.
+ *
+ * Cada partición recibe en su ExecutionContext:
+ * - minDocumentNumber / maxDocumentNumber: rango inclusivo leído por EmployeeReader
+ * - partitionEmployees: cantidad de empleados del rango
+ *
+ * Los límites se toman de la lista ordenada por la base de datos, por lo que el BETWEEN del reader
+ * usa la misma collation y los rangos nunca se solapan. Al reiniciar el job, Spring Batch reutiliza
+ * los contextos guardados de cada partición en lugar de volver a particionar.
+ *
+ * La cantidad de particiones se toma del JobParameter partitionCount (configurable por planilla al lanzar
+ * el cálculo); si no se envía, se usa el gridSize por defecto del step.
+ */
+@Slf4j
+@Component
+@StepScope
+@RequiredArgsConstructor
+public class EmployeeRangePartitioner implements Partitioner {
+
+    private final ITareoRepository tareoRepository;
+
+    @Value("#{jobExecutionContext['periodStart']}")
+    private String periodStartStr;
+
+    @Value("#{jobExecutionContext['periodEnd']}")
+    private String periodEndStr;
+
+    @Value("#{jobExecutionContext['subsidiaryId']}")
+    private Short subsidiaryId;
+
+    @Value("#{jobParameters['partitionCount']}")
+    private Long partitionCount;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<String> documentNumbers = tareoRepository.findEmployeeDocumentNumbersWithTareosInPeriod(
+            LocalDate.parse(periodStartStr),
+            LocalDate.parse(periodEndStr),
+            subsidiaryId
+        );
+
+        int requested = partitionCount != null ? partitionCount.intValue() : gridSize;
+        int partitions = Math.max(1, Math.min(requested, documentNumbers.size()));
+        Map<String, ExecutionContext> result = new HashMap<>();
+
+        if (documentNumbers.isEmpty()) {
+            // Una partición sin rango: el reader aplica solo los filtros de período y subsidiaria
+            result.put("partition0", new ExecutionContext());
+            log.warn("No hay empleados con tareos en el período; se crea una sola partición vacía");
+            return result;
+        }
+
+        int total = documentNumbers.size();
+        for (int i = 0; i < partitions; i++) {
+            int from = (int) ((long) total * i / partitions);
+            int to = (int) ((long) total * (i + 1) / partitions) - 1;
+
+            ExecutionContext context = new ExecutionContext();
+            context.putString("minDocumentNumber", documentNumbers.get(from));
+            context.putString("maxDocumentNumber", documentNumbers.get(to));
+            context.putInt("partitionEmployees", to - from + 1);
+            result.put("partition" + i, context);
+
+            log.info("Partición {}: {} empleados, DNI {} a {}", i, to - from + 1, documentNumbers.get(from), documentNumbers.get(to));
+        }
+
+        log.info("Planilla particionada: {} empleados en {} particiones (solicitadas: {})", total, partitions, requested);
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.agropay.core.payroll.batch.partition;
+
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Divide los detalles de la planilla en rangos contiguos de ID para generar las boletas en paralelo.
+ *
+ * Cada partición recibe en su ExecutionContext:
+ * - minDetailId / maxDetailId: rango inclusivo leído por PayslipDetailReader
+ * - partitionPayslips: cantidad de boletas del rango
+ *
+ * La cantidad de particiones es el gridSize del step (payroll.batch.payslips.partition-count).
+ */
+@Slf4j
+@Component
+@StepScope
+@RequiredArgsConstructor
+public class PayslipDetailRangePartitioner implements Partitioner {
+
+    private final IPayrollDetailRepository payrollDetailRepository;
+
+    @Value("#{jobExecutionContext['payrollId']}")
+    private Long payrollId;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<Long> detailIds = payrollDetailRepository.findIdsByPayrollId(payrollId);
+
+        int partitions = Math.max(1, Math.min(gridSize, detailIds.size()));
+        Map<String, ExecutionContext> result = new HashMap<>();
+
+        if (detailIds.isEmpty()) {
+            // Una partición sin rango: el reader no encuentra detalles y el step termina sin boletas
+            result.put("partition0", new ExecutionContext());
+            log.warn("La planilla {} no tiene detalles; se crea una sola partición vacía", payrollId);
+            return result;
+        }
+
+        int total = detailIds.size();
+        for (int i = 0; i < partitions; i++) {
+            int from = (int) ((long) total * i / partitions);
+            int to = (int) ((long) total * (i + 1) / partitions) - 1;
+
+            ExecutionContext context = new ExecutionContext();
+            context.putLong("minDetailId", detailIds.get(from));
+            context.putLong("maxDetailId", detailIds.get(to));
+            context.putInt("partitionPayslips", to - from + 1);
+            result.put("partition" + i, context);
+
+            log.info("Partición {}: {} boletas, detalles {} a {}", i, to - from + 1, detailIds.get(from), detailIds.get(to));
+        }
+
+        log.info("Boletas particionadas: {} detalles en {} particiones", total, partitions);
+        return result;
+    }
+}
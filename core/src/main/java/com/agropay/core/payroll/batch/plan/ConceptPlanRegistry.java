@@ -0,0 +1,56 @@
+package com.agropay.core.payroll.batch.plan;
+
+import com.agropay.core.payroll.domain.calculator.CompiledConceptPlan;
+import com.agropay.core.payroll.domain.calculator.ConceptCalculatorFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Planes de conceptos compilados por ejecución del job de planilla.
+ *
+ * CalculateWorkingDaysTasklet compila el plan al preparar el contexto del job y todas las
+ * particiones del cálculo lo reutilizan. El plan contiene referencias a los calculadores
+ * (no serializables), por eso vive en memoria y no en el ExecutionContext: si el job se
+ * reinicia en otra instancia, se recompila desde payrollConfigurations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConceptPlanRegistry {
+
+    private final ConceptCalculatorFactory calculatorFactory;
+
+    private final Map<Long, CompiledConceptPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Compila y registra el plan del job, reemplazando uno previo si existiera
+     */
+    public CompiledConceptPlan compile(Long jobExecutionId, List<Map<String, Serializable>> payrollConfigurations) {
+        CompiledConceptPlan plan = CompiledConceptPlan.compile(payrollConfigurations, calculatorFactory);
+        plans.put(jobExecutionId, plan);
+        return plan;
+    }
+
+    /**
+     * Retorna el plan del job, compilándolo si aún no existe (p. ej. job reiniciado)
+     */
+    public CompiledConceptPlan getOrCompile(Long jobExecutionId, List<Map<String, Serializable>> payrollConfigurations) {
+        return plans.computeIfAbsent(jobExecutionId,
+            id -> CompiledConceptPlan.compile(payrollConfigurations, calculatorFactory));
+    }
+
+    /**
+     * Libera el plan al terminar el job
+     */
+    public void release(Long jobExecutionId) {
+        if (plans.remove(jobExecutionId) != null) {
+            log.debug("Plan de conceptos liberado para job execution {}", jobExecutionId);
+        }
+    }
+}
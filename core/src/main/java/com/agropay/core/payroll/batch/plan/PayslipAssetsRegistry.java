@@ -0,0 +1,87 @@
+package com.agropay.core.payroll.batch.plan;
+
+import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.model.payslip.PayslipRenderAssets;
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import com.agropay.core.payroll.persistence.IPayrollRepository;
+import com.agropay.core.payroll.service.PayslipPdfService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recursos de boletas (logo, firmas, fuentes, cabecera, conceptos) por ejecución del job de boletas.
+ *
+ * PreparePayslipAssetsTasklet los resuelve una vez al inicio del job y todas las particiones los
+ * comparten en solo lectura. Contienen imágenes y fuentes (no serializables), por eso viven en memoria
+ * y no en el ExecutionContext: si el job se reinicia en otra instancia, se vuelven a cargar.
+ *
+ * Con payroll.payslip.template-rendering habilitado también se construye la plantilla de la planilla
+ * (cabecera y bloques de firma), que cada boleta estampa en lugar de volver a maquetarlos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PayslipAssetsRegistry {
+
+    private final IPayrollRepository payrollRepository;
+    private final IPayrollDetailRepository payrollDetailRepository;
+    private final PayslipPdfService payslipPdfService;
+
+    @Value("${payroll.payslip.template-rendering:true}")
+    private boolean templateRendering;
+
+    private final Map<Long, PayslipRenderAssets> assets = new ConcurrentHashMap<>();
+
+    /**
+     * Carga y registra los recursos del job, reemplazando unos previos si existieran
+     */
+    public PayslipRenderAssets load(Long jobExecutionId, PayrollEntity payroll) {
+        PayslipRenderAssets loaded = loadAssets(payroll);
+        assets.put(jobExecutionId, loaded);
+        return loaded;
+    }
+
+    /**
+     * Retorna los recursos del job, cargándolos si aún no existen (p. ej. job reiniciado)
+     */
+    public PayslipRenderAssets getOrLoad(Long jobExecutionId, Long payrollId) {
+        return assets.computeIfAbsent(jobExecutionId, id -> loadAssets(payrollRepository.findById(payrollId)
+            .orElseThrow(() -> new IllegalStateException("Planilla no encontrada con ID: " + payrollId))));
+    }
+
+    /**
+     * Libera los recursos al terminar el job
+     */
+    public void release(Long jobExecutionId) {
+        if (assets.remove(jobExecutionId) != null) {
+            log.debug("Recursos de boletas liberados para job execution {}", jobExecutionId);
+        }
+    }
+
+    private PayslipRenderAssets loadAssets(PayrollEntity payroll) {
+        Map<Short, String> subsidiaries = new HashMap<>();
+        for (Object[] row : payrollDetailRepository.findEmployeeSubsidiariesByPayrollId(payroll.getId())) {
+            subsidiaries.put((Short) row[0], (String) row[1]);
+        }
+
+        try {
+            PayslipRenderAssets loaded = payslipPdfService.loadRenderAssets(payroll, subsidiaries);
+            if (templateRendering) {
+                loaded = payslipPdfService.withTemplate(loaded);
+            }
+            log.info("Recursos de boletas cargados para planilla {}: logo={}, subsidiarias={}, plantilla={}",
+                payroll.getCode(), loaded.companyLogo() != null, subsidiaries.size(), loaded.template() != null);
+            return loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron preparar las fuentes o la plantilla de la boleta", e);
+        }
+    }
+}
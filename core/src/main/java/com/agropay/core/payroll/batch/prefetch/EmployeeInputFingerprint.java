@@ -0,0 +1,109 @@
+package com.agropay.core.payroll.batch.prefetch;
+
+import com.agropay.core.assignment.domain.TareoEmployeeEntity;
+import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs.CalendarDay;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Huella (SHA-256 en hex) de los datos de entrada con los que se calcula la planilla de un empleado.
+ *
+ * Incluye todo lo que leen EmployeePayrollProcessor y los calculadores:
+ * - Semilla del job: período, configuración de la empresa, conceptos y calendario del período
+ * - Salario básico resuelto, dependientes y conceptos de jubilación/salud del empleado
+ * - Tareos (horas, productividad y datos de destajo de la labor), QR Rolls y conteos de cosecha
+ * - Días del calendario en los que trabajó el empleado (pueden caer fuera del período)
+ *
+ * Si dos ejecuciones producen la misma huella, el detalle calculado es el mismo y el recálculo
+ * DELTA puede omitir al empleado.
+ */
+public final class EmployeeInputFingerprint {
+
+    private static final Comparator<TareoEmployeeEntity> TAREO_ORDER = Comparator
+        .comparing(TareoEmployeeEntity::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(TareoEmployeeEntity::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private EmployeeInputFingerprint() {
+    }
+
+    public static String of(String jobSeed, EmployeeEntity employee, BigDecimal basicSalary, EmployeePayrollInputs inputs) {
+        StringBuilder sb = new StringBuilder(256 + inputs.tareos().size() * 96);
+        sb.append(jobSeed).append('\n');
+        sb.append("E|").append(employee.getPersonDocumentNumber())
+            .append('|').append(decimal(basicSalary))
+            .append('|').append(inputs.numberOfDependents())
+            .append('|').append(inputs.retirementConceptCode())
+            .append('|').append(employee.getHealthInsuranceConceptId())
+            .append('\n');
+
+        List<TareoEmployeeEntity> tareos = inputs.tareos().stream().sorted(TAREO_ORDER).toList();
+        Map<LocalDate, CalendarDay> workedDays = new TreeMap<>();
+        for (TareoEmployeeEntity tareo : tareos) {
+            sb.append("T|").append(tareo.getId())
+                .append('|').append(tareo.getCreatedAt())
+                .append('|').append(tareo.getStartTime())
+                .append('|').append(tareo.getEndTime())
+                .append('|').append(decimal(tareo.getPaidHours()))
+                .append('|').append(tareo.getProductivity());
+            var labor = tareo.getTareo() != null ? tareo.getTareo().getLabor() : null;
+            if (labor != null) {
+                sb.append("|L|").append(labor.getId())
+                    .append('|').append(labor.getIsPiecework())
+                    .append('|').append(decimal(labor.getMinTaskRequirement()))
+                    .append('|').append(decimal(labor.getBasePrice()));
+            }
+            sb.append('\n');
+
+            LocalDate date = tareo.getCreatedAt().toLocalDate();
+            workedDays.put(date, inputs.calendar().get(date));
+        }
+
+        new TreeMap<>(inputs.qrRollIdsByDate()).forEach((date, qrRollId) -> sb.append("Q|").append(date)
+            .append('|').append(qrRollId)
+            .append('|').append(inputs.harvestCountsByQrRollId().getOrDefault(qrRollId, 0L))
+            .append('\n'));
+
+        workedDays.forEach((date, day) -> sb.append("C|").append(date)
+            .append('|').append(day != null ? day.workingDay() + "|" + day.hasHolidayEvent() : "-")
+            .append('\n'));
+
+        return sha256(sb.toString());
+    }
+
+    /**
+     * Semilla común a todos los empleados del job; si cambia, todas las huellas cambian
+     */
+    public static String jobSeed(Object... parts) {
+        StringBuilder sb = new StringBuilder("J");
+        for (Object part : parts) {
+            sb.append('|').append(part instanceof BigDecimal value ? decimal(value) : part);
+        }
+        return sha256(sb.toString());
+    }
+
+    /**
+     * 8.0 y 8.00 deben producir la misma huella
+     */
+    private static String decimal(BigDecimal value) {
+        return value == null ? "null" : value.stripTrailingZeros().toPlainString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.agropay.core.payroll.batch.prefetch;
+
+import com.agropay.core.assignment.domain.TareoEmployeeEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos de entrada de un empleado para el cálculo de planilla, precargados en lote
+ * por {@link PayrollInputPrefetcher} para todo el chunk.
+ *
+ * @param tareos                  Tareos del empleado en el período (con tareo y labor cargados)
+ * @param qrRollIdsByDate         QR Roll asignado al empleado por día
+ * @param harvestCountsByQrRollId Registros de cosecha por QR Roll (fallback de productividad)
+ * @param specialSalary           Salario especial de contract_position_salaries, o null si no existe
+ * @param numberOfDependents      Cantidad de dependientes (hijos)
+ * @param retirementConceptCode   Código del concepto de jubilación del empleado, o null
+ * @param calendar                Días del calendario laboral conocidos (compartido por todo el step)
+ * @param previousFingerprint     Huella del detalle ya calculado (solo en modo DELTA), o null
+ */
+public record EmployeePayrollInputs(
+        List<TareoEmployeeEntity> tareos,
+        Map<LocalDate, Integer> qrRollIdsByDate,
+        Map<Integer, Long> harvestCountsByQrRollId,
+        BigDecimal specialSalary,
+        int numberOfDependents,
+        String retirementConceptCode,
+        Map<LocalDate, CalendarDay> calendar,
+        String previousFingerprint
+) {
+
+    /**
+     * Día del calendario laboral ya resuelto, sin depender de la sesión de JPA.
+     *
+     * @param workingDay      is_working_day del calendario
+     * @param hasHolidayEvent true si el día tiene un evento de tipo HOLIDAY
+     */
+    public record CalendarDay(boolean workingDay, boolean hasHolidayEvent) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.agropay.core.payroll.batch.prefetch;
+
+import com.agropay.core.assignment.domain.TareoEmployeeEntity;
+import com.agropay.core.assignment.persistence.IHarvestRecordRepository;
+import com.agropay.core.assignment.persistence.IQrRollEmployeeRepository;
+import com.agropay.core.assignment.persistence.ITareoEmployeeRepository;
+import com.agropay.core.hiring.persistence.IContractPositionSalaryRepository;
+import com.agropay.core.hiring.persistence.IContractRepository;
+import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.organization.persistence.IPersonRepository;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs.CalendarDay;
+import com.agropay.core.payroll.domain.ConceptEntity;
+import com.agropay.core.payroll.domain.WorkCalendarEntity;
+import com.agropay.core.payroll.domain.enums.CalendarEventTypeCode;
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
+import com.agropay.core.payroll.persistence.IConceptRepository;
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import com.agropay.core.payroll.persistence.IWorkCalendarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Precarga en lote los datos de entrada de la planilla para todos los empleados de un chunk.
+ *
+ * Flujo:
+ * 1. afterRead: registra cada empleado leído como pendiente
+ * 2. El primer inputsFor() del chunk dispara un único prefetch para todos los pendientes
+ *    (tareos, QR Rolls, conteos de cosecha, contratos, salarios especiales y dependientes)
+ * 3. afterChunk: libera los datos del chunk para mantener la memoria acotada
+ *
+ * El calendario laboral y los códigos de conceptos de jubilación se cachean a nivel de step,
+ * ya que no cambian entre empleados.
+ *
+ * En modo DELTA también se precargan las huellas de los detalles ya calculados, para que el
+ * processor omita a los empleados cuyas entradas no cambiaron.
+ *
+ * La cantidad de consultas emitidas se guarda en el ExecutionContext del step
+ * (prefetchQueryCount, prefetchChunkCount, prefetchMaxQueriesPerChunk) para verificar
+ * que las consultas por chunk se mantienen constantes sin importar el número de empleados.
+ */
+@Slf4j
+@Component
+@StepScope
+@RequiredArgsConstructor
+public class PayrollInputPrefetcher implements ItemReadListener<EmployeeEntity>, ChunkListener, StepExecutionListener {
+
+    private final ITareoEmployeeRepository tareoEmployeeRepository;
+    private final IQrRollEmployeeRepository qrRollEmployeeRepository;
+    private final IHarvestRecordRepository harvestRecordRepository;
+    private final IContractRepository contractRepository;
+    private final IContractPositionSalaryRepository contractPositionSalaryRepository;
+    private final IPersonRepository personRepository;
+    private final IConceptRepository conceptRepository;
+    private final IWorkCalendarRepository workCalendarRepository;
+    private final IPayrollDetailRepository payrollDetailRepository;
+
+    @Value("#{jobExecutionContext['periodStart']}")
+    private String periodStartStr;
+
+    @Value("#{jobExecutionContext['periodEnd']}")
+    private String periodEndStr;
+
+    @Value("#{jobExecutionContext['payrollId']}")
+    private Long payrollId;
+
+    @Value("#{jobParameters['mode']}")
+    private String mode;
+
+    private final Map<String, EmployeeEntity> pendingEmployees = new LinkedHashMap<>();
+    private final Map<String, EmployeePayrollInputs> chunkInputs = new HashMap<>();
+
+    // Caches a nivel de step
+    private final Map<LocalDate, CalendarDay> calendar = new HashMap<>();
+    private final Set<LocalDate> resolvedCalendarDates = new HashSet<>();
+    private final Map<Short, String> conceptCodes = new HashMap<>();
+
+    private long queryCount = 0;
+    private long chunkCount = 0;
+    private long maxQueriesPerChunk = 0;
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        stepExecution.getExecutionContext().putLong("prefetchQueryCount", queryCount);
+        stepExecution.getExecutionContext().putLong("prefetchChunkCount", chunkCount);
+        stepExecution.getExecutionContext().putLong("prefetchMaxQueriesPerChunk", maxQueriesPerChunk);
+        log.info("Prefetch de planilla: {} consultas en {} chunks (máximo {} consultas por chunk)",
+            queryCount, chunkCount, maxQueriesPerChunk);
+        return null;
+    }
+
+    @Override
+    public void afterRead(EmployeeEntity employee) {
+        pendingEmployees.put(employee.getPersonDocumentNumber(), employee);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        pendingEmployees.clear();
+        chunkInputs.clear();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        chunkInputs.clear();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        pendingEmployees.clear();
+        chunkInputs.clear();
+    }
+
+    /**
+     * Retorna los datos precargados del empleado. Si el empleado aún no fue precargado,
+     * ejecuta el prefetch para todos los empleados pendientes del chunk.
+     */
+    public EmployeePayrollInputs inputsFor(EmployeeEntity employee) {
+        EmployeePayrollInputs inputs = chunkInputs.get(employee.getPersonDocumentNumber());
+        if (inputs == null) {
+            pendingEmployees.putIfAbsent(employee.getPersonDocumentNumber(), employee);
+            prefetch();
+            inputs = chunkInputs.get(employee.getPersonDocumentNumber());
+        }
+        return inputs;
+    }
+
+    private void prefetch() {
+        long queriesBefore = queryCount;
+        LocalDate periodStart = LocalDate.parse(periodStartStr);
+        LocalDate periodEnd = LocalDate.parse(periodEndStr);
+        Set<String> documentNumbers = new LinkedHashSet<>(pendingEmployees.keySet());
+
+        // 1. Tareos de todos los empleados del chunk
+        Map<String, List<TareoEmployeeEntity>> tareosByEmployee = new HashMap<>();
+        for (Object[] row : countQuery(tareoEmployeeRepository.findByEmployeesAndPeriod(documentNumbers, periodStart, periodEnd))) {
+            tareosByEmployee.computeIfAbsent((String) row[0], k -> new ArrayList<>()).add((TareoEmployeeEntity) row[1]);
+        }
+
+        // 2. QR Rolls asignados (el último asignado por día prevalece)
+        Map<String, Map<LocalDate, Integer>> qrRollsByEmployee = new HashMap<>();
+        for (Object[] row : countQuery(qrRollEmployeeRepository.findByEmployeesAndPeriod(documentNumbers, periodStart, periodEnd))) {
+            qrRollsByEmployee.computeIfAbsent((String) row[0], k -> new HashMap<>()).put((LocalDate) row[2], (Integer) row[1]);
+        }
+
+        // 3. Conteo de cosechas agrupado por QR Roll
+        Set<Integer> qrRollIds = new HashSet<>();
+        qrRollsByEmployee.values().forEach(byDate -> qrRollIds.addAll(byDate.values()));
+        Map<Integer, Long> harvestCounts = new HashMap<>();
+        if (!qrRollIds.isEmpty()) {
+            for (Object[] row : countQuery(harvestRecordRepository.countGroupedByQrRollIds(qrRollIds))) {
+                harvestCounts.put((Integer) row[0], (Long) row[1]);
+            }
+        }
+
+        // 4. Contrato vigente (el más reciente) y salarios especiales por posición
+        Map<String, Long> contractIdByEmployee = new HashMap<>();
+        for (Object[] row : countQuery(contractRepository.findContractIdsByPersonDocumentNumbers(documentNumbers))) {
+            contractIdByEmployee.putIfAbsent((String) row[0], (Long) row[1]);
+        }
+        Map<Long, Map<Short, BigDecimal>> salariesByContract = new HashMap<>();
+        if (!contractIdByEmployee.isEmpty()) {
+            for (Object[] row : countQuery(contractPositionSalaryRepository.findActiveByContractIds(new HashSet<>(contractIdByEmployee.values())))) {
+                salariesByContract.computeIfAbsent((Long) row[0], k -> new HashMap<>()).putIfAbsent((Short) row[1], (BigDecimal) row[2]);
+            }
+        }
+
+        // 5. Dependientes
+        Map<String, Long> dependentsByEmployee = new HashMap<>();
+        for (Object[] row : countQuery(personRepository.countGroupedByPersonParentDocumentNumbers(documentNumbers))) {
+            dependentsByEmployee.put((String) row[0], (Long) row[1]);
+        }
+
+        // 6. Huellas de los detalles ya calculados (solo DELTA)
+        Map<String, String> previousFingerprints = new HashMap<>();
+        if (PayrollLaunchMode.fromJobParameter(mode) == PayrollLaunchMode.DELTA) {
+            for (Object[] row : countQuery(payrollDetailRepository.findInputFingerprintsByPayrollIdAndEmployees(payrollId, documentNumbers))) {
+                previousFingerprints.put((String) row[0], (String) row[1]);
+            }
+        }
+
+        // 7. Conceptos de jubilación y días de calendario aún no cacheados en el step
+        resolveConceptCodes(pendingEmployees.values());
+        if (resolvedCalendarDates.isEmpty()) {
+            // Se carga dentro de la transacción del chunk para poder leer los tipos de evento
+            loadCalendar(periodStart, periodEnd);
+            periodStart.datesUntil(periodEnd.plusDays(1)).forEach(resolvedCalendarDates::add);
+        }
+        resolveCalendarDates(tareosByEmployee.values());
+
+        for (EmployeeEntity employee : pendingEmployees.values()) {
+            String documentNumber = employee.getPersonDocumentNumber();
+            Long contractId = contractIdByEmployee.get(documentNumber);
+            BigDecimal specialSalary = contractId != null
+                ? salariesByContract.getOrDefault(contractId, Map.of()).get(employee.getPosition().getId())
+                : null;
+
+            chunkInputs.put(documentNumber, new EmployeePayrollInputs(
+                tareosByEmployee.getOrDefault(documentNumber, List.of()),
+                qrRollsByEmployee.getOrDefault(documentNumber, Map.of()),
+                harvestCounts,
+                specialSalary,
+                dependentsByEmployee.getOrDefault(documentNumber, 0L).intValue(),
+                employee.getRetirementConceptId() != null ? conceptCodes.get(employee.getRetirementConceptId()) : null,
+                calendar,
+                previousFingerprints.get(documentNumber)
+            ));
+        }
+
+        long chunkQueries = queryCount - queriesBefore;
+        chunkCount++;
+        maxQueriesPerChunk = Math.max(maxQueriesPerChunk, chunkQueries);
+        log.debug("Prefetch de {} empleados completado con {} consultas", pendingEmployees.size(), chunkQueries);
+        pendingEmployees.clear();
+    }
+
+    private void resolveConceptCodes(Collection<EmployeeEntity> employees) {
+        Set<Short> missing = new HashSet<>();
+        for (EmployeeEntity employee : employees) {
+            Short conceptId = employee.getRetirementConceptId();
+            if (conceptId != null && !conceptCodes.containsKey(conceptId)) {
+                missing.add(conceptId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (ConceptEntity concept : countQuery(conceptRepository.findAllById(missing))) {
+            conceptCodes.put(concept.getId(), concept.getCode());
+        }
+    }
+
+    /**
+     * Los tareos se agrupan por la fecha de creación del tareo_employee, que puede caer fuera
+     * del período; esas fechas se cargan en una sola consulta por rango.
+     */
+    private void resolveCalendarDates(Collection<List<TareoEmployeeEntity>> tareosByEmployee) {
+        LocalDate min = null;
+        LocalDate max = null;
+        List<LocalDate> missing = new ArrayList<>();
+        for (List<TareoEmployeeEntity> tareos : tareosByEmployee) {
+            for (TareoEmployeeEntity tareo : tareos) {
+                LocalDate date = tareo.getCreatedAt().toLocalDate();
+                if (!resolvedCalendarDates.contains(date)) {
+                    missing.add(date);
+                    min = min == null || date.isBefore(min) ? date : min;
+                    max = max == null || date.isAfter(max) ? date : max;
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        loadCalendar(min, max);
+        resolvedCalendarDates.addAll(missing);
+    }
+
+    private void loadCalendar(LocalDate from, LocalDate to) {
+        for (WorkCalendarEntity day : countQuery(workCalendarRepository.findAllBetweenWithEvents(from, to))) {
+            calendar.put(day.getDate(), new CalendarDay(
+                day.isWorkingDay(),
+                day.hasEventType(CalendarEventTypeCode.HOLIDAY.name())
+            ));
+        }
+    }
+
+    private <T> T countQuery(T result) {
+        queryCount++;
+        return result;
+    }
+}
@@ -1,25 +1,17 @@
 package com.agropay.core.payroll.batch.processor;
 
-import com.agropay.core.assignment.domain.QrRollEmployeeEntity;
 import com.agropay.core.assignment.domain.TareoEmployeeEntity;
-import com.agropay.core.assignment.persistence.IHarvestRecordRepository;
-import com.agropay.core.assignment.persistence.IQrRollEmployeeRepository;
-import com.agropay.core.assignment.persistence.ITareoEmployeeRepository;
-import com.agropay.core.hiring.domain.ContractEntity;
-import com.agropay.core.hiring.persistence.IContractPositionSalaryRepository;
-import com.agropay.core.hiring.persistence.IContractRepository;
 import com.agropay.core.organization.domain.EmployeeEntity;
-import com.agropay.core.organization.persistence.IPersonRepository;
+import com.agropay.core.payroll.batch.prefetch.EmployeeInputFingerprint;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs;
+import com.agropay.core.payroll.batch.prefetch.EmployeePayrollInputs.CalendarDay;
+import com.agropay.core.payroll.batch.plan.ConceptPlanRegistry;
+import com.agropay.core.payroll.batch.prefetch.PayrollInputPrefetcher;
 import com.agropay.core.payroll.domain.PayrollDetailEntity;
-import com.agropay.core.payroll.domain.WorkCalendarEntity;
-import com.agropay.core.payroll.domain.ConceptEntity;
-import com.agropay.core.payroll.domain.calculator.ConceptCalculatorFactory;
+import com.agropay.core.payroll.domain.calculator.CompiledConceptPlan;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
 import com.agropay.core.payroll.domain.calculator.WorkCalendarDayInfo;
-import com.agropay.core.payroll.domain.enums.CalendarEventTypeCode;
-import com.agropay.core.payroll.domain.enums.ConceptCode;
-import com.agropay.core.payroll.persistence.IConceptRepository;
-import com.agropay.core.payroll.persistence.IWorkCalendarRepository;
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,15 +34,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, PayrollDetailEntity> {
 
-    private final IWorkCalendarRepository workCalendarRepository;
-    private final ITareoEmployeeRepository tareoEmployeeRepository;
-    private final IHarvestRecordRepository harvestRecordRepository;
-    private final IQrRollEmployeeRepository qrRollEmployeeRepository;
-    private final IPersonRepository personRepository;
-    private final ConceptCalculatorFactory calculatorFactory;
-    private final IConceptRepository conceptRepository;
-    private final IContractRepository contractRepository;
-    private final IContractPositionSalaryRepository contractPositionSalaryRepository;
+    private final PayrollInputPrefetcher inputPrefetcher;
+    private final ConceptPlanRegistry conceptPlanRegistry;
     private final ObjectMapper objectMapper;
 
     @Value("#{jobExecutionContext['periodStart']}")
@@ -77,6 +62,20 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
     @Value("#{jobExecutionContext['payrollConfigurations']}")
     private List<Map<String, Serializable>> payrollConfigurations;
 
+    @Value("#{stepExecution.jobExecutionId}")
+    private Long jobExecutionId;
+
+    @Value("#{jobParameters['mode']}")
+    private String mode;
+
+    @Value("${payroll.batch.fixed-point.enabled:true}")
+    private boolean fixedPointEnabled;
+
+    // Plan compilado una vez por job, calendario del período y semilla de huellas, resueltos en el primer empleado del step
+    private CompiledConceptPlan conceptPlan;
+    private Map<LocalDate, Boolean> periodWorkingDayCalendar;
+    private String fingerprintSeed;
+
     @Override
     public PayrollDetailEntity process(EmployeeEntity employee) throws Exception {
         log.info("=== EmployeePayrollProcessor: Procesando empleado: {} ===", employee.getPersonDocumentNumber());
@@ -89,9 +88,28 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         LocalDate periodEnd = LocalDate.parse(periodEndStr);
         List<LocalDate> workingDays = workingDaysStr.stream().map(LocalDate::parse).toList();
 
-        BigDecimal basicSalary = getBasicSalary(employee);
-        Map<LocalDate, DayHoursDetail> hoursPerDay = calculateHoursPerDay(employee, periodStart, periodEnd);
-        HoursBreakdown hoursBreakdown = categorizeHours(hoursPerDay);
+        // Datos precargados en lote para todo el chunk (sin consultas por empleado)
+        EmployeePayrollInputs inputs = inputPrefetcher.inputsFor(employee);
+        Map<LocalDate, CalendarDay> calendar = inputs.calendar();
+
+        if (conceptPlan == null) {
+            conceptPlan = conceptPlanRegistry.getOrCompile(jobExecutionId, payrollConfigurations);
+            periodWorkingDayCalendar = buildPeriodWorkingDayCalendar(periodStart, periodEnd, calendar);
+            fingerprintSeed = buildFingerprintSeed();
+        }
+
+        BigDecimal basicSalary = getBasicSalary(employee, inputs);
+
+        // En modo DELTA se omite (filtra) al empleado si sus entradas no cambiaron desde el último cálculo
+        String inputFingerprint = EmployeeInputFingerprint.of(fingerprintSeed, employee, basicSalary, inputs);
+        if (PayrollLaunchMode.fromJobParameter(mode) == PayrollLaunchMode.DELTA
+                && inputFingerprint.equals(inputs.previousFingerprint())) {
+            log.info("Empleado {} sin cambios desde el último cálculo, se omite", employee.getPersonDocumentNumber());
+            return null;
+        }
+
+        Map<LocalDate, DayHoursDetail> hoursPerDay = calculateHoursPerDay(inputs.tareos());
+        HoursBreakdown hoursBreakdown = categorizeHours(hoursPerDay, calendar);
         
         // Calcular días trabajados: contar días con tareos registrados
         // Estos son los días que realmente trabajó el empleado (tiene tareos)
@@ -101,29 +119,19 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         Set<LocalDate> workedDaysSet = new HashSet<>(hoursPerDay.keySet());
         
         // Obtener información del calendario para los días trabajados
-        Map<LocalDate, WorkCalendarDayInfo> calendarInfo = buildCalendarInfo(workedDaysSet, periodStart, periodEnd);
+        Map<LocalDate, WorkCalendarDayInfo> calendarInfo = buildCalendarInfo(workedDaysSet, calendar);
         
         // Solo calcular productividad si el empleado tiene labores de destajo
         // Empleados administrativos (labores sin destajo) no tienen productividad
-        Map<LocalDate, BigDecimal> productivityPerDay = calculateProductivityPerDay(employee, periodStart, periodEnd);
-        BigDecimal productivityScore = calculateProductivityScore(employee, periodStart, periodEnd, productivityPerDay);
+        Map<LocalDate, BigDecimal> productivityPerDay = calculateProductivityPerDay(employee, inputs);
+        BigDecimal productivityScore = calculateProductivityScore(employee, productivityPerDay);
         
         // Calcular información de destajo por día (basePrice, minTaskRequirement, productivityCount)
         // Necesario para calcular el pago del excedente de destajo
         Map<LocalDate, com.agropay.core.payroll.domain.calculator.PieceworkDayInfo> pieceworkInfoPerDay = 
-            calculatePieceworkInfoPerDay(employee, periodStart, periodEnd);
+            calculatePieceworkInfoPerDay(employee, inputs);
         
-        Integer numberOfDependents = countDependents(employee);
-
-        // Filtrar configuraciones con valores null antes de crear el mapa
-        // Collectors.toMap() no acepta valores null
-        Map<ConceptCode, BigDecimal> configuredConceptsMap = payrollConfigurations.stream()
-            .filter(map -> map.get("value") != null) // Filtrar valores null
-            .collect(Collectors.toMap(
-                map -> ConceptCode.valueOf((String) map.get("code")),
-                map -> (BigDecimal) map.get("value"),
-                (v1, v2) -> v1
-            ));
+        Integer numberOfDependents = inputs.numberOfDependents();
 
         EmployeePayrollContext context = EmployeePayrollContext.builder()
             .employeeDocumentNumber(employee.getPersonDocumentNumber())
@@ -137,10 +145,11 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             .daysWorked(daysWorked)
             .workedDays(workedDaysSet)
             .calendarInfo(calendarInfo)
+            .periodWorkingDayCalendar(periodWorkingDayCalendar)
             .overtimeRate(overtimeRate)
             .dailyNormalHours(dailyNormalHours)
             .monthCalculationDays(monthCalculationDays)
-            .configuredConcepts(configuredConceptsMap)
+            .configuredConcepts(conceptPlan.configuredConcepts())
             .numberOfDependents(numberOfDependents)
             .productivityScore(productivityScore) // Mantener para compatibilidad
             .productivityPerDay(productivityPerDay) // Agregar productividad por día
@@ -152,65 +161,21 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             .build();
 
         // Obtener el código del concepto de jubilación del empleado
-        String employeeRetirementConceptCode = null;
-        if (employee.getRetirementConceptId() != null) {
-            Optional<ConceptEntity> retirementConcept = conceptRepository.findById(employee.getRetirementConceptId());
-            if (retirementConcept.isPresent()) {
-                employeeRetirementConceptCode = retirementConcept.get().getCode();
-            }
-        }
-
-        Map<String, Object> calculatedConcepts = new LinkedHashMap<>();
-        BigDecimal totalIncome = BigDecimal.ZERO;
-        BigDecimal totalDeductions = BigDecimal.ZERO;
-        BigDecimal totalEmployerContributions = BigDecimal.ZERO;
-
-        for (Map<String, Serializable> config : payrollConfigurations) {
-            ConceptCode conceptCode = ConceptCode.valueOf((String) config.get("code"));
-            String categoryCode = (String) config.get("category");
-            
-            // Filtrar conceptos de jubilación: solo calcular el que corresponde al empleado
-            if (com.agropay.core.payroll.domain.enums.ConceptCategoryCode.RETIREMENT.getCode().equals(categoryCode)) {
-                if (employeeRetirementConceptCode == null || !conceptCode.name().equals(employeeRetirementConceptCode)) {
-                    // No calcular este concepto de jubilación si no corresponde al empleado
-                    continue;
-                }
-            }
-            
-            if (!calculatorFactory.hasCalculator(conceptCode)) {
-                log.warn("No calculator for concept: {}", conceptCode);
-                continue;
-            }
-
-            BigDecimal amount = calculatorFactory.getCalculator(conceptCode).calculate(context);
-            Map<String, Object> conceptData = new HashMap<>();
-            conceptData.put("amount", amount);
-            conceptData.put("category", categoryCode);
-            if (config.get("value") != null) {
-                conceptData.put("value", config.get("value"));
-            }
-            calculatedConcepts.put(conceptCode.name(), conceptData);
-
-            com.agropay.core.payroll.domain.enums.ConceptCategoryCode category = 
-                com.agropay.core.payroll.domain.enums.ConceptCategoryCode.fromCode(categoryCode);
-            
-            switch (category) {
-                case INCOME -> totalIncome = totalIncome.add(amount);
-                case DEDUCTION, RETIREMENT, EMPLOYEE_CONTRIBUTION -> totalDeductions = totalDeductions.add(amount);
-                case EMPLOYER_CONTRIBUTION -> totalEmployerContributions = totalEmployerContributions.add(amount);
-            }
+        String employeeRetirementConceptCode = inputs.retirementConceptCode();
 
-            context.setTotalIncome(totalIncome);
-            context.setTotalDeductions(totalDeductions);
-        }
+        // Conceptos en orden de prioridad según el plan compilado del job
+        CompiledConceptPlan.Result result = conceptPlan.evaluate(context, employeeRetirementConceptCode, fixedPointEnabled);
+        BigDecimal totalIncome = result.totalIncome();
+        BigDecimal totalDeductions = result.totalDeductions();
+        BigDecimal totalEmployerContributions = result.totalEmployerContributions();
 
         BigDecimal netToPay = totalIncome.subtract(totalDeductions);
-        String dailyDetailJson = buildDailyDetailJson(hoursPerDay, productivityPerDay);
+        String dailyDetailJson = buildDailyDetailJson(hoursPerDay, productivityPerDay, calendar);
 
         PayrollDetailEntity detail = PayrollDetailEntity.builder()
             .publicId(UUID.randomUUID())
             .employee(employee)
-            .calculatedConcepts(objectMapper.writeValueAsString(calculatedConcepts))
+            .calculatedConcepts(objectMapper.writeValueAsString(result.calculatedConcepts()))
             .dailyDetail(dailyDetailJson)
             .totalIncome(totalIncome)
             .totalDeductions(totalDeductions)
@@ -223,36 +188,55 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             .overtimeHours100(hoursBreakdown.overtimeHours100)
             .nightHours(hoursBreakdown.nightHours)
             .totalHours(hoursBreakdown.totalHours)
+            .inputFingerprint(inputFingerprint)
             .build();
 
         log.info("Employee {} processed - Net: {}", employee.getPersonDocumentNumber(), netToPay);
         return detail;
     }
 
+    /**
+     * Semilla de huellas con todo lo que comparten los empleados del job: período, configuración
+     * de la empresa, conceptos configurados (en orden de prioridad) y calendario del período
+     */
+    private String buildFingerprintSeed() {
+        StringBuilder concepts = new StringBuilder();
+        for (Map<String, Serializable> concept : payrollConfigurations) {
+            Serializable value = concept.get("value");
+            concepts.append(concept.get("code")).append('=')
+                .append(value instanceof BigDecimal decimal ? decimal.stripTrailingZeros().toPlainString() : value)
+                .append(';');
+        }
+        return EmployeeInputFingerprint.jobSeed(periodStartStr, periodEndStr, workingDaysStr, totalWorkingDays,
+            overtimeRate, dailyNormalHours, monthCalculationDays, concepts, new TreeMap<>(periodWorkingDayCalendar));
+    }
+
+    /**
+     * Construye is_working_day por fecha del período (usado por el dominical sin consultar el calendario por empleado)
+     */
+    private Map<LocalDate, Boolean> buildPeriodWorkingDayCalendar(LocalDate periodStart, LocalDate periodEnd,
+                                                                  Map<LocalDate, CalendarDay> calendar) {
+        Map<LocalDate, Boolean> workingDayCalendar = new HashMap<>();
+        calendar.forEach((date, day) -> {
+            if (!date.isBefore(periodStart) && !date.isAfter(periodEnd)) {
+                workingDayCalendar.put(date, day.workingDay());
+            }
+        });
+        return Collections.unmodifiableMap(workingDayCalendar);
+    }
+
     /**
      * Construye el mapa de información del calendario para los días trabajados
      */
-    private Map<LocalDate, WorkCalendarDayInfo> buildCalendarInfo(Set<LocalDate> workedDays, LocalDate periodStart, LocalDate periodEnd) {
+    private Map<LocalDate, WorkCalendarDayInfo> buildCalendarInfo(Set<LocalDate> workedDays, Map<LocalDate, CalendarDay> calendar) {
         Map<LocalDate, WorkCalendarDayInfo> calendarInfoMap = new HashMap<>();
         
-        // Obtener todos los días del calendario en el período
-        List<com.agropay.core.payroll.domain.WorkCalendarEntity> calendarDays = 
-            workCalendarRepository.findAllBetweenWithEvents(periodStart, periodEnd);
-        
-        // Crear mapa rápido por fecha
-        Map<LocalDate, com.agropay.core.payroll.domain.WorkCalendarEntity> calendarMap = calendarDays.stream()
-            .collect(Collectors.toMap(
-                com.agropay.core.payroll.domain.WorkCalendarEntity::getDate,
-                day -> day,
-                (v1, v2) -> v1
-            ));
-        
-        // Para cada día trabajado, crear la información del calendario
+        // Para cada día trabajado, crear la información del calendario (ya precargado para el step)
         for (LocalDate date : workedDays) {
-            com.agropay.core.payroll.domain.WorkCalendarEntity calendarDay = calendarMap.get(date);
-            boolean isHoliday = calendarDay != null && calendarDay.isHoliday();
+            CalendarDay calendarDay = calendar.get(date);
+            boolean isHoliday = calendarDay != null && calendarDay.hasHolidayEvent();
             boolean isSunday = date.getDayOfWeek() == java.time.DayOfWeek.SUNDAY;
-            boolean isWorkingDay = calendarDay != null ? calendarDay.isWorkingDay() : !isSunday;
+            boolean isWorkingDay = calendarDay != null ? calendarDay.workingDay() : !isSunday;
             
             WorkCalendarDayInfo info = WorkCalendarDayInfo.builder()
                 .isWorkingDay(isWorkingDay)
@@ -274,28 +258,15 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
      * 2. Salario de la posición (positions.salary)
      * 
      * @param employee Empleado
+     * @param inputs Datos precargados (incluye el salario especial del contrato vigente, si existe)
      * @return Salario mensual
      */
-    private BigDecimal getBasicSalary(EmployeeEntity employee) {
-        // Buscar contrato activo del empleado
-        Optional<ContractEntity> contractOpt = contractRepository.findByPersonDocumentNumber(
-            employee.getPersonDocumentNumber()
-        );
-        
-        // Si hay contrato, buscar salario especial en tabla N a N
-        if (contractOpt.isPresent()) {
-            ContractEntity contract = contractOpt.get();
-            Optional<com.agropay.core.hiring.domain.ContractPositionSalaryEntity> specialSalaryOpt = 
-                contractPositionSalaryRepository.findActiveByContractIdAndPositionId(
-                    contract.getEntityId(), // Usar getEntityId() que devuelve Long directamente
-                    employee.getPosition().getId()
-                );
-            
-            if (specialSalaryOpt.isPresent()) {
-                log.debug("Usando salario especial de contract_position_salaries para empleado {}", 
-                    employee.getPersonDocumentNumber());
-                return specialSalaryOpt.get().getSalary();
-            }
+    private BigDecimal getBasicSalary(EmployeeEntity employee, EmployeePayrollInputs inputs) {
+        // Salario especial en tabla N a N del contrato vigente
+        if (inputs.specialSalary() != null) {
+            log.debug("Usando salario especial de contract_position_salaries para empleado {}", 
+                employee.getPersonDocumentNumber());
+            return inputs.specialSalary();
         }
         
         // Si no hay salario especial, usar el de la posición
@@ -310,8 +281,8 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         return positionSalary;
     }
 
-    private Map<LocalDate, DayHoursDetail> calculateHoursPerDay(EmployeeEntity employee, LocalDate periodStart, LocalDate periodEnd) {
-        List<TareoEmployeeEntity> tareos = tareoEmployeeRepository.findByEmployeeAndPeriod(employee.getPersonDocumentNumber(), periodStart, periodEnd);
+    // Los cálculos de horas son package-private para medirlos con los benchmarks JMH (perfil benchmarks)
+    Map<LocalDate, DayHoursDetail> calculateHoursPerDay(List<TareoEmployeeEntity> tareos) {
         Map<LocalDate, DayHoursDetail> result = new HashMap<>();
         
         for (TareoEmployeeEntity tareo : tareos) {
@@ -338,7 +309,7 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
      * Calcula las horas nocturnas trabajadas (22:00 - 06:00)
      * Rango nocturno: desde las 22:00 hasta las 06:00 del día siguiente
      */
-    private BigDecimal calculateNightHours(LocalTime startTime, LocalTime endTime, BigDecimal totalHours) {
+    BigDecimal calculateNightHours(LocalTime startTime, LocalTime endTime, BigDecimal totalHours) {
         LocalTime nightStart = LocalTime.of(22, 0);
         LocalTime nightEnd = LocalTime.of(6, 0);
         
@@ -406,7 +377,7 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         return BigDecimal.ZERO;
     }
 
-    private HoursBreakdown categorizeHours(Map<LocalDate, DayHoursDetail> hoursPerDay) {
+    HoursBreakdown categorizeHours(Map<LocalDate, DayHoursDetail> hoursPerDay, Map<LocalDate, CalendarDay> calendar) {
         BigDecimal normalHours = BigDecimal.ZERO;
         BigDecimal overtimeHours25 = BigDecimal.ZERO;
         BigDecimal overtimeHours35 = BigDecimal.ZERO;
@@ -419,7 +390,7 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             BigDecimal hours = detail.totalHours();
             nightHours = nightHours.add(detail.nightHours());
             
-            if (isSundayOrHoliday(date)) {
+            if (isSundayOrHoliday(date, calendar)) {
                 // Domingos y feriados: 100% de recargo
                 overtimeHours100 = overtimeHours100.add(hours);
             } else {
@@ -455,13 +426,12 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         );
     }
 
-    private boolean isSundayOrHoliday(LocalDate date) {
+    private boolean isSundayOrHoliday(LocalDate date, Map<LocalDate, CalendarDay> calendar) {
         if (date.getDayOfWeek().getValue() == 7) return true;
-        Optional<WorkCalendarEntity> calendarDay = workCalendarRepository.findByDate(date);
-        if (calendarDay.isEmpty()) return false;
+        CalendarDay calendarDay = calendar.get(date);
+        if (calendarDay == null) return false;
         // A day is a holiday if it's marked as non-working and has an event of type HOLIDAY
-        return !calendarDay.get().getIsWorkingDay() && calendarDay.get().getEvents().stream()
-            .anyMatch(event -> event.getEventType().getCode().equals(CalendarEventTypeCode.HOLIDAY.name()));
+        return !calendarDay.workingDay() && calendarDay.hasHolidayEvent();
     }
 
     /**
@@ -475,17 +445,12 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
      * Empleados administrativos (labores sin destajo) no tienen productividad
      * y retornarán un mapa vacío, lo cual es correcto.
      */
-    private Map<LocalDate, BigDecimal> calculateProductivityPerDay(EmployeeEntity employee, LocalDate periodStart, LocalDate periodEnd) {
-        List<TareoEmployeeEntity> tareos = tareoEmployeeRepository.findByEmployeeAndPeriod(employee.getPersonDocumentNumber(), periodStart, periodEnd);
-        List<QrRollEmployeeEntity> qrRollAssignments = qrRollEmployeeRepository.findByEmployeeAndPeriod(employee.getPersonDocumentNumber(), periodStart, periodEnd);
-        
+    private Map<LocalDate, BigDecimal> calculateProductivityPerDay(EmployeeEntity employee, EmployeePayrollInputs inputs) {
         Map<LocalDate, BigDecimal> productivityMap = new HashMap<>();
-        Map<LocalDate, TareoEmployeeEntity> tareosByDate = tareos.stream()
+        Map<LocalDate, TareoEmployeeEntity> tareosByDate = inputs.tareos().stream()
             .collect(Collectors.toMap(t -> t.getCreatedAt().toLocalDate(), t -> t, (t1, t2) -> t2));
-        Map<LocalDate, QrRollEmployeeEntity> qrRollsByDate = qrRollAssignments.stream()
-            .collect(Collectors.toMap(QrRollEmployeeEntity::getAssignedDate, qr -> qr, (qr1, qr2) -> qr2));
 
-        for (Map.Entry<LocalDate, QrRollEmployeeEntity> entry : qrRollsByDate.entrySet()) {
+        for (Map.Entry<LocalDate, Integer> entry : inputs.qrRollIdsByDate().entrySet()) {
             LocalDate date = entry.getKey();
             TareoEmployeeEntity tareo = tareosByDate.get(date);
             
@@ -527,7 +492,7 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
                     employee.getPersonDocumentNumber(), date, productivity, productivityCount, minTaskRequirement);
             } else {
                 // Fallback: calcular desde harvest_records (para tareos antiguos sin productivity calculado)
-                Long harvestCount = harvestRecordRepository.countByQrRollId(entry.getValue().getQrRoll().getId());
+                Long harvestCount = inputs.harvestCountsByQrRollId().getOrDefault(entry.getValue(), 0L);
                 
                 BigDecimal productivity = BigDecimal.valueOf(harvestCount)
                     .divide(minTaskRequirement, 2, RoundingMode.HALF_UP)
@@ -549,22 +514,16 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
      * IMPORTANTE: Solo se calcula para labores de destajo (isPiecework = true)
      * 
      * @param employee Empleado
-     * @param periodStart Inicio del período
-     * @param periodEnd Fin del período
+     * @param inputs Datos precargados del empleado (tareos, QR Rolls y conteos de cosecha)
      * @return Mapa de información de destajo por día
      */
     private Map<LocalDate, com.agropay.core.payroll.domain.calculator.PieceworkDayInfo> calculatePieceworkInfoPerDay(
-            EmployeeEntity employee, LocalDate periodStart, LocalDate periodEnd) {
-        List<TareoEmployeeEntity> tareos = tareoEmployeeRepository.findByEmployeeAndPeriod(employee.getPersonDocumentNumber(), periodStart, periodEnd);
-        List<QrRollEmployeeEntity> qrRollAssignments = qrRollEmployeeRepository.findByEmployeeAndPeriod(employee.getPersonDocumentNumber(), periodStart, periodEnd);
-        
+            EmployeeEntity employee, EmployeePayrollInputs inputs) {
         Map<LocalDate, com.agropay.core.payroll.domain.calculator.PieceworkDayInfo> pieceworkInfoMap = new HashMap<>();
-        Map<LocalDate, TareoEmployeeEntity> tareosByDate = tareos.stream()
+        Map<LocalDate, TareoEmployeeEntity> tareosByDate = inputs.tareos().stream()
             .collect(Collectors.toMap(t -> t.getCreatedAt().toLocalDate(), t -> t, (t1, t2) -> t2));
-        Map<LocalDate, QrRollEmployeeEntity> qrRollsByDate = qrRollAssignments.stream()
-            .collect(Collectors.toMap(QrRollEmployeeEntity::getAssignedDate, qr -> qr, (qr1, qr2) -> qr2));
 
-        for (Map.Entry<LocalDate, QrRollEmployeeEntity> entry : qrRollsByDate.entrySet()) {
+        for (Map.Entry<LocalDate, Integer> entry : inputs.qrRollIdsByDate().entrySet()) {
             LocalDate date = entry.getKey();
             TareoEmployeeEntity tareo = tareosByDate.get(date);
             
@@ -598,8 +557,8 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             
             if (productivityCount == null) {
                 // Fallback: calcular desde harvest_records si no hay productivity en tareo_employees
-                Long harvestCount = harvestRecordRepository.countByQrRollId(entry.getValue().getQrRoll().getId());
-                productivityCount = harvestCount != null ? harvestCount.intValue() : 0;
+                Long harvestCount = inputs.harvestCountsByQrRollId().getOrDefault(entry.getValue(), 0L);
+                productivityCount = harvestCount.intValue();
             }
 
             // Crear PieceworkDayInfo con la información de la labor
@@ -628,12 +587,10 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
      * - Si el empleado tiene labores de destajo y cumplió todos los días → retorna 100
      * 
      * @param employee Empleado
-     * @param periodStart Inicio del período
-     * @param periodEnd Fin del período
      * @param productivityPerDay Mapa de productividad por día (ya calculado)
      * @return Score de productividad (100 si cumplió todos los días, 0 si no, null si no aplica)
      */
-    private BigDecimal calculateProductivityScore(EmployeeEntity employee, LocalDate periodStart, LocalDate periodEnd, Map<LocalDate, BigDecimal> productivityPerDay) {
+    private BigDecimal calculateProductivityScore(EmployeeEntity employee, Map<LocalDate, BigDecimal> productivityPerDay) {
         // Si no hay productividad calculada (empleado administrativo o sin labores de destajo)
         // Retornar null para indicar que no aplica
         if (productivityPerDay.isEmpty()) {
@@ -658,11 +615,8 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
         return new BigDecimal("100");
     }
 
-    private Integer countDependents(EmployeeEntity employee) {
-        return personRepository.countByPersonParentDocumentNumber(employee.getPersonDocumentNumber()).intValue();
-    }
-
-    private String buildDailyDetailJson(Map<LocalDate, DayHoursDetail> hoursPerDay, Map<LocalDate, BigDecimal> productivityPerDay) throws Exception {
+    private String buildDailyDetailJson(Map<LocalDate, DayHoursDetail> hoursPerDay, Map<LocalDate, BigDecimal> productivityPerDay,
+                                        Map<LocalDate, CalendarDay> calendar) throws Exception {
         List<Map<String, Object>> dailyDetails = new ArrayList<>();
         for (Map.Entry<LocalDate, DayHoursDetail> entry : hoursPerDay.entrySet()) {
             LocalDate date = entry.getKey();
@@ -674,15 +628,15 @@ public class EmployeePayrollProcessor implements ItemProcessor<EmployeeEntity, P
             dayDetail.put("hours", detail.totalHours());
             dayDetail.put("nightHours", detail.nightHours());
             dayDetail.put("performance", productivityPerDay.getOrDefault(date, BigDecimal.ZERO));
-            dayDetail.put("isHoliday", isSundayOrHoliday(date));
+            dayDetail.put("isHoliday", isSundayOrHoliday(date, calendar));
             dailyDetails.add(dayDetail);
         }
         return objectMapper.writeValueAsString(dailyDetails);
     }
 
-    private record DayHoursDetail(BigDecimal totalHours, BigDecimal nightHours) {}
+    record DayHoursDetail(BigDecimal totalHours, BigDecimal nightHours) {}
     
-    private record HoursBreakdown(
+    record HoursBreakdown(
         BigDecimal normalHours,
         BigDecimal overtimeHours25,
         BigDecimal overtimeHours35,
@@ -0,0 +1,46 @@
+package com.agropay.core.payroll.batch.processor;
+
+import com.agropay.core.payroll.batch.plan.PayslipAssetsRegistry;
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.model.payslip.GeneratedPayslip;
+import com.agropay.core.payroll.model.payslip.PayslipRenderAssets;
+import com.agropay.core.payroll.service.PayslipPdfService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Genera el PDF de la boleta de cada detalle con los recursos compartidos del job.
+ * No consulta la BD: el detalle llega con sus relaciones cargadas desde PayslipDetailReader.
+ */
+@Slf4j
+@Component
+@StepScope
+@RequiredArgsConstructor
+public class PayslipPdfProcessor implements ItemProcessor<PayrollDetailEntity, GeneratedPayslip> {
+
+    private final PayslipPdfService payslipPdfService;
+    private final PayslipAssetsRegistry payslipAssetsRegistry;
+
+    @Value("#{stepExecution.jobExecutionId}")
+    private Long jobExecutionId;
+
+    @Value("#{jobExecutionContext['payrollId']}")
+    private Long payrollId;
+
+    private PayslipRenderAssets assets;
+
+    @Override
+    public GeneratedPayslip process(PayrollDetailEntity detail) throws Exception {
+        if (assets == null) {
+            assets = payslipAssetsRegistry.getOrLoad(jobExecutionId, payrollId);
+        }
+
+        byte[] pdf = payslipPdfService.renderPayslip(detail, assets);
+        log.debug("PDF generado para empleado: {} ({} bytes)", detail.getEmployee().getPersonDocumentNumber(), pdf.length);
+        return new GeneratedPayslip(detail, pdf);
+    }
+}
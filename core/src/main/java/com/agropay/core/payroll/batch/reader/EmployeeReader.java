@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
 
 
@@ -22,19 +23,33 @@ public class EmployeeReader {
 
     private final EntityManagerFactory entityManagerFactory;
 
+    /**
+     * Reader de empleados con tareos en el período.
+     *
+     * Cuando el step se ejecuta como partición (ver EmployeeRangePartitioner), el stepExecutionContext
+     * trae minDocumentNumber/maxDocumentNumber y el reader solo lee ese rango. El estado del reader
+     * se guarda en el contexto de cada partición, por lo que cada una se reinicia de forma independiente.
+     */
     @Bean
     @StepScope
     public JpaPagingItemReader<EmployeeEntity> employeeItemReader(
         @Value("#{jobExecutionContext['periodStart']}") String periodStartStr,
         @Value("#{jobExecutionContext['periodEnd']}") String periodEndStr,
-        @Value("#{jobExecutionContext['subsidiaryId']}") Short subsidiaryId
+        @Value("#{jobExecutionContext['subsidiaryId']}") Short subsidiaryId,
+        @Value("#{stepExecutionContext['minDocumentNumber']}") String minDocumentNumber,
+        @Value("#{stepExecutionContext['maxDocumentNumber']}") String maxDocumentNumber
     ) {
         LocalDate periodStart = LocalDate.parse(periodStartStr);
         LocalDate periodEnd = LocalDate.parse(periodEndStr);
 
         log.info("Configuring EmployeeReader for period: {} to {}, subsidiaryId: {}", periodStart, periodEnd, subsidiaryId);
 
+        // position, person y subsidiary se cargan con el empleado: el processor y los listeners los usan
+        // para cada item y, al ser ManyToOne/OneToOne, no multiplican filas ni afectan la paginación
         String queryString = "SELECT DISTINCT e FROM EmployeeEntity e " +
+                "JOIN FETCH e.position " +
+                "LEFT JOIN FETCH e.person " +
+                "JOIN FETCH e.subsidiary " +
                 "WHERE EXISTS ( " +
                 "  SELECT 1 FROM com.agropay.core.assignment.domain.TareoEmployeeEntity te " +
                 "  JOIN te.tareo t " +
@@ -45,10 +60,12 @@ public class EmployeeReader {
                 "  AND t.deletedAt IS NULL " +
                 ") " +
                 "AND e.deletedAt IS NULL " +
+                (minDocumentNumber != null ? "AND e.personDocumentNumber BETWEEN :minDocumentNumber AND :maxDocumentNumber " : "") +
                 "ORDER BY e.personDocumentNumber ASC";
         
         log.info("EmployeeReader query: {}", queryString);
-        log.info("EmployeeReader parameters: periodStart={}, periodEnd={}, subsidiaryId={}", periodStart, periodEnd, subsidiaryId);
+        log.info("EmployeeReader parameters: periodStart={}, periodEnd={}, subsidiaryId={}, range=[{} - {}]",
+            periodStart, periodEnd, subsidiaryId, minDocumentNumber, maxDocumentNumber);
 
         log.info("EmployeeReader: EntityManagerFactory disponible: {}", 
             entityManagerFactory != null ? "SÍ" : "NO");
@@ -57,15 +74,20 @@ public class EmployeeReader {
             throw new IllegalStateException("EntityManagerFactory no puede ser null para JpaPagingItemReader");
         }
         
+        Map<String, Object> parameterValues = new HashMap<>();
+        parameterValues.put("periodStart", periodStart);
+        parameterValues.put("periodEnd", periodEnd);
+        parameterValues.put("subsidiaryId", subsidiaryId);
+        if (minDocumentNumber != null) {
+            parameterValues.put("minDocumentNumber", minDocumentNumber);
+            parameterValues.put("maxDocumentNumber", maxDocumentNumber);
+        }
+
         JpaPagingItemReader<EmployeeEntity> reader = new JpaPagingItemReaderBuilder<EmployeeEntity>()
             .name("employeeItemReader")
             .entityManagerFactory(entityManagerFactory)
             .queryString(queryString)
-            .parameterValues(Map.of(
-                "periodStart", periodStart,
-                "periodEnd", periodEnd,
-                "subsidiaryId", subsidiaryId
-            ))
+            .parameterValues(parameterValues)
             .pageSize(10) 
             .saveState(true) 
             .build();
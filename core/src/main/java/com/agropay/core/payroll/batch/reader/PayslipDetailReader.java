@@ -0,0 +1,71 @@
+package com.agropay.core.payroll.batch.reader;
+
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class PayslipDetailReader {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${payroll.batch.payslips.chunk-size:20}")
+    private int chunkSize;
+
+    /**
+     * Reader de detalles de planilla para generar boletas.
+     *
+     * Cuando el step se ejecuta como partición (ver PayslipDetailRangePartitioner), el stepExecutionContext
+     * trae minDetailId/maxDetailId y el reader solo lee ese rango.
+     *
+     * Empleado, persona, cargo y subsidiaria se cargan con el detalle: PayslipPdfService.renderPayslip
+     * no inicializa relaciones, y al ser ManyToOne no multiplican filas ni afectan la paginación.
+     */
+    @Bean
+    @StepScope
+    public JpaPagingItemReader<PayrollDetailEntity> payslipDetailItemReader(
+        @Value("#{jobExecutionContext['payrollId']}") Long payrollId,
+        @Value("#{stepExecutionContext['minDetailId']}") Long minDetailId,
+        @Value("#{stepExecutionContext['maxDetailId']}") Long maxDetailId
+    ) {
+        String queryString = "SELECT pd FROM PayrollDetailEntity pd " +
+                "LEFT JOIN FETCH pd.employee e " +
+                "LEFT JOIN FETCH e.person " +
+                "LEFT JOIN FETCH e.position " +
+                "LEFT JOIN FETCH e.subsidiary " +
+                "WHERE pd.payroll.id = :payrollId " +
+                (minDetailId != null ? "AND pd.id BETWEEN :minDetailId AND :maxDetailId " : "") +
+                "ORDER BY pd.id ASC";
+
+        Map<String, Object> parameterValues = new HashMap<>();
+        parameterValues.put("payrollId", payrollId);
+        if (minDetailId != null) {
+            parameterValues.put("minDetailId", minDetailId);
+            parameterValues.put("maxDetailId", maxDetailId);
+        }
+
+        log.info("PayslipDetailReader: planilla {}, rango de detalles [{} - {}], pageSize: {}",
+            payrollId, minDetailId, maxDetailId, chunkSize);
+
+        return new JpaPagingItemReaderBuilder<PayrollDetailEntity>()
+            .name("payslipDetailItemReader")
+            .entityManagerFactory(entityManagerFactory)
+            .queryString(queryString)
+            .parameterValues(parameterValues)
+            .pageSize(chunkSize)
+            .saveState(true)
+            .build();
+    }
+}
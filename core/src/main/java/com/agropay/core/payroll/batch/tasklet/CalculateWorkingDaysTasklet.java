@@ -2,6 +2,7 @@ package com.agropay.core.payroll.batch.tasklet;
 
 import com.agropay.core.organization.domain.CompanyEntity;
 import com.agropay.core.organization.persistence.ICompanyRepository;
+import com.agropay.core.payroll.batch.plan.ConceptPlanRegistry;
 import com.agropay.core.payroll.domain.PayrollConceptAssignmentEntity;
 import com.agropay.core.payroll.domain.PayrollEntity;
 import com.agropay.core.payroll.persistence.IPayrollConceptAssignmentRepository;
@@ -37,6 +38,7 @@ public class CalculateWorkingDaysTasklet implements Tasklet {
     private final ICompanyRepository companyRepository;
     private final WorkingDaysService workingDaysService;
     private final IPayrollConceptAssignmentRepository payrollConceptAssignmentRepository;
+    private final ConceptPlanRegistry conceptPlanRegistry;
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
@@ -109,6 +111,12 @@ public class CalculateWorkingDaysTasklet implements Tasklet {
         // Payroll configuration (as a list of maps to preserve all data and order)
         executionContext.put("payrollConfigurations", (Serializable) sortedConceptMaps);
 
+        // 7. Compile the concept plan once for the whole job (shared by every partition)
+        conceptPlanRegistry.compile(
+            chunkContext.getStepContext().getStepExecution().getJobExecutionId(),
+            sortedConceptMaps
+        );
+
         log.info("=== Step 0 completed successfully ===");
 
         return RepeatStatus.FINISHED;
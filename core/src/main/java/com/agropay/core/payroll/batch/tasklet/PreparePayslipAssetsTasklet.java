@@ -0,0 +1,61 @@
+package com.agropay.core.payroll.batch.tasklet;
+
+import com.agropay.core.payroll.batch.plan.PayslipAssetsRegistry;
+import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.persistence.IPayrollRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Primer step del job de boletas: resuelve la planilla y los recursos comunes a todas las boletas.
+ *
+ * Flow:
+ * 1. Obtiene la planilla desde el JobExecutionContext (payrollId) o el JobParameter payrollPublicId
+ * 2. Guarda payrollId y payrollCode en el JobExecutionContext para el particionador, el reader y el writer
+ * 3. Carga logo, firmas, fuentes, cabecera y conceptos en PayslipAssetsRegistry (una sola vez por job)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreparePayslipAssetsTasklet implements Tasklet {
+
+    private final IPayrollRepository payrollRepository;
+    private final PayslipAssetsRegistry payslipAssetsRegistry;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        JobExecution jobExecution = chunkContext.getStepContext().getStepExecution().getJobExecution();
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+
+        PayrollEntity payroll;
+        Long payrollIdFromContext = (Long) executionContext.get("payrollId");
+        if (payrollIdFromContext != null) {
+            payroll = payrollRepository.findById(payrollIdFromContext)
+                .orElseThrow(() -> new IllegalStateException("Payroll not found with ID: " + payrollIdFromContext));
+        } else {
+            String payrollPublicIdStr = jobExecution.getJobParameters().getString("payrollPublicId");
+            if (payrollPublicIdStr == null) {
+                throw new IllegalStateException("Neither payrollId nor payrollPublicId found in job context/parameters.");
+            }
+            payroll = payrollRepository.findByPublicId(UUID.fromString(payrollPublicIdStr))
+                .orElseThrow(() -> new IllegalStateException("Payroll not found with publicId: " + payrollPublicIdStr));
+        }
+
+        executionContext.put("payrollId", payroll.getId());
+        executionContext.putString("payrollCode", payroll.getCode());
+
+        payslipAssetsRegistry.load(jobExecution.getId(), payroll);
+        log.info("Recursos de boletas preparados para planilla: {} (Code: {})", payroll.getId(), payroll.getCode());
+
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -1,23 +1,35 @@
 package com.agropay.core.payroll.batch.tasklet;
 
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
 import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
+import com.agropay.core.payroll.events.PayrollChangedEvent;
 import com.agropay.core.payroll.model.payroll.PayrollTotalsDTO;
 import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
 import com.agropay.core.payroll.persistence.IPayrollRepository;
 import com.agropay.core.states.domain.StateEntity;
+import com.agropay.core.shared.utils.InClauseUtils;
 import com.agropay.core.states.persistence.StateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Tasklet to update the payroll totals and set its final state after processing all employees.
+ * In DELTA mode the writer already applied the per-employee differences to the totals; here the details of
+ * employees that no longer have tareos in the period are soft-deleted and subtracted from the totals,
+ * then the state transition is performed.
  */
 @Slf4j
 @Component
@@ -27,6 +39,7 @@ public class UpdatePayrollTotalsTasklet implements Tasklet {
     private final IPayrollRepository payrollRepository;
     private final IPayrollDetailRepository payrollDetailRepository;
     private final StateRepository stateRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String PAYROLL_DOMAIN = "tbl_payrolls";
     private static final String CALCULATED_STATE_CODE = "PAYROLL_CALCULATED";
@@ -47,10 +60,32 @@ public class UpdatePayrollTotalsTasklet implements Tasklet {
         }
         log.info("PayrollId: {}", payrollId);
 
+        PayrollLaunchMode mode = PayrollLaunchMode.fromJobParameter(chunkContext.getStepContext()
+            .getStepExecution()
+            .getJobParameters()
+            .getString("mode"));
+        if (mode == PayrollLaunchMode.DELTA) {
+            // Antes de cargar la planilla: addToTotals es un UPDATE directo y el save no debe pisarlo
+            removeDetailsWithoutTareos(payrollId, chunkContext.getStepContext()
+                .getStepExecution()
+                .getJobExecution()
+                .getExecutionContext());
+        }
+
         // 2. Fetch the PayrollEntity
         PayrollEntity payroll = payrollRepository.findById(payrollId)
             .orElseThrow(() -> new IllegalStateException("Payroll not found with ID: " + payrollId));
 
+        if (mode == PayrollLaunchMode.DELTA) {
+            log.info("📊 Recálculo DELTA: totales actualizados incrementalmente - Empleados: {}, Ingresos: {}, Descuentos: {}, Neto: {}",
+                payroll.getTotalEmployees(), payroll.getTotalIncome(), payroll.getTotalDeductions(), payroll.getTotalNet());
+            payroll.setState(findCalculatedState());
+            payrollRepository.save(payroll);
+            eventPublisher.publishEvent(new PayrollChangedEvent(this, payroll.getSubsidiary().getId()));
+            log.info("=== Step 2 completed successfully ===");
+            return RepeatStatus.FINISHED;
+        }
+
         // 3. Get aggregated totals directly from the database
         PayrollTotalsDTO totals = payrollDetailRepository.getPayrollTotals(payrollId);
 
@@ -66,8 +101,7 @@ public class UpdatePayrollTotalsTasklet implements Tasklet {
         log.info("   - Total Neto: {}", totalNet);
 
         // 5. Get the new state for the payroll
-        StateEntity calculatedState = stateRepository.findByCodeAndDomainName(CALCULATED_STATE_CODE, PAYROLL_DOMAIN)
-            .orElseThrow(() -> new IllegalStateException("State '" + CALCULATED_STATE_CODE + "' not found for domain '" + PAYROLL_DOMAIN + "'."));
+        StateEntity calculatedState = findCalculatedState();
         log.info("Transitioning payroll to state: {}", calculatedState.getName());
 
         // 6. Update the PayrollEntity
@@ -79,9 +113,49 @@ public class UpdatePayrollTotalsTasklet implements Tasklet {
 
         // 7. Save the updated PayrollEntity
         payrollRepository.save(payroll);
+        eventPublisher.publishEvent(new PayrollChangedEvent(this, payroll.getSubsidiary().getId()));
 
         log.info("=== Step 2 completed successfully ===");
 
         return RepeatStatus.FINISHED;
     }
+
+    /**
+     * Da de baja los detalles de los empleados que salieron del conjunto del reader (p. ej. se eliminaron sus tareos)
+     * y resta sus montos de los totales. El writer solo recibe a los empleados que siguen en el período, por eso
+     * se resuelve aquí, una vez terminadas todas las particiones.
+     */
+    private void removeDetailsWithoutTareos(Long payrollId, ExecutionContext jobContext) {
+        List<PayrollDetailEntity> removed = payrollDetailRepository.findWithoutTareosInPeriod(
+            payrollId,
+            LocalDate.parse(jobContext.getString("periodStart")),
+            LocalDate.parse(jobContext.getString("periodEnd")),
+            (Short) jobContext.get("subsidiaryId")
+        );
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal deductions = BigDecimal.ZERO;
+        BigDecimal net = BigDecimal.ZERO;
+        for (PayrollDetailEntity detail : removed) {
+            income = income.add(detail.getTotalIncome());
+            deductions = deductions.add(detail.getTotalDeductions());
+            net = net.add(detail.getNetToPay());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> ids : InClauseUtils.partition(removed.stream().map(detail -> Long.parseLong(detail.getId())).toList())) {
+            payrollDetailRepository.softDeleteByIds(ids, now, "SYSTEM");
+        }
+        payrollRepository.addToTotals(payrollId, -removed.size(), income.negate(), deductions.negate(), net.negate());
+        log.info("Recálculo DELTA: {} detalles dados de baja por empleados sin tareos en el período. Neto descontado: {}",
+            removed.size(), net);
+    }
+
+    private StateEntity findCalculatedState() {
+        return stateRepository.findByCodeAndDomainName(CALCULATED_STATE_CODE, PAYROLL_DOMAIN)
+            .orElseThrow(() -> new IllegalStateException("State '" + CALCULATED_STATE_CODE + "' not found for domain '" + PAYROLL_DOMAIN + "'."));
+    }
 }
@@ -2,6 +2,7 @@ package com.agropay.core.payroll.batch.writer;
 
 import com.agropay.core.payroll.domain.PayrollDetailEntity;
 import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
 import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
 import com.agropay.core.payroll.persistence.IPayrollRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +13,19 @@ import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
- * Writer que persiste los detalles de planilla calculados para cada empleado
+ * Writer que persiste los detalles de planilla calculados para cada empleado.
+ *
+ * En modo DELTA hace upsert: los empleados que ya tienen detalle se actualizan en su fila existente
+ * (respetando la restricción única planilla/empleado) y la diferencia de montos se suma a los totales
+ * de la planilla en la misma transacción del chunk, sin volver a agregar todos los detalles.
+ * Los detalles de empleados que salieron del período los da de baja UpdatePayrollTotalsTasklet.
  */
 @Slf4j
 @Component
@@ -27,6 +39,9 @@ public class PayrollDetailWriter implements ItemWriter<PayrollDetailEntity> {
     @Value("#{jobExecutionContext['payrollId']}")
     private Long payrollId;
 
+    @Value("#{jobParameters['mode']}")
+    private String mode;
+
     @Override
     public void write(Chunk<? extends PayrollDetailEntity> chunk) throws Exception {
         log.info("=== PayrollDetailWriter: Escribiendo {} detalles de planilla ===", chunk.size());
@@ -54,6 +69,9 @@ public class PayrollDetailWriter implements ItemWriter<PayrollDetailEntity> {
 
         // Guardar todos los detalles en batch
         java.util.List<PayrollDetailEntity> savedDetails = new java.util.ArrayList<>(chunk.getItems());
+        if (PayrollLaunchMode.fromJobParameter(mode) == PayrollLaunchMode.DELTA) {
+            savedDetails = upsertDetails(savedDetails);
+        }
         savedDetails = payrollDetailRepository.saveAll(savedDetails);
 
         log.info("=== {} detalles de planilla guardados exitosamente ===", savedDetails.size());
@@ -62,4 +80,62 @@ public class PayrollDetailWriter implements ItemWriter<PayrollDetailEntity> {
                 .map(d -> d.getEmployee().getPersonDocumentNumber())
                 .collect(java.util.stream.Collectors.joining(", ")));
     }
-}
\ No newline at end of file
+
+    /**
+     * Reemplaza los detalles recalculados por sus filas existentes (actualizadas con los nuevos valores)
+     * y aplica la diferencia de totales a la planilla
+     */
+    private List<PayrollDetailEntity> upsertDetails(List<PayrollDetailEntity> recalculated) {
+        List<String> documentNumbers = recalculated.stream()
+            .map(detail -> detail.getEmployee().getPersonDocumentNumber())
+            .toList();
+        Map<String, PayrollDetailEntity> existingByEmployee = payrollDetailRepository
+            .findByPayrollIdAndEmployees(payrollId, documentNumbers).stream()
+            .collect(Collectors.toMap(detail -> detail.getEmployee().getPersonDocumentNumber(), Function.identity()));
+
+        int employeesDelta = 0;
+        BigDecimal incomeDelta = BigDecimal.ZERO;
+        BigDecimal deductionsDelta = BigDecimal.ZERO;
+        BigDecimal netDelta = BigDecimal.ZERO;
+
+        List<PayrollDetailEntity> upserted = new java.util.ArrayList<>(recalculated.size());
+        for (PayrollDetailEntity detail : recalculated) {
+            PayrollDetailEntity existing = existingByEmployee.get(detail.getEmployee().getPersonDocumentNumber());
+            if (existing == null) {
+                employeesDelta++;
+                incomeDelta = incomeDelta.add(detail.getTotalIncome());
+                deductionsDelta = deductionsDelta.add(detail.getTotalDeductions());
+                netDelta = netDelta.add(detail.getNetToPay());
+                upserted.add(detail);
+                continue;
+            }
+
+            incomeDelta = incomeDelta.add(detail.getTotalIncome().subtract(existing.getTotalIncome()));
+            deductionsDelta = deductionsDelta.add(detail.getTotalDeductions().subtract(existing.getTotalDeductions()));
+            netDelta = netDelta.add(detail.getNetToPay().subtract(existing.getNetToPay()));
+
+            existing.setCalculatedConcepts(detail.getCalculatedConcepts());
+            existing.setDailyDetail(detail.getDailyDetail());
+            existing.setTotalIncome(detail.getTotalIncome());
+            existing.setTotalDeductions(detail.getTotalDeductions());
+            existing.setTotalEmployerContributions(detail.getTotalEmployerContributions());
+            existing.setNetToPay(detail.getNetToPay());
+            existing.setDaysWorked(detail.getDaysWorked());
+            existing.setNormalHours(detail.getNormalHours());
+            existing.setOvertimeHours25(detail.getOvertimeHours25());
+            existing.setOvertimeHours35(detail.getOvertimeHours35());
+            existing.setOvertimeHours100(detail.getOvertimeHours100());
+            existing.setNightHours(detail.getNightHours());
+            existing.setTotalHours(detail.getTotalHours());
+            existing.setInputFingerprint(detail.getInputFingerprint());
+            // La boleta generada corresponde al cálculo anterior; se vuelve a generar con "Generar Boletas"
+            existing.setPayslipPdfUrl(null);
+            upserted.add(existing);
+        }
+
+        payrollRepository.addToTotals(payrollId, employeesDelta, incomeDelta, deductionsDelta, netDelta);
+        log.info("Recálculo DELTA: {} detalles actualizados, {} nuevos. Diferencia de neto: {}",
+            recalculated.size() - employeesDelta, employeesDelta, netDelta);
+        return upserted;
+    }
+}
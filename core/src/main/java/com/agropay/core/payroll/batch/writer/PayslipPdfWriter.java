@@ -0,0 +1,55 @@
+package com.agropay.core.payroll.batch.writer;
+
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.model.payslip.GeneratedPayslip;
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import com.agropay.core.payroll.service.PayslipPdfStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writer que guarda los PDFs de boletas de un chunk y actualiza la URL de cada detalle.
+ *
+ * Por chunk: un soft-delete de las boletas anteriores, el insert de los archivos nuevos,
+ * una consulta para cargar los detalles y la actualización de sus URLs al hacer commit.
+ */
+@Slf4j
+@Component
+@StepScope
+@RequiredArgsConstructor
+public class PayslipPdfWriter implements ItemWriter<GeneratedPayslip> {
+
+    private final PayslipPdfStorageService payslipPdfStorageService;
+    private final IPayrollDetailRepository payrollDetailRepository;
+
+    @Value("#{jobExecutionContext['payrollCode']}")
+    private String payrollCode;
+
+    @Override
+    public void write(Chunk<? extends GeneratedPayslip> chunk) throws Exception {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<GeneratedPayslip> payslips = List.copyOf(chunk.getItems());
+        Map<UUID, String> downloadUrls = payslipPdfStorageService.uploadPayslipPdfs(payrollCode, payslips);
+
+        // Los detalles del reader no pertenecen a la transacción del chunk: se cargan en una sola consulta
+        List<PayrollDetailEntity> details = payrollDetailRepository.findByPublicIdIn(downloadUrls.keySet());
+        for (PayrollDetailEntity detail : details) {
+            detail.setPayslipPdfUrl(downloadUrls.get(detail.getPublicId()));
+        }
+        payrollDetailRepository.saveAll(details);
+
+        log.info("{} boletas guardadas (planilla {})", details.size(), payrollCode);
+    }
+}
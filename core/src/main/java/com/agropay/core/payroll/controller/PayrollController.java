@@ -1,26 +1,38 @@
 package com.agropay.core.payroll.controller;
 
+import com.agropay.core.payroll.enums.PayslipExportFormat;
+import com.agropay.core.payroll.model.payslip.PayslipExport;
+import com.agropay.core.payroll.service.PayslipExportService;
 import com.agropay.core.payroll.service.PayslipPdfService;
 import com.agropay.core.payroll.service.usecase.IPayrollService;
 import com.agropay.core.payroll.model.payroll.CommandPayrollResponse;
 import com.agropay.core.payroll.model.payroll.CreatePayrollRequest;
+import com.agropay.core.payroll.model.payroll.LaunchPayrollRequest;
 import com.agropay.core.payroll.model.payroll.PayrollListDTO;
 import com.agropay.core.payroll.model.payroll.PayrollPageableRequest;
 import com.agropay.core.payroll.model.payroll.PayrollSummaryDTO;
 import com.agropay.core.shared.utils.ApiResult;
+import com.agropay.core.shared.utils.HttpRangeUtils;
 import com.agropay.core.shared.utils.PagedResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -31,6 +43,7 @@ public class PayrollController {
 
     private final IPayrollService payrollService;
     private final PayslipPdfService payslipPdfService;
+    private final PayslipExportService payslipExportService;
 
     @Operation(
         summary = "Crear una nueva planilla",
@@ -53,19 +66,23 @@ public class PayrollController {
 
     @Operation(
         summary = "Lanzar el cálculo de una planilla",
-        description = "Inicia un proceso asíncrono (batch) que calcula todos los conceptos para cada empleado. Solo aplicable a planillas en estado 'BORRADOR'."
+        description = "Inicia un proceso asíncrono (batch) que calcula todos los conceptos para cada empleado. Solo aplicable a planillas en estado 'BORRADOR'. " +
+            "Opcionalmente se puede indicar en cuántas particiones paralelas se divide el cálculo. " +
+            "Con modo 'DELTA' (planillas en estado 'CALCULADA') solo se recalculan los empleados cuyos tareos, cosechas, salario o calendario cambiaron."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Proceso de cálculo iniciado exitosamente."),
         @ApiResponse(responseCode = "400", description = "La planilla con el UUID especificado no fue encontrada."),
-        @ApiResponse(responseCode = "409", description = "Conflicto de estado: la planilla no está en estado 'BORRADOR'.")
+        @ApiResponse(responseCode = "409", description = "Conflicto de estado: la planilla no está en estado 'BORRADOR' (o 'CALCULADA' para el modo 'DELTA').")
     })
     @PostMapping("/{publicId}/launch")
     public ResponseEntity<ApiResult<CommandPayrollResponse>> launchPayrollCalculation(
         @Parameter(description = "Identificador UUID de la planilla a calcular.", required = true)
-        @PathVariable UUID publicId
+        @PathVariable UUID publicId,
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Opciones de lanzamiento (cantidad de particiones y modo FULL o DELTA). Opcional.", required = false)
+        @RequestBody(required = false) @Valid LaunchPayrollRequest request
     ) {
-        CommandPayrollResponse response = payrollService.launchPayrollCalculation(publicId);
+        CommandPayrollResponse response = payrollService.launchPayrollCalculation(publicId, request);
         return ResponseEntity.ok(ApiResult.success(response));
     }
 
@@ -132,6 +149,69 @@ public class PayrollController {
             .body(pdfBytes);
     }
 
+    @Operation(
+        summary = "Exportar boletas de una planilla",
+        description = "Descarga en un solo archivo las boletas ya generadas de la planilla, o solo las de los empleados indicados: " +
+            "un PDF con todas las boletas o un ZIP con un PDF por empleado. El archivo se envía a medida que se arma. " +
+            "El ZIP admite descargas parciales y reanudables (Range, If-Range con el ETag de la respuesta)."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivo enviado completo."),
+        @ApiResponse(responseCode = "206", description = "Rango del ZIP enviado."),
+        @ApiResponse(responseCode = "400", description = "La planilla no tiene boletas generadas para los empleados indicados."),
+        @ApiResponse(responseCode = "404", description = "La planilla no existe."),
+        @ApiResponse(responseCode = "416", description = "El rango solicitado está fuera del ZIP.")
+    })
+    @GetMapping("/{publicId}/payslips/export")
+    public void exportPayslips(
+        @Parameter(description = "Identificador UUID de la planilla.", required = true)
+        @PathVariable UUID publicId,
+        @Parameter(description = "Formato del archivo: PDF (un solo PDF) o ZIP (un PDF por empleado).")
+        @RequestParam(defaultValue = "ZIP") PayslipExportFormat format,
+        @Parameter(description = "Documentos de los empleados a incluir (opcional, por defecto todos).")
+        @RequestParam(required = false) List<String> employeeDocumentNumbers,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+        @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+        HttpServletResponse response
+    ) throws IOException {
+        PayslipExport export = payslipExportService.prepareExport(publicId, employeeDocumentNumbers, format);
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(export.fileName()).build().toString());
+        response.setHeader(HttpHeaders.ETAG, export.etag());
+
+        if (format == PayslipExportFormat.PDF) {
+            // El largo del PDF unido no se conoce hasta terminarlo: se envía por partes (chunked) y sin rangos
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+            payslipExportService.writeMergedPdf(export, response.getOutputStream());
+            return;
+        }
+
+        long length = export.zip().length();
+        long start = 0;
+        long end = length - 1;
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        Optional<HttpRange> requested = HttpRangeUtils.singleRange(range, ifRange, export.etag());
+        if (requested.isPresent()) {
+            try {
+                start = requested.get().getRangeStart(length);
+                end = requested.get().getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        response.setContentLengthLong(end - start + 1);
+        payslipExportService.writeZip(export, start, end, response.getOutputStream());
+    }
+
     @Operation(
         summary = "Generar PDF de ejemplo de boleta de pago",
         description = "Genera un PDF de ejemplo con datos mock para visualizar el formato de la boleta. Útil para pruebas y verificación del diseño."
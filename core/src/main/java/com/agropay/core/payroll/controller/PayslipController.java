@@ -20,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -88,11 +89,9 @@ public class PayslipController {
                     // Obtener el archivo directamente desde la BD
                     var internalFile = internalFileStorageService.getFile(filePublicId);
                     
-                    if (internalFile != null && internalFile.getFileContent() != null) {
-                        byte[] pdfBytes = internalFile.getFileContent();
-                        
+                    if (internalFile != null) {
                         org.slf4j.LoggerFactory.getLogger(PayslipController.class)
-                            .info("Sirviendo PDF almacenado desde BD. Tamaño: {} bytes, PublicId: {}", pdfBytes.length, filePublicId);
+                            .info("Sirviendo PDF almacenado desde BD. Tamaño: {} bytes, PublicId: {}", internalFile.getFileSize(), filePublicId);
                         
                         HttpHeaders headers = new HttpHeaders();
                         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -102,16 +101,18 @@ public class PayslipController {
                             .filename(fileName)
                             .build();
                         headers.setContentDisposition(contentDisposition);
-                        headers.setContentLength(pdfBytes.length);
+                        headers.setContentLength(internalFile.getFileSize());
                         headers.set("X-Frame-Options", "SAMEORIGIN");
                         
                         org.slf4j.LoggerFactory.getLogger(PayslipController.class)
                             .debug("Headers configurados: Content-Type={}, Content-Disposition={}, X-Frame-Options={}", 
                                 MediaType.APPLICATION_PDF, contentDisposition, "SAMEORIGIN");
                         
+                        // El PDF se copia al stream de la respuesta sin cargarlo completo en memoria
+                        StreamingResponseBody body = out -> internalFileStorageService.writeContent(internalFile, out);
                         return ResponseEntity.ok()
                             .headers(headers)
-                            .body(pdfBytes);
+                            .body(body);
                     }
                 }
             } catch (Exception e) {
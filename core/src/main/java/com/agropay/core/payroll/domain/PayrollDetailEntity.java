@@ -16,8 +16,8 @@ import java.util.UUID;
         @Index(name = "IX_payroll_details_employee", columnList = "employee_document_number")
     },
     uniqueConstraints = {
-        @UniqueConstraint(name = "UQ_payroll_details_public_id", columnNames = {"public_id"}),
-        @UniqueConstraint(name = "UQ_payroll_details_payroll_employee", columnNames = {"payroll_id", "employee_document_number"})
+        @UniqueConstraint(name = "UQ_payroll_details_public_id", columnNames = {"public_id"})
+        // (payroll_id, employee_document_number) es único solo entre detalles vigentes: índice filtrado en V166
     }
 )
 @SQLRestriction("deleted_at IS NULL")
@@ -92,6 +92,12 @@ public class PayrollDetailEntity extends AbstractEntity<Long> implements IFileab
     @Column(name = "payslip_pdf_url", length = 500)
     private String payslipPdfUrl;
 
+    /**
+     * SHA-256 de los datos de entrada del cálculo; el recálculo DELTA omite al empleado si no cambió
+     */
+    @Column(name = "input_fingerprint", length = 64)
+    private String inputFingerprint;
+
     @PrePersist
     public void generatePublicId() {
         if (this.publicId == null) {
@@ -0,0 +1,171 @@
+package com.agropay.core.payroll.domain.calculator;
+
+import com.agropay.core.payroll.domain.enums.ConceptCategoryCode;
+import com.agropay.core.payroll.domain.enums.ConceptCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conceptos de la planilla compilados una sola vez por job.
+ *
+ * Las configuraciones del JobExecutionContext (lista de mapas con code, value, category y priority)
+ * se resuelven a un arreglo ordenado por prioridad con el calculador, la categoría y el valor
+ * configurado de cada concepto. Por empleado solo se recorre el arreglo: no se vuelven a parsear
+ * enums ni a reconstruir el mapa de conceptos configurados.
+ *
+ * Si fixedPoint está activo, cada calculador intenta primero su fast path en céntimos
+ * ({@link ConceptCalculator#calculateCentimos}) y cae a BigDecimal cuando no está soportado.
+ * Ambos caminos producen exactamente el mismo BigDecimal (valor y escala).
+ */
+@Slf4j
+public final class CompiledConceptPlan {
+
+    private final Entry[] entries;
+    private final Map<ConceptCode, BigDecimal> configuredConcepts;
+
+    private CompiledConceptPlan(Entry[] entries, Map<ConceptCode, BigDecimal> configuredConcepts) {
+        this.entries = entries;
+        this.configuredConcepts = configuredConcepts;
+    }
+
+    /**
+     * Concepto compilado
+     *
+     * @param code            Código del concepto
+     * @param calculator      Calculador registrado para el concepto
+     * @param category        Categoría ya resuelta
+     * @param categoryCode    Código de la categoría (tal cual se guarda en calculatedConcepts)
+     * @param configuredValue Valor configurado en la planilla, o null
+     */
+    public record Entry(
+        ConceptCode code,
+        ConceptCalculator calculator,
+        ConceptCategoryCode category,
+        String categoryCode,
+        BigDecimal configuredValue
+    ) {
+        boolean isRetirement() {
+            return category == ConceptCategoryCode.RETIREMENT;
+        }
+    }
+
+    /**
+     * Monto calculado de un concepto, serializado en calculatedConcepts
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CalculatedConcept(BigDecimal amount, String category, BigDecimal value) {
+    }
+
+    /**
+     * Resultado de evaluar el plan para un empleado
+     */
+    public record Result(
+        Map<String, CalculatedConcept> calculatedConcepts,
+        BigDecimal totalIncome,
+        BigDecimal totalDeductions,
+        BigDecimal totalEmployerContributions
+    ) {
+    }
+
+    /**
+     * Compila las configuraciones de la planilla (ya ordenadas por prioridad).
+     * Los conceptos sin calculador registrado se descartan aquí, una sola vez por job.
+     */
+    public static CompiledConceptPlan compile(List<Map<String, Serializable>> payrollConfigurations,
+                                              ConceptCalculatorFactory calculatorFactory) {
+        List<Entry> entries = new ArrayList<>(payrollConfigurations.size());
+        Map<ConceptCode, BigDecimal> configuredConcepts = new EnumMap<>(ConceptCode.class);
+
+        for (Map<String, Serializable> config : payrollConfigurations) {
+            ConceptCode conceptCode = ConceptCode.valueOf((String) config.get("code"));
+            BigDecimal value = (BigDecimal) config.get("value");
+            if (value != null) {
+                configuredConcepts.putIfAbsent(conceptCode, value);
+            }
+
+            if (!calculatorFactory.hasCalculator(conceptCode)) {
+                log.warn("No calculator for concept: {}", conceptCode);
+                continue;
+            }
+
+            String categoryCode = (String) config.get("category");
+            entries.add(new Entry(
+                conceptCode,
+                calculatorFactory.getCalculator(conceptCode),
+                ConceptCategoryCode.fromCode(categoryCode),
+                categoryCode,
+                value
+            ));
+        }
+
+        log.info("Plan de conceptos compilado: {} conceptos con calculador de {} configurados",
+            entries.size(), payrollConfigurations.size());
+        return new CompiledConceptPlan(entries.toArray(new Entry[0]), Collections.unmodifiableMap(configuredConcepts));
+    }
+
+    /**
+     * Valores configurados por concepto (compartido por todos los empleados, solo lectura)
+     */
+    public Map<ConceptCode, BigDecimal> configuredConcepts() {
+        return configuredConcepts;
+    }
+
+    public List<Entry> entries() {
+        return List.of(entries);
+    }
+
+    /**
+     * Calcula todos los conceptos del empleado en orden de prioridad, acumulando los totales en el contexto
+     * para los conceptos que se calculan sobre el ingreso (AFP, ONP, ESSALUD, etc.).
+     *
+     * @param context                 Contexto del empleado (configuredConcepts debe ser el del plan)
+     * @param retirementConceptCode   Concepto de jubilación del empleado; los demás de categoría RETIREMENT se omiten
+     * @param fixedPoint              true para intentar primero el fast path en céntimos
+     */
+    public Result evaluate(EmployeePayrollContext context, String retirementConceptCode, boolean fixedPoint) {
+        Map<String, CalculatedConcept> calculatedConcepts = new LinkedHashMap<>();
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalDeductions = BigDecimal.ZERO;
+        BigDecimal totalEmployerContributions = BigDecimal.ZERO;
+
+        for (Entry entry : entries) {
+            // Filtrar conceptos de jubilación: solo calcular el que corresponde al empleado
+            if (entry.isRetirement() && (retirementConceptCode == null || !entry.code().name().equals(retirementConceptCode))) {
+                continue;
+            }
+
+            BigDecimal amount = calculate(entry.calculator(), context, fixedPoint);
+            calculatedConcepts.put(entry.code().name(), new CalculatedConcept(amount, entry.categoryCode(), entry.configuredValue()));
+
+            switch (entry.category()) {
+                case INCOME -> totalIncome = totalIncome.add(amount);
+                case DEDUCTION, RETIREMENT, EMPLOYEE_CONTRIBUTION -> totalDeductions = totalDeductions.add(amount);
+                case EMPLOYER_CONTRIBUTION -> totalEmployerContributions = totalEmployerContributions.add(amount);
+            }
+
+            context.setTotalIncome(totalIncome);
+            context.setTotalDeductions(totalDeductions);
+        }
+
+        return new Result(calculatedConcepts, totalIncome, totalDeductions, totalEmployerContributions);
+    }
+
+    private static BigDecimal calculate(ConceptCalculator calculator, EmployeePayrollContext context, boolean fixedPoint) {
+        if (fixedPoint) {
+            long centimos = calculator.calculateCentimos(context);
+            if (centimos != FixedPointMath.NOT_SUPPORTED) {
+                return FixedPointMath.fromCentimos(centimos);
+            }
+        }
+        return calculator.calculate(context);
+    }
+}
@@ -17,6 +17,18 @@ public interface ConceptCalculator {
      */
     BigDecimal calculate(EmployeePayrollContext context);
 
+    /**
+     * Optional fixed-point fast path. Returns the same amount as {@link #calculate}
+     * expressed in céntimos (scale 2), or {@link FixedPointMath#NOT_SUPPORTED} when only
+     * the BigDecimal path can guarantee an identical result (unscaled zero, extra decimals, overflow)
+     *
+     * @param context The employee payroll context with all necessary data
+     * @return The calculated amount in céntimos, or NOT_SUPPORTED
+     */
+    default long calculateCentimos(EmployeePayrollContext context) {
+        return FixedPointMath.NOT_SUPPORTED;
+    }
+
     /**
      * Get the concept code this calculator handles
      *
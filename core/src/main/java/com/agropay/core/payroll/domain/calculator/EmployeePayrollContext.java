@@ -31,6 +31,7 @@ public class EmployeePayrollContext {
     private Integer daysWorked; // Días realmente trabajados (con tareos registrados)
     private Set<LocalDate> workedDays; // Set de fechas con tareos registrados (para verificación rápida)
     private Map<LocalDate, WorkCalendarDayInfo> calendarInfo; // Información del calendario por día (feriados, domingos, etc.)
+    private Map<LocalDate, Boolean> periodWorkingDayCalendar; // is_working_day del calendario para todo el período (precargado por step)
 
     // Company configuration
     private BigDecimal overtimeRate;
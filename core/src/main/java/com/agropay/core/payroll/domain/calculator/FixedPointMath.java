@@ -0,0 +1,90 @@
+package com.agropay.core.payroll.domain.calculator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point helpers for the ConceptCalculator fast path.
+ *
+ * Los montos se representan como long en unidades de 10^-escala (céntimos = escala 2).
+ * Cada operación es exacta o retorna {@link #NOT_SUPPORTED}, de modo que el calculador
+ * pueda caer al cálculo con BigDecimal sin cambiar el resultado.
+ */
+public final class FixedPointMath {
+
+    /**
+     * Valor centinela: el fast path no puede garantizar el mismo resultado que BigDecimal
+     */
+    public static final long NOT_SUPPORTED = Long.MIN_VALUE;
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private FixedPointMath() {
+    }
+
+    /**
+     * Convierte un valor a unidades de 10^-scale sin redondear.
+     * Retorna NOT_SUPPORTED si el valor tiene más decimales que scale o no entra en un long.
+     */
+    public static long toUnits(BigDecimal value, int scale) {
+        if (value == null) {
+            return NOT_SUPPORTED;
+        }
+        try {
+            return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return NOT_SUPPORTED;
+        }
+    }
+
+    /**
+     * División entera con redondeo HALF_UP (mitad se aleja de cero), igual que BigDecimal
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= Math.abs(divisor) - remainder) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Reduce un valor en unidades de 10^-fromScale a céntimos con redondeo HALF_UP
+     * (equivalente a setScale(2, HALF_UP)).
+     */
+    public static long toCentimos(long units, int fromScale) {
+        return divideHalfUp(units, POWERS_OF_TEN[fromScale - 2]);
+    }
+
+    /**
+     * Porcentaje de un monto en céntimos, equivalente a
+     * {@code base.multiply(percentage).divide(100, 2, HALF_UP)}.
+     */
+    public static long percentageOf(BigDecimal base, BigDecimal percentage) {
+        int percentageScale = Math.max(percentage.scale(), 0);
+        if (percentageScale >= POWERS_OF_TEN.length - 2) {
+            return NOT_SUPPORTED;
+        }
+        long baseCentimos = toUnits(base, 2);
+        long percentageUnits = toUnits(percentage, percentageScale);
+        if (baseCentimos == NOT_SUPPORTED || percentageUnits == NOT_SUPPORTED) {
+            return NOT_SUPPORTED;
+        }
+        try {
+            // céntimos = base_c * p / (10^escala * 100)
+            return divideHalfUp(Math.multiplyExact(baseCentimos, percentageUnits), POWERS_OF_TEN[percentageScale + 2]);
+        } catch (ArithmeticException e) {
+            return NOT_SUPPORTED;
+        }
+    }
+
+    /**
+     * Convierte céntimos al BigDecimal de escala 2 que produciría el cálculo original
+     */
+    public static BigDecimal fromCentimos(long centimos) {
+        return BigDecimal.valueOf(centimos, 2);
+    }
+}
@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
@@ -51,4 +52,18 @@ public abstract class AbstractAFPCalculator implements ConceptCalculator {
         return baseAmount.multiply(percentage)
             .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
     }
+
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal percentage = context.getConfiguredConcepts().get(getConceptCode());
+        BigDecimal baseAmount = context.getTotalIncome();
+
+        // Los casos sin porcentaje o sin base retornan BigDecimal.ZERO sin escala: quedan en calculate()
+        if (percentage == null || baseAmount == null || baseAmount.compareTo(BigDecimal.ZERO) == 0) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        // AFP = totalIncome * porcentaje / 100 en céntimos
+        return FixedPointMath.percentageOf(baseAmount, percentage);
+    }
 }
\ No newline at end of file
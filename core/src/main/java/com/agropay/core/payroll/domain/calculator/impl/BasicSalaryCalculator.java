@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.calculator.WorkCalendarDayInfo;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
@@ -68,45 +69,78 @@ public class BasicSalaryCalculator implements ConceptCalculator {
         }
         
         for (java.time.LocalDate date : workedDays) {
-            WorkCalendarDayInfo dayInfo = calendarInfo != null ? calendarInfo.get(date) : null;
-            
-            // Determinar multiplicador según el tipo de día
-            BigDecimal multiplier = BigDecimal.ONE; // Día normal
-            
-            if (dayInfo != null) {
-                boolean isHoliday = dayInfo.isHoliday();
-                boolean isSunday = dayInfo.isSunday();
-                
-                if (isHoliday && isSunday) {
-                    // Feriado que cae en domingo y se trabaja: x3 (pago triple)
-                    // Remuneración ordinaria (x1) + Pago por trabajo en feriado (x1) + Sobretasa 100% domingo (x1) = x3
-                    multiplier = new BigDecimal("3");
-                    log.debug("Feriado en domingo trabajado {}: básico x3 (pago triple)", date);
-                } else if (isHoliday) {
-                    // Día feriado trabajado: x2 (remuneración ordinaria + pago por trabajo en feriado)
-                    multiplier = new BigDecimal("2");
-                    log.debug("Día feriado trabajado {}: básico x2", date);
-                } else if (isSunday) {
-                    // Domingo trabajado: x2 (remuneración ordinaria + sobretasa 100% por domingo)
-                    multiplier = new BigDecimal("2");
-                    log.debug("Domingo trabajado {}: básico x2", date);
-                }
-            } else {
-                // Si no hay información del calendario, verificar si es domingo
-                if (date.getDayOfWeek() == java.time.DayOfWeek.SUNDAY) {
-                    multiplier = new BigDecimal("2");
-                    log.debug("Domingo trabajado {} (sin info calendario): básico x2", date);
-                }
-            }
-            
             // Calcular básico para este día: básico_diario * multiplicador
-            BigDecimal dayBasicSalary = dailyBasicSalary.multiply(multiplier);
+            BigDecimal dayBasicSalary = dailyBasicSalary.multiply(BigDecimal.valueOf(dayMultiplier(date, calendarInfo)));
             totalBasicSalary = totalBasicSalary.add(dayBasicSalary);
         }
         
         return totalBasicSalary.setScale(2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal monthlySalary = context.getBasicSalary();
+        Set<java.time.LocalDate> workedDays = context.getWorkedDays();
+
+        // Sin salario o sin días trabajados se retorna BigDecimal.ZERO sin escala: queda en calculate()
+        if (monthlySalary == null || monthlySalary.compareTo(BigDecimal.ZERO) == 0
+                || workedDays == null || workedDays.isEmpty()) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        // Básico diario con 4 decimales, igual que divide(30, 4, HALF_UP)
+        long monthlyUnits = FixedPointMath.toUnits(monthlySalary, 4);
+        if (monthlyUnits == FixedPointMath.NOT_SUPPORTED) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+        long dailyUnits = FixedPointMath.divideHalfUp(monthlyUnits, 30);
+
+        Map<java.time.LocalDate, WorkCalendarDayInfo> calendarInfo = context.getCalendarInfo();
+        long totalUnits = 0;
+        try {
+            for (java.time.LocalDate date : workedDays) {
+                totalUnits = Math.addExact(totalUnits, Math.multiplyExact(dailyUnits, dayMultiplier(date, calendarInfo)));
+            }
+        } catch (ArithmeticException e) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        return FixedPointMath.toCentimos(totalUnits, 4);
+    }
+
+    /**
+     * Determina el multiplicador del básico diario según el tipo de día trabajado
+     */
+    private int dayMultiplier(java.time.LocalDate date, Map<java.time.LocalDate, WorkCalendarDayInfo> calendarInfo) {
+        WorkCalendarDayInfo dayInfo = calendarInfo != null ? calendarInfo.get(date) : null;
+
+        if (dayInfo != null) {
+            boolean isHoliday = dayInfo.isHoliday();
+            boolean isSunday = dayInfo.isSunday();
+
+            if (isHoliday && isSunday) {
+                // Feriado que cae en domingo y se trabaja: x3 (pago triple)
+                // Remuneración ordinaria (x1) + Pago por trabajo en feriado (x1) + Sobretasa 100% domingo (x1) = x3
+                log.debug("Feriado en domingo trabajado {}: básico x3 (pago triple)", date);
+                return 3;
+            } else if (isHoliday) {
+                // Día feriado trabajado: x2 (remuneración ordinaria + pago por trabajo en feriado)
+                log.debug("Día feriado trabajado {}: básico x2", date);
+                return 2;
+            } else if (isSunday) {
+                // Domingo trabajado: x2 (remuneración ordinaria + sobretasa 100% por domingo)
+                log.debug("Domingo trabajado {}: básico x2", date);
+                return 2;
+            }
+        } else if (date.getDayOfWeek() == java.time.DayOfWeek.SUNDAY) {
+            // Si no hay información del calendario, verificar si es domingo
+            log.debug("Domingo trabajado {} (sin info calendario): básico x2", date);
+            return 2;
+        }
+
+        return 1; // Día normal
+    }
+
     @Override
     public ConceptCode getConceptCode() {
         return ConceptCode.BASIC_SALARY;
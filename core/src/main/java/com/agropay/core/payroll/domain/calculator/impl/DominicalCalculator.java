@@ -3,6 +3,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 import com.agropay.core.payroll.domain.WorkCalendarEntity;
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import com.agropay.core.payroll.persistence.IWorkCalendarRepository;
 import lombok.RequiredArgsConstructor;
@@ -81,14 +82,9 @@ public class DominicalCalculator implements ConceptCalculator {
             return BigDecimal.ZERO;
         }
 
-        // Obtener todos los días del calendario en el período (incluyendo no laborales)
-        List<WorkCalendarEntity> calendarDays = workCalendarRepository.findAllBetweenWithEvents(
-            periodStart, periodEnd
-        );
-
         // Agrupar por semanas y verificar cumplimiento
         // El dominical se otorga SOLO por semana completa (sin faltar días laborales)
-        int completedWeeks = countCompletedWeeks(periodStart, periodEnd, calendarDays, workedDays);
+        int completedWeeks = countCompletedWeeks(periodStart, periodEnd, getWorkingDayCalendar(context), workedDays);
         
         // Calcular total: dominical por cada semana completa
         // NOTA: Si el empleado trabajó el domingo, ese día se paga doble (básico x2) en BasicSalaryCalculator,
@@ -106,6 +102,55 @@ public class DominicalCalculator implements ConceptCalculator {
         return totalDominical.setScale(2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal monthlySalary = context.getBasicSalary();
+        LocalDate periodStart = context.getPeriodStart();
+        LocalDate periodEnd = context.getPeriodEnd();
+        Set<LocalDate> workedDays = context.getWorkedDays();
+
+        // Los casos sin salario o sin período retornan BigDecimal.ZERO sin escala: quedan en calculate()
+        if (monthlySalary == null || monthlySalary.compareTo(BigDecimal.ZERO) == 0
+                || periodStart == null || periodEnd == null || workedDays == null || workedDays.isEmpty()) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        // Básico diario con 4 decimales, igual que divide(30, 4, HALF_UP)
+        long monthlyUnits = FixedPointMath.toUnits(monthlySalary, 4);
+        if (monthlyUnits == FixedPointMath.NOT_SUPPORTED) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+        long dominicalUnits = FixedPointMath.divideHalfUp(monthlyUnits, 30);
+
+        int completedWeeks = countCompletedWeeks(periodStart, periodEnd, getWorkingDayCalendar(context), workedDays);
+        try {
+            return FixedPointMath.toCentimos(Math.multiplyExact(dominicalUnits, completedWeeks), 4);
+        } catch (ArithmeticException e) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+    }
+
+    /**
+     * Obtiene is_working_day por fecha del período.
+     * Usa el calendario precargado por el step de planilla; si no viene en el contexto, lo consulta.
+     */
+    private Map<LocalDate, Boolean> getWorkingDayCalendar(EmployeePayrollContext context) {
+        if (context.getPeriodWorkingDayCalendar() != null) {
+            return context.getPeriodWorkingDayCalendar();
+        }
+
+        // Obtener todos los días del calendario en el período (incluyendo no laborales)
+        List<WorkCalendarEntity> calendarDays = workCalendarRepository.findAllBetweenWithEvents(
+            context.getPeriodStart(), context.getPeriodEnd()
+        );
+        return calendarDays.stream()
+            .collect(Collectors.toMap(
+                WorkCalendarEntity::getDate,
+                WorkCalendarEntity::isWorkingDay,
+                (v1, v2) -> v1
+            ));
+    }
+
     /**
      * Cuenta las semanas completas en el período.
      * Una semana se considera completa si el empleado trabajó todos los días laborales de esa semana.
@@ -113,17 +158,9 @@ public class DominicalCalculator implements ConceptCalculator {
     private int countCompletedWeeks(
             LocalDate periodStart, 
             LocalDate periodEnd, 
-            List<WorkCalendarEntity> calendarDays,
+            Map<LocalDate, Boolean> isWorkingDayMap,
             Set<LocalDate> workedDays) {
         
-        // Crear mapa de días laborales por fecha
-        Map<LocalDate, Boolean> isWorkingDayMap = calendarDays.stream()
-            .collect(Collectors.toMap(
-                WorkCalendarEntity::getDate,
-                WorkCalendarEntity::isWorkingDay,
-                (v1, v2) -> v1
-            ));
-
         int completedWeeks = 0;
         LocalDate currentWeekStart = getWeekStart(periodStart);
         
@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -50,6 +51,20 @@ public class ESSALUDCalculator implements ConceptCalculator {
             .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal percentage = context.getConfiguredConcepts().get(ConceptCode.ESSALUD);
+        BigDecimal baseAmount = context.getTotalIncome();
+
+        // Los casos sin porcentaje o sin base retornan BigDecimal.ZERO sin escala: quedan en calculate()
+        if (percentage == null || baseAmount == null || baseAmount.compareTo(BigDecimal.ZERO) == 0) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        // ESSALUD = totalIncome * porcentaje / 100 en céntimos
+        return FixedPointMath.percentageOf(baseAmount, percentage);
+    }
+
     @Override
     public ConceptCode getConceptCode() {
         return ConceptCode.ESSALUD;
@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -49,6 +50,23 @@ public class FamilyAllowanceCalculator implements ConceptCalculator {
         return allowanceAmount.setScale(2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        Integer numberOfDependents = context.getNumberOfDependents();
+        BigDecimal allowanceAmount = context.getConfiguredConcepts().get(ConceptCode.FAMILY_ALLOWANCE);
+
+        // Sin dependientes o sin monto configurado se retorna BigDecimal.ZERO sin escala: queda en calculate()
+        if (numberOfDependents == null || numberOfDependents == 0 || allowanceAmount == null) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        long allowanceUnits = FixedPointMath.toUnits(allowanceAmount, 6);
+        if (allowanceUnits == FixedPointMath.NOT_SUPPORTED) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+        return FixedPointMath.toCentimos(allowanceUnits, 6);
+    }
+
     @Override
     public ConceptCode getConceptCode() {
         return ConceptCode.FAMILY_ALLOWANCE;
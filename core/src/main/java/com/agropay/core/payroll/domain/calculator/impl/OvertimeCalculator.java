@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -73,6 +74,58 @@ public class OvertimeCalculator implements ConceptCalculator {
         return total.setScale(2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal basicSalary = context.getBasicSalary();
+        BigDecimal dailyNormalHours = context.getDailyNormalHours();
+        Integer monthDays = context.getMonthCalculationDays();
+
+        // Datos faltantes retornan BigDecimal.ZERO sin escala: quedan en calculate()
+        if (basicSalary == null || dailyNormalHours == null || monthDays == null) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        long salaryUnits = FixedPointMath.toUnits(basicSalary, 4);
+        long dailyHoursUnits = FixedPointMath.toUnits(dailyNormalHours, 4);
+        if (salaryUnits == FixedPointMath.NOT_SUPPORTED || dailyHoursUnits == FixedPointMath.NOT_SUPPORTED) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        try {
+            // Valor hora con 4 decimales, igual que divide(totalMonthHours, 4, HALF_UP)
+            long totalMonthHoursUnits = Math.multiplyExact(dailyHoursUnits, monthDays.longValue());
+            if (totalMonthHoursUnits == 0) {
+                // La división por cero debe lanzar la misma excepción que calculate()
+                return FixedPointMath.NOT_SUPPORTED;
+            }
+            long hourlyRateUnits = FixedPointMath.divideHalfUp(Math.multiplyExact(salaryUnits, 10_000L), totalMonthHoursUnits);
+
+            // Valor hora (10^-4) * factor (10^-2) * horas (10^-2) = pago en unidades de 10^-8
+            long totalUnits = 0;
+            BigDecimal overtimeHours25 = context.getOvertimeHours25();
+            if (overtimeHours25 != null && overtimeHours25.compareTo(BigDecimal.ZERO) > 0) {
+                long hoursUnits = FixedPointMath.toUnits(overtimeHours25, 2);
+                if (hoursUnits == FixedPointMath.NOT_SUPPORTED) {
+                    return FixedPointMath.NOT_SUPPORTED;
+                }
+                totalUnits = Math.addExact(totalUnits, Math.multiplyExact(Math.multiplyExact(hourlyRateUnits, 125L), hoursUnits));
+            }
+
+            BigDecimal overtimeHours100 = context.getOvertimeHours100();
+            if (overtimeHours100 != null && overtimeHours100.compareTo(BigDecimal.ZERO) > 0) {
+                long hoursUnits = FixedPointMath.toUnits(overtimeHours100, 2);
+                if (hoursUnits == FixedPointMath.NOT_SUPPORTED) {
+                    return FixedPointMath.NOT_SUPPORTED;
+                }
+                totalUnits = Math.addExact(totalUnits, Math.multiplyExact(Math.multiplyExact(hourlyRateUnits, 200L), hoursUnits));
+            }
+
+            return FixedPointMath.toCentimos(totalUnits, 8);
+        } catch (ArithmeticException e) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+    }
+
     @Override
     public ConceptCode getConceptCode() {
         return ConceptCode.OVERTIME;
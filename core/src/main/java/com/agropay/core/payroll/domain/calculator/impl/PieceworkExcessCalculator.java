@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.calculator.PieceworkDayInfo;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
@@ -93,6 +94,47 @@ public class PieceworkExcessCalculator implements ConceptCalculator {
         return totalExcessPayment.setScale(2, RoundingMode.HALF_UP);
     }
 
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        Map<LocalDate, PieceworkDayInfo> pieceworkInfoPerDay = context.getPieceworkInfoPerDay();
+
+        // Sin destajo se retorna BigDecimal.ZERO sin escala: queda en calculate()
+        if (pieceworkInfoPerDay == null || pieceworkInfoPerDay.isEmpty()) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        // Mínimo y precio en unidades de 10^-4, pago del excedente en unidades de 10^-8
+        long totalUnits = 0;
+        try {
+            for (PieceworkDayInfo dayInfo : pieceworkInfoPerDay.values()) {
+                if (dayInfo == null || dayInfo.productivityCount() == null || dayInfo.minTaskRequirement() == null
+                        || dayInfo.basePrice() == null) {
+                    continue;
+                }
+
+                long minUnits = FixedPointMath.toUnits(dayInfo.minTaskRequirement(), 4);
+                long priceUnits = FixedPointMath.toUnits(dayInfo.basePrice(), 4);
+                if (minUnits == FixedPointMath.NOT_SUPPORTED || priceUnits == FixedPointMath.NOT_SUPPORTED) {
+                    return FixedPointMath.NOT_SUPPORTED;
+                }
+
+                long excessUnits = Math.subtractExact(Math.multiplyExact(dayInfo.productivityCount().longValue(), 10_000L), minUnits);
+                if (excessUnits <= 0) {
+                    continue;
+                }
+
+                long excessPayment = Math.multiplyExact(excessUnits, priceUnits);
+                if (excessPayment > 0) {
+                    totalUnits = Math.addExact(totalUnits, excessPayment);
+                }
+            }
+        } catch (ArithmeticException e) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        return FixedPointMath.toCentimos(totalUnits, 8);
+    }
+
     @Override
     public ConceptCode getConceptCode() {
         return ConceptCode.PIECEWORK_EXCESS;
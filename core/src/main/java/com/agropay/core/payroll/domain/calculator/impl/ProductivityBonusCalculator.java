@@ -2,6 +2,7 @@ package com.agropay.core.payroll.domain.calculator.impl;
 
 import com.agropay.core.payroll.domain.calculator.ConceptCalculator;
 import com.agropay.core.payroll.domain.calculator.EmployeePayrollContext;
+import com.agropay.core.payroll.domain.calculator.FixedPointMath;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -24,6 +25,8 @@ import java.util.Map;
 @Component
 public class ProductivityBonusCalculator implements ConceptCalculator {
 
+    private static final BigDecimal MIN_PRODUCTIVITY = new BigDecimal("100");
+
     @Override
     public BigDecimal calculate(EmployeePayrollContext context) {
         /**
@@ -61,14 +64,51 @@ public class ProductivityBonusCalculator implements ConceptCalculator {
         }
 
         // Contar días con productividad >= 100% (cumplió el mínimo)
-        int daysWithBonus = 0;
-        BigDecimal minProductivity = new BigDecimal("100");
+        int daysWithBonus = countDaysWithBonus(context, productivityPerDay);
+
+        // Calcular total: bono por día * días con productividad >= 100%
+        BigDecimal totalBonus = bonusAmountPerDay.multiply(new BigDecimal(daysWithBonus));
+        
+        log.debug("Empleado {}: {} días con bono de productividad, total: {}", 
+            context.getEmployeeDocumentNumber(), daysWithBonus, totalBonus);
         
+        return totalBonus.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public long calculateCentimos(EmployeePayrollContext context) {
+        BigDecimal bonusAmountPerDay = context.getConfiguredConcepts().get(ConceptCode.PRODUCTIVITY_BONUS);
+        Map<java.time.LocalDate, BigDecimal> productivityPerDay = context.getProductivityPerDay();
+
+        // Sin bono configurado o sin destajo se retorna BigDecimal.ZERO sin escala: queda en calculate()
+        if (bonusAmountPerDay == null || productivityPerDay == null || productivityPerDay.isEmpty()) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        long bonusUnits = FixedPointMath.toUnits(bonusAmountPerDay, 6);
+        if (bonusUnits == FixedPointMath.NOT_SUPPORTED) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+
+        try {
+            long totalUnits = Math.multiplyExact(bonusUnits, countDaysWithBonus(context, productivityPerDay));
+            return FixedPointMath.toCentimos(totalUnits, 6);
+        } catch (ArithmeticException e) {
+            return FixedPointMath.NOT_SUPPORTED;
+        }
+    }
+
+    /**
+     * Cuenta los días con productividad >= 100% (cumplió el mínimo)
+     */
+    private int countDaysWithBonus(EmployeePayrollContext context, Map<java.time.LocalDate, BigDecimal> productivityPerDay) {
+        int daysWithBonus = 0;
+
         for (Map.Entry<java.time.LocalDate, BigDecimal> entry : productivityPerDay.entrySet()) {
             BigDecimal productivity = entry.getValue();
             
             // Si la productividad es >= 100%, se activa el bono para ese día
-            if (productivity != null && productivity.compareTo(minProductivity) >= 0) {
+            if (productivity != null && productivity.compareTo(MIN_PRODUCTIVITY) >= 0) {
                 daysWithBonus++;
                 log.debug("Empleado {} cumplió productividad en fecha {}: {}% → bono activado", 
                     context.getEmployeeDocumentNumber(), entry.getKey(), productivity);
@@ -79,13 +119,7 @@ public class ProductivityBonusCalculator implements ConceptCalculator {
             }
         }
 
-        // Calcular total: bono por día * días con productividad >= 100%
-        BigDecimal totalBonus = bonusAmountPerDay.multiply(new BigDecimal(daysWithBonus));
-        
-        log.debug("Empleado {}: {} días con bono de productividad, total: {}", 
-            context.getEmployeeDocumentNumber(), daysWithBonus, totalBonus);
-        
-        return totalBonus.setScale(2, RoundingMode.HALF_UP);
+        return daysWithBonus;
     }
 
     @Override
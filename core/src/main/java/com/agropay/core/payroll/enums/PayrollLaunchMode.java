@@ -0,0 +1,28 @@
+package com.agropay.core.payroll.enums;
+
+/**
+ * Modes for launching the payroll calculation job.
+ * The value is passed to the job as the "mode" JobParameter.
+ */
+public enum PayrollLaunchMode {
+
+    /**
+     * Calculates every employee of the payroll period.
+     * Only allowed for DRAFT payrolls.
+     */
+    FULL,
+
+    /**
+     * Recalculates only employees whose input fingerprint changed since the last calculation,
+     * upserting their details and applying the difference to the payroll totals.
+     * Only allowed for CALCULATED payrolls.
+     */
+    DELTA;
+
+    /**
+     * Resolves the mode from the JobParameter value, defaulting to FULL when absent
+     */
+    public static PayrollLaunchMode fromJobParameter(String value) {
+        return value == null ? FULL : valueOf(value);
+    }
+}
@@ -98,4 +98,12 @@ public enum PayrollState {
     public boolean canLaunchCalculation() {
         return this == DRAFT;
     }
-}
\ No newline at end of file
+
+    /**
+     * Check if a delta recalculation can be launched from this state.
+     * Only CALCULATED payrolls have the details and fingerprints a delta run compares against.
+     */
+    public boolean canRecalculateDelta() {
+        return this == CALCULATED;
+    }
+}
@@ -0,0 +1,19 @@
+package com.agropay.core.payroll.enums;
+
+/**
+ * Formats for the bulk payslip export of a payroll.
+ */
+public enum PayslipExportFormat {
+
+    /**
+     * A single PDF with the payslips merged in employee document order.
+     * Streamed as it is built, so its length is unknown and it does not support ranges.
+     */
+    PDF,
+
+    /**
+     * A ZIP with one uncompressed entry per stored payslip PDF.
+     * Its length is known up front, so it supports HTTP ranges to resume downloads.
+     */
+    ZIP
+}
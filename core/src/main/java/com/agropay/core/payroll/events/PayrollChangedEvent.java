@@ -0,0 +1,18 @@
+package com.agropay.core.payroll.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Se publica cuando se crea, elimina o cambia el estado / los totales de una planilla
+ */
+@Getter
+public class PayrollChangedEvent extends ApplicationEvent {
+
+    private final Short subsidiaryId;
+
+    public PayrollChangedEvent(Object source, Short subsidiaryId) {
+        super(source);
+        this.subsidiaryId = subsidiaryId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.agropay.core.payroll.model.payroll;
+
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Optional options for launching a payroll calculation.
+ * When mode is not sent, a FULL calculation is launched.
+ */
+public record LaunchPayrollRequest(
+    @Min(value = 1, message = "Partition count must be at least 1.")
+    @Max(value = 32, message = "Partition count cannot exceed 32.")
+    Integer partitionCount,
+    PayrollLaunchMode mode
+) {}
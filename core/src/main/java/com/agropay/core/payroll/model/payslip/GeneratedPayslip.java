@@ -0,0 +1,9 @@
+package com.agropay.core.payroll.model.payslip;
+
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+
+/**
+ * PDF de boleta generado para un detalle de planilla, pendiente de guardar
+ */
+public record GeneratedPayslip(PayrollDetailEntity detail, byte[] pdf) {
+}
@@ -0,0 +1,28 @@
+package com.agropay.core.payroll.model.payslip;
+
+import com.agropay.core.payroll.enums.PayslipExportFormat;
+import com.agropay.core.shared.utils.StoredZipWriter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exportación masiva de boletas ya resuelta: qué archivos incluye y en qué orden.
+ *
+ * Solo guarda metadatos; el contenido de cada boleta se lee por bloques al escribir la respuesta.
+ * zip es null en formato PDF. etag identifica el conjunto exacto de archivos, para validar If-Range.
+ */
+public record PayslipExport(
+    String payrollCode,
+    PayslipExportFormat format,
+    List<Entry> entries,
+    StoredZipWriter zip,
+    String etag
+) {
+
+    public record Entry(Long fileId, String fileName, Long fileSize, LocalDateTime createdAt) {}
+
+    public String fileName() {
+        return String.format("boletas_%s.%s", payrollCode, format == PayslipExportFormat.ZIP ? "zip" : "pdf");
+    }
+}
@@ -0,0 +1,75 @@
+package com.agropay.core.payroll.model.payslip;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.image.ImageData;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recursos comunes a todas las boletas de una planilla, resueltos una sola vez por PayslipPdfService.
+ *
+ * Es de solo lectura y se comparte entre los hilos que generan boletas en paralelo:
+ * - Las imágenes (logo y firmas) ya están descargadas y decodificadas; las firmas SVG ya están en PNG
+ * - Se guardan los FontProgram y no los PdfFont, porque un PdfFont pertenece a un único PdfDocument
+ * - conceptNames permite resolver el nombre del concepto de jubilación sin consultar la BD
+ * - signers tiene el responsable de firma de cada subsidiaria de la planilla
+ * - template (opcional) tiene la cabecera y los bloques de firma ya dibujados para estamparlos en cada boleta
+ */
+public record PayslipRenderAssets(
+    UUID payrollPublicId,
+    String payrollCode,
+    String companyTradeName,
+    String companyContactLine,
+    String companyRuc,
+    ImageData companyLogo,
+    String monthName,
+    String weekInfo,
+    FontProgram regularFont,
+    FontProgram boldFont,
+    Map<Short, String> conceptNames,
+    Map<Short, Signer> signers,
+    PayslipTemplate template
+) {
+
+    /**
+     * Responsable de firma de una subsidiaria.
+     * Si no se pudo resolver (sin responsable asignado o firma ilegible) guarda el error, que se lanza
+     * al generar la boleta de un empleado de esa subsidiaria.
+     */
+    public record Signer(
+        String fullName,
+        String documentNumber,
+        String position,
+        ImageData signature,
+        RuntimeException error
+    ) {
+
+        public static Signer failed(RuntimeException error) {
+            return new Signer(null, null, null, null, error);
+        }
+
+        public Signer orThrow() {
+            if (error != null) {
+                throw error;
+            }
+            return this;
+        }
+    }
+
+    public PayslipRenderAssets withTemplate(PayslipTemplate template) {
+        return new PayslipRenderAssets(payrollPublicId, payrollCode, companyTradeName, companyContactLine, companyRuc,
+            companyLogo, monthName, weekInfo, regularFont, boldFont, conceptNames, signers, template);
+    }
+
+    /**
+     * Responsable de firma de la subsidiaria del empleado
+     */
+    public Signer signerFor(Short subsidiaryId) {
+        Signer signer = signers.get(subsidiaryId);
+        if (signer == null) {
+            throw new IllegalStateException("Recursos de boleta sin responsable de firma para la subsidiaria " + subsidiaryId);
+        }
+        return signer.orThrow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.agropay.core.payroll.model.payslip;
+
+import java.util.Map;
+
+/**
+ * Plantilla de boletas de una planilla (ver PayslipPdfService.withTemplate).
+ *
+ * PDF con una página por bloque fijo, recortada a su contenido:
+ * - Página 1: cabecera (empresa, logo, título y período)
+ * - signerPages: bloque de firma del responsable de cada subsidiaria
+ *
+ * Cada boleta abre su propio PdfDocument sobre estos bytes, por lo que puede usarse desde varios hilos.
+ */
+public record PayslipTemplate(byte[] pdf, Map<Short, Integer> signerPages) {
+
+    public static final int HEADER_PAGE = 1;
+}
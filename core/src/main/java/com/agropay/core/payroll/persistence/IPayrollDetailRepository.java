@@ -4,10 +4,12 @@ import com.agropay.core.payroll.domain.PayrollDetailEntity;
 import com.agropay.core.payroll.model.payroll.PayrollTotalsDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,6 +36,133 @@ public interface IPayrollDetailRepository extends JpaRepository<PayrollDetailEnt
         @Param("employeeDocumentNumber") String employeeDocumentNumber
     );
 
+    /**
+     * Huellas de entrada de los detalles ya calculados para un conjunto de empleados.
+     * Retorna [employeeDocumentNumber, inputFingerprint]; la huella es null en detalles anteriores a V161.
+     */
+    @Query("""
+        SELECT pd.employee.personDocumentNumber, pd.inputFingerprint
+        FROM PayrollDetailEntity pd
+        WHERE pd.payroll.id = :payrollId
+        AND pd.employee.personDocumentNumber IN :documentNumbers
+    """)
+    List<Object[]> findInputFingerprintsByPayrollIdAndEmployees(
+        @Param("payrollId") Long payrollId,
+        @Param("documentNumbers") Collection<String> documentNumbers
+    );
+
+    /**
+     * Detalles ya calculados para un conjunto de empleados (upsert del recálculo DELTA)
+     */
+    @Query("""
+        SELECT pd FROM PayrollDetailEntity pd
+        WHERE pd.payroll.id = :payrollId
+        AND pd.employee.personDocumentNumber IN :documentNumbers
+    """)
+    List<PayrollDetailEntity> findByPayrollIdAndEmployees(
+        @Param("payrollId") Long payrollId,
+        @Param("documentNumbers") Collection<String> documentNumbers
+    );
+
+    /**
+     * Detalles de empleados que ya no tienen tareos en el período y subsidiaria (mismo criterio que EmployeeReader),
+     * p. ej. porque se eliminaron sus tareos después del cálculo. El recálculo DELTA los da de baja.
+     */
+    @Query("""
+        SELECT pd FROM PayrollDetailEntity pd
+        WHERE pd.payroll.id = :payrollId
+        AND NOT EXISTS (
+            SELECT 1 FROM com.agropay.core.assignment.domain.TareoEmployeeEntity te
+            JOIN te.tareo t
+            WHERE te.employee.personDocumentNumber = pd.employee.personDocumentNumber
+            AND CAST(t.createdAt AS date) BETWEEN :periodStart AND :periodEnd
+            AND t.subsidiary.id = :subsidiaryId
+            AND te.deletedAt IS NULL
+            AND t.deletedAt IS NULL
+        )
+    """)
+    List<PayrollDetailEntity> findWithoutTareosInPeriod(
+        @Param("payrollId") Long payrollId,
+        @Param("periodStart") java.time.LocalDate periodStart,
+        @Param("periodEnd") java.time.LocalDate periodEnd,
+        @Param("subsidiaryId") Short subsidiaryId
+    );
+
+    @Modifying
+    @Query("""
+        UPDATE PayrollDetailEntity pd
+        SET pd.deletedAt = :deletedAt, pd.deletedBy = :deletedBy
+        WHERE pd.id IN :ids
+    """)
+    void softDeleteByIds(
+        @Param("ids") Collection<Long> ids,
+        @Param("deletedAt") java.time.LocalDateTime deletedAt,
+        @Param("deletedBy") String deletedBy
+    );
+
+    List<PayrollDetailEntity> findByPublicIdIn(Collection<UUID> publicIds);
+
+    /**
+     * IDs de los detalles de una planilla en orden, para particionar la generación de boletas
+     */
+    @Query("SELECT pd.id FROM PayrollDetailEntity pd WHERE pd.payroll.id = :payrollId ORDER BY pd.id ASC")
+    List<Long> findIdsByPayrollId(@Param("payrollId") Long payrollId);
+
+    /**
+     * Subsidiarias de los empleados de una planilla. Retorna [subsidiaryId, subsidiaryName]
+     */
+    @Query("""
+        SELECT DISTINCT s.id, s.name
+        FROM PayrollDetailEntity pd
+        JOIN pd.employee e
+        JOIN e.subsidiary s
+        WHERE pd.payroll.id = :payrollId
+    """)
+    List<Object[]> findEmployeeSubsidiariesByPayrollId(@Param("payrollId") Long payrollId);
+
+    /**
+     * Archivos vigentes de una categoría asociados a los detalles de una planilla, en orden de documento del empleado.
+     * Retorna [fileId, fileName, fileSize, createdAt] sin leer el contenido de los archivos.
+     */
+    @Query("""
+        SELECT f.id, f.fileName, f.fileSize, f.createdAt
+        FROM PayrollDetailEntity pd
+        JOIN pd.employee e
+        JOIN InternalFileEntity f ON f.fileableId = CAST(pd.id AS String)
+        WHERE pd.payroll.id = :payrollId
+        AND f.fileableType = :fileableType
+        AND f.category = :category
+        AND f.deletedAt IS NULL
+        ORDER BY e.personDocumentNumber ASC, f.id ASC
+    """)
+    List<Object[]> findFilesByPayrollId(
+        @Param("payrollId") Long payrollId,
+        @Param("fileableType") String fileableType,
+        @Param("category") String category
+    );
+
+    /**
+     * Igual que findFilesByPayrollId, solo para los empleados indicados
+     */
+    @Query("""
+        SELECT f.id, f.fileName, f.fileSize, f.createdAt
+        FROM PayrollDetailEntity pd
+        JOIN pd.employee e
+        JOIN InternalFileEntity f ON f.fileableId = CAST(pd.id AS String)
+        WHERE pd.payroll.id = :payrollId
+        AND e.personDocumentNumber IN :documentNumbers
+        AND f.fileableType = :fileableType
+        AND f.category = :category
+        AND f.deletedAt IS NULL
+        ORDER BY e.personDocumentNumber ASC, f.id ASC
+    """)
+    List<Object[]> findFilesByPayrollIdAndEmployees(
+        @Param("payrollId") Long payrollId,
+        @Param("documentNumbers") Collection<String> documentNumbers,
+        @Param("fileableType") String fileableType,
+        @Param("category") String category
+    );
+
     @Query("SELECT pd FROM PayrollDetailEntity pd WHERE pd.employee.personDocumentNumber = :employeeDocumentNumber ORDER BY pd.createdAt DESC")
     List<PayrollDetailEntity> findByEmployeePersonDocumentNumberOrderByCreatedAtDesc(@Param("employeeDocumentNumber") String employeeDocumentNumber);
 
@@ -58,6 +187,18 @@ public interface IPayrollDetailRepository extends JpaRepository<PayrollDetailEnt
     """)
     Boolean hasPayslips(@Param("payrollId") Long payrollId);
 
+    /**
+     * Planillas de la lista que tienen al menos una boleta generada
+     */
+    @Query("""
+        SELECT DISTINCT pd.payroll.id
+        FROM PayrollDetailEntity pd
+        WHERE pd.payroll.id IN :payrollIds
+        AND pd.payslipPdfUrl IS NOT NULL
+        AND pd.payslipPdfUrl != ''
+    """)
+    List<Long> findPayrollIdsWithPayslips(@Param("payrollIds") Collection<Long> payrollIds);
+
     /**
      * Verifica si un tareo (por fecha y empleado) está calculado en alguna planilla
      * Un tareo está calculado si existe un PayrollDetailEntity donde:
@@ -104,6 +245,24 @@ public interface IPayrollDetailRepository extends JpaRepository<PayrollDetailEnt
     """)
     Boolean isTareoIdCalculated(@Param("tareoId") Integer tareoId);
 
+    /**
+     * Tareos de la lista que están calculados, con el mismo criterio que isTareoIdCalculated
+     */
+    @Query("""
+        SELECT DISTINCT t.id
+        FROM com.agropay.core.assignment.domain.TareoEmployeeEntity te
+        JOIN te.tareo t
+        JOIN PayrollDetailEntity pd ON pd.employee.personDocumentNumber = te.employee.personDocumentNumber
+        JOIN pd.payroll p
+        JOIN p.state s
+        WHERE t.id IN :tareoIds
+        AND CAST(t.createdAt AS date) BETWEEN p.periodStart AND p.periodEnd
+        AND te.deletedAt IS NULL
+        AND t.deletedAt IS NULL
+        AND s.code IN ('CALCULATED', 'APPROVED', 'PAID')
+    """)
+    List<Integer> findCalculatedTareoIds(@Param("tareoIds") Collection<Integer> tareoIds);
+
     /**
      * Cuenta los tareos únicos procesados en una planilla específica.
      * Un tareo está procesado si al menos uno de sus empleados tiene un PayrollDetailEntity
@@ -136,6 +295,24 @@ public interface IPayrollDetailRepository extends JpaRepository<PayrollDetailEnt
     """)
     Long countProcessedTareosByPayrollId(@Param("payrollId") Long payrollId);
 
+    /**
+     * Tareos procesados por planilla para una lista de planillas, con el mismo criterio que
+     * countProcessedTareosByPayrollId: [0] = payrollId (Long), [1] = cantidad (Long)
+     */
+    @Query("""
+        SELECT p.id, COUNT(DISTINCT t.id)
+        FROM PayrollDetailEntity pd
+        JOIN pd.payroll p
+        JOIN com.agropay.core.assignment.domain.TareoEmployeeEntity te
+            ON te.employee.personDocumentNumber = pd.employee.personDocumentNumber AND te.deletedAt IS NULL
+        JOIN te.tareo t
+        WHERE p.id IN :payrollIds
+        AND CAST(t.createdAt AS date) BETWEEN p.periodStart AND p.periodEnd
+        AND t.deletedAt IS NULL
+        GROUP BY p.id
+    """)
+    List<Object[]> countProcessedTareosByPayrollIds(@Param("payrollIds") Collection<Long> payrollIds);
+
     /**
      * Obtiene los tareos únicos procesados en una planilla específica.
      * Retorna los tareos que tienen al menos un empleado con PayrollDetailEntity
@@ -180,6 +357,17 @@ public interface IPayrollDetailRepository extends JpaRepository<PayrollDetailEnt
     """)
     Long countProcessedEmployeesByPayrollId(@Param("payrollId") Long payrollId);
 
+    /**
+     * Empleados procesados por planilla para una lista de planillas: [0] = payrollId (Long), [1] = cantidad (Long)
+     */
+    @Query("""
+        SELECT pd.payroll.id, COUNT(pd.id)
+        FROM PayrollDetailEntity pd
+        WHERE pd.payroll.id IN :payrollIds
+        GROUP BY pd.payroll.id
+    """)
+    List<Object[]> countProcessedEmployeesByPayrollIds(@Param("payrollIds") Collection<Long> payrollIds);
+
     /**
      * Obtiene los detalles de planilla filtrados por labor y/o DNI de empleado.
      * Filtra por labor si el empleado tiene tareos con esa labor dentro del período de la planilla.
@@ -3,10 +3,12 @@ package com.agropay.core.payroll.persistence;
 import com.agropay.core.payroll.domain.PayrollEntity;
 import com.agropay.core.shared.generic.persistence.ISoftRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,76 +36,27 @@ public interface IPayrollRepository extends ISoftRepository<PayrollEntity, Long>
         @Param("stateCode") String stateCode
     );
 
-    boolean existsByPeriodId(Integer periodId);
-
-    boolean existsByPayrollConfigurationId(Long payrollConfigurationId);
-
-    // Dashboard queries
-    @Query("""
-        SELECT s.code, COUNT(p), COALESCE(SUM(p.totalNet), 0)
-        FROM PayrollEntity p
-        JOIN p.state s
-        WHERE p.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR p.subsidiary.id = :subsidiaryId)
-        AND (:periodId IS NULL OR p.period.id = :periodId)
-        GROUP BY s.code
-    """)
-    List<Object[]> getPayrollsByStatusGrouped(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("periodId") Integer periodId
-    );
-
-    @Query("""
-        SELECT p.year, p.month, COUNT(p), COALESCE(SUM(p.totalNet), 0)
-        FROM PayrollEntity p
-        WHERE p.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR p.subsidiary.id = :subsidiaryId)
-        AND (:dateFrom IS NULL OR p.periodStart >= :dateFrom)
-        AND (:dateTo IS NULL OR p.periodStart <= :dateTo)
-        GROUP BY p.year, p.month
-        ORDER BY p.year DESC, p.month DESC
-    """)
-    List<Object[]> getPayrollsByPeriodGrouped(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("dateFrom") java.time.LocalDate dateFrom,
-            @Param("dateTo") java.time.LocalDate dateTo
-    );
-
+    /**
+     * Suma diferencias a los totales de la planilla (recálculo DELTA), dentro de la transacción del chunk
+     */
+    @Modifying
     @Query("""
-        SELECT COUNT(p)
-        FROM PayrollEntity p
-        WHERE p.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR p.subsidiary.id = :subsidiaryId)
-        AND (:periodId IS NULL OR p.period.id = :periodId)
+        UPDATE PayrollEntity p
+        SET p.totalEmployees = COALESCE(p.totalEmployees, 0) + :employeesDelta,
+            p.totalIncome = COALESCE(p.totalIncome, 0) + :incomeDelta,
+            p.totalDeductions = COALESCE(p.totalDeductions, 0) + :deductionsDelta,
+            p.totalNet = COALESCE(p.totalNet, 0) + :netDelta
+        WHERE p.id = :payrollId
     """)
-    Long countByFilters(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("periodId") Integer periodId
+    void addToTotals(
+        @Param("payrollId") Long payrollId,
+        @Param("employeesDelta") int employeesDelta,
+        @Param("incomeDelta") BigDecimal incomeDelta,
+        @Param("deductionsDelta") BigDecimal deductionsDelta,
+        @Param("netDelta") BigDecimal netDelta
     );
 
-    @Query("""
-        SELECT COALESCE(SUM(p.totalNet), 0)
-        FROM PayrollEntity p
-        WHERE p.deletedAt IS NULL
-        AND (:subsidiaryId IS NULL OR p.subsidiary.id = :subsidiaryId)
-        AND (:periodId IS NULL OR p.period.id = :periodId)
-    """)
-    Double getTotalAmountByFilters(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("periodId") Integer periodId
-    );
+    boolean existsByPeriodId(Integer periodId);
 
-    @Query("""
-        SELECT COUNT(p)
-        FROM PayrollEntity p
-        JOIN p.state s
-        WHERE p.deletedAt IS NULL
-        AND s.code IN ('DRAFT', 'IN_PROGRESS')
-        AND (:subsidiaryId IS NULL OR p.subsidiary.id = :subsidiaryId)
-        AND (:periodId IS NULL OR p.period.id = :periodId)
-    """)
-    Long countPendingByFilters(
-            @Param("subsidiaryId") Short subsidiaryId,
-            @Param("periodId") Integer periodId
-    );
+    boolean existsByPayrollConfigurationId(Long payrollConfigurationId);
 }
@@ -6,14 +6,17 @@ import com.agropay.core.organization.persistence.ICompanyRepository;
 import com.agropay.core.payroll.domain.PayrollConceptAssignmentEntity;
 import com.agropay.core.payroll.domain.PayrollConfigurationConceptEntity;
 import com.agropay.core.payroll.domain.PayrollConfigurationEntity;
+import com.agropay.core.payroll.events.PayrollChangedEvent;
 import com.agropay.core.payroll.domain.PayrollDetailEntity;
 import com.agropay.core.payroll.domain.PayrollEntity;
 import com.agropay.core.payroll.domain.PayrollPeriodEntity;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
+import com.agropay.core.payroll.enums.PayrollLaunchMode;
 import com.agropay.core.payroll.enums.PayrollState;
 import com.agropay.core.payroll.mapper.PayrollMapper;
 import com.agropay.core.payroll.model.payroll.CommandPayrollResponse;
 import com.agropay.core.payroll.model.payroll.CreatePayrollRequest;
+import com.agropay.core.payroll.model.payroll.LaunchPayrollRequest;
 import com.agropay.core.payroll.model.payroll.PayrollListDTO;
 import com.agropay.core.payroll.model.payroll.PayrollPageableRequest;
 import com.agropay.core.payroll.model.payroll.PayrollSummaryDTO;
@@ -32,6 +35,7 @@ import com.agropay.core.organization.domain.CompanySubsidiarySignerEntity;
 import com.agropay.core.payroll.persistence.specification.PayrollSpecifications;
 import com.agropay.core.payroll.service.usecase.IPayrollService;
 import com.agropay.core.shared.exceptions.BusinessValidationException;
+import com.agropay.core.shared.utils.PageEnrichment;
 import com.agropay.core.shared.utils.PagedResult;
 import com.agropay.core.states.domain.StateEntity;
 import com.agropay.core.states.persistence.StateRepository;
@@ -51,6 +55,7 @@ import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -94,6 +99,7 @@ public class PayrollService implements IPayrollService {
     private final IHarvestRecordRepository harvestRecordRepository;
     private final IWorkCalendarRepository workCalendarRepository;
     private final IConceptRepository conceptRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CommandPayrollResponse createPayroll(CreatePayrollRequest request) {
@@ -166,6 +172,7 @@ public class PayrollService implements IPayrollService {
             .build();
 
         payrollRepository.save(payroll);
+        eventPublisher.publishEvent(new PayrollChangedEvent(this, subsidiary.getId()));
         log.info("Created new payroll with code: {} - {} employees to process, {} tareos to process", 
             payrollCode, employeesToProcess, tareosToProcess);
 
@@ -198,19 +205,27 @@ public class PayrollService implements IPayrollService {
 
     @Override
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public CommandPayrollResponse launchPayrollCalculation(UUID payrollPublicId) {
+    public CommandPayrollResponse launchPayrollCalculation(UUID payrollPublicId, LaunchPayrollRequest request) {
+        PayrollLaunchMode mode = request != null && request.mode() != null ? request.mode() : PayrollLaunchMode.FULL;
+
         // Primero, ejecutar las validaciones y actualización del estado en una transacción
-        PayrollEntity payroll = preparePayrollForCalculation(payrollPublicId);
+        PayrollEntity payroll = preparePayrollForCalculation(payrollPublicId, mode);
 
         // Lanzar el job fuera de la transacción (Spring Batch requiere esto)
         try {
-            JobParameters jobParameters = new JobParametersBuilder()
+            JobParametersBuilder jobParametersBuilder = new JobParametersBuilder()
                 .addString("payrollPublicId", payroll.getPublicId().toString())
                 .addLong("time", System.currentTimeMillis())
-                .toJobParameters();
+                // DELTA solo reprocesa empleados cuya huella de entradas cambió desde el último cálculo
+                .addString("mode", mode.name());
+            if (request != null && request.partitionCount() != null) {
+                // Cantidad de particiones del step de empleados; si no se envía, se usa la configuración por defecto
+                jobParametersBuilder.addLong("partitionCount", request.partitionCount().longValue());
+            }
+            JobParameters jobParameters = jobParametersBuilder.toJobParameters();
 
-            log.info("🚀 Lanzando job de procesamiento de planilla: Code={}, ID={}, Periodo={} a {}", 
-                payroll.getCode(), payroll.getId(), payroll.getPeriodStart(), payroll.getPeriodEnd());
+            log.info("🚀 Lanzando job de procesamiento de planilla: Code={}, ID={}, Periodo={} a {}, Modo={}", 
+                payroll.getCode(), payroll.getId(), payroll.getPeriodStart(), payroll.getPeriodEnd(), mode);
             
             jobLauncher.run(payrollProcessingJob, jobParameters);
             
@@ -233,10 +248,11 @@ public class PayrollService implements IPayrollService {
 
     /**
      * Prepara la planilla para el cálculo: valida y actualiza el estado.
+     * FULL requiere estado BORRADOR; DELTA requiere estado CALCULADA.
      * Este método se ejecuta dentro de una transacción.
      */
     @Transactional
-    private PayrollEntity preparePayrollForCalculation(UUID payrollPublicId) {
+    private PayrollEntity preparePayrollForCalculation(UUID payrollPublicId, PayrollLaunchMode mode) {
         PayrollEntity payroll = payrollRepository.findByPublicId(payrollPublicId)
             .orElseThrow(() -> new BusinessValidationException(
                 "exception.payroll.not-found",
@@ -244,7 +260,14 @@ public class PayrollService implements IPayrollService {
             ));
 
         PayrollState currentState = PayrollState.fromCode(payroll.getState().getCode());
-        if (!currentState.canLaunchCalculation()) {
+        if (mode == PayrollLaunchMode.DELTA) {
+            if (!currentState.canRecalculateDelta()) {
+                throw new BusinessValidationException(
+                    "exception.payroll.launch.delta-invalid-state",
+                    currentState.getDisplayName()
+                );
+            }
+        } else if (!currentState.canLaunchCalculation()) {
             throw new BusinessValidationException(
                 "exception.payroll.launch.invalid-state",
                 currentState.getDisplayName()
@@ -258,6 +281,7 @@ public class PayrollService implements IPayrollService {
             .orElseThrow(() -> new IllegalStateException("In Progress state for payroll not found."));
 
         payroll.setState(inProgressState);
+        eventPublisher.publishEvent(new PayrollChangedEvent(this, payroll.getSubsidiary().getId()));
         return payrollRepository.save(payroll);
     }
 
@@ -266,16 +290,22 @@ public class PayrollService implements IPayrollService {
     public PagedResult<PayrollListDTO> listPayrolls(PayrollPageableRequest request) {
         Specification<PayrollEntity> spec = PayrollSpecifications.from(request);
         Page<PayrollEntity> payrollPage = payrollRepository.findAll(spec, request.toPageable());
+
+        // Enriquecer con hasPayslips, tareos procesados y empleados procesados (progreso en tiempo real):
+        // una consulta agrupada por dato para toda la página, en la transacción de la lista
+        List<Long> payrollIds = payrollPage.getContent().stream().map(PayrollEntity::getId).toList();
+        Set<Long> payrollsWithPayslips = PageEnrichment.matching(payrollIds, payrollDetailRepository::findPayrollIdsWithPayslips);
+        Map<Long, Long> processedTareosByPayroll = PageEnrichment.counts(payrollIds, payrollDetailRepository::countProcessedTareosByPayrollIds);
+        Map<Long, Long> processedEmployeesByPayroll = PageEnrichment.counts(payrollIds, payrollDetailRepository::countProcessedEmployeesByPayrollIds);
+
         Page<PayrollListDTO> dtoPage = payrollPage.map(entity -> {
             PayrollListDTO dto = payrollMapper.toListDTO(entity);
-            // Enriquecer con hasPayslips, tareos procesados y empleados procesados (progreso en tiempo real)
-            Boolean hasPayslips = payrollDetailRepository.hasPayslips(entity.getId());
-            Long processedTareos = payrollDetailRepository.countProcessedTareosByPayrollId(entity.getId());
-            Long processedEmployees = payrollDetailRepository.countProcessedEmployeesByPayrollId(entity.getId());
-            
+            boolean hasPayslips = payrollsWithPayslips.contains(entity.getId());
+            Long processedTareos = processedTareosByPayroll.getOrDefault(entity.getId(), 0L);
+
             // totalEmployees en la entidad es el total estimado, pero en el DTO mostramos los procesados
             // para ver el progreso en tiempo real cuando se refresca la lista
-            Integer employeesProcessed = processedEmployees != null ? processedEmployees.intValue() : 0;
+            Integer employeesProcessed = processedEmployeesByPayroll.getOrDefault(entity.getId(), 0L).intValue();
             
             log.debug("Payroll {} - Total estimado: {}, Procesados: {}, Tareos procesados: {}", 
                 entity.getCode(), entity.getTotalEmployees(), employeesProcessed, processedTareos);
@@ -287,8 +317,8 @@ public class PayrollService implements IPayrollService {
                 dto.periodName(),
                 dto.stateName(),
                 employeesProcessed, // Mostrar empleados procesados (progreso en tiempo real)
-                processedTareos != null ? processedTareos : 0L,
-                hasPayslips != null ? hasPayslips : false,
+                processedTareos,
+                hasPayslips,
                 dto.createdAt(),
                 dto.updatedAt()
             );
@@ -324,6 +354,7 @@ public class PayrollService implements IPayrollService {
 
         // Soft delete the payroll
         payrollRepository.softDelete(payroll.getId(), "SYSTEM");
+        eventPublisher.publishEvent(new PayrollChangedEvent(this, payroll.getSubsidiary().getId()));
         log.info("Soft-deleted payroll: {}", payroll.getCode());
     }
 
@@ -422,6 +453,7 @@ public class PayrollService implements IPayrollService {
 
         payroll.setState(cancelledState);
         payrollRepository.save(payroll);
+        eventPublisher.publishEvent(new PayrollChangedEvent(this, payroll.getSubsidiary().getId()));
         
         log.info("Payroll {} cancelled successfully", payroll.getCode());
         return payrollMapper.toCommandResponse(payroll);
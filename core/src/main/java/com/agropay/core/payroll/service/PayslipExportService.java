@@ -0,0 +1,191 @@
+package com.agropay.core.payroll.service;
+
+import com.agropay.core.files.application.usecase.IInternalFileStorageUseCase;
+import com.agropay.core.files.constant.FileCategory;
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.enums.PayslipExportFormat;
+import com.agropay.core.payroll.model.payslip.PayslipExport;
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import com.agropay.core.payroll.persistence.IPayrollRepository;
+import com.agropay.core.shared.exceptions.BusinessValidationException;
+import com.agropay.core.shared.exceptions.IdentifierNotFoundException;
+import com.agropay.core.shared.utils.InClauseUtils;
+import com.agropay.core.shared.utils.StoredZipWriter;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.kernel.utils.PdfMergerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Exportación masiva de las boletas ya generadas de una planilla, como un único PDF o un ZIP.
+ *
+ * La respuesta se escribe directo al OutputStream a partir de tbl_internal_files:
+ * - prepareExport solo consulta metadatos (ID, nombre, tamaño), nunca el contenido
+ * - Al escribir, el contenido se lee en bloques de payroll.payslip.export.fetch-size boletas,
+ *   así la memoria usada no depende del tamaño de la planilla
+ * - El ZIP tiene largo conocido de antemano y admite rangos (ver StoredZipWriter)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayslipExportService {
+
+    private final IPayrollRepository payrollRepository;
+    private final IPayrollDetailRepository payrollDetailRepository;
+    private final IInternalFileStorageUseCase internalFileStorageService;
+
+    @Value("${payroll.payslip.export.fetch-size:50}")
+    private int fetchSize;
+
+    /**
+     * Resuelve las boletas a exportar
+     *
+     * @param documentNumbers Empleados a incluir; null o vacío incluye a todos los de la planilla
+     */
+    public PayslipExport prepareExport(UUID payrollPublicId, List<String> documentNumbers, PayslipExportFormat format) {
+        PayrollEntity payroll = payrollRepository.findByPublicId(payrollPublicId)
+            .orElseThrow(() -> new IdentifierNotFoundException("exception.payroll.not-found", payrollPublicId.toString()));
+
+        List<Object[]> rows;
+        if (documentNumbers == null || documentNumbers.isEmpty()) {
+            rows = payrollDetailRepository.findFilesByPayrollId(
+                payroll.getId(), PayrollDetailEntity.TABLE_NAME, FileCategory.PAYSLIP.getCode());
+        } else {
+            // Bloques ordenados para que, concatenados, conserven el orden por documento de la consulta
+            rows = new ArrayList<>();
+            for (List<String> block : InClauseUtils.partition(new TreeSet<>(documentNumbers))) {
+                rows.addAll(payrollDetailRepository.findFilesByPayrollIdAndEmployees(
+                    payroll.getId(), block, PayrollDetailEntity.TABLE_NAME, FileCategory.PAYSLIP.getCode()));
+            }
+        }
+
+        List<PayslipExport.Entry> entries = rows.stream()
+            .map(row -> new PayslipExport.Entry((Long) row[0], (String) row[1], (Long) row[2], (LocalDateTime) row[3]))
+            .toList();
+        if (entries.isEmpty()) {
+            throw new BusinessValidationException("exception.payroll.payslip.export.empty", payroll.getCode());
+        }
+
+        StoredZipWriter zip = null;
+        if (format == PayslipExportFormat.ZIP) {
+            try {
+                zip = new StoredZipWriter(zipEntries(entries));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessValidationException("exception.payroll.payslip.export.too-large", entries.size());
+            }
+        }
+
+        log.info("Exportación de boletas preparada. Planilla: {}, formato: {}, boletas: {}",
+            payroll.getCode(), format, entries.size());
+        return new PayslipExport(payroll.getCode(), format, entries, zip, etag(format, entries));
+    }
+
+    /**
+     * Escribe los bytes [start, end] (inclusive) del ZIP de la exportación
+     */
+    public void writeZip(PayslipExport export, long start, long end, OutputStream out) throws IOException {
+        BlockContentSource source = new BlockContentSource(export.entries());
+        export.zip().write(out, start, end, source::content);
+        log.info("ZIP de boletas enviado. Planilla: {}, bytes [{} - {}] de {}, boletas leídas: {}",
+            export.payrollCode(), start, end, export.zip().length(), source.loaded);
+    }
+
+    /**
+     * Escribe un único PDF con todas las boletas de la exportación, en su orden
+     */
+    public void writeMergedPdf(PayslipExport export, OutputStream out) throws IOException {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        BlockContentSource source = new BlockContentSource(export.entries());
+
+        try (PdfDocument merged = new PdfDocument(writer)) {
+            PdfMerger merger = new PdfMerger(merged, new PdfMergerProperties()
+                .setMergeTags(false)
+                .setMergeOutlines(false));
+            for (int i = 0; i < export.entries().size(); i++) {
+                PdfDocument payslip = new PdfDocument(new PdfReader(new ByteArrayInputStream(source.content(i))));
+                merger.merge(payslip, 1, payslip.getNumberOfPages());
+                // Escribe las páginas ya copiadas para no acumular la planilla entera en memoria
+                merged.flushCopiedObjects(payslip);
+                payslip.close();
+            }
+        }
+        log.info("PDF de boletas enviado. Planilla: {}, boletas: {}", export.payrollCode(), export.entries().size());
+    }
+
+    private static List<StoredZipWriter.Entry> zipEntries(List<PayslipExport.Entry> entries) {
+        Set<String> names = new HashSet<>();
+        return entries.stream()
+            .map(entry -> {
+                String name = entry.fileName();
+                // Un nombre repetido sobrescribiría otra boleta al descomprimir
+                if (!names.add(name)) {
+                    name = entry.fileId() + "_" + name;
+                    names.add(name);
+                }
+                return new StoredZipWriter.Entry(name, entry.fileSize(), entry.createdAt());
+            })
+            .toList();
+    }
+
+    private static String etag(PayslipExportFormat format, List<PayslipExport.Entry> entries) {
+        StringBuilder key = new StringBuilder(format.name());
+        for (PayslipExport.Entry entry : entries) {
+            key.append(';').append(entry.fileId()).append(':').append(entry.fileSize());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Entrega el contenido de las boletas en orden, leyéndolo de la BD en bloques de fetchSize
+     */
+    private final class BlockContentSource {
+
+        private final List<PayslipExport.Entry> entries;
+        private final Map<Long, byte[]> block = new HashMap<>();
+        private int loaded;
+
+        BlockContentSource(List<PayslipExport.Entry> entries) {
+            this.entries = entries;
+        }
+
+        byte[] content(int index) throws IOException {
+            Long fileId = entries.get(index).fileId();
+            if (!block.containsKey(fileId)) {
+                block.clear();
+                List<Long> ids = entries.subList(index, Math.min(index + fetchSize, entries.size())).stream()
+                    .map(PayslipExport.Entry::fileId)
+                    .toList();
+                block.putAll(internalFileStorageService.getContents(ids));
+            }
+
+            byte[] content = block.remove(fileId);
+            if (content == null) {
+                throw new IOException("No se encontró el contenido del archivo " + fileId);
+            }
+            loaded++;
+            return content;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import com.agropay.core.payroll.domain.PayrollDetailEntity;
 import com.agropay.core.payroll.domain.PayrollEntity;
 import com.agropay.core.payroll.domain.enums.ConceptCode;
 import com.agropay.core.payroll.domain.enums.DayOfWeekAbbreviation;
+import com.agropay.core.payroll.model.payslip.PayslipRenderAssets;
+import com.agropay.core.payroll.model.payslip.PayslipTemplate;
 import com.agropay.core.payroll.persistence.IConceptRepository;
 import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
 import com.agropay.core.payroll.persistence.IPayrollRepository;
@@ -27,15 +29,27 @@ import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Canvas;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.RootElement;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
 import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -46,6 +60,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -88,6 +103,12 @@ public class PayslipPdfService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.forLanguageTag("es-PE"));
+    private static final DateTimeFormatter GENERATED_AT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Ancho útil de la página A4 con los márgenes por defecto del Document (36 pt por lado)
+    private static final float PAGE_CONTENT_WIDTH = PageSize.A4.getWidth() - 72;
+    // Columna de firmas del footer (60% de la tabla) sin el padding por defecto de la celda (2 pt por lado)
+    private static final float SIGNATURES_COLUMN_WIDTH = PAGE_CONTENT_WIDTH * 0.6f - 4;
 
     /**
      * Genera un PDF de ejemplo con datos mock para visualización
@@ -571,273 +592,399 @@ public class PayslipPdfService {
                 .findByPayrollIdAndEmployeeDocumentNumber(payroll.getId(), employeeDocumentNumber)
                 .orElseThrow(() -> new IdentifierNotFoundException("exception.payroll.detail.not-found", employeeDocumentNumber));
 
-            CompanyEntity company = companyRepository.getPrimaryCompany()
-                .orElseThrow(() -> new IdentifierNotFoundException("exception.organization.company.not-found"));
-
+            // Solo se resuelve el responsable de firma de la subsidiaria del empleado
             EmployeeEntity employee = detail.getEmployee();
-            PersonEntity person = employee.getPerson();
-            PositionEntity position = employee.getPosition();
+            Map<Short, String> subsidiaries = new HashMap<>();
+            subsidiaries.put(
+                employee.getSubsidiary() != null ? employee.getSubsidiary().getId() : null,
+                employee.getSubsidiary() != null ? employee.getSubsidiary().getName() : "Empresa");
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
+            return renderPayslip(detail, loadRenderAssets(payroll, subsidiaries));
 
-            // Fuentes
-            PdfFont fontNormal = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-            PdfFont fontBold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        } catch (BusinessValidationException | IdentifierNotFoundException e) {
+            // Re-lanzar excepciones de negocio y de recursos no encontrados sin modificar
+            throw e;
+        } catch (Exception e) {
+            log.error("Error generating payslip PDF", e);
+            throw new BusinessValidationException("exception.payroll.payslip.generation-error", e.getMessage());
+        }
+    }
 
-            // Ancho de página A4
-            float pageWidth = 595; // A4 width in points
-            float margin = 40;
+    /**
+     * Resuelve los recursos comunes a las boletas de una planilla: cabecera y logo de la empresa,
+     * textos del período, fuentes, nombres de conceptos y el responsable de firma de cada subsidiaria
+     * (con su imagen descargada y, si es SVG, convertida a PNG).
+     *
+     * La generación masiva lo llama una sola vez por job y comparte el resultado entre todos los hilos.
+     *
+     * @param payroll Planilla de las boletas
+     * @param subsidiaryNames Subsidiarias de los empleados (id → nombre, usado en el mensaje de error)
+     */
+    public PayslipRenderAssets loadRenderAssets(PayrollEntity payroll, Map<Short, String> subsidiaryNames) throws IOException {
+        CompanyEntity company = companyRepository.getPrimaryCompany()
+            .orElseThrow(() -> new IdentifierNotFoundException("exception.organization.company.not-found"));
 
-            // ============================================
-            // HEADER: Información de la empresa (2 columnas: info izquierda, logo derecha)
-            // ============================================
-            Table headerTable = new Table(UnitValue.createPercentArray(new float[]{0.7f, 0.3f}))
-                .setWidth(UnitValue.createPercentValue(100))
-                .setMarginBottom(5);
+        Optional<AddressEntity> primaryAddress = addressService.findPrimaryByEntity(company);
+        String addressText = primaryAddress.map(AddressEntity::getAddressText).orElse("");
+        String phone = getCompanyPrimaryPhone(company);
+        String contactLine = !phone.isEmpty() || !addressText.isEmpty()
+            ? "TELF: " + phone + (phone.isEmpty() ? "" : " - ") + addressText
+            : null;
+
+        ImageData companyLogo = null;
+        if (company.getLogoUrl() != null && !company.getLogoUrl().isEmpty()) {
+            try {
+                log.info("Intentando cargar logo de la empresa desde URL: {}", company.getLogoUrl());
+                // Descargar y convertir la imagen a bytes (soporta WebP)
+                companyLogo = ImageDataFactory.create(downloadImageAsBytes(company.getLogoUrl()));
+                log.info("Logo de la empresa cargado exitosamente. Dimensiones: {}x{} px", companyLogo.getWidth(), companyLogo.getHeight());
+            } catch (Exception e) {
+                log.error("No se pudo cargar el logo de la empresa desde URL: {}. Error: {}", company.getLogoUrl(), e.getMessage(), e);
+            }
+        } else {
+            log.warn("La empresa no tiene logo_url configurado. Logo no se mostrará en la boleta.");
+        }
 
-            // Columna izquierda: Información de la empresa
-            Optional<AddressEntity> primaryAddress = addressService.findPrimaryByEntity(company);
-            String addressText = primaryAddress.map(AddressEntity::getAddressText).orElse("");
-            String phone = getCompanyPrimaryPhone(company);
+        String monthName = payroll.getPeriodStart().format(MONTH_FORMATTER).toUpperCase();
+        String weekInfo = null;
+        if (payroll.getWeekStart() != null && payroll.getWeekEnd() != null) {
+            weekInfo = String.format("DE SEMANA: %d DESDE %s / A SEMANA: %d HASTA %s",
+                payroll.getWeekStart(),
+                payroll.getPeriodStart().format(DATE_FORMATTER),
+                payroll.getWeekEnd(),
+                payroll.getPeriodEnd().format(DATE_FORMATTER));
+        }
 
-            Cell leftCell = new Cell();
-            leftCell.add(new Paragraph(company.getTradeName()).setFont(fontBold).setFontSize(10));
-            if (!phone.isEmpty() || !addressText.isEmpty()) {
-                leftCell.add(new Paragraph("TELF: " + phone + (phone.isEmpty() ? "" : " - ") + addressText)
-                    .setFont(fontNormal).setFontSize(7));
-            }
-            leftCell.add(new Paragraph("R.U.C.: " + company.getRuc()).setFont(fontNormal).setFontSize(7));
-            leftCell.setBorder(Border.NO_BORDER);
-            leftCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
-            headerTable.addCell(leftCell);
+        Map<Short, String> conceptNames = new HashMap<>();
+        for (ConceptEntity concept : conceptRepository.findAll()) {
+            conceptNames.put(concept.getId(), concept.getName());
+        }
 
-            // Columna derecha: Logo de la empresa
-            Cell logoCell = new Cell();
-            if (company.getLogoUrl() != null && !company.getLogoUrl().isEmpty()) {
-                try {
-                    log.info("Intentando cargar logo de la empresa desde URL: {}", company.getLogoUrl());
-                    // Descargar y convertir la imagen a bytes (soporta WebP)
-                    byte[] imageBytes = downloadImageAsBytes(company.getLogoUrl());
-                    Image logoImage = new Image(ImageDataFactory.create(imageBytes));
-                    logoImage.setWidth(80); // Ancho del logo en puntos
-                    logoImage.setAutoScale(true);
-                    logoCell.add(logoImage);
-                    log.info("Logo de la empresa cargado exitosamente. Dimensiones: {}x{} puntos", logoImage.getImageWidth(), logoImage.getImageHeight());
-                } catch (Exception e) {
-                    log.error("No se pudo cargar el logo de la empresa desde URL: {}. Error: {}", company.getLogoUrl(), e.getMessage(), e);
-                }
-            } else {
-                log.warn("La empresa no tiene logo_url configurado. Logo no se mostrará en la boleta.");
-            }
-            logoCell.setBorder(Border.NO_BORDER);
-            logoCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
-            logoCell.setTextAlignment(TextAlignment.RIGHT);
-            headerTable.addCell(logoCell);
+        // Las subsidiarias sin responsable propio comparten el de la empresa: la firma se descarga una vez por URL
+        Map<String, ImageData> signatureImages = new HashMap<>();
+        Map<Short, PayslipRenderAssets.Signer> signers = new HashMap<>();
+        subsidiaryNames.forEach((subsidiaryId, subsidiaryName) ->
+            signers.put(subsidiaryId, resolveSigner(company, subsidiaryId, subsidiaryName, signatureImages)));
+
+        return new PayslipRenderAssets(
+            payroll.getPublicId(),
+            payroll.getCode(),
+            company.getTradeName(),
+            contactLine,
+            company.getRuc(),
+            companyLogo,
+            monthName,
+            weekInfo,
+            FontProgramFactory.createFont(StandardFonts.HELVETICA),
+            FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD),
+            Collections.unmodifiableMap(conceptNames),
+            Collections.unmodifiableMap(signers),
+            null
+        );
+    }
 
-            document.add(headerTable);
+    /**
+     * Genera el PDF de la boleta de un detalle con recursos ya resueltos.
+     *
+     * No consulta la BD (el detalle debe traer empleado, persona, cargo y subsidiaria cargados)
+     * y puede llamarse en paralelo con los mismos recursos.
+     */
+    public byte[] renderPayslip(PayrollDetailEntity detail, PayslipRenderAssets assets) throws IOException {
+        if (assets.template() == null) {
+            return renderPayslip(detail, assets, null);
+        }
+        // Un lector por boleta (PdfDocument no admite copias concurrentes), cerrado aunque falle la maquetación
+        try (PdfDocument template = new PdfDocument(new PdfReader(new ByteArrayInputStream(assets.template().pdf())))) {
+            return renderPayslip(detail, assets, template);
+        }
+    }
 
-            // ============================================
-            // Título y subtítulo
-            // ============================================
-            String monthName = payroll.getPeriodStart().format(MONTH_FORMATTER).toUpperCase();
-            
-            Paragraph title = new Paragraph("BOLETA DE REMUNERACIONES")
-                .setFont(fontBold)
-                .setFontSize(11)
-                .setTextAlignment(TextAlignment.LEFT)
-                .setMarginBottom(2);
-            document.add(title);
+    /**
+     * @param template Plantilla de la planilla abierta para lectura; null maqueta cabecera y firma en el documento
+     */
+    private byte[] renderPayslip(PayrollDetailEntity detail, PayslipRenderAssets assets, PdfDocument template) throws IOException {
+        EmployeeEntity employee = detail.getEmployee();
+        PersonEntity person = employee.getPerson();
+        PositionEntity position = employee.getPosition();
+        Short subsidiaryId = employee.getSubsidiary() != null ? employee.getSubsidiary().getId() : null;
+        PayslipRenderAssets.Signer hrManager = assets.signerFor(subsidiaryId);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter writer = new PdfWriter(baos);
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        Document document = new Document(pdfDoc);
+
+        // Fuentes (un PdfFont por documento, sobre el FontProgram compartido)
+        PdfFont fontNormal = PdfFontFactory.createFont(assets.regularFont());
+        PdfFont fontBold = PdfFontFactory.createFont(assets.boldFont());
+
+        // ============================================
+        // HEADER: Empresa, logo, título y período (iguales para todas las boletas de la planilla)
+        // ============================================
+        if (template != null) {
+            document.add(templateBlock(template, PayslipTemplate.HEADER_PAGE, pdfDoc));
+        } else {
+            addPayslipHeader(document, assets, fontBold, fontNormal);
+        }
 
-            Paragraph subtitle = new Paragraph("D.S. 001-98 TR - LEY 31110 - OBREROS REG.AGRARIO")
-                .setFont(fontNormal)
-                .setFontSize(8)
-                .setTextAlignment(TextAlignment.LEFT)
-                .setMarginBottom(3);
-            document.add(subtitle);
+        // ============================================
+        // Información del empleado
+        // ============================================
+        addEmployeeInfo(document, person, position, employee, assets.conceptNames(), fontBold, fontNormal);
+
+        // ============================================
+        // TABLA PRINCIPAL: REMUNERACIONES | DESCUENTOS | APORTACIONES | TIEMPOS
+        // ============================================
+        Map<String, Object> calculatedConcepts = parseCalculatedConcepts(detail.getCalculatedConcepts());
+        addMainFinancialTable(document, calculatedConcepts, detail, fontBold, fontNormal);
+
+        // ============================================
+        // NETO A PAGAR
+        // ============================================
+        Paragraph neto = new Paragraph("NETO A PAGAR: " + formatCurrency(detail.getNetToPay()))
+            .setFont(fontBold)
+            .setFontSize(8)
+            .setTextAlignment(TextAlignment.RIGHT)
+            .setMarginTop(5)
+            .setMarginBottom(5);
+        document.add(neto);
+
+        // ============================================
+        // REGISTRO DIARIO (Daily Log)
+        // ============================================
+        addRegistroDiario(document, detail, fontBold, fontNormal);
+
+        // ============================================
+        // FOOTER: Firmas (columna izquierda) y QR (columna derecha)
+        // ============================================
+        Table footerTable = new Table(UnitValue.createPercentArray(new float[]{0.6f, 0.4f}))
+            .setWidth(UnitValue.createPercentValue(100))
+            .setMarginTop(20);
+
+        // Columna izquierda: Firmas (Empleado y Jefe de RRHH)
+        Cell signaturesCell = new Cell();
 
-            Paragraph mes = new Paragraph("MES: " + monthName)
+        // Firma del empleado
+        signaturesCell.add(new Paragraph("_________________________").setFont(fontNormal).setFontSize(8).setMarginTop(10));
+
+        String fullName = String.format("%s %s %s",
+            person.getNames(),
+            person.getPaternalLastname(),
+            person.getMaternalLastname());
+        signaturesCell.add(new Paragraph(fullName).setFont(fontNormal).setFontSize(7).setMarginTop(3));
+        signaturesCell.add(new Paragraph("D.N.I.: " + person.getDocumentNumber())
+            .setFont(fontNormal).setFontSize(7).setMarginTop(2));
+        String cargo = position != null ? position.getName() : "N/A";
+        signaturesCell.add(new Paragraph(cargo).setFont(fontNormal).setFontSize(7).setMarginTop(2));
+
+        // Espacio entre firmas (separación más amplia)
+        signaturesCell.add(new Paragraph(" ").setFont(fontNormal).setFontSize(5).setMarginTop(25));
+
+        // Firma del Jefe de RRHH
+        Integer signerPage = template != null ? assets.template().signerPages().get(subsidiaryId) : null;
+        if (signerPage != null) {
+            signaturesCell.add(templateBlock(template, signerPage, pdfDoc));
+        } else {
+            signaturesCell.add(signerBlock(hrManager, fontNormal));
+        }
+
+        signaturesCell.setBorder(Border.NO_BORDER);
+        footerTable.addCell(signaturesCell);
+
+        // Columna derecha: Código QR
+        Cell qrCell = new Cell();
+        try {
+            // Generar código QR con el public_id del detalle de planilla para búsqueda en BD
+            // El QR contiene el publicId del PayrollDetailEntity para búsqueda directa
+            String qrData = generateQrData(detail.getPublicId().toString());
+            log.debug("Generando código QR para boleta. Public ID: {}", detail.getPublicId());
+            // Generar QR con tamaño mínimo de 200x200 píxeles para garantizar escaneo
+            byte[] qrImageBytes = generateQrCode(qrData, 200, 200);
+
+            Image qrImage = new Image(ImageDataFactory.create(qrImageBytes));
+            qrImage.setWidth(50); // Ancho en puntos PDF (ajustable según diseño)
+            qrImage.setAutoScale(true);
+
+            qrCell.add(qrImage);
+
+            // Fecha de generación y consulta
+            LocalDateTime now = LocalDateTime.now();
+            Paragraph qrInfo = new Paragraph("Generado el: " + now.format(GENERATED_AT_FORMATTER))
                 .setFont(fontNormal)
-                .setFontSize(9)
-                .setTextAlignment(TextAlignment.LEFT)
-                .setMarginBottom(2);
-            document.add(mes);
+                .setFontSize(5)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(3);
+            qrCell.add(qrInfo);
 
-            if (payroll.getWeekStart() != null && payroll.getWeekEnd() != null) {
-                String weekInfo = String.format("DE SEMANA: %d DESDE %s / A SEMANA: %d HASTA %s",
-                    payroll.getWeekStart(),
-                    payroll.getPeriodStart().format(DATE_FORMATTER),
-                    payroll.getWeekEnd(),
-                    payroll.getPeriodEnd().format(DATE_FORMATTER));
-                
-                Paragraph weeks = new Paragraph(weekInfo)
-                    .setFont(fontNormal)
-                    .setFontSize(9)
-                    .setTextAlignment(TextAlignment.LEFT)
-                    .setMarginBottom(10);
-                document.add(weeks);
-            }
+            // Mostrar solo el UUID sin el prefijo PAYSLIP: (truncado para ahorrar espacio)
+            String displayCode = qrData.replace("PAYSLIP:", "");
+            Paragraph qrQuery = new Paragraph("Código: " + displayCode.substring(0, Math.min(20, displayCode.length())) + "...")
+                .setFont(fontNormal)
+                .setFontSize(4)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(2);
+            qrCell.add(qrQuery);
+        } catch (Exception e) {
+            log.error("No se pudo generar el código QR: {}", e.getMessage(), e);
+        }
+        qrCell.setBorder(Border.NO_BORDER);
+        qrCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
+        qrCell.setTextAlignment(TextAlignment.CENTER);
+        footerTable.addCell(qrCell);
 
-            // ============================================
-            // Información del empleado
-            // ============================================
-            addEmployeeInfo(document, person, position, employee, fontBold, fontNormal);
+        document.add(footerTable);
 
-            // ============================================
-            // TABLA PRINCIPAL: REMUNERACIONES | DESCUENTOS | APORTACIONES | TIEMPOS
-            // ============================================
-            Map<String, Object> calculatedConcepts = parseCalculatedConcepts(detail.getCalculatedConcepts());
-            addMainFinancialTable(document, calculatedConcepts, detail, fontBold, fontNormal);
+        document.close();
+        return baos.toByteArray();
+    }
 
-            // ============================================
-            // NETO A PAGAR
-            // ============================================
-            Paragraph neto = new Paragraph("NETO A PAGAR: " + formatCurrency(detail.getNetToPay()))
-                .setFont(fontBold)
-                .setFontSize(8)
-                .setTextAlignment(TextAlignment.RIGHT)
-                .setMarginTop(5)
-                .setMarginBottom(5);
-            document.add(neto);
+    /**
+     * Construye la plantilla de la boleta para una planilla: la cabecera y el bloque de firma del
+     * responsable de cada subsidiaria se dibujan una sola vez, cada uno en una página recortada a su
+     * contenido. renderPayslip copia esas páginas como form XObjects: el logo y las firmas se copian
+     * ya comprimidos (sin volver a codificar las imágenes) y solo se maquetan las secciones del empleado.
+     *
+     * @return Los mismos recursos con la plantilla incluida
+     */
+    public PayslipRenderAssets withTemplate(PayslipRenderAssets assets) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Map<Short, Integer> signerPages = new HashMap<>();
 
-            // ============================================
-            // REGISTRO DIARIO (Daily Log)
-            // ============================================
-            addRegistroDiario(document, detail, fontBold, fontNormal);
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos))) {
+            PdfFont fontNormal = PdfFontFactory.createFont(assets.regularFont());
+            PdfFont fontBold = PdfFontFactory.createFont(assets.boldFont());
 
-            // ============================================
-            // FOOTER: Firmas (columna izquierda) y QR (columna derecha)
-            // ============================================
-            Table footerTable = new Table(UnitValue.createPercentArray(new float[]{0.6f, 0.4f}))
-                .setWidth(UnitValue.createPercentValue(100))
-                .setMarginTop(20);
+            addTemplatePage(pdfDoc, PAGE_CONTENT_WIDTH, canvas -> addPayslipHeader(canvas, assets, fontBold, fontNormal));
 
-            // Columna izquierda: Firmas (Empleado y Jefe de RRHH)
-            Cell signaturesCell = new Cell();
-            
-            // Firma del empleado
-            signaturesCell.add(new Paragraph("_________________________").setFont(fontNormal).setFontSize(8).setMarginTop(10));
-            
-            String fullName = String.format("%s %s %s",
-                person.getNames(),
-                person.getPaternalLastname(),
-                person.getMaternalLastname());
-            signaturesCell.add(new Paragraph(fullName).setFont(fontNormal).setFontSize(7).setMarginTop(3));
-            signaturesCell.add(new Paragraph("D.N.I.: " + person.getDocumentNumber())
-                .setFont(fontNormal).setFontSize(7).setMarginTop(2));
-            String cargo = position != null ? position.getName() : "N/A";
-            signaturesCell.add(new Paragraph(cargo).setFont(fontNormal).setFontSize(7).setMarginTop(2));
-            
-            // Espacio entre firmas (separación más amplia)
-            signaturesCell.add(new Paragraph(" ").setFont(fontNormal).setFontSize(5).setMarginTop(25));
-            
-            // Firma del Jefe de RRHH
-            HrManagerInfo hrManager = getHrManagerInfo(company, employee);
-            
-            // Agregar imagen de firma si existe
-            if (hrManager.signatureImageUrl != null && !hrManager.signatureImageUrl.trim().isEmpty()) {
-                try {
-                    log.info("Intentando cargar firma del responsable desde URL: {}", hrManager.signatureImageUrl);
-                    byte[] signatureImageBytes = downloadImageAsBytes(hrManager.signatureImageUrl);
-                    
-                    // Verificar si el archivo es SVG (iText no soporta SVG directamente, convertir a PNG)
-                    String fileType = getFileTypeFromUrl(hrManager.signatureImageUrl);
-                    if (fileType != null && fileType.toLowerCase().contains("svg")) {
-                        log.info("Firma en formato SVG detectada. Convirtiendo a PNG... URL: {}", hrManager.signatureImageUrl);
-                        try {
-                            signatureImageBytes = convertSvgToPng(signatureImageBytes);
-                            log.info("Firma SVG convertida exitosamente a PNG. Nuevo tamaño: {} bytes", signatureImageBytes.length);
-                        } catch (Exception e) {
-                            log.error("Error al convertir firma SVG a PNG: {}", e.getMessage(), e);
-                            throw new BusinessValidationException("exception.payroll.payslip.signature.svg-conversion-error", e.getMessage());
-                        }
-                    }
-                    
-                    // Intentar crear la imagen
-                    Image signatureImage = new Image(ImageDataFactory.create(signatureImageBytes));
-                    signatureImage.setWidth(60); // Ancho de la firma en puntos PDF (reducido de 80 a 60)
-                    signatureImage.setAutoScale(true);
-                    signaturesCell.add(signatureImage.setMarginTop(5));
-                    log.info("Firma del responsable agregada exitosamente al PDF. Dimensiones: {}x{} puntos, URL: {}", 
-                            signatureImage.getImageWidth(), signatureImage.getImageHeight(), hrManager.signatureImageUrl);
-                } catch (BusinessValidationException e) {
-                    // Re-lanzar excepciones de negocio sin modificar
-                    throw e;
-                } catch (Exception e) {
-                    log.error("Error al cargar la imagen de firma desde URL: {}. Error completo: {}", 
-                            hrManager.signatureImageUrl, e.getMessage(), e);
-                    throw new BusinessValidationException("exception.payroll.payslip.signature.load-error", e.getMessage());
+            for (Map.Entry<Short, PayslipRenderAssets.Signer> entry : assets.signers().entrySet()) {
+                // Sin página: el error del responsable se lanza al generar cada boleta de la subsidiaria
+                if (entry.getValue().error() == null) {
+                    addTemplatePage(pdfDoc, SIGNATURES_COLUMN_WIDTH, canvas -> canvas.add(signerBlock(entry.getValue(), fontNormal)));
+                    signerPages.put(entry.getKey(), pdfDoc.getNumberOfPages());
                 }
-            } else {
-                log.warn("No hay URL de firma configurada para el responsable. Usando línea de texto.");
-                // Si no hay imagen, usar línea de texto
-                signaturesCell.add(new Paragraph("_________________________").setFont(fontNormal).setFontSize(8).setMarginTop(10));
             }
-            
-            signaturesCell.add(new Paragraph(hrManager.fullName).setFont(fontNormal).setFontSize(7).setMarginTop(3));
-            signaturesCell.add(new Paragraph("D.N.I.: " + hrManager.documentNumber)
-                .setFont(fontNormal).setFontSize(7).setMarginTop(2));
-            signaturesCell.add(new Paragraph(hrManager.position).setFont(fontNormal).setFontSize(7).setMarginTop(2));
-            
-            signaturesCell.setBorder(Border.NO_BORDER);
-            footerTable.addCell(signaturesCell);
+        }
 
-            // Columna derecha: Código QR
-            Cell qrCell = new Cell();
-            try {
-                // Generar código QR con el public_id del detalle de planilla para búsqueda en BD
-                // El QR contiene el publicId del PayrollDetailEntity para búsqueda directa
-                String qrData = generateQrData(detail.getPublicId().toString());
-                log.info("Generando código QR para boleta. Public ID: {}", detail.getPublicId());
-                // Generar QR con tamaño mínimo de 200x200 píxeles para garantizar escaneo
-                byte[] qrImageBytes = generateQrCode(qrData, 200, 200);
-                
-                Image qrImage = new Image(ImageDataFactory.create(qrImageBytes));
-                qrImage.setWidth(50); // Ancho en puntos PDF (ajustable según diseño)
-                qrImage.setAutoScale(true);
-                log.info("Código QR generado exitosamente para boleta");
-                
-                qrCell.add(qrImage);
-                
-                // Fecha de generación y consulta
-                LocalDateTime now = LocalDateTime.now();
-                Paragraph qrInfo = new Paragraph("Generado el: " + now.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
-                    .setFont(fontNormal)
-                    .setFontSize(5)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginTop(3);
-                qrCell.add(qrInfo);
-                
-                // Mostrar solo el UUID sin el prefijo PAYSLIP: (truncado para ahorrar espacio)
-                String displayCode = qrData.replace("PAYSLIP:", "");
-                Paragraph qrQuery = new Paragraph("Código: " + displayCode.substring(0, Math.min(20, displayCode.length())) + "...")
-                    .setFont(fontNormal)
-                    .setFontSize(4)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginTop(2);
-                qrCell.add(qrQuery);
-            } catch (Exception e) {
-                log.error("No se pudo generar el código QR: {}", e.getMessage(), e);
-            }
-            qrCell.setBorder(Border.NO_BORDER);
-            qrCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
-            qrCell.setTextAlignment(TextAlignment.CENTER);
-            footerTable.addCell(qrCell);
+        log.info("Plantilla de boletas generada para planilla {}: {} bytes, {} responsables de firma",
+            assets.payrollCode(), baos.size(), signerPages.size());
+        return assets.withTemplate(new PayslipTemplate(baos.toByteArray(), Collections.unmodifiableMap(signerPages)));
+    }
 
-            document.add(footerTable);
+    /**
+     * Agrega una página del ancho indicado, dibuja el contenido desde el borde superior y recorta la página
+     * a la altura ocupada, para que el form XObject ocupe lo mismo que el contenido original en la boleta
+     */
+    private void addTemplatePage(PdfDocument pdfDoc, float width, java.util.function.Consumer<Canvas> content) {
+        PdfPage page = pdfDoc.addNewPage(new PageSize(width, PageSize.A4.getHeight()));
+        try (Canvas canvas = new Canvas(page, page.getPageSize())) {
+            content.accept(canvas);
+            float bottom = canvas.getRenderer().getCurrentArea().getBBox().getTop();
+            Rectangle used = new Rectangle(0, bottom, width, PageSize.A4.getHeight() - bottom);
+            page.setMediaBox(used);
+            page.setCropBox(used);
+        }
+    }
 
-            document.close();
-            return baos.toByteArray();
+    /**
+     * Copia una página de la plantilla como form XObject. La página está recortada a su contenido
+     * (su BBox no empieza en el origen), así que la matriz del XObject la traslada al origen
+     * para que se dibuje exactamente en el espacio que ocupa en la maquetación.
+     */
+    private Image templateBlock(PdfDocument template, int pageNumber, PdfDocument pdfDoc) throws IOException {
+        PdfPage page = template.getPage(pageNumber);
+        PdfFormXObject block = page.copyAsFormXObject(pdfDoc);
+        block.put(PdfName.Matrix, new PdfArray(new float[]{1, 0, 0, 1, 0, -page.getCropBox().getBottom()}));
+        return new Image(block);
+    }
 
-        } catch (BusinessValidationException | IdentifierNotFoundException e) {
-            // Re-lanzar excepciones de negocio y de recursos no encontrados sin modificar
-            throw e;
-        } catch (Exception e) {
-            log.error("Error generating payslip PDF", e);
-            throw new BusinessValidationException("exception.payroll.payslip.generation-error", e.getMessage());
+    /**
+     * Cabecera de la boleta: empresa y logo (2 columnas: info izquierda, logo derecha), título y período
+     */
+    private void addPayslipHeader(RootElement<?> root, PayslipRenderAssets assets, PdfFont fontBold, PdfFont fontNormal) {
+        Table headerTable = new Table(UnitValue.createPercentArray(new float[]{0.7f, 0.3f}))
+            .setWidth(UnitValue.createPercentValue(100))
+            .setMarginBottom(5);
+
+        // Columna izquierda: Información de la empresa
+        Cell leftCell = new Cell();
+        leftCell.add(new Paragraph(assets.companyTradeName()).setFont(fontBold).setFontSize(10));
+        if (assets.companyContactLine() != null) {
+            leftCell.add(new Paragraph(assets.companyContactLine()).setFont(fontNormal).setFontSize(7));
+        }
+        leftCell.add(new Paragraph("R.U.C.: " + assets.companyRuc()).setFont(fontNormal).setFontSize(7));
+        leftCell.setBorder(Border.NO_BORDER);
+        leftCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
+        headerTable.addCell(leftCell);
+
+        // Columna derecha: Logo de la empresa
+        Cell logoCell = new Cell();
+        if (assets.companyLogo() != null) {
+            Image logoImage = new Image(assets.companyLogo());
+            logoImage.setWidth(80); // Ancho del logo en puntos
+            logoImage.setAutoScale(true);
+            logoCell.add(logoImage);
         }
+        logoCell.setBorder(Border.NO_BORDER);
+        logoCell.setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
+        logoCell.setTextAlignment(TextAlignment.RIGHT);
+        headerTable.addCell(logoCell);
+
+        root.add(headerTable);
+
+        // ============================================
+        // Título y subtítulo
+        // ============================================
+        Paragraph title = new Paragraph("BOLETA DE REMUNERACIONES")
+            .setFont(fontBold)
+            .setFontSize(11)
+            .setTextAlignment(TextAlignment.LEFT)
+            .setMarginBottom(2);
+        root.add(title);
+
+        Paragraph subtitle = new Paragraph("D.S. 001-98 TR - LEY 31110 - OBREROS REG.AGRARIO")
+            .setFont(fontNormal)
+            .setFontSize(8)
+            .setTextAlignment(TextAlignment.LEFT)
+            .setMarginBottom(3);
+        root.add(subtitle);
+
+        Paragraph mes = new Paragraph("MES: " + assets.monthName())
+            .setFont(fontNormal)
+            .setFontSize(9)
+            .setTextAlignment(TextAlignment.LEFT)
+            .setMarginBottom(2);
+        root.add(mes);
+
+        if (assets.weekInfo() != null) {
+            Paragraph weeks = new Paragraph(assets.weekInfo())
+                .setFont(fontNormal)
+                .setFontSize(9)
+                .setTextAlignment(TextAlignment.LEFT)
+                .setMarginBottom(10);
+            root.add(weeks);
+        }
+    }
+
+    /**
+     * Bloque de firma del responsable (jefe de RRHH): imagen de firma o línea, nombre, DNI y cargo
+     */
+    private Div signerBlock(PayslipRenderAssets.Signer hrManager, PdfFont fontNormal) {
+        Div block = new Div();
+        if (hrManager.signature() != null) {
+            Image signatureImage = new Image(hrManager.signature());
+            signatureImage.setWidth(60); // Ancho de la firma en puntos PDF (reducido de 80 a 60)
+            signatureImage.setAutoScale(true);
+            block.add(signatureImage.setMarginTop(5));
+        } else {
+            // Si no hay imagen, usar línea de texto
+            block.add(new Paragraph("_________________________").setFont(fontNormal).setFontSize(8).setMarginTop(10));
+        }
+
+        block.add(new Paragraph(hrManager.fullName()).setFont(fontNormal).setFontSize(7).setMarginTop(3));
+        block.add(new Paragraph("D.N.I.: " + hrManager.documentNumber())
+            .setFont(fontNormal).setFontSize(7).setMarginTop(2));
+        block.add(new Paragraph(hrManager.position()).setFont(fontNormal).setFontSize(7).setMarginTop(2));
+        return block;
     }
 
     private void addCompanyHeader(Document document, CompanyEntity company, IAddressUseCase addressService,
@@ -916,7 +1063,8 @@ public class PayslipPdfService {
     }
 
     private void addEmployeeInfo(Document document, PersonEntity person, PositionEntity position,
-                                  EmployeeEntity employee, PdfFont fontBold, PdfFont fontNormal) {
+                                  EmployeeEntity employee, Map<Short, String> conceptNames,
+                                  PdfFont fontBold, PdfFont fontNormal) {
         Table infoTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}))
             .setWidth(UnitValue.createPercentValue(100))
             .setMarginBottom(5);
@@ -934,7 +1082,7 @@ public class PayslipPdfService {
         leftInfoCell.add(new Paragraph(position != null ? position.getName() : "N/A").setFont(fontNormal).setFontSize(7).setMarginBottom(3));
         
         // AFP con número de afiliación
-        String afpName = getRetirementConceptName(employee);
+        String afpName = getRetirementConceptName(employee, conceptNames);
         String afpAffiliation = employee.getAfpAffiliationNumber() != null ? employee.getAfpAffiliationNumber() : "";
         String afpFull = afpName != null && !afpName.isEmpty() 
             ? (afpName + (afpAffiliation.isEmpty() ? "" : " - " + afpAffiliation))
@@ -998,15 +1146,10 @@ public class PayslipPdfService {
         table.addCell(rightCell);
     }
     
-    private String getRetirementConceptName(EmployeeEntity employee) {
-        if (employee.getRetirementConcept() != null) {
-            return employee.getRetirementConcept().getName();
-        }
-        // Fallback: buscar por ID si la relación no está cargada
+    private String getRetirementConceptName(EmployeeEntity employee, Map<Short, String> conceptNames) {
+        // Por ID: no inicializa la relación (el detalle puede venir de otro hilo o sesión)
         if (employee.getRetirementConceptId() != null) {
-            return conceptRepository.findById(employee.getRetirementConceptId())
-                .map(ConceptEntity::getName)
-                .orElse(null);
+            return conceptNames.get(employee.getRetirementConceptId());
         }
         return null;
     }
@@ -1616,7 +1759,7 @@ public class PayslipPdfService {
                     if (file == null) {
                         throw new IdentifierNotFoundException("exception.payroll.payslip.image.internal-file-not-found", publicId.toString());
                     }
-                    byte[] fileContent = file.getFileContent();
+                    byte[] fileContent = internalFileStorageService.getContent(file);
                     if (fileContent == null || fileContent.length == 0) {
                         throw new BusinessValidationException("exception.payroll.payslip.image.internal-file-empty", publicId.toString());
                     }
@@ -1774,73 +1917,109 @@ public class PayslipPdfService {
     }
 
     /**
-     * Clase interna para almacenar información del jefe de RRHH
-     */
-    private static class HrManagerInfo {
-        final String fullName;
-        final String documentNumber;
-        final String position;
-        final String signatureImageUrl; // URL de la imagen de firma
-
-        HrManagerInfo(String fullName, String documentNumber, String position, String signatureImageUrl) {
-            this.fullName = fullName;
-            this.documentNumber = documentNumber;
-            this.position = position;
-            this.signatureImageUrl = signatureImageUrl;
-        }
-    }
-
-    /**
-     * Obtiene la información del jefe de RRHH de la empresa/subsidiaria
+     * Obtiene el responsable de firma (jefe de RRHH) de la empresa/subsidiaria
      * Busca en la tabla histórica de responsables de firma:
      * 1. Primero busca por subsidiaria del empleado
      * 2. Si no encuentra, busca a nivel de empresa (subsidiary_id = NULL)
-     * 3. Si no encuentra nada, lanza una excepción (la planilla no se puede generar sin responsable)
-     * 
+     * 3. Si no encuentra nada, la boleta no se puede generar sin responsable
+     *
+     * Los errores no se lanzan aquí: se guardan en el Signer y se lanzan al generar una boleta
+     * de esa subsidiaria, para que una subsidiaria sin responsable no impida generar las demás.
+     *
      * @param company Entidad de la empresa
-     * @param employee Entidad del empleado (para obtener la subsidiaria)
-     * @return Información del jefe de RRHH
-     * @throws BusinessValidationException Si no se encuentra un responsable de firma asignado
+     * @param subsidiaryId Subsidiaria de los empleados
+     * @param subsidiaryName Nombre de la subsidiaria (para el mensaje de error)
+     * @param signatureImages Firmas ya cargadas por URL
+     * @return Responsable de firma con su imagen ya decodificada
      */
-    private HrManagerInfo getHrManagerInfo(CompanyEntity company, EmployeeEntity employee) {
-        // Obtener la subsidiaria del empleado
-        Short subsidiaryId = employee.getSubsidiary() != null ? employee.getSubsidiary().getId() : null;
-        String subsidiaryName = employee.getSubsidiary() != null ? employee.getSubsidiary().getName() : "Empresa";
-        
+    private PayslipRenderAssets.Signer resolveSigner(CompanyEntity company, Short subsidiaryId, String subsidiaryName,
+                                                     Map<String, ImageData> signatureImages) {
         // Buscar responsable más reciente para la subsidiaria específica
         Optional<CompanySubsidiarySignerEntity> signerOpt = companySubsidiarySignerRepository
             .findLatestByCompanyAndSubsidiary(company.getId(), subsidiaryId);
-        
+
         // Si no encuentra para la subsidiaria, buscar a nivel de empresa
         if (signerOpt.isEmpty() && subsidiaryId != null) {
             signerOpt = companySubsidiarySignerRepository.findLatestByCompany(company.getId());
         }
-        
+
         if (signerOpt.isEmpty()) {
-            log.error("No se encontró responsable de firma para empresa {} y subsidiaria {}. La boleta no puede generarse sin un responsable.", 
+            log.error("No se encontró responsable de firma para empresa {} y subsidiaria {}. La boleta no puede generarse sin un responsable.",
                     company.getId(), subsidiaryId);
-            throw new BusinessValidationException("exception.payroll.launch.missing-signer", subsidiaryName);
+            return PayslipRenderAssets.Signer.failed(
+                new BusinessValidationException("exception.payroll.launch.missing-signer", subsidiaryName));
         }
-        
+
         CompanySubsidiarySignerEntity signer = signerOpt.get();
         EmployeeEntity responsibleEmployee = signer.getResponsibleEmployee();
         PersonEntity responsiblePerson = responsibleEmployee.getPerson();
-        
+
         // Construir nombre completo
         String fullName = String.format("%s %s, %s",
             responsiblePerson.getPaternalLastname(),
             responsiblePerson.getMaternalLastname(),
             responsiblePerson.getNames());
-        
-        log.info("Responsable de firma encontrado: {} (Subsidiaria: {})", 
+
+        log.info("Responsable de firma encontrado: {} (Subsidiaria: {})",
             fullName, subsidiaryId != null ? subsidiaryId : "Nivel Empresa");
-        
-        return new HrManagerInfo(
+
+        ImageData signature = null;
+        String signatureImageUrl = signer.getSignatureImageUrl();
+        if (signatureImageUrl != null && !signatureImageUrl.trim().isEmpty()) {
+            try {
+                signature = signatureImages.get(signatureImageUrl);
+                if (signature == null) {
+                    signature = loadSignatureImage(signatureImageUrl);
+                    signatureImages.put(signatureImageUrl, signature);
+                }
+            } catch (BusinessValidationException e) {
+                return PayslipRenderAssets.Signer.failed(e);
+            }
+        } else {
+            log.warn("No hay URL de firma configurada para el responsable. Usando línea de texto.");
+        }
+
+        return new PayslipRenderAssets.Signer(
             fullName,
             responsiblePerson.getDocumentNumber(),
             signer.getResponsiblePosition(),
-            signer.getSignatureImageUrl() // Incluir URL de la firma
+            signature,
+            null
         );
     }
-}
 
+    /**
+     * Descarga la imagen de firma del responsable (iText no soporta SVG directamente, se convierte a PNG)
+     */
+    private ImageData loadSignatureImage(String signatureImageUrl) {
+        try {
+            log.info("Intentando cargar firma del responsable desde URL: {}", signatureImageUrl);
+            byte[] signatureImageBytes = downloadImageAsBytes(signatureImageUrl);
+
+            // Verificar si el archivo es SVG (iText no soporta SVG directamente, convertir a PNG)
+            String fileType = getFileTypeFromUrl(signatureImageUrl);
+            if (fileType != null && fileType.toLowerCase().contains("svg")) {
+                log.info("Firma en formato SVG detectada. Convirtiendo a PNG... URL: {}", signatureImageUrl);
+                try {
+                    signatureImageBytes = convertSvgToPng(signatureImageBytes);
+                    log.info("Firma SVG convertida exitosamente a PNG. Nuevo tamaño: {} bytes", signatureImageBytes.length);
+                } catch (Exception e) {
+                    log.error("Error al convertir firma SVG a PNG: {}", e.getMessage(), e);
+                    throw new BusinessValidationException("exception.payroll.payslip.signature.svg-conversion-error", e.getMessage());
+                }
+            }
+
+            ImageData signature = ImageDataFactory.create(signatureImageBytes);
+            log.info("Firma del responsable cargada exitosamente. Dimensiones: {}x{} px, URL: {}",
+                    signature.getWidth(), signature.getHeight(), signatureImageUrl);
+            return signature;
+        } catch (BusinessValidationException e) {
+            // Re-lanzar excepciones de negocio sin modificar
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al cargar la imagen de firma desde URL: {}. Error completo: {}",
+                    signatureImageUrl, e.getMessage(), e);
+            throw new BusinessValidationException("exception.payroll.payslip.signature.load-error", e.getMessage());
+        }
+    }
+}
@@ -3,13 +3,20 @@ package com.agropay.core.payroll.service;
 import com.agropay.core.files.application.usecase.IInternalFileStorageUseCase;
 import com.agropay.core.files.constant.FileCategory;
 import com.agropay.core.files.domain.InternalFileEntity;
+import com.agropay.core.files.model.InternalFileUpload;
 import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.model.payslip.GeneratedPayslip;
 import com.agropay.core.shared.utils.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Servicio para almacenar PDFs de boletas de pago en SQL Server (archivos internos)
  * 
@@ -72,6 +79,38 @@ public class PayslipPdfStorageService {
         }
     }
 
+    /**
+     * Guarda en bloque los PDFs de boletas de un chunk (ver IInternalFileStorageUseCase.replaceFiles)
+     *
+     * @param payrollCode Código de la planilla (no se accede a la relación del detalle)
+     * @param payslips PDFs generados
+     * @return URL de descarga por publicId del detalle
+     */
+    @Transactional
+    public Map<UUID, String> uploadPayslipPdfs(String payrollCode, List<GeneratedPayslip> payslips) {
+        List<InternalFileUpload> uploads = payslips.stream()
+            .map(payslip -> {
+                String documentNumber = payslip.detail().getEmployee().getPersonDocumentNumber();
+                return new InternalFileUpload(
+                    payslip.detail(),
+                    payslip.pdf(),
+                    String.format("boleta_%s_%s.pdf", payrollCode, documentNumber),
+                    "application/pdf",
+                    String.format("Boleta de pago - Planilla %s - Empleado %s", payrollCode, documentNumber)
+                );
+            })
+            .toList();
+
+        List<InternalFileEntity> savedFiles = internalFileStorageService.replaceFiles(uploads, FileCategory.PAYSLIP.getCode());
+
+        Map<UUID, String> downloadUrls = new HashMap<>();
+        for (int i = 0; i < payslips.size(); i++) {
+            downloadUrls.put(payslips.get(i).detail().getPublicId(), "/v1/internal-files/" + savedFiles.get(i).getPublicId() + "/download");
+        }
+        log.info("{} PDFs de boletas guardados. Planilla: {}", savedFiles.size(), payrollCode);
+        return downloadUrls;
+    }
+
     /**
      * Elimina un PDF de boleta (soft delete) usando archivos internos
      * 
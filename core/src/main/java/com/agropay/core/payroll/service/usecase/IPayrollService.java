@@ -2,6 +2,7 @@ package com.agropay.core.payroll.service.usecase;
 
 import com.agropay.core.payroll.model.payroll.CommandPayrollResponse;
 import com.agropay.core.payroll.model.payroll.CreatePayrollRequest;
+import com.agropay.core.payroll.model.payroll.LaunchPayrollRequest;
 import com.agropay.core.payroll.model.payroll.PayrollListDTO;
 import com.agropay.core.payroll.model.payroll.PayrollPageableRequest;
 import com.agropay.core.payroll.model.payroll.PayrollSummaryDTO;
@@ -24,9 +25,10 @@ public interface IPayrollService {
      * Launches the calculation process for a specific payroll.
      *
      * @param payrollPublicId The public ID of the payroll to launch.
+     * @param request Optional launch options (e.g., number of partitions); may be null.
      * @return A command response with the updated details of the payroll (e.g., new state).
      */
-    CommandPayrollResponse launchPayrollCalculation(UUID payrollPublicId);
+    CommandPayrollResponse launchPayrollCalculation(UUID payrollPublicId, LaunchPayrollRequest request);
 
     /**
      * Retrieves a paginated and filtered list of payrolls.
@@ -0,0 +1,22 @@
+package com.agropay.core.shared.batch;
+
+/**
+ * Última línea de una respuesta batch en streaming (NDJSON): el estado y resumen de todo el lote.
+ * Las líneas anteriores son los BatchItemResult de cada item.
+ */
+public record BatchStreamSummary(
+        ResultStatus status,
+        BatchSummary summary
+) {
+    public static BatchStreamSummary of(BatchSummary summary) {
+        ResultStatus status;
+        if (summary.failed() == 0) {
+            status = ResultStatus.SUCCESS;
+        } else if (summary.successful() == 0) {
+            status = ResultStatus.ERROR;
+        } else {
+            status = ResultStatus.PARTIAL_SUCCESS;
+        }
+        return new BatchStreamSummary(status, summary);
+    }
+}
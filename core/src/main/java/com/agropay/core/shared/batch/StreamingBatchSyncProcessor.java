@@ -0,0 +1,194 @@
+package com.agropay.core.shared.batch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sincronización batch en streaming para el móvil (offline-first).
+ *
+ * A diferencia de los endpoints /batch-sync con un único JSON, el cuerpo no se deserializa completo:
+ * - Entrada: NDJSON (un item por línea) o un arreglo JSON, leído item por item con el parser de Jackson
+ * - Los items se procesan en sub-lotes de subBatchSize; cada sub-lote es una llamada al caso de uso
+ *   (su propia transacción), así lo ya confirmado se conserva aunque la conexión se corte después
+ * - Salida: NDJSON con un BatchItemResult por línea, enviado al terminar cada sub-lote, y al final
+ *   una línea BatchStreamSummary
+ *
+ * La memoria usada depende del tamaño del sub-lote y no del tamaño del cuerpo. Si la conexión se corta,
+ * el móvil reenvía el lote y los items ya confirmados se reconocen por su temporalId.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingBatchSyncProcessor {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MessageSource messageSource;
+
+    /**
+     * @param identifier   temporalId del item, para los resultados de validación y de error
+     * @param subBatchSize Items por llamada a handler
+     * @param handler      Procesa un sub-lote (transaccional), con un resultado por item
+     */
+    public <I, R> BatchSummary process(InputStream in, OutputStream out, Class<I> itemType,
+                                       Function<I, String> identifier, int subBatchSize,
+                                       Function<List<I>, BatchResponse<R>> handler) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        Lines lines = new Lines(generator, objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        Counters counters = new Counters();
+        List<I> subBatch = new ArrayList<>(subBatchSize);
+        int subBatches = 0;
+
+        try (MappingIterator<I> items = objectMapper.readerFor(itemType).readValues(in)) {
+            I item;
+            while ((item = readNext(items, lines, counters)) != null) {
+                String violations = validate(item);
+                if (violations != null) {
+                    writeLine(lines, counters,
+                        BatchItemResult.error(identifier.apply(item), "VALIDATION_ERROR", violations));
+                    continue;
+                }
+
+                subBatch.add(item);
+                if (subBatch.size() == subBatchSize) {
+                    processSubBatch(subBatch, identifier, handler, lines, counters);
+                    subBatches++;
+                    subBatch.clear();
+                }
+            }
+        } catch (InvalidPayloadException e) {
+            // Se procesa lo recibido antes del item inválido; el resto del cuerpo se descarta
+            log.warn("Batch sync en streaming con cuerpo inválido tras {} items: {}", counters.total, e.getMessage());
+        }
+
+        if (!subBatch.isEmpty()) {
+            processSubBatch(subBatch, identifier, handler, lines, counters);
+            subBatches++;
+        }
+
+        BatchSummary summary = BatchSummary.of(counters.total, counters.successful, counters.failed, counters.partialSuccess);
+        lines.write(BatchStreamSummary.of(summary));
+        lines.flush();
+
+        log.info("Batch sync en streaming completado. Sub-lotes: {}, Total: {}, Exitosos: {}, Parciales: {}, Fallidos: {}",
+            subBatches, summary.total(), summary.successful(), summary.partialSuccess(), summary.failed());
+        return summary;
+    }
+
+    private <I, R> void processSubBatch(List<I> subBatch, Function<I, String> identifier,
+                                        Function<List<I>, BatchResponse<R>> handler,
+                                        Lines lines, Counters counters) throws IOException {
+        try {
+            for (BatchItemResult<R> result : handler.apply(List.copyOf(subBatch)).results()) {
+                writeLine(lines, counters, result);
+            }
+        } catch (RuntimeException e) {
+            // El sub-lote se revirtió completo: sus items se informan como fallidos y se sigue con el siguiente
+            log.error("Error procesando sub-lote de {} items en batch sync en streaming", subBatch.size(), e);
+            for (I item : subBatch) {
+                writeLine(lines, counters,
+                    BatchItemResult.error(identifier.apply(item), "SUB_BATCH_FAILED", e.getMessage()));
+            }
+        }
+        lines.flush();
+    }
+
+    /**
+     * Siguiente item, o null al terminar el cuerpo.
+     * Un item que no se puede deserializar corta la lectura: se informa en una línea y se detiene el parseo
+     */
+    private <I> I readNext(MappingIterator<I> items, Lines lines, Counters counters) throws IOException {
+        try {
+            return items.hasNextValue() ? items.nextValue() : null;
+        } catch (JsonProcessingException e) {
+            String position = e.getLocation() != null ? "line-" + e.getLocation().getLineNr() : "payload";
+            writeLine(lines, counters, BatchItemResult.error(position, "INVALID_PAYLOAD", e.getOriginalMessage()));
+            throw new InvalidPayloadException(e.getOriginalMessage());
+        }
+    }
+
+    private String validate(Object item) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + resolveMessage(violation))
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private String resolveMessage(ConstraintViolation<Object> violation) {
+        String template = violation.getMessageTemplate();
+        if (template.startsWith("{") && template.endsWith("}")) {
+            return messageSource.getMessage(template.substring(1, template.length() - 1), null,
+                violation.getMessage(), LocaleContextHolder.getLocale());
+        }
+        return violation.getMessage();
+    }
+
+    private static void writeLine(Lines lines, Counters counters, BatchItemResult<?> result) throws IOException {
+        counters.count(result);
+        lines.write(result);
+    }
+
+    /**
+     * Escribe un valor JSON por línea; solo se envía al cliente en flush (al terminar cada sub-lote)
+     */
+    private record Lines(JsonGenerator generator, ObjectWriter writer) {
+        void write(Object value) throws IOException {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        }
+
+        void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class Counters {
+        private int total;
+        private int successful;
+        private int failed;
+        private int partialSuccess;
+
+        void count(BatchItemResult<?> result) {
+            total++;
+            switch (result.status()) {
+                case SUCCESS -> successful++;
+                case ERROR -> failed++;
+                case PARTIAL_SUCCESS -> partialSuccess++;
+            }
+        }
+    }
+
+    private static final class InvalidPayloadException extends RuntimeException {
+        InvalidPayloadException(String message) {
+            super(message);
+        }
+    }
+}
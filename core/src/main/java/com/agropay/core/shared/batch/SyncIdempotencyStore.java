@@ -0,0 +1,245 @@
+package com.agropay.core.shared.batch;
+
+import com.agropay.core.shared.exceptions.BusinessValidationException;
+import com.agropay.core.shared.exceptions.DataIntegrityViolationException;
+import com.agropay.core.shared.persistence.SyncIdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotencia de los /batch-sync móviles: el cliente envía una clave por lote (cabecera Idempotency-Key)
+ * y los reintentos con la misma clave reciben la respuesta ya calculada sin volver a procesar el lote.
+ *
+ * - Caché en memoria acotada (assignment.sync.idempotency.cache-max-entries) con vencimiento (assignment.sync.idempotency.ttl):
+ *   un reintento al mismo nodo se responde sin consultar la BD
+ * - app.tbl_sync_idempotency_keys conserva las respuestas entre reinicios y entre nodos
+ * - Peticiones concurrentes con la misma clave esperan a la primera en lugar de procesar el lote otra vez
+ * - La clave se asocia al SHA-256 del cuerpo: la misma clave con otro contenido se rechaza (409)
+ * - Se guarda el SHA-256 de alcance + usuario + clave, que cabe en idempotency_key sea cual sea el largo del usuario
+ *
+ * No se guardan respuestas con errores inesperados (UNEXPECTED_ERROR), para que el reintento pueda procesarlas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncIdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final String UNEXPECTED_ERROR = "UNEXPECTED_ERROR";
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final SyncIdempotencyRepository syncIdempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+
+    @Value("${assignment.sync.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${assignment.sync.idempotency.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private final Map<String, StoredBatch> cache = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<StoredBatch>> inFlight = new ConcurrentHashMap<>();
+    private volatile LocalDateTime nextPurge = LocalDateTime.now();
+
+    private record StoredBatch(String requestHash, BatchResponse<?> response, LocalDateTime expiresAt) {}
+
+    /**
+     * Ejecuta el lote una sola vez por clave de idempotencia.
+     * Sin clave (clientes anteriores) se ejecuta siempre.
+     *
+     * @param scope    Endpoint al que pertenece la clave (TAREO, HARVEST)
+     * @param request  Cuerpo de la petición; su hash detecta la reutilización de una clave con otro contenido
+     * @param dataType Tipo de BatchItemResult.data, para leer la respuesta guardada en la BD
+     */
+    @SuppressWarnings("unchecked")
+    public <T> BatchResponse<T> execute(String scope, String idempotencyKey, Object request, Class<T> dataType,
+                                        Supplier<BatchResponse<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessValidationException("exception.shared.idempotency.key-too-long", MAX_KEY_LENGTH);
+        }
+
+        String key = sha256((scope + ":" + auditorAware.getCurrentAuditor().orElse("SYSTEM") + ":" + idempotencyKey)
+            .getBytes(StandardCharsets.UTF_8));
+        String requestHash = hash(request);
+
+        StoredBatch stored = getCached(key);
+        if (stored != null) {
+            log.info("Batch sync {} respondido desde caché (clave {})", scope, idempotencyKey);
+        } else {
+            CompletableFuture<StoredBatch> execution = new CompletableFuture<>();
+            CompletableFuture<StoredBatch> running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                try {
+                    stored = loadOrExecute(key, requestHash, dataType, action);
+                    execution.complete(stored);
+                } catch (RuntimeException e) {
+                    execution.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, execution);
+                }
+            } else {
+                log.info("Batch sync {} con clave {} en curso, se espera su resultado", scope, idempotencyKey);
+                stored = await(running);
+            }
+        }
+
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new DataIntegrityViolationException("exception.shared.idempotency.key-reused", idempotencyKey);
+        }
+        return (BatchResponse<T>) stored.response();
+    }
+
+    private <T> StoredBatch loadOrExecute(String key, String requestHash, Class<T> dataType,
+                                          Supplier<BatchResponse<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredBatch stored = syncIdempotencyRepository.find(key, now)
+            .map(row -> new StoredBatch(row.requestHash(), read(row.responseBody(), dataType), row.expiresAt()))
+            .orElse(null);
+        if (stored != null) {
+            log.info("Batch sync respondido desde la BD (clave {})", key);
+            putCached(key, stored);
+            return stored;
+        }
+
+        BatchResponse<T> response = action.get();
+        stored = new StoredBatch(requestHash, response, LocalDateTime.now().plus(ttl));
+        if (response.results().stream().anyMatch(SyncIdempotencyStore::isUnexpectedError)) {
+            return stored;
+        }
+
+        try {
+            syncIdempotencyRepository.insert(key, requestHash, write(response), LocalDateTime.now(), stored.expiresAt());
+        } catch (DuplicateKeyException e) {
+            // Otro nodo procesó la misma clave en paralelo: se responde con lo que quedó guardado
+            stored = syncIdempotencyRepository.find(key, LocalDateTime.now())
+                .map(row -> new StoredBatch(row.requestHash(), read(row.responseBody(), dataType), row.expiresAt()))
+                .orElse(stored);
+        }
+        putCached(key, stored);
+        purgeExpired();
+        return stored;
+    }
+
+    private StoredBatch getCached(String key) {
+        synchronized (cache) {
+            StoredBatch stored = cache.get(key);
+            if (stored != null && !stored.expiresAt().isAfter(LocalDateTime.now())) {
+                cache.remove(key);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * Todas las entradas tienen el mismo TTL: el orden de inserción es el orden de vencimiento
+     */
+    private void putCached(String key, StoredBatch stored) {
+        synchronized (cache) {
+            cache.remove(key);
+            cache.put(key, stored);
+            var iterator = cache.values().iterator();
+            while (cache.size() > cacheMaxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(PURGE_INTERVAL);
+        try {
+            int deleted = syncIdempotencyRepository.deleteExpired(now);
+            if (deleted > 0) {
+                log.info("Claves de idempotencia vencidas eliminadas: {}", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron eliminar las claves de idempotencia vencidas: {}", e.getMessage());
+        }
+    }
+
+    private static StoredBatch await(CompletableFuture<StoredBatch> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isUnexpectedError(BatchItemResult<?> result) {
+        return result.errors() != null
+            && result.errors().stream().anyMatch(error -> UNEXPECTED_ERROR.equals(error.errorCode()));
+    }
+
+    private String hash(Object request) {
+        try {
+            return sha256(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private String write(BatchResponse<?> response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> BatchResponse<T> read(String body, Class<T> dataType) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(BatchResponse.class, dataType);
+        try {
+            return objectMapper.readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.agropay.core.shared.persistence;
+
+import com.agropay.core.shared.sync.DeltaSyncResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura de cambios por change_version (ROWVERSION, ver V164) para la sincronización incremental móvil.
+ *
+ * La versión de un catálogo es el máximo change_version de sus tablas, limitado por MIN_ACTIVE_ROWVERSION() - 1:
+ * las filas de transacciones aún abiertas tienen un change_version menor al de filas ya confirmadas,
+ * y un watermark más alto haría que el cliente nunca las reciba.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeVersionRepository {
+
+    /**
+     * Parámetros :since y :watermark (BIGINT) como BINARY(8), para compararlos con change_version usando el índice
+     */
+    public static final String SINCE = "CAST(:since AS BINARY(8))";
+    public static final String WATERMARK = "CAST(:watermark AS BINARY(8))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @param tables Tablas del catálogo (nombres fijos del código, nunca datos del cliente)
+     */
+    public long currentVersion(String... tables) {
+        StringBuilder sql = new StringBuilder("SELECT CAST(MIN_ACTIVE_ROWVERSION() AS BIGINT) - 1");
+        for (String table : tables) {
+            sql.append(", ISNULL((SELECT CAST(MAX(change_version) AS BIGINT) FROM ").append(table).append("), 0)");
+        }
+        return jdbcTemplate.query(sql.toString(), rs -> {
+            rs.next();
+            long maxVersion = 0;
+            for (int i = 0; i < tables.length; i++) {
+                maxVersion = Math.max(maxVersion, rs.getLong(i + 2));
+            }
+            return Math.min(maxVersion, rs.getLong(1));
+        });
+    }
+
+    /**
+     * Filas que cambiaron entre since (exclusivo) y watermark (inclusivo).
+     *
+     * La consulta recibe :since y :watermark y debe devolver una columna removed (1 si la fila se eliminó
+     * o dejó de pertenecer al alcance pedido). Sin since se consulta desde 0 y se omiten las filas removidas.
+     */
+    public <T, ID> DeltaSyncResponse<T, ID> findChanges(String sql, MapSqlParameterSource parameters, Long since,
+                                                        long watermark, RowMapper<T> rowMapper, RowMapper<ID> idMapper) {
+        parameters.addValue("since", since != null ? since : 0L).addValue("watermark", watermark);
+        List<T> changed = new ArrayList<>();
+        List<ID> deleted = new ArrayList<>();
+        namedParameterJdbcTemplate.query(sql, parameters, rs -> {
+            if (rs.getBoolean("removed")) {
+                if (since != null) {
+                    deleted.add(idMapper.mapRow(rs, deleted.size()));
+                }
+            } else {
+                changed.add(rowMapper.mapRow(rs, changed.size()));
+            }
+        });
+        return new DeltaSyncResponse<>(watermark, changed, deleted);
+    }
+}
@@ -0,0 +1,169 @@
+package com.agropay.core.shared.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo consultas de lectura que no dependen entre sí (indicadores, enriquecimiento de listas),
+ * para que la latencia sea la de la consulta más lenta y no la suma de todas.
+ *
+ * Uso:
+ * <pre>
+ * ParallelQueryExecutor.Batch batch = parallelQueryExecutor.batch("dashboard.stats");
+ * ParallelQueryExecutor.Pending&lt;Long&gt; total = batch.submit("total", () -> repository.count());
+ * ...
+ * Long value = total.join();
+ * </pre>
+ *
+ * - Cada consulta corre en un hilo (virtual por defecto) con su propia transacción de solo lectura, así que
+ *   quien llama no debe depender de su transacción (ni entidades lazy) dentro de la consulta
+ * - Quien llama no debe tener una transacción abierta: retendría su conexión mientras espera las del lote
+ *   y, con varias peticiones a la vez, el pool se agota. Desde un método @Transactional, consultar en línea
+ * - El paralelismo total está acotado por query.parallel.max-concurrency para no agotar el pool de conexiones;
+ *   al llegar al límite submit espera a que se libere un hilo
+ * - Cada consulta tiene un timeout (query.parallel.timeout o el indicado): es el timeout de su transacción,
+ *   que cancela la sentencia en la BD, y el máximo que join() espera desde el submit. Al vencer, join()
+ *   lanza QueryTimeoutException
+ * - Métricas con tags group y query: query.parallel.execution (duración, tag outcome = success | error)
+ *   y query.parallel.timeouts
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParallelQueryExecutor {
+
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query.parallel.max-concurrency:6}")
+    private int maxConcurrency;
+
+    @Value("${query.parallel.timeout:10s}")
+    private Duration defaultTimeout;
+
+    @Value("${query.parallel.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    private Executor executor;
+
+    @PostConstruct
+    void init() {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("parallel-query-");
+        taskExecutor.setVirtualThreads(virtualThreads);
+        taskExecutor.setConcurrencyLimit(maxConcurrency);
+        // El usuario autenticado se propaga a los hilos por si la consulta depende de él
+        executor = new DelegatingSecurityContextExecutor(taskExecutor);
+    }
+
+    /**
+     * Grupo de consultas de una operación; group se usa como tag de las métricas
+     */
+    public Batch batch(String group) {
+        return new Batch(group);
+    }
+
+    public final class Batch {
+
+        private final String group;
+
+        private Batch(String group) {
+            this.group = group;
+        }
+
+        public <T> Pending<T> submit(String name, Supplier<T> query) {
+            return submit(name, defaultTimeout, query);
+        }
+
+        public <T> Pending<T> submit(String name, Duration timeout, Supplier<T> query) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transactionTemplate.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                String outcome = "error";
+                try {
+                    T result = transactionTemplate.execute(status -> query.get());
+                    outcome = "success";
+                    return result;
+                } finally {
+                    Timer.builder("query.parallel.execution")
+                        .description("Duración de una consulta ejecutada en paralelo")
+                        .tags("group", group, "query", name, "outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+            return new Pending<>(group, name, future, deadline);
+        }
+    }
+
+    public final class Pending<T> {
+
+        private final String group;
+        private final String name;
+        private final CompletableFuture<T> future;
+        private final long deadline;
+
+        private Pending(String group, String name, CompletableFuture<T> future, long deadline) {
+            this.group = group;
+            this.name = name;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Resultado de la consulta; relanza su excepción si falló
+         *
+         * @throws QueryTimeoutException si no terminó dentro de su timeout
+         */
+        public T join() {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                Counter.builder("query.parallel.timeouts")
+                    .description("Consultas en paralelo que no terminaron dentro de su timeout")
+                    .tags("group", group, "query", name)
+                    .register(meterRegistry)
+                    .increment();
+                log.warn("La consulta {}.{} no terminó dentro de su timeout", group, name);
+                throw new QueryTimeoutException("Query " + group + "." + name + " timed out");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                throw new IllegalStateException("Interrupted while waiting for query " + group + "." + name, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Query " + group + "." + name + " failed", e.getCause());
+            }
+        }
+    }
+}
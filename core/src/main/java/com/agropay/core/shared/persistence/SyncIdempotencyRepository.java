@@ -0,0 +1,71 @@
+package com.agropay.core.shared.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Acceso JDBC a app.tbl_sync_idempotency_keys (respuestas guardadas de /batch-sync por clave de idempotencia).
+ *
+ * La respuesta se guarda como JSON; no se mapea como entidad porque solo se lee y escribe por clave.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncIdempotencyRepository {
+
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StoredResponse(String requestHash, String responseBody, LocalDateTime expiresAt) {}
+
+    /**
+     * Respuesta guardada para la clave, si aún no venció
+     */
+    public Optional<StoredResponse> find(String idempotencyKey, LocalDateTime now) {
+        return jdbcTemplate.query(
+            "SELECT request_hash, response_body, expires_at FROM app.tbl_sync_idempotency_keys " +
+            "WHERE idempotency_key = ? AND expires_at > ?",
+            rs -> rs.next()
+                ? Optional.of(new StoredResponse(rs.getString(1), rs.getString(2), rs.getTimestamp(3).toLocalDateTime()))
+                : Optional.empty(),
+            idempotencyKey, Timestamp.valueOf(now));
+    }
+
+    /**
+     * Guarda la respuesta. Una fila vencida con la misma clave se reemplaza.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException si otro nodo guardó la misma clave y sigue vigente
+     */
+    public void insert(String idempotencyKey, String requestHash, String responseBody,
+                       LocalDateTime now, LocalDateTime expiresAt) {
+        jdbcTemplate.update(
+            "DELETE FROM app.tbl_sync_idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?",
+            idempotencyKey, Timestamp.valueOf(now));
+        jdbcTemplate.update(
+            "INSERT INTO app.tbl_sync_idempotency_keys (idempotency_key, request_hash, response_body, created_at, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?)",
+            idempotencyKey, requestHash, responseBody, Timestamp.valueOf(now), Timestamp.valueOf(expiresAt));
+    }
+
+    /**
+     * Elimina claves vencidas por bloques, para no bloquear la tabla
+     *
+     * @return cantidad de filas eliminadas
+     */
+    public int deleteExpired(LocalDateTime now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                "DELETE TOP (" + DELETE_BATCH_SIZE + ") FROM app.tbl_sync_idempotency_keys WHERE expires_at <= ?",
+                Timestamp.valueOf(now));
+            total += deleted;
+        } while (deleted == DELETE_BATCH_SIZE);
+        return total;
+    }
+}
@@ -0,0 +1,25 @@
+package com.agropay.core.shared.sync;
+
+import java.util.List;
+
+/**
+ * Respuesta de la sincronización incremental móvil (/sync/changes).
+ *
+ * El cliente guarda watermark y lo envía como since en la siguiente sincronización.
+ * Sin since se devuelve el catálogo completo (deleted vacío).
+ *
+ * @param <T>  Tipo de cada fila sincronizada
+ * @param <ID> Tipo del identificador público de las filas eliminadas
+ */
+public record DeltaSyncResponse<T, ID>(
+        long watermark,
+        List<T> changed,
+        List<ID> deleted
+) {
+    /**
+     * ETag de un catálogo en la versión indicada: no cambia mientras no cambie ninguna fila
+     */
+    public static String etag(long version) {
+        return "\"v" + version + "\"";
+    }
+}
@@ -0,0 +1,97 @@
+package com.agropay.core.shared.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria acotada: descarta la entrada usada hace más tiempo al superar maxEntries (LRU)
+ * y las entradas vencen a los ttl de guardadas.
+ *
+ * Pensada para búsquedas de pocos datos que se invalidan explícitamente al escribir; el TTL cubre
+ * las escrituras que no pasan por la invalidación (otro nodo, updates masivos).
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    // Aumenta con cada invalidación: un valor leído antes de una invalidación no se guarda
+    private long generation;
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    public BoundedCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Valor vigente, o null si no está o venció
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    /**
+     * Valor vigente o el que calcula loader, que se guarda si no es null.
+     * loader se ejecuta fuera del bloqueo (dos hilos pueden calcular la misma clave a la vez); si entretanto
+     * hubo una invalidación, el valor se devuelve pero no se guarda, porque pudo leerse antes de la escritura
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.agropay.core.shared.utils;
+
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lectura de la cabecera Range para descargas de un solo rango
+ */
+public final class HttpRangeUtils {
+
+    private HttpRangeUtils() {
+    }
+
+    /**
+     * Rango pedido por el cliente, o vacío si se debe responder el contenido completo:
+     * sin Range, If-Range de otra versión (distinto al ETag actual), sintaxis inválida o varios rangos.
+     */
+    public static Optional<HttpRange> singleRange(String range, String ifRange, String etag) {
+        if (range == null || (ifRange != null && !ifRange.equals(etag))) {
+            return Optional.empty();
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
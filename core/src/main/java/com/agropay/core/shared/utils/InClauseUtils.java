@@ -0,0 +1,35 @@
+package com.agropay.core.shared.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Particiona los valores de una cláusula IN para consultas en bloque.
+ *
+ * SQL Server admite como máximo 2100 parámetros por sentencia, así que una consulta IN con miles
+ * de valores (p. ej. una sincronización offline) debe dividirse en varias.
+ */
+public final class InClauseUtils {
+
+    /**
+     * Valores por sentencia, dejando margen para los demás parámetros de la consulta
+     */
+    public static final int MAX_PARAMETERS = 2000;
+
+    private InClauseUtils() {
+    }
+
+    public static <T> List<List<T>> partition(Collection<T> values) {
+        return partition(values, MAX_PARAMETERS);
+    }
+
+    public static <T> List<List<T>> partition(Collection<T> values, int size) {
+        List<T> list = values instanceof List<T> l ? l : new ArrayList<>(values);
+        List<List<T>> partitions = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            partitions.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,67 @@
+package com.agropay.core.shared.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Enriquecimiento en bloque de las filas de una página (conteos, banderas): una consulta agrupada por los ids
+ * de la página en lugar de una o varias consultas por fila, así el costo de la página no depende de su tamaño.
+ *
+ * Las consultas reciben los ids (partidos según InClauseUtils) y devuelven filas [id, valores...] agrupadas por id,
+ * o los ids que cumplen la condición. Los ids sin filas no aparecen en el resultado: usar getOrDefault.
+ */
+public final class PageEnrichment {
+
+    private PageEnrichment() {
+    }
+
+    /**
+     * Filas de la consulta por id (row[0])
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> Map<K, Object[]> rows(Collection<K> ids, Function<List<K>, List<Object[]>> query) {
+        Map<K, Object[]> result = new HashMap<>();
+        for (List<K> block : InClauseUtils.partition(distinct(ids))) {
+            for (Object[] row : query.apply(block)) {
+                result.put((K) row[0], row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Conteos por id, de una consulta que devuelve filas [id, conteo]
+     */
+    public static <K> Map<K, Long> counts(Collection<K> ids, Function<List<K>, List<Object[]>> query) {
+        Map<K, Long> result = new HashMap<>();
+        rows(ids, query).forEach((id, row) -> result.put(id, row[1] != null ? ((Number) row[1]).longValue() : 0L));
+        return result;
+    }
+
+    /**
+     * Ids que cumplen la condición, de una consulta que devuelve solo esos ids
+     */
+    public static <K> Set<K> matching(Collection<K> ids, Function<List<K>, List<K>> query) {
+        Set<K> result = new HashSet<>();
+        for (List<K> block : InClauseUtils.partition(distinct(ids))) {
+            result.addAll(query.apply(block));
+        }
+        return result;
+    }
+
+    /**
+     * Valor numérico de la columna de una fila de rows(), 0 si el id no tuvo filas
+     */
+    public static long longValue(Object[] row, int column) {
+        return row != null && row[column] != null ? ((Number) row[column]).longValue() : 0L;
+    }
+
+    private static <K> List<K> distinct(Collection<K> ids) {
+        return ids.stream().distinct().toList();
+    }
+}
@@ -0,0 +1,235 @@
+package com.agropay.core.shared.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Escritor de ZIP sin compresión (STORED) cuyo largo y posiciones se conocen antes de leer el contenido.
+ *
+ * Con el nombre, tamaño y fecha de cada entrada se calcula el largo total del archivo, lo que permite
+ * responder Content-Length y rangos HTTP (Range) sin armar el ZIP en memoria:
+ * - El contenido se pide entrada por entrada al ContentSource y se escribe apenas se recibe
+ * - Solo se piden las entradas que el rango incluye, salvo que el rango llegue al directorio central,
+ *   que necesita el CRC de todas las entradas
+ * - Para los mismos datos de entrada los bytes generados son siempre los mismos (reanudación de descargas)
+ *
+ * No usa ZIP64: admite hasta 65535 entradas y 4 GB.
+ */
+public final class StoredZipWriter {
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final long MAX_LENGTH = 0xFFFFFFFFL;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int VERSION = 10;
+
+    public record Entry(String name, long size, LocalDateTime modifiedAt) {}
+
+    /**
+     * Contenido de cada entrada; se llama en orden creciente de índice y a lo sumo una vez por entrada
+     */
+    @FunctionalInterface
+    public interface ContentSource {
+        byte[] content(int index) throws IOException;
+    }
+
+    private final List<Entry> entries;
+    private final byte[][] names;
+    private final long[] offsets;
+    private final long centralDirectoryOffset;
+    private final long centralDirectorySize;
+    private final long length;
+
+    /**
+     * @throws IllegalArgumentException si las entradas superan los límites del formato sin ZIP64
+     */
+    public StoredZipWriter(List<Entry> entries) {
+        if (entries.size() > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Demasiadas entradas para un ZIP sin ZIP64: " + entries.size());
+        }
+        this.entries = List.copyOf(entries);
+        this.names = new byte[entries.size()][];
+        this.offsets = new long[entries.size()];
+
+        long offset = 0;
+        long directorySize = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            names[i] = entries.get(i).name().getBytes(StandardCharsets.UTF_8);
+            offsets[i] = offset;
+            offset += LOCAL_HEADER_SIZE + names[i].length + entries.get(i).size();
+            directorySize += CENTRAL_HEADER_SIZE + names[i].length;
+        }
+        this.centralDirectoryOffset = offset;
+        this.centralDirectorySize = directorySize;
+        this.length = offset + directorySize + END_OF_CENTRAL_DIRECTORY_SIZE;
+
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("El ZIP supera 4 GB: " + length + " bytes");
+        }
+    }
+
+    /**
+     * Largo total del ZIP en bytes
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Escribe el ZIP completo
+     */
+    public void write(OutputStream out, ContentSource source) throws IOException {
+        write(out, 0, length - 1, source);
+    }
+
+    /**
+     * Escribe solo los bytes [start, end] (inclusive) del ZIP
+     */
+    public void write(OutputStream out, long start, long end, ContentSource source) throws IOException {
+        RangeOutputStream range = new RangeOutputStream(out, start, end);
+        boolean centralDirectoryInRange = end >= centralDirectoryOffset;
+        long[] crcs = new long[entries.size()];
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            long entryEnd = offsets[i] + LOCAL_HEADER_SIZE + names[i].length + entry.size();
+            boolean entryInRange = offsets[i] <= end && entryEnd > start;
+
+            if (!entryInRange && !centralDirectoryInRange) {
+                range.skipTo(entryEnd);
+                continue;
+            }
+
+            byte[] content = source.content(i);
+            if (content.length != entry.size()) {
+                throw new IOException("El contenido de '" + entry.name() + "' tiene " + content.length
+                    + " bytes, se esperaban " + entry.size());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            crcs[i] = crc.getValue();
+
+            if (entryInRange) {
+                range.write(localHeader(i, crcs[i]));
+                range.write(content);
+            } else {
+                range.skipTo(entryEnd);
+            }
+        }
+
+        if (!centralDirectoryInRange) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            range.write(centralHeader(i, crcs[i]));
+        }
+        range.write(endOfCentralDirectory());
+    }
+
+    private byte[] localHeader(int index, long crc) {
+        Entry entry = entries.get(index);
+        ByteBuffer header = ByteBuffer.allocate(LOCAL_HEADER_SIZE + names[index].length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x04034b50);
+        header.putShort((short) VERSION);
+        header.putShort((short) UTF8_FLAG);
+        header.putShort((short) 0); // STORED
+        header.putShort((short) dosTime(entry.modifiedAt()));
+        header.putShort((short) dosDate(entry.modifiedAt()));
+        header.putInt((int) crc);
+        header.putInt((int) entry.size());
+        header.putInt((int) entry.size());
+        header.putShort((short) names[index].length);
+        header.putShort((short) 0);
+        header.put(names[index]);
+        return header.array();
+    }
+
+    private byte[] centralHeader(int index, long crc) {
+        Entry entry = entries.get(index);
+        ByteBuffer header = ByteBuffer.allocate(CENTRAL_HEADER_SIZE + names[index].length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x02014b50);
+        header.putShort((short) VERSION);
+        header.putShort((short) VERSION);
+        header.putShort((short) UTF8_FLAG);
+        header.putShort((short) 0); // STORED
+        header.putShort((short) dosTime(entry.modifiedAt()));
+        header.putShort((short) dosDate(entry.modifiedAt()));
+        header.putInt((int) crc);
+        header.putInt((int) entry.size());
+        header.putInt((int) entry.size());
+        header.putShort((short) names[index].length);
+        header.putShort((short) 0); // extra
+        header.putShort((short) 0); // comentario
+        header.putShort((short) 0); // disco
+        header.putShort((short) 0); // atributos internos
+        header.putInt(0); // atributos externos
+        header.putInt((int) offsets[index]);
+        header.put(names[index]);
+        return header.array();
+    }
+
+    private byte[] endOfCentralDirectory() {
+        ByteBuffer end = ByteBuffer.allocate(END_OF_CENTRAL_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(0x06054b50);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) entries.size());
+        end.putShort((short) entries.size());
+        end.putInt((int) centralDirectorySize);
+        end.putInt((int) centralDirectoryOffset);
+        end.putShort((short) 0);
+        return end.array();
+    }
+
+    private static int dosTime(LocalDateTime dateTime) {
+        if (dateTime == null || dateTime.getYear() < 1980) {
+            return 0;
+        }
+        return (dateTime.getHour() << 11) | (dateTime.getMinute() << 5) | (dateTime.getSecond() / 2);
+    }
+
+    private static int dosDate(LocalDateTime dateTime) {
+        if (dateTime == null || dateTime.getYear() < 1980) {
+            return (1 << 5) | 1; // 1980-01-01
+        }
+        return ((dateTime.getYear() - 1980) << 9) | (dateTime.getMonthValue() << 5) | dateTime.getDayOfMonth();
+    }
+
+    /**
+     * Descarta los bytes fuera de [start, end] llevando la cuenta de la posición en el ZIP
+     */
+    private static final class RangeOutputStream {
+
+        private final OutputStream out;
+        private final long start;
+        private final long end;
+        private long position;
+
+        RangeOutputStream(OutputStream out, long start, long end) {
+            this.out = out;
+            this.start = start;
+            this.end = end;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            long from = Math.max(start, position);
+            long to = Math.min(end + 1, position + bytes.length);
+            if (from < to) {
+                out.write(bytes, (int) (from - position), (int) (to - from));
+            }
+            position += bytes.length;
+        }
+
+        void skipTo(long newPosition) {
+            position = newPosition;
+        }
+    }
+}
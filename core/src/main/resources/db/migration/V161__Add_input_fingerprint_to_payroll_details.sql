@@ -0,0 +1,16 @@
+-- =============================================
+-- V161: Huella de entradas por detalle de planilla
+-- =============================================
+-- Hash SHA-256 (hex) de los datos de entrada con los que se calculó cada empleado
+-- (tareos, cosechas, salario, calendario y configuración del período).
+-- El recálculo en modo DELTA solo reprocesa empleados cuya huella cambió.
+-- Los detalles existentes quedan con NULL y se recalculan en el primer DELTA.
+-- =============================================
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_payroll_details') AND name = 'input_fingerprint'
+)
+BEGIN
+    ALTER TABLE app.tbl_payroll_details ADD input_fingerprint CHAR(64) NULL;
+END;
@@ -0,0 +1,80 @@
+-- =============================================
+-- V162: CONTENIDO DE ARCHIVOS INTERNOS DIRECCIONADO POR HASH
+-- =============================================
+-- El contenido de los archivos internos pasa a app.tbl_file_blobs, identificado por su SHA-256 (hex):
+-- archivos con los mismos bytes (logos, firmas, PDFs repetidos) se guardan una sola vez.
+-- - tbl_internal_files.content_hash apunta al contenido; file_content queda NULL
+-- - ref_count = filas de tbl_internal_files que usan el contenido (incluye eliminadas con soft delete,
+--   que siguen siendo legibles por su ID)
+-- - storage indica dónde están los bytes: DATABASE (columna content) o FILESYSTEM (content NULL)
+-- Los archivos existentes se migran calculando su hash con HASHBYTES.
+-- =============================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_file_blobs' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_file_blobs (
+        content_hash CHAR(64) NOT NULL,
+        file_size BIGINT NOT NULL,
+        storage NVARCHAR(20) NOT NULL, -- DATABASE | FILESYSTEM
+        content VARBINARY(MAX) NULL, -- NULL cuando storage = FILESYSTEM
+        ref_count INT NOT NULL DEFAULT 0,
+        created_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+
+        CONSTRAINT PK_file_blobs PRIMARY KEY (content_hash)
+    );
+
+    PRINT N'Tabla app.tbl_file_blobs creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_internal_files') AND name = 'content_hash'
+)
+BEGIN
+    ALTER TABLE app.tbl_internal_files ADD content_hash CHAR(64) NULL;
+    PRINT N'Columna content_hash agregada a app.tbl_internal_files';
+END
+GO
+
+ALTER TABLE app.tbl_internal_files ALTER COLUMN file_content VARBINARY(MAX) NULL;
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_internal_files') AND name = 'IX_internal_files_content_hash'
+)
+BEGIN
+    CREATE INDEX IX_internal_files_content_hash ON app.tbl_internal_files(content_hash);
+END
+GO
+
+-- Migrar archivos existentes: hash, un contenido por hash y liberar la columna file_content
+UPDATE app.tbl_internal_files
+SET content_hash = LOWER(CONVERT(CHAR(64), HASHBYTES('SHA2_256', file_content), 2))
+WHERE content_hash IS NULL AND file_content IS NOT NULL;
+GO
+
+INSERT INTO app.tbl_file_blobs (content_hash, file_size, storage, content, ref_count)
+SELECT f.content_hash, DATALENGTH(f.file_content), 'DATABASE', f.file_content, c.refs
+FROM (
+    SELECT content_hash, MIN(id) AS first_id, COUNT(*) AS refs
+    FROM app.tbl_internal_files
+    WHERE content_hash IS NOT NULL AND file_content IS NOT NULL
+    GROUP BY content_hash
+) c
+JOIN app.tbl_internal_files f ON f.id = c.first_id
+WHERE NOT EXISTS (SELECT 1 FROM app.tbl_file_blobs b WHERE b.content_hash = c.content_hash);
+GO
+
+UPDATE app.tbl_internal_files
+SET file_content = NULL
+WHERE content_hash IS NOT NULL AND file_content IS NOT NULL;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.foreign_keys WHERE name = 'FK_internal_files_file_blobs')
+BEGIN
+    ALTER TABLE app.tbl_internal_files
+    ADD CONSTRAINT FK_internal_files_file_blobs FOREIGN KEY (content_hash) REFERENCES app.tbl_file_blobs(content_hash);
+END
+GO
@@ -0,0 +1,35 @@
+-- =============================================
+-- V163: CLAVES DE IDEMPOTENCIA DEL BATCH SYNC MÓVIL
+-- =============================================
+-- Guarda la respuesta de cada /batch-sync enviado con cabecera Idempotency-Key, para que los
+-- reintentos del móvil (corte de conectividad) reciban la misma respuesta sin volver a procesar el lote.
+-- - idempotency_key = alcance (TAREO | HARVEST) + usuario + clave enviada por el cliente
+-- - request_hash = SHA-256 (hex) del cuerpo, para rechazar la misma clave con otro contenido
+-- - response_body = BatchResponse serializado en JSON
+-- Las filas vencidas (expires_at) se ignoran en la lectura y se eliminan periódicamente.
+-- =============================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_sync_idempotency_keys' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_sync_idempotency_keys (
+        idempotency_key NVARCHAR(200) NOT NULL,
+        request_hash CHAR(64) NOT NULL,
+        response_body NVARCHAR(MAX) NOT NULL,
+        created_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+        expires_at DATETIME2 NOT NULL,
+
+        CONSTRAINT PK_sync_idempotency_keys PRIMARY KEY (idempotency_key)
+    );
+
+    PRINT N'Tabla app.tbl_sync_idempotency_keys creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_sync_idempotency_keys') AND name = 'IX_sync_idempotency_keys_expires_at'
+)
+BEGIN
+    CREATE INDEX IX_sync_idempotency_keys_expires_at ON app.tbl_sync_idempotency_keys(expires_at);
+END
+GO
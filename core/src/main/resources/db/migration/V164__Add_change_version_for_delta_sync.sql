@@ -0,0 +1,125 @@
+-- =============================================
+-- V164: VERSIÓN DE CAMBIO PARA LA SINCRONIZACIÓN INCREMENTAL MÓVIL
+-- =============================================
+-- Agrega change_version (ROWVERSION) a las tablas que el móvil sincroniza: SQL Server le asigna un valor
+-- creciente en cada INSERT y UPDATE, incluido el soft delete (UPDATE de deleted_at), sin cambios en el código
+-- que escribe esas tablas. Los endpoints /sync/changes devuelven solo las filas con change_version mayor
+-- al watermark (since) que envía el cliente.
+-- - tbl_labor_units: el nombre de la unidad viaja con cada labor
+-- - tbl_persons: los nombres viajan con cada empleado
+-- El índice sobre change_version permite leer los cambios y el máximo sin recorrer la tabla.
+-- =============================================
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_labor_units') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_labor_units ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_labor_units';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_labor_units') AND name = 'IX_labor_units_change_version'
+)
+BEGIN
+    CREATE INDEX IX_labor_units_change_version ON app.tbl_labor_units(change_version);
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_labors') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_labors ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_labors';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_labors') AND name = 'IX_labors_change_version'
+)
+BEGIN
+    CREATE INDEX IX_labors_change_version ON app.tbl_labors(change_version);
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_lotes') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_lotes ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_lotes';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_lotes') AND name = 'IX_lotes_change_version'
+)
+BEGIN
+    CREATE INDEX IX_lotes_change_version ON app.tbl_lotes(change_version);
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_tareo_motives') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_tareo_motives ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_tareo_motives';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_tareo_motives') AND name = 'IX_tareo_motives_change_version'
+)
+BEGIN
+    CREATE INDEX IX_tareo_motives_change_version ON app.tbl_tareo_motives(change_version);
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_persons') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_persons ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_persons';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_persons') AND name = 'IX_persons_change_version'
+)
+BEGIN
+    CREATE INDEX IX_persons_change_version ON app.tbl_persons(change_version);
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.columns
+    WHERE object_id = OBJECT_ID('app.tbl_employees') AND name = 'change_version'
+)
+BEGIN
+    ALTER TABLE app.tbl_employees ADD change_version ROWVERSION NOT NULL;
+    PRINT N'Columna change_version agregada a app.tbl_employees';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_employees') AND name = 'IX_employees_change_version'
+)
+BEGIN
+    CREATE INDEX IX_employees_change_version ON app.tbl_employees(change_version);
+END
+GO
@@ -0,0 +1,140 @@
+-- =============================================
+-- V165: AGREGADOS DIARIOS DEL DASHBOARD
+-- =============================================
+-- Tablas que lee DashboardService en lugar de agrupar marcaciones, tareos y planillas en cada consulta:
+-- - tbl_dashboard_daily_markings: entradas y salidas por subsidiaria y día
+-- - tbl_dashboard_daily_tareos: tareos, tareos procesados (con empleados) y empleados por subsidiaria, día y labor
+-- - tbl_dashboard_payroll_totals: cantidad y neto de planillas por subsidiaria, periodo, estado y mes
+-- - tbl_dashboard_employee_headcount: empleados activos por subsidiaria, una foto por día
+-- DashboardRollupService recalcula los días / subsidiarias que cambian (eventos de marcación, tareo y
+-- planilla) y una conciliación nocturna recalcula los últimos días. Aquí se cargan desde el histórico.
+-- =============================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_dashboard_daily_markings' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_dashboard_daily_markings (
+        subsidiary_id SMALLINT NOT NULL,
+        marking_date DATE NOT NULL,
+        entries INT NOT NULL,
+        exits INT NOT NULL,
+        refreshed_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+
+        CONSTRAINT PK_dashboard_daily_markings PRIMARY KEY (subsidiary_id, marking_date)
+    );
+
+    CREATE INDEX IX_dashboard_daily_markings_date ON app.tbl_dashboard_daily_markings(marking_date);
+
+    PRINT N'Tabla app.tbl_dashboard_daily_markings creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_dashboard_daily_tareos' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_dashboard_daily_tareos (
+        subsidiary_id SMALLINT NOT NULL,
+        tareo_date DATE NOT NULL,
+        labor_id SMALLINT NOT NULL,
+        tareo_count INT NOT NULL,
+        processed_count INT NOT NULL,
+        employee_count INT NOT NULL,
+        refreshed_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+
+        CONSTRAINT PK_dashboard_daily_tareos PRIMARY KEY (subsidiary_id, tareo_date, labor_id)
+    );
+
+    CREATE INDEX IX_dashboard_daily_tareos_date ON app.tbl_dashboard_daily_tareos(tareo_date);
+
+    PRINT N'Tabla app.tbl_dashboard_daily_tareos creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_dashboard_payroll_totals' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_dashboard_payroll_totals (
+        subsidiary_id SMALLINT NOT NULL,
+        period_id INT NULL,
+        state_id SMALLINT NOT NULL,
+        year SMALLINT NOT NULL,
+        month SMALLINT NOT NULL,
+        period_start DATE NOT NULL,
+        payroll_count INT NOT NULL,
+        total_net DECIMAL(18,2) NOT NULL,
+        refreshed_at DATETIME2 NOT NULL DEFAULT GETUTCDATE()
+    );
+
+    CREATE CLUSTERED INDEX IX_dashboard_payroll_totals_subsidiary ON app.tbl_dashboard_payroll_totals(subsidiary_id);
+
+    PRINT N'Tabla app.tbl_dashboard_payroll_totals creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_dashboard_employee_headcount' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_dashboard_employee_headcount (
+        snapshot_date DATE NOT NULL,
+        subsidiary_id SMALLINT NOT NULL,
+        employee_count INT NOT NULL,
+        refreshed_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+
+        CONSTRAINT PK_dashboard_employee_headcount PRIMARY KEY (snapshot_date, subsidiary_id)
+    );
+
+    PRINT N'Tabla app.tbl_dashboard_employee_headcount creada exitosamente';
+END
+GO
+
+-- Carga inicial desde el histórico (solo si las tablas están vacías)
+IF NOT EXISTS (SELECT 1 FROM app.tbl_dashboard_daily_markings)
+BEGIN
+    INSERT INTO app.tbl_dashboard_daily_markings (subsidiary_id, marking_date, entries, exits)
+    SELECT m.subsidiary_id,
+           CAST(md.marked_at AS DATE),
+           SUM(CASE WHEN md.is_entry = 1 THEN 1 ELSE 0 END),
+           SUM(CASE WHEN md.is_entry = 0 THEN 1 ELSE 0 END)
+    FROM app.tbl_marking_details md
+    INNER JOIN app.tbl_markings m ON m.id = md.marking_id
+    WHERE md.deleted_at IS NULL
+      AND m.deleted_at IS NULL
+    GROUP BY m.subsidiary_id, CAST(md.marked_at AS DATE);
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM app.tbl_dashboard_daily_tareos)
+BEGIN
+    INSERT INTO app.tbl_dashboard_daily_tareos (subsidiary_id, tareo_date, labor_id, tareo_count, processed_count, employee_count)
+    SELECT t.subsidiary_id,
+           CAST(t.created_at AS DATE),
+           t.labor_id,
+           COUNT(*),
+           SUM(CASE WHEN te.employee_count > 0 THEN 1 ELSE 0 END),
+           SUM(te.employee_count)
+    FROM app.tbl_tareos t
+    OUTER APPLY (
+        SELECT COUNT(*) AS employee_count
+        FROM app.tbl_tareo_employees e
+        WHERE e.tareo_id = t.id AND e.deleted_at IS NULL
+    ) te
+    WHERE t.deleted_at IS NULL
+    GROUP BY t.subsidiary_id, CAST(t.created_at AS DATE), t.labor_id;
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM app.tbl_dashboard_payroll_totals)
+BEGIN
+    INSERT INTO app.tbl_dashboard_payroll_totals (subsidiary_id, period_id, state_id, year, month, period_start, payroll_count, total_net)
+    SELECT p.subsidiary_id, p.period_id, p.state_id, p.year, p.month, p.period_start, COUNT(*), COALESCE(SUM(p.total_net), 0)
+    FROM app.tbl_payrolls p
+    WHERE p.deleted_at IS NULL
+    GROUP BY p.subsidiary_id, p.period_id, p.state_id, p.year, p.month, p.period_start;
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM app.tbl_dashboard_employee_headcount)
+BEGIN
+    INSERT INTO app.tbl_dashboard_employee_headcount (snapshot_date, subsidiary_id, employee_count)
+    SELECT CAST(GETDATE() AS DATE), e.subsidiary_id, COUNT(*)
+    FROM app.tbl_employees e
+    WHERE e.deleted_at IS NULL
+    GROUP BY e.subsidiary_id;
+END
+GO
@@ -0,0 +1,30 @@
+-- =============================================
+-- V166: ÍNDICE ÚNICO PLANILLA / EMPLEADO SOLO PARA DETALLES VIGENTES
+-- =============================================
+-- El recálculo DELTA da de baja (soft delete) el detalle de los empleados que ya no tienen tareos en el período.
+-- Si el empleado vuelve a tener tareos, un recálculo posterior inserta un detalle nuevo, por lo que la
+-- restricción única (payroll_id, employee_document_number) debe ignorar los detalles eliminados.
+-- =============================================
+
+IF EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_payroll_details') AND name = 'UQ_payroll_details_payroll_employee'
+      AND has_filter = 0
+)
+BEGIN
+    DROP INDEX UQ_payroll_details_payroll_employee ON app.tbl_payroll_details;
+    PRINT N'Índice único UQ_payroll_details_payroll_employee eliminado';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_payroll_details') AND name = 'UQ_payroll_details_payroll_employee'
+)
+BEGIN
+    CREATE UNIQUE NONCLUSTERED INDEX UQ_payroll_details_payroll_employee
+        ON app.tbl_payroll_details(payroll_id, employee_document_number)
+        WHERE deleted_at IS NULL;
+    PRINT N'Índice único UQ_payroll_details_payroll_employee creado sobre los detalles vigentes';
+END
+GO
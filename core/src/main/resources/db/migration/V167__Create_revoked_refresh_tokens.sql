@@ -0,0 +1,32 @@
+-- =============================================
+-- V167: REFRESH TOKENS REVOCADOS
+-- =============================================
+-- Refresh tokens revocados en el logout, por jti. /v1/auth/refresh consulta esta tabla, así que un refresh token
+-- revocado en un nodo tampoco se puede canjear en los demás.
+-- Los access tokens revocados se guardan solo en memoria del nodo (ver TokenRevocationList).
+-- Las filas vencidas (expires_at, la expiración del token) se eliminan periódicamente.
+-- =============================================
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'tbl_revoked_refresh_tokens' AND schema_id = SCHEMA_ID('app'))
+BEGIN
+    CREATE TABLE app.tbl_revoked_refresh_tokens (
+        token_id NVARCHAR(64) NOT NULL,
+        username NVARCHAR(100) NOT NULL,
+        revoked_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+        expires_at DATETIME2 NOT NULL,
+
+        CONSTRAINT PK_revoked_refresh_tokens PRIMARY KEY (token_id)
+    );
+
+    PRINT N'Tabla app.tbl_revoked_refresh_tokens creada exitosamente';
+END
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_revoked_refresh_tokens') AND name = 'IX_revoked_refresh_tokens_expires_at'
+)
+BEGIN
+    CREATE INDEX IX_revoked_refresh_tokens_expires_at ON app.tbl_revoked_refresh_tokens(expires_at);
+END
+GO
@@ -0,0 +1,29 @@
+-- =============================================
+-- V168: CLAVE ÚNICA DE tbl_dashboard_payroll_totals
+-- =============================================
+-- La conciliación del dashboard corre en todos los nodos a la vez y refreshPayrolls borra e inserta la
+-- porción completa, así que dos recálculos concurrentes podían dejar filas repetidas. Se eliminan las
+-- repetidas y se agrega una clave única sobre la agrupación (el recálculo además se serializa con
+-- sp_getapplock). period_id admite NULL: el índice único trata los NULL como iguales, igual que el GROUP BY.
+-- =============================================
+
+WITH duplicated AS (
+    SELECT ROW_NUMBER() OVER (
+        PARTITION BY subsidiary_id, period_id, state_id, year, month, period_start
+        ORDER BY refreshed_at DESC
+    ) AS row_number
+    FROM app.tbl_dashboard_payroll_totals
+)
+DELETE FROM duplicated WHERE row_number > 1;
+GO
+
+IF NOT EXISTS (
+    SELECT 1 FROM sys.indexes
+    WHERE object_id = OBJECT_ID('app.tbl_dashboard_payroll_totals') AND name = 'UQ_dashboard_payroll_totals'
+)
+BEGIN
+    CREATE UNIQUE NONCLUSTERED INDEX UQ_dashboard_payroll_totals
+        ON app.tbl_dashboard_payroll_totals(subsidiary_id, period_id, state_id, year, month, period_start);
+    PRINT N'Índice único UQ_dashboard_payroll_totals creado';
+END
+GO
@@ -0,0 +1,178 @@
+package com.agropay.core.payroll.batch.tasklet;
+
+import com.agropay.core.organization.domain.EmployeeEntity;
+import com.agropay.core.organization.domain.SubsidiaryEntity;
+import com.agropay.core.payroll.domain.PayrollDetailEntity;
+import com.agropay.core.payroll.domain.PayrollEntity;
+import com.agropay.core.payroll.persistence.IPayrollDetailRepository;
+import com.agropay.core.payroll.persistence.IPayrollRepository;
+import com.agropay.core.states.domain.StateEntity;
+import com.agropay.core.states.persistence.StateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recálculo DELTA cuando un empleado ya calculado deja de tener tareos en el período: su detalle debe darse de baja
+ * y sus montos restarse de los totales de la planilla.
+ *
+ * La "base de datos" es una lista en memoria de detalles y tareos por empleado; los mocks de los repositorios
+ * la consultan y modifican con el mismo criterio que las consultas JPQL.
+ */
+class UpdatePayrollTotalsTaskletTest {
+
+    private static final Long PAYROLL_ID = 10L;
+    private static final Short SUBSIDIARY_ID = 3;
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 10, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2025, 10, 15);
+
+    private final IPayrollRepository payrollRepository = mock(IPayrollRepository.class);
+    private final IPayrollDetailRepository payrollDetailRepository = mock(IPayrollDetailRepository.class);
+    private final StateRepository stateRepository = mock(StateRepository.class);
+
+    private final UpdatePayrollTotalsTasklet tasklet = new UpdatePayrollTotalsTasklet(
+        payrollRepository, payrollDetailRepository, stateRepository, mock(ApplicationEventPublisher.class));
+
+    private final List<PayrollDetailEntity> details = new ArrayList<>();
+    private final Map<String, List<LocalDate>> tareosByEmployee = new HashMap<>();
+    private PayrollEntity payroll;
+
+    @BeforeEach
+    void setUp() {
+        SubsidiaryEntity subsidiary = new SubsidiaryEntity();
+        subsidiary.setId(SUBSIDIARY_ID);
+        payroll = new PayrollEntity();
+        payroll.setId(PAYROLL_ID);
+        payroll.setSubsidiary(subsidiary);
+
+        // Cálculo inicial: dos empleados con tareos en el período
+        addCalculatedDetail(1L, "11111111", "1500.00", "195.00");
+        addCalculatedDetail(2L, "22222222", "1200.00", "156.00");
+        tareosByEmployee.put("11111111", new ArrayList<>(List.of(PERIOD_START, PERIOD_START.plusDays(1))));
+        tareosByEmployee.put("22222222", new ArrayList<>(List.of(PERIOD_START.plusDays(2))));
+        payroll.setTotalEmployees(2);
+        payroll.setTotalIncome(new BigDecimal("2700.00"));
+        payroll.setTotalDeductions(new BigDecimal("351.00"));
+        payroll.setTotalNet(new BigDecimal("2349.00"));
+
+        when(payrollRepository.findById(PAYROLL_ID)).thenReturn(Optional.of(payroll));
+        when(stateRepository.findByCodeAndDomainName(anyString(), anyString())).thenReturn(Optional.of(new StateEntity()));
+        when(payrollDetailRepository.findWithoutTareosInPeriod(eq(PAYROLL_ID), any(), any(), eq(SUBSIDIARY_ID)))
+            .thenAnswer(invocation -> activeDetails().stream()
+                .filter(detail -> tareosByEmployee.getOrDefault(documentNumber(detail), List.of()).stream()
+                    .noneMatch(date -> !date.isBefore(invocation.getArgument(1)) && !date.isAfter(invocation.getArgument(2))))
+                .toList());
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            details.stream().filter(detail -> ids.contains(Long.parseLong(detail.getId()))).forEach(detail -> {
+                detail.setDeletedAt(invocation.getArgument(1));
+                detail.setDeletedBy(invocation.getArgument(2));
+            });
+            return null;
+        }).when(payrollDetailRepository).softDeleteByIds(any(), any(), any());
+        doAnswer(invocation -> {
+            payroll.setTotalEmployees(payroll.getTotalEmployees() + (int) invocation.getArgument(1));
+            payroll.setTotalIncome(payroll.getTotalIncome().add(invocation.getArgument(2)));
+            payroll.setTotalDeductions(payroll.getTotalDeductions().add(invocation.getArgument(3)));
+            payroll.setTotalNet(payroll.getTotalNet().add(invocation.getArgument(4)));
+            return null;
+        }).when(payrollRepository).addToTotals(eq(PAYROLL_ID), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void deltaRemovesDetailOfEmployeeWhoseTareosWereDeleted() throws Exception {
+        tareosByEmployee.remove("22222222");
+
+        tasklet.execute(null, chunkContext("DELTA"));
+
+        Map<String, PayrollDetailEntity> byEmployee = details.stream()
+            .collect(Collectors.toMap(UpdatePayrollTotalsTaskletTest::documentNumber, Function.identity()));
+        assertNull(byEmployee.get("11111111").getDeletedAt());
+        assertNotNull(byEmployee.get("22222222").getDeletedAt());
+        assertEquals(List.of("11111111"), activeDetails().stream().map(UpdatePayrollTotalsTaskletTest::documentNumber).toList());
+
+        // Los totales quedan iguales a la suma de los detalles vigentes
+        assertEquals(1, payroll.getTotalEmployees().intValue());
+        assertEquals(sum(PayrollDetailEntity::getTotalIncome), payroll.getTotalIncome());
+        assertEquals(sum(PayrollDetailEntity::getTotalDeductions), payroll.getTotalDeductions());
+        assertEquals(sum(PayrollDetailEntity::getNetToPay), payroll.getTotalNet());
+        assertEquals(new BigDecimal("1305.00"), payroll.getTotalNet());
+    }
+
+    @Test
+    void deltaKeepsDetailsWhenEveryEmployeeStillHasTareos() throws Exception {
+        tasklet.execute(null, chunkContext("DELTA"));
+
+        assertEquals(2, activeDetails().size());
+        assertEquals(new BigDecimal("2349.00"), payroll.getTotalNet());
+        verify(payrollDetailRepository, never()).softDeleteByIds(any(), any(), any());
+        verify(payrollRepository, never()).addToTotals(any(), anyInt(), any(), any(), any());
+    }
+
+    private void addCalculatedDetail(Long id, String documentNumber, String income, String deductions) {
+        EmployeeEntity employee = new EmployeeEntity();
+        employee.setPersonDocumentNumber(documentNumber);
+        PayrollDetailEntity detail = new PayrollDetailEntity();
+        detail.setId(id);
+        detail.setPayroll(payroll);
+        detail.setEmployee(employee);
+        detail.setTotalIncome(new BigDecimal(income));
+        detail.setTotalDeductions(new BigDecimal(deductions));
+        detail.setNetToPay(new BigDecimal(income).subtract(new BigDecimal(deductions)));
+        details.add(detail);
+    }
+
+    private List<PayrollDetailEntity> activeDetails() {
+        return details.stream().filter(detail -> detail.getDeletedAt() == null).toList();
+    }
+
+    private BigDecimal sum(Function<PayrollDetailEntity, BigDecimal> amount) {
+        return activeDetails().stream().map(amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static String documentNumber(PayrollDetailEntity detail) {
+        return detail.getEmployee().getPersonDocumentNumber();
+    }
+
+    private static ChunkContext chunkContext(String mode) {
+        JobParameters parameters = new JobParametersBuilder().addString("mode", mode).toJobParameters();
+        JobExecution jobExecution = new JobExecution(new JobInstance(1L, "payrollProcessingJob"), 1L, parameters);
+        jobExecution.getExecutionContext().put("payrollId", PAYROLL_ID);
+        jobExecution.getExecutionContext().putString("periodStart", PERIOD_START.toString());
+        jobExecution.getExecutionContext().putString("periodEnd", PERIOD_END.toString());
+        jobExecution.getExecutionContext().put("subsidiaryId", SUBSIDIARY_ID);
+        StepExecution stepExecution = new StepExecution("updatePayrollTotalsStep", jobExecution);
+        return new ChunkContext(new StepContext(stepExecution));
+    }
+}
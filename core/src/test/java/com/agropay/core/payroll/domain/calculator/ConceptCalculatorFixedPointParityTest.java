@@ -0,0 +1,246 @@
+package com.agropay.core.payroll.domain.calculator;
+
+import com.agropay.core.payroll.domain.calculator.impl.*;
+import com.agropay.core.payroll.domain.enums.ConceptCategoryCode;
+import com.agropay.core.payroll.domain.enums.ConceptCode;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que el fast path en céntimos de los calculadores produzca exactamente el mismo
+ * BigDecimal (valor y escala) que el cálculo original, sobre contextos de empleados aleatorios.
+ */
+class ConceptCalculatorFixedPointParityTest {
+
+    private static final long SEED = 20251018L;
+    private static final int ITERATIONS = 5_000;
+
+    private final List<ConceptCalculator> calculators = List.of(
+        new BasicSalaryCalculator(),
+        new OvertimeCalculator(),
+        new DominicalCalculator(null), // el contexto trae el calendario del período, no consulta el repositorio
+        new AttendanceBonusCalculator(),
+        new ProductivityBonusCalculator(),
+        new PieceworkExcessCalculator(),
+        new FamilyAllowanceCalculator(),
+        new AFPIntegraCalculator(),
+        new AFPPrimaCalculator(),
+        new AFPProfuturoCalculator(),
+        new AFPHabitatCalculator(),
+        new ONPCalculator(),
+        new ESSALUDCalculator(),
+        new SeguroVidaLeyCalculator()
+    );
+
+    @Test
+    void fixedPointMatchesBigDecimalForEveryCalculator() {
+        Random random = new Random(SEED);
+        Map<ConceptCode, Integer> fastPathHits = new EnumMap<>(ConceptCode.class);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<ConceptCode, BigDecimal> configuredConcepts = randomConfiguredConcepts(random);
+            EmployeePayrollContext context = randomContext(random, configuredConcepts);
+
+            for (ConceptCalculator calculator : calculators) {
+                long centimos = calculator.calculateCentimos(context);
+                if (centimos == FixedPointMath.NOT_SUPPORTED) {
+                    continue;
+                }
+                BigDecimal expected = calculator.calculate(context);
+                assertEquals(expected, FixedPointMath.fromCentimos(centimos),
+                    () -> calculator.getConceptCode() + " difiere para " + context);
+                fastPathHits.merge(calculator.getConceptCode(), 1, Integer::sum);
+            }
+        }
+
+        // Todos los calculadores con fast path deben haberlo usado en la mayoría de los casos
+        for (ConceptCalculator calculator : calculators) {
+            if (calculator.getConceptCode() == ConceptCode.ATTENDANCE_BONUS) {
+                continue;
+            }
+            int hits = fastPathHits.getOrDefault(calculator.getConceptCode(), 0);
+            assertTrue(hits > ITERATIONS / 4, calculator.getConceptCode() + " usó el fast path solo " + hits + " veces");
+        }
+    }
+
+    @Test
+    void compiledPlanProducesSameResultWithAndWithoutFixedPoint() {
+        Random random = new Random(SEED + 1);
+        ConceptCalculatorFactory factory = new ConceptCalculatorFactory(calculators);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            Map<ConceptCode, BigDecimal> configuredConcepts = randomConfiguredConcepts(random);
+            CompiledConceptPlan plan = CompiledConceptPlan.compile(toPayrollConfigurations(configuredConcepts), factory);
+            String retirementConceptCode = pick(random, "AFP_INTEGRA", "AFP_PRIMA", "AFP_PROFUTURO", "AFP_HABITAT", "ONP", null);
+
+            long contextSeed = random.nextLong();
+            EmployeePayrollContext bigDecimalContext = randomContext(new Random(contextSeed), plan.configuredConcepts());
+            EmployeePayrollContext fixedPointContext = randomContext(new Random(contextSeed), plan.configuredConcepts());
+
+            CompiledConceptPlan.Result expected = plan.evaluate(bigDecimalContext, retirementConceptCode, false);
+            CompiledConceptPlan.Result actual = plan.evaluate(fixedPointContext, retirementConceptCode, true);
+
+            assertEquals(expected, actual);
+            assertEquals(bigDecimalContext.getTotalIncome(), fixedPointContext.getTotalIncome());
+            assertEquals(bigDecimalContext.getTotalDeductions(), fixedPointContext.getTotalDeductions());
+        }
+    }
+
+    @Test
+    void divideHalfUpMatchesBigDecimalRounding() {
+        Random random = new Random(SEED + 2);
+
+        for (int i = 0; i < ITERATIONS * 10; i++) {
+            long divisor = (random.nextLong() >> (20 + random.nextInt(43))) | 1L;
+            long dividend = random.nextLong() >> (1 + random.nextInt(40));
+            if (i % 2 == 0) {
+                // Casos exactamente en la mitad (x.5), donde HALF_UP decide el redondeo
+                divisor = divisor == -1 || divisor == 1 ? 2 : divisor * 2;
+                dividend = (long) random.nextInt(1_000_000) * divisor + (random.nextBoolean() ? divisor / 2 : -divisor / 2);
+            }
+
+            BigDecimal expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+            assertEquals(expected.longValueExact(), FixedPointMath.divideHalfUp(dividend, divisor),
+                dividend + " / " + divisor);
+        }
+    }
+
+    private EmployeePayrollContext randomContext(Random random, Map<ConceptCode, BigDecimal> configuredConcepts) {
+        LocalDate periodStart = LocalDate.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(10));
+        LocalDate periodEnd = periodStart.plusDays(pick(random, 6, 13, 29, 30));
+
+        Set<LocalDate> workedDays = new HashSet<>();
+        Map<LocalDate, WorkCalendarDayInfo> calendarInfo = new HashMap<>();
+        Map<LocalDate, Boolean> periodCalendar = new HashMap<>();
+        Map<LocalDate, BigDecimal> productivityPerDay = new HashMap<>();
+        Map<LocalDate, PieceworkDayInfo> pieceworkInfoPerDay = new HashMap<>();
+        boolean piecework = random.nextInt(3) > 0;
+        double attendance = random.nextDouble();
+
+        for (LocalDate date = periodStart; !date.isAfter(periodEnd); date = date.plusDays(1)) {
+            boolean sunday = date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean holiday = random.nextInt(20) == 0;
+            periodCalendar.put(date, !sunday && random.nextInt(15) > 0);
+
+            if (random.nextDouble() >= attendance * 0.3 && (!sunday || random.nextInt(4) == 0)) {
+                workedDays.add(date);
+                if (random.nextInt(10) > 0) {
+                    calendarInfo.put(date, WorkCalendarDayInfo.builder()
+                        .isWorkingDay(!sunday)
+                        .isHoliday(holiday)
+                        .isSunday(sunday)
+                        .dayOfWeek(date.getDayOfWeek())
+                        .build());
+                }
+                if (piecework) {
+                    productivityPerDay.put(date, random.nextInt(10) == 0 ? null : randomDecimal(random, 40_00, 180_00, 2));
+                    BigDecimal minTask = randomDecimal(random, 10, 40, pick(random, 0, 0, 1, 2));
+                    BigDecimal basePrice = random.nextInt(15) == 0 ? null : randomDecimal(random, 10, 3_00, pick(random, 2, 2, 3));
+                    Integer count = random.nextInt(15) == 0 ? null : random.nextInt(60);
+                    pieceworkInfoPerDay.put(date, new PieceworkDayInfo(date, minTask, basePrice, count));
+                }
+            }
+        }
+
+        return EmployeePayrollContext.builder()
+            .employeeDocumentNumber(String.format("%08d", random.nextInt(100_000_000)))
+            .basicSalary(randomSalary(random))
+            .periodStart(periodStart)
+            .periodEnd(periodEnd)
+            .totalWorkingDays(random.nextInt(10) == 0 ? 0 : periodCalendar.size() - 4)
+            .daysWorked(workedDays.size())
+            .workedDays(workedDays)
+            .calendarInfo(calendarInfo)
+            .periodWorkingDayCalendar(periodCalendar)
+            .dailyNormalHours(pick(random, new BigDecimal("8.00"), new BigDecimal("8"), new BigDecimal("7.50"), new BigDecimal("9.6")))
+            .monthCalculationDays(30)
+            .configuredConcepts(configuredConcepts)
+            .numberOfDependents(random.nextInt(4))
+            .productivityPerDay(productivityPerDay)
+            .pieceworkInfoPerDay(pieceworkInfoPerDay)
+            .normalHours(randomDecimal(random, 0, 240_00, 2))
+            .overtimeHours25(random.nextInt(3) == 0 ? BigDecimal.ZERO.setScale(2) : randomDecimal(random, 0, 40_00, 2))
+            .overtimeHours100(random.nextInt(3) == 0 ? null : randomDecimal(random, 0, 30_00, 2))
+            .totalIncome(random.nextInt(10) == 0 ? BigDecimal.ZERO : randomDecimal(random, 1, 20_000_00, 2))
+            .build();
+    }
+
+    private BigDecimal randomSalary(Random random) {
+        return switch (random.nextInt(12)) {
+            case 0 -> null;
+            case 1 -> BigDecimal.ZERO;
+            case 2 -> BigDecimal.valueOf(1_025 + random.nextInt(5_000)); // sin decimales
+            case 3 -> randomDecimal(random, 1_025_000, 9_000_000, 3); // decimales extra: dentro del fast path
+            case 4 -> randomDecimal(random, 102_500_000, 900_000_000, 5); // más de 4 decimales: cae a BigDecimal
+            default -> randomDecimal(random, 1_025_00, 15_000_00, 2);
+        };
+    }
+
+    private Map<ConceptCode, BigDecimal> randomConfiguredConcepts(Random random) {
+        Map<ConceptCode, BigDecimal> configured = new EnumMap<>(ConceptCode.class);
+        for (ConceptCode code : ConceptCode.values()) {
+            if (random.nextInt(8) == 0) {
+                continue;
+            }
+            BigDecimal value = switch (code) {
+                case AFP_INTEGRA, AFP_PRIMA, AFP_PROFUTURO, AFP_HABITAT -> randomDecimal(random, 10_00, 13_50, 2);
+                case ONP -> new BigDecimal("13.00");
+                case ESSALUD -> pick(random, new BigDecimal("9.00"), new BigDecimal("9"), new BigDecimal("6.75"));
+                case SEGURO_VIDA_LEY -> randomDecimal(random, 100, 1_999, 3);
+                case ATTENDANCE_BONUS, FAMILY_ALLOWANCE -> randomDecimal(random, 50_00, 150_00, pick(random, 2, 2, 3));
+                case PRODUCTIVITY_BONUS -> randomDecimal(random, 1_00, 10_00, 2);
+                default -> null;
+            };
+            if (value != null) {
+                configured.put(code, value);
+            }
+        }
+        return configured;
+    }
+
+    /**
+     * Configuraciones como las guarda CalculateWorkingDaysTasklet, en orden de prioridad
+     */
+    private List<Map<String, Serializable>> toPayrollConfigurations(Map<ConceptCode, BigDecimal> configuredConcepts) {
+        List<ConceptCode> byPriority = new ArrayList<>(List.of(ConceptCode.values()));
+        byPriority.sort(Comparator.comparing(code -> categoryOf(code) != ConceptCategoryCode.INCOME));
+
+        List<Map<String, Serializable>> configurations = new ArrayList<>();
+        short priority = 1;
+        for (ConceptCode code : byPriority) {
+            Map<String, Serializable> config = new HashMap<>();
+            config.put("code", code.name());
+            config.put("value", configuredConcepts.get(code));
+            config.put("category", categoryOf(code).getCode());
+            config.put("priority", priority++);
+            configurations.add(config);
+        }
+        return configurations;
+    }
+
+    private ConceptCategoryCode categoryOf(ConceptCode code) {
+        return switch (code) {
+            case AFP_INTEGRA, AFP_PRIMA, AFP_PROFUTURO, AFP_HABITAT, ONP -> ConceptCategoryCode.RETIREMENT;
+            case ESSALUD, SEGURO_VIDA_LEY -> ConceptCategoryCode.EMPLOYER_CONTRIBUTION;
+            default -> ConceptCategoryCode.INCOME;
+        };
+    }
+
+    private static BigDecimal randomDecimal(Random random, long minUnscaled, long maxUnscaled, int scale) {
+        return BigDecimal.valueOf(minUnscaled + (long) (random.nextDouble() * (maxUnscaled - minUnscaled)), scale);
+    }
+
+    @SafeVarargs
+    private static <T> T pick(Random random, T... values) {
+        return values[random.nextInt(values.length)];
+    }
+}
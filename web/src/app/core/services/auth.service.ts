@@ -55,7 +55,7 @@ export class AuthService {
   logout(): Observable<ApiResult<void>> {
     return this.http.post<ApiResult<void>>(
       `${environment.apiUrl}/v1/auth/logout`,
-      {}
+      { refreshToken: this.getRefreshToken() }
     ).pipe(
       tap(() => {
         this.clearAuth();